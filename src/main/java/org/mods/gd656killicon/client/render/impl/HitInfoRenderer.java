@@ -283,7 +283,7 @@ public class HitInfoRenderer implements IHudRenderer {
 
     @Override
     public void trigger(TriggerContext context) {
-        // 触发由 HitInfoPacket 直接驱动(addDamage / markKill)
+        // 触发由 HitBatchPacket 直接驱动(addDamage / markKill)
     }
 
     private int previewStep = 0;
@@ -21,6 +21,8 @@ public final class HonorRegistry {
     private static final Map<String, HonorDefinition> DEFINITIONS = new LinkedHashMap<>();
     private static final Map<String, String> FORMAT_KEY_TO_ID = new HashMap<>();
     private static final Set<String> FORMAT_KEYS = new HashSet<>();
+    /** 注册表版本号: 每次注册成功递增, 编译缓存据此失效。 */
+    private static volatile int version;
 
     private HonorRegistry() {
     }
@@ -42,6 +44,7 @@ public final class HonorRegistry {
                 "kill_icon/honor", formatKey, "");
         FORMAT_KEY_TO_ID.put(formatKey, def.id());
         FORMAT_KEYS.add(formatKey);
+        version++;
     }
 
     // ==================== 查询 ====================
@@ -66,6 +69,11 @@ public final class HonorRegistry {
         return DEFINITIONS.size();
     }
 
+    /** 注册表版本号(内容变更即变化, 不随数量判断)。 */
+    public static int version() {
+        return version;
+    }
+
     // ==================== format 键(字幕配置) ====================
 
     /** 该键名是否为荣誉字幕配置键(format_<honor_id>)。 */
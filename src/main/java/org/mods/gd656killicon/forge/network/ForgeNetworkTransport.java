@@ -9,7 +9,7 @@ import net.minecraftforge.network.simple.SimpleChannel;
 import org.mods.gd656killicon.Gd656killicon;
 
 public final class ForgeNetworkTransport {
-    private static final String PROTOCOL_VERSION = "4";
+    private static final String PROTOCOL_VERSION = "8";
     private static SimpleChannel INSTANCE;
     private static int packetId = 0;
 
@@ -34,16 +34,6 @@ public final class ForgeNetworkTransport {
                 .encoder(org.mods.gd656killicon.network.packet.KillIconPacket::encode)
                 .consumerMainThread((msg, ctx) -> msg.handle(new ForgePacketContext(ctx.get())))
                 .add();
-        net.messageBuilder(org.mods.gd656killicon.network.packet.DamageSoundPacket.class, id(), NetworkDirection.PLAY_TO_CLIENT)
-                .decoder(org.mods.gd656killicon.network.packet.DamageSoundPacket::new)
-                .encoder(org.mods.gd656killicon.network.packet.DamageSoundPacket::encode)
-                .consumerMainThread((msg, ctx) -> msg.handle(new ForgePacketContext(ctx.get())))
-                .add();
-        net.messageBuilder(org.mods.gd656killicon.network.packet.HitInfoPacket.class, id(), NetworkDirection.PLAY_TO_CLIENT)
-                .decoder(org.mods.gd656killicon.network.packet.HitInfoPacket::new)
-                .encoder(org.mods.gd656killicon.network.packet.HitInfoPacket::encode)
-                .consumerMainThread((msg, ctx) -> msg.handle(new ForgePacketContext(ctx.get())))
-                .add();
         net.messageBuilder(org.mods.gd656killicon.network.packet.BonusScorePacket.class, id(), NetworkDirection.PLAY_TO_CLIENT)
                 .decoder(org.mods.gd656killicon.network.packet.BonusScorePacket::new)
                 .encoder(org.mods.gd656killicon.network.packet.BonusScorePacket::encode)
@@ -74,6 +64,21 @@ public final class ForgeNetworkTransport {
                 .encoder(org.mods.gd656killicon.network.packet.HonorPacket::encode)
                 .consumerMainThread((msg, ctx) -> msg.handle(new ForgePacketContext(ctx.get())))
                 .add();
+        net.messageBuilder(org.mods.gd656killicon.network.packet.KillEventPacket.class, id(), NetworkDirection.PLAY_TO_CLIENT)
+                .decoder(org.mods.gd656killicon.network.packet.KillEventPacket::new)
+                .encoder(org.mods.gd656killicon.network.packet.KillEventPacket::encode)
+                .consumerMainThread((msg, ctx) -> msg.handle(new ForgePacketContext(ctx.get())))
+                .add();
+        net.messageBuilder(org.mods.gd656killicon.network.packet.HitBatchPacket.class, id(), NetworkDirection.PLAY_TO_CLIENT)
+                .decoder(org.mods.gd656killicon.network.packet.HitBatchPacket::new)
+                .encoder(org.mods.gd656killicon.network.packet.HitBatchPacket::encode)
+                .consumerMainThread((msg, ctx) -> msg.handle(new ForgePacketContext(ctx.get())))
+                .add();
+        net.messageBuilder(org.mods.gd656killicon.network.packet.BonusBatchPacket.class, id(), NetworkDirection.PLAY_TO_CLIENT)
+                .decoder(org.mods.gd656killicon.network.packet.BonusBatchPacket::new)
+                .encoder(org.mods.gd656killicon.network.packet.BonusBatchPacket::encode)
+                .consumerMainThread((msg, ctx) -> msg.handle(new ForgePacketContext(ctx.get())))
+                .add();
     }
 
     public static <MSG> void sendToServer(MSG message) {
@@ -0,0 +1,145 @@
+package org.mods.gd656killicon.network.packet;
+
+import net.minecraft.network.FriendlyByteBuf;
+import org.mods.gd656killicon.common.KillType;
+import org.mods.gd656killicon.network.IPacket;
+import org.mods.gd656killicon.network.PacketContext;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 批量加分包(服务端 → 客户端)。
+ * <p>
+ * 一次加分结算(BonusEngine 每 2 tick 的合并发送)的全部条目按顺序放在一个包内:
+ * 加分条目(type/分数/附加数据/受害者)与救援 kill_feed 条目。附加数据与受害者名称写入去重字符串表,
+ * 条目只引用下标。客户端按原顺序逐条重放, 表现与逐条 {@link BonusScorePacket} / {@link KillIconPacket} 一致。
+ * </p>
+ */
+public class BonusBatchPacket implements IPacket {
+    private static final int KIND_BONUS = 0;
+    private static final int KIND_RESCUE_FEED = 1;
+
+    private final List<Object> entries;
+
+    private BonusBatchPacket(List<Object> entries) {
+        this.entries = entries;
+    }
+
+    public BonusBatchPacket(FriendlyByteBuf buffer) {
+        int stringCount = buffer.readVarInt();
+        String[] strings = new String[stringCount];
+        for (int i = 0; i < stringCount; i++) {
+            strings[i] = buffer.readUtf(32767);
+        }
+        int size = buffer.readVarInt();
+        this.entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int kind = buffer.readByte();
+            if (kind == KIND_BONUS) {
+                int type = buffer.readVarInt();
+                float score = buffer.readFloat();
+                String extra = strings[buffer.readVarInt()];
+                int victimId = buffer.readVarInt() - 1;
+                int nameIndex = buffer.readVarInt();
+                this.entries.add(new BonusScorePacket(type, score, extra, victimId, nameIndex == 0 ? null : strings[nameIndex - 1]));
+            } else {
+                int victimId = buffer.readVarInt() - 1;
+                String victimName = strings[buffer.readVarInt()];
+                float multiplier = buffer.readFloat();
+                float scale = buffer.readFloat();
+                this.entries.add(rescueFeed(victimId, victimName, multiplier, scale));
+            }
+        }
+    }
+
+    @Override
+    public void encode(FriendlyByteBuf buffer) {
+        Map<String, Integer> index = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        for (Object entry : this.entries) {
+            if (entry instanceof BonusScorePacket bonus) {
+                intern(index, strings, bonus.getExtraData());
+                if (bonus.getVictimName() != null) {
+                    intern(index, strings, bonus.getVictimName());
+                }
+            } else if (entry instanceof KillIconPacket feed) {
+                intern(index, strings, feed.getCustomVictimName());
+            }
+        }
+        buffer.writeVarInt(strings.size());
+        for (String value : strings) {
+            buffer.writeUtf(value, 32767);
+        }
+        buffer.writeVarInt(this.entries.size());
+        for (Object entry : this.entries) {
+            if (entry instanceof BonusScorePacket bonus) {
+                buffer.writeByte(KIND_BONUS);
+                buffer.writeVarInt(bonus.getBonusType());
+                buffer.writeFloat(bonus.getScore());
+                buffer.writeVarInt(index.get(bonus.getExtraData()));
+                // 受害者 id 可能为 -1, 偏移 1 保证 VarInt 非负; 名称下标 0 表示 null
+                buffer.writeVarInt(bonus.getVictimId() + 1);
+                buffer.writeVarInt(bonus.getVictimName() == null ? 0 : index.get(bonus.getVictimName()) + 1);
+            } else {
+                KillIconPacket feed = (KillIconPacket) entry;
+                buffer.writeByte(KIND_RESCUE_FEED);
+                buffer.writeVarInt(feed.getVictimId() + 1);
+                buffer.writeVarInt(index.get(feed.getCustomVictimName()));
+                buffer.writeFloat(feed.getBonusMultiplier());
+                buffer.writeFloat(feed.getBonusScale());
+            }
+        }
+    }
+
+    private static void intern(Map<String, Integer> index, List<String> strings, String value) {
+        if (index.putIfAbsent(value, strings.size()) == null) {
+            strings.add(value);
+        }
+    }
+
+    @Override
+    public void handle(PacketContext context) {
+        context.enqueueWork(() -> {
+            for (Object entry : this.entries) {
+                if (entry instanceof BonusScorePacket bonus) {
+                    bonus.apply();
+                } else {
+                    KillIconPacket.receive((KillIconPacket) entry);
+                }
+            }
+        });
+        context.setPacketHandled(true);
+    }
+
+    public boolean isEmpty() {
+        return this.entries.isEmpty();
+    }
+
+    /** 救援 kill_feed(与逐条发送时 BonusEngine 的 REVIVE 挂钩参数一致)。 */
+    private static KillIconPacket rescueFeed(int victimId, String victimName, float multiplier, float scale) {
+        return new KillIconPacket("subtitle", "kill_feed", KillType.RESCUE, 0, victimId, 0, false,
+            victimName != null ? victimName : "", true, false, 0.0f, multiplier, scale);
+    }
+
+    /** 按结算顺序收集条目。 */
+    public static final class Builder {
+        private final List<Object> entries = new ArrayList<>();
+
+        public Builder bonus(int bonusType, float score, String extraData, int victimId, String victimName) {
+            entries.add(new BonusScorePacket(bonusType, score, extraData, victimId, victimName));
+            return this;
+        }
+
+        public Builder rescueFeed(int victimId, String victimName, float multiplier, float scale) {
+            entries.add(BonusBatchPacket.rescueFeed(victimId, victimName, multiplier, scale));
+            return this;
+        }
+
+        public BonusBatchPacket build() {
+            return new BonusBatchPacket(entries);
+        }
+    }
+}
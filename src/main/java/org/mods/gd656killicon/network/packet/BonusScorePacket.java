@@ -81,35 +81,46 @@ public class BonusScorePacket implements IPacket {
         return extraData;
     }
 
+    public int getVictimId() {
+        return victimId;
+    }
+
+    public String getVictimName() {
+        return victimName;
+    }
+
     @Override
     public void handle(PacketContext context) {
-        context.enqueueWork(() -> {
-            if (org.mods.gd656killicon.client.config.ClientConfigManager.isShowBonusMessage()) {
-                sendBonusChatMessage();
-            }
+        context.enqueueWork(this::apply);
+        context.setPacketHandled(true);
+    }
 
-            ScoreSubtitleRenderer.getInstance().addScore(this.score);
-            triggerRushBombKillFeed();
-            
-            StringBuilder dataBuilder = new StringBuilder();
-            dataBuilder.append(this.score);
-            if ((this.extraData != null && !this.extraData.isEmpty()) || (this.victimName != null && !this.victimName.isEmpty())) {
-                dataBuilder.append("|").append(this.extraData != null ? this.extraData : "");
-                if (this.victimName != null && !this.victimName.isEmpty()) {
-                    dataBuilder.append("|").append(this.victimName);
-                }
+    /** 客户端主线程处理单条加分(单包与 {@link BonusBatchPacket} 重放共用)。 */
+    void apply() {
+        if (org.mods.gd656killicon.client.config.ClientConfigManager.isShowBonusMessage()) {
+            sendBonusChatMessage();
+        }
+
+        ScoreSubtitleRenderer.getInstance().addScore(this.score);
+        triggerRushBombKillFeed();
+        
+        StringBuilder dataBuilder = new StringBuilder();
+        dataBuilder.append(this.score);
+        if ((this.extraData != null && !this.extraData.isEmpty()) || (this.victimName != null && !this.victimName.isEmpty())) {
+            dataBuilder.append("|").append(this.extraData != null ? this.extraData : "");
+            if (this.victimName != null && !this.victimName.isEmpty()) {
+                dataBuilder.append("|").append(this.victimName);
             }
-            String data = dataBuilder.toString();
+        }
+        String data = dataBuilder.toString();
 
-            HudElementManager.trigger("subtitle", "bonus_list", 
-                org.mods.gd656killicon.client.render.IHudRenderer.TriggerContext.of(this.bonusType, this.victimId, 0, data)
-            );
+        HudElementManager.trigger("subtitle", "bonus_list", 
+            org.mods.gd656killicon.client.render.IHudRenderer.TriggerContext.of(this.bonusType, this.victimId, 0, data)
+        );
 
-            triggerScrollingBonusIcons();
-            
-            recordStatistics();
-        });
-        context.setPacketHandled(true);
+        triggerScrollingBonusIcons();
+        
+        recordStatistics();
     }
 
     private void triggerRushBombKillFeed() {
@@ -0,0 +1,81 @@
+package org.mods.gd656killicon.network.packet;
+
+import net.minecraft.network.FriendlyByteBuf;
+import org.mods.gd656killicon.client.render.impl.HitInfoRenderer;
+import org.mods.gd656killicon.client.sounds.SoundTriggerManager;
+import org.mods.gd656killicon.network.IPacket;
+import org.mods.gd656killicon.network.PacketContext;
+
+/**
+ * 单 tick 合并命中包(PLAY_TO_CLIENT)。
+ * <p>
+ * 服务端把玩家一个 tick 内的全部命中按受害实体合并(伤害量求和、击杀/爆头标记取或), tick 末发送一次,
+ * 取代逐次伤害的命中信息包与命中音效包。
+ * 客户端按实体依次累积伤害/标记击杀(HitInfoRenderer 本就按实体累积), 命中音效每包至多播放一次(爆头优先)。
+ * </p>
+ */
+public class HitBatchPacket implements IPacket {
+    /** 该实体本 tick 被击杀。 */
+    public static final int KILLED = 1;
+    /** 该实体本 tick 受到未致死的命中(播放命中音效)。 */
+    public static final int HIT_SOUND = 1 << 1;
+    /** 未致死的命中中有爆头(播放爆头命中音效)。 */
+    public static final int HEADSHOT = 1 << 2;
+
+    private final int[] entityIds;
+    private final float[] amounts;
+    private final byte[] flags;
+
+    public HitBatchPacket(int[] entityIds, float[] amounts, byte[] flags) {
+        this.entityIds = entityIds;
+        this.amounts = amounts;
+        this.flags = flags;
+    }
+
+    public HitBatchPacket(FriendlyByteBuf buffer) {
+        int size = buffer.readVarInt();
+        this.entityIds = new int[size];
+        this.amounts = new float[size];
+        this.flags = new byte[size];
+        for (int i = 0; i < size; i++) {
+            this.entityIds[i] = buffer.readVarInt();
+            this.flags[i] = buffer.readByte();
+            this.amounts[i] = buffer.readFloat();
+        }
+    }
+
+    @Override
+    public void encode(FriendlyByteBuf buffer) {
+        buffer.writeVarInt(this.entityIds.length);
+        for (int i = 0; i < this.entityIds.length; i++) {
+            buffer.writeVarInt(this.entityIds[i]);
+            buffer.writeByte(this.flags[i]);
+            buffer.writeFloat(this.amounts[i]);
+        }
+    }
+
+    @Override
+    public void handle(PacketContext context) {
+        context.enqueueWork(() -> {
+            boolean hitSound = false;
+            boolean headshotSound = false;
+            for (int i = 0; i < this.entityIds.length; i++) {
+                int entryFlags = this.flags[i];
+                if (this.amounts[i] > 0.0f) {
+                    HitInfoRenderer.getInstance().addDamage(this.entityIds[i], this.amounts[i]);
+                }
+                if ((entryFlags & KILLED) != 0) {
+                    HitInfoRenderer.getInstance().markKill(this.entityIds[i]);
+                }
+                hitSound |= (entryFlags & HIT_SOUND) != 0;
+                headshotSound |= (entryFlags & HEADSHOT) != 0;
+            }
+            if (headshotSound) {
+                SoundTriggerManager.playHeadshotDamageSound();
+            } else if (hitSound) {
+                SoundTriggerManager.playHitSound();
+            }
+        });
+        context.setPacketHandled(true);
+    }
+}
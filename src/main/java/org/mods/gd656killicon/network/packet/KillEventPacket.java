@@ -0,0 +1,136 @@
+package org.mods.gd656killicon.network.packet;
+
+import net.minecraft.network.FriendlyByteBuf;
+import org.mods.gd656killicon.network.IPacket;
+import org.mods.gd656killicon.network.PacketContext;
+
+/**
+ * 复合击杀事件包(服务端 → 客户端)。
+ * <p>
+ * 一次击杀的全部 HUD 元素合并为一个包: 共享字段(击杀类型/连杀/受害者/名称/距离等)只编码一次,
+ * 由元素位掩码指明要触发的元素, 整数用 VarInt、连杀窗口用毫秒 VarInt 编码。
+ * 客户端按掩码在本地展开为各元素的 {@link KillIconPacket} 触发, 表现与逐元素下发一致
+ * (含载具摧毁优先延迟、音效与击杀统计)。
+ * </p>
+ */
+public class KillEventPacket implements IPacket {
+    /** 元素位, 顺序即客户端触发顺序。 */
+    public static final int SCROLLING = 1;
+    public static final int VALORANT = 1 << 1;
+    public static final int COMBO = 1 << 2;
+    public static final int CARD = 1 << 3;
+    public static final int CARD_BAR = 1 << 4;
+    public static final int BATTLEFIELD1 = 1 << 5;
+    public static final int KILL_FEED = 1 << 6;
+    public static final int SUBTITLE_COMBO = 1 << 7;
+
+    private static final String[][] ELEMENTS = {
+        {"kill_icon", "scrolling"},
+        {"kill_icon", "valorant"},
+        {"kill_icon", "combo"},
+        {"kill_icon", "card"},
+        {"kill_icon", "card_bar"},
+        {"kill_icon", "battlefield1"},
+        {"subtitle", "kill_feed"},
+        {"subtitle", "combo"}
+    };
+
+    private static final int FLAG_HELMET = 1;
+    private static final int FLAG_VICTIM_PLAYER = 1 << 1;
+    private static final int FLAG_RECORD_STATS = 1 << 2;
+
+    private final int elements;
+    private final int killType;
+    private final int comboCount;
+    private final int victimId;
+    private final double comboWindowSeconds;
+    private final boolean hasHelmet;
+    private final String victimName;
+    private final boolean isVictimPlayer;
+    private final boolean shouldRecordStats;
+    private final float distance;
+    private final float bonusMultiplier;
+    private final float bonusScale;
+
+    /**
+     * @param elements          元素位掩码
+     * @param shouldRecordStats 是否记客户端击杀统计(仅随 scrolling 元素生效)
+     * @param bonusMultiplier   加分项表达式解析值(仅 kill_feed 使用)
+     * @param bonusScale        附加数据(仅 kill_feed 使用)
+     */
+    public KillEventPacket(int elements, int killType, int comboCount, int victimId, double comboWindowSeconds, boolean hasHelmet,
+                           String victimName, boolean isVictimPlayer, boolean shouldRecordStats, float distance,
+                           float bonusMultiplier, float bonusScale) {
+        this.elements = elements & 0xFF;
+        this.killType = killType;
+        this.comboCount = comboCount;
+        this.victimId = victimId;
+        this.comboWindowSeconds = comboWindowSeconds;
+        this.hasHelmet = hasHelmet;
+        this.victimName = victimName == null ? "" : victimName;
+        this.isVictimPlayer = isVictimPlayer;
+        this.shouldRecordStats = shouldRecordStats;
+        this.distance = distance;
+        this.bonusMultiplier = bonusMultiplier;
+        this.bonusScale = bonusScale;
+    }
+
+    public KillEventPacket(FriendlyByteBuf buffer) {
+        this.elements = buffer.readUnsignedByte();
+        int flags = buffer.readUnsignedByte();
+        this.hasHelmet = (flags & FLAG_HELMET) != 0;
+        this.isVictimPlayer = (flags & FLAG_VICTIM_PLAYER) != 0;
+        this.shouldRecordStats = (flags & FLAG_RECORD_STATS) != 0;
+        this.killType = buffer.readVarInt();
+        this.comboCount = buffer.readVarInt();
+        // 实体 id 可能为 -1(无受害实体), 偏移 1 保证 VarInt 非负
+        this.victimId = buffer.readVarInt() - 1;
+        this.comboWindowSeconds = buffer.readVarInt() / 1000.0;
+        this.victimName = buffer.readUtf();
+        this.distance = buffer.readFloat();
+        if ((this.elements & KILL_FEED) != 0) {
+            this.bonusMultiplier = buffer.readFloat();
+            this.bonusScale = buffer.readFloat();
+        } else {
+            this.bonusMultiplier = 0.0f;
+            this.bonusScale = 0.0f;
+        }
+    }
+
+    @Override
+    public void encode(FriendlyByteBuf buffer) {
+        buffer.writeByte(this.elements);
+        buffer.writeByte((this.hasHelmet ? FLAG_HELMET : 0)
+            | (this.isVictimPlayer ? FLAG_VICTIM_PLAYER : 0)
+            | (this.shouldRecordStats ? FLAG_RECORD_STATS : 0));
+        buffer.writeVarInt(this.killType);
+        buffer.writeVarInt(this.comboCount);
+        buffer.writeVarInt(this.victimId + 1);
+        // 窗口 ≤ 0 表示未设置(客户端忽略)
+        buffer.writeVarInt(this.comboWindowSeconds > 0 ? (int) Math.round(this.comboWindowSeconds * 1000.0) : 0);
+        buffer.writeUtf(this.victimName);
+        buffer.writeFloat(this.distance);
+        if ((this.elements & KILL_FEED) != 0) {
+            buffer.writeFloat(this.bonusMultiplier);
+            buffer.writeFloat(this.bonusScale);
+        }
+    }
+
+    @Override
+    public void handle(PacketContext context) {
+        context.enqueueWork(() -> {
+            for (int i = 0; i < ELEMENTS.length; i++) {
+                int element = 1 << i;
+                if ((this.elements & element) == 0) {
+                    continue;
+                }
+                boolean killFeed = element == KILL_FEED;
+                KillIconPacket.receive(new KillIconPacket(ELEMENTS[i][0], ELEMENTS[i][1], this.killType, this.comboCount,
+                    this.victimId, this.comboWindowSeconds, this.hasHelmet, this.victimName, this.isVictimPlayer,
+                    element == SCROLLING && this.shouldRecordStats, this.distance,
+                    killFeed ? this.bonusMultiplier : 0.0f, killFeed ? this.bonusScale : 0.0f));
+            }
+        });
+        context.setPacketHandled(true);
+    }
+}
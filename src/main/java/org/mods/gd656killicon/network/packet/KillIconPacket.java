@@ -80,6 +80,22 @@ public class KillIconPacket implements IPacket {
         this.bonusScale = bonusScale;
     }
 
+    int getVictimId() {
+        return victimId;
+    }
+
+    String getCustomVictimName() {
+        return customVictimName;
+    }
+
+    float getBonusMultiplier() {
+        return bonusMultiplier;
+    }
+
+    float getBonusScale() {
+        return bonusScale;
+    }
+
     public KillIconPacket(FriendlyByteBuf buffer) {
         this.category = buffer.readUtf();
         this.name = buffer.readUtf();
@@ -115,26 +131,29 @@ public class KillIconPacket implements IPacket {
 
     @Override
     public void handle(PacketContext context) {
-        context.enqueueWork(() -> {
-            ComboIconRenderer.updateServerComboWindowSeconds(this.comboWindowSeconds);
-            long now = System.currentTimeMillis();
-            if (this.killType == KillType.DESTROY_VEHICLE) {
-                lastVehicleDestroyTime = now;
-                processTrigger(this, now);
-                return;
-            }
+        context.enqueueWork(() -> receive(this));
+        context.setPacketHandled(true);
+    }
 
-            long delayUntil = lastVehicleDestroyTime > 0 && now - lastVehicleDestroyTime < VEHICLE_PRIORITY_DELAY_MS
-                ? lastVehicleDestroyTime + VEHICLE_PRIORITY_DELAY_MS
-                : -1L;
+    /** 客户端主线程处理单个元素触发(逐元素包与 {@link KillEventPacket} 展开共用)。 */
+    static void receive(KillIconPacket packet) {
+        ComboIconRenderer.updateServerComboWindowSeconds(packet.comboWindowSeconds);
+        long now = System.currentTimeMillis();
+        if (packet.killType == KillType.DESTROY_VEHICLE) {
+            lastVehicleDestroyTime = now;
+            processTrigger(packet, now);
+            return;
+        }
 
-            if (delayUntil > now) {
-                PENDING_TRIGGERS.add(new PendingTrigger(this, delayUntil));
-            } else {
-                processTrigger(this, now);
-            }
-        });
-        context.setPacketHandled(true);
+        long delayUntil = lastVehicleDestroyTime > 0 && now - lastVehicleDestroyTime < VEHICLE_PRIORITY_DELAY_MS
+            ? lastVehicleDestroyTime + VEHICLE_PRIORITY_DELAY_MS
+            : -1L;
+
+        if (delayUntil > now) {
+            PENDING_TRIGGERS.add(new PendingTrigger(packet, delayUntil));
+        } else {
+            processTrigger(packet, now);
+        }
     }
 
     public static void processPendingTriggers() {
@@ -13,6 +13,7 @@ import net.minecraft.commands.arguments.EntityArgument;
 import net.minecraft.server.level.ServerPlayer;
 import org.mods.gd656killicon.common.BonusType;
 import org.mods.gd656killicon.server.data.ServerData;
+import org.mods.gd656killicon.server.logic.core.BonusExpression;
 import org.mods.gd656killicon.server.util.ServerLog;
 
 import java.util.Collection;
@@ -67,7 +68,7 @@ public class ServerCommands {
                                 return b.buildFuture();
                             })
                             .then(Commands.literal("expression")
-                                .then(Commands.argument("expr", StringArgumentType.string())
+                                .then(Commands.argument("expr", StringArgumentType.greedyString())
                                     .executes(ServerCommands::editBonusExpression)))))
                 )
                 .then(Commands.literal("reset").requires(s -> s.hasPermission(2))
@@ -89,6 +90,8 @@ public class ServerCommands {
                             .executes(c -> setAssistboardDisplayName(c, StringArgumentType.getString(c, "name")))))
                         .then(Commands.literal("NeutralVehicleSkip").then(Commands.argument("val", BoolArgumentType.bool())
                             .executes(c -> setNeutralVehicleSkip(c, BoolArgumentType.getBool(c, "val")))))
+                        .then(Commands.literal("ScoreboardFlushTicks").then(Commands.argument("ticks", IntegerArgumentType.integer(1, 200))
+                            .executes(c -> setScoreboardFlushTicks(c, IntegerArgumentType.getInteger(c, "ticks")))))
                     )
                 .then(Commands.literal("statistics")
                     .then(Commands.literal("get").then(Commands.literal("score")
@@ -443,6 +446,12 @@ public class ServerCommands {
         return Command.SINGLE_SUCCESS;
     }
 
+    private static int setScoreboardFlushTicks(CommandContext<CommandSourceStack> c, int ticks) {
+        ServerData.get().setScoreboardFlushIntervalTicks(ticks);
+        ServerLog.sendSuccess(c.getSource(), "gd656killicon.server.command.scoreboard_flush_ticks_set", ticks);
+        return Command.SINGLE_SUCCESS;
+    }
+
     private static int resetConfig(CommandContext<CommandSourceStack> c) {
         ServerData.get().resetConfig();
         ServerLog.sendSuccess(c.getSource(), "gd656killicon.server.command.reset_success");
@@ -457,7 +466,11 @@ public class ServerCommands {
 
     private static int editBonusExpression(CommandContext<CommandSourceStack> c) {
         String name = StringArgumentType.getString(c, "type");
-        String expr = StringArgumentType.getString(c, "expr");
+        String expr = StringArgumentType.getString(c, "expr").trim();
+        // 兼容旧用法: 整体带引号的表达式去掉引号
+        if (expr.length() >= 2 && expr.startsWith("\"") && expr.endsWith("\"")) {
+            expr = expr.substring(1, expr.length() - 1).trim();
+        }
         
         int type = BonusType.getTypeByName(name);
         if (type == -1) {
@@ -465,8 +478,12 @@ public class ServerCommands {
             return 0;
         }
 
+        // 编辑时即编译校验; 生效后由 ServerData 按 type 缓存编译结果
         try {
-            Double.parseDouble(expr);         } catch (NumberFormatException e) {
+            BonusExpression.compile(expr);
+        } catch (BonusExpression.CompileException e) {
+            // 解析器的错误说明不做本地化, 只写入服务端日志
+            ServerLog.info("Rejected bonus expression for %s: '%s' (%s)", name, expr, e.getMessage());
             ServerLog.sendError(c.getSource(), "gd656killicon.server.command.invalid_expression", expr);
             return 0;
         }
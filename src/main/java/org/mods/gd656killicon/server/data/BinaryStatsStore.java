@@ -0,0 +1,662 @@
+package org.mods.gd656killicon.server.data;
+
+import com.google.gson.Gson;
+import org.mods.gd656killicon.server.util.ServerLog;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 默认存储后端(storage_backend = "binary"): 单一二进制数据文件 + 预写日志(journal)。
+ *
+ * <p>变更先进入内存待写表(同一玩家只保留最新记录), 由 {@link #flush()} 批量追加到日志并一次 fsync;
+ * 日志超过阈值或定期由 {@link #compact()} 合并进数据文件: 先封存当前日志并另起新日志, 不持锁写出并 fsync
+ * 新数据文件(临时文件 + 原子替换), 完成后删除封存日志; 合并期间的写入照常进入新日志。
+ * 记录均为玩家完整状态, 重放幂等; 日志尾部的残缺记录(崩溃时写了一半)在打开时截掉。</p>
+ *
+ * <p>打开时顺序扫描数据文件与日志, 只解码摘要字段常驻内存, 并记下每个玩家最新记录的位置;
+ * 完整数据(含 metadata)按位置按需读取。排名/分页由摘要上的 {@link StatLeaderboard} 回答,
+ * honor 全服最高由 {@link HonorHistogram} 回答, 两者随 {@link #indexSummary} 增量维护。</p>
+ */
+final class BinaryStatsStore implements StatsStore {
+    static final String NAME = "binary";
+    private static final String DATA_FILE = "players.dat";
+    private static final String JOURNAL_FILE = "players.journal";
+    /** 合并中被封存的日志(合并完成后删除; 崩溃残留时打开阶段在数据文件之后、日志之前重放)。 */
+    private static final String SEALED_JOURNAL_FILE = "players.journal.sealed";
+    private static final String LEGACY_DIR = "playerdata";
+    private static final String LEGACY_BACKUP_DIR = "playerdata.migrated";
+    private static final int MAGIC = 0x47444B44;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+    /** 记录帧头: 长度(int) + CRC32(int) + 类型(byte)。 */
+    private static final int FRAME_HEADER_BYTES = 9;
+    private static final int MAX_RECORD_BYTES = 1 << 20;
+    private static final byte OP_UPSERT = 1;
+    private static final byte OP_DELETE = 2;
+    /** 日志超过该大小即合并进数据文件; 否则每 COMPACT_INTERVAL_MS 合并一次。 */
+    private static final long COMPACT_THRESHOLD_BYTES = 1L << 20;
+    private static final long COMPACT_INTERVAL_MS = TimeUnit.MINUTES.toMillis(5);
+    private static final Gson GSON = new Gson();
+
+    /** 玩家最新记录所在位置(数据文件/封存日志/日志中的帧起点)。 */
+    private record Location(FileChannel channel, long offset) {}
+
+    private final Path root;
+    private final Path dataFile;
+    private final Path journalFile;
+    private final Path sealedFile;
+    private final Map<UUID, Location> locations = new HashMap<>();
+    /** 全体玩家摘要(与 PlayerDataManager 常驻的摘要是同一对象)。 */
+    private final PlayerIndex summaries = new PlayerIndex();
+    /** 各统计项排名索引。 */
+    private final StatLeaderboard leaderboard = new StatLeaderboard();
+    /** 各 honor 次数分布。 */
+    private final HonorHistogram honorHistogram = new HonorHistogram();
+    /** 尚未写入日志的记录(null 表示删除)。 */
+    private final Map<UUID, byte[]> pending = new LinkedHashMap<>();
+    private FileChannel data;
+    private FileChannel journal;
+    private FileChannel sealed;
+    private long lastCompactAt;
+    private boolean compacting;
+    /** open/close/clear 时递增, 合并据此放弃过期结果。 */
+    private int epoch;
+
+    BinaryStatsStore(Path root) {
+        this.root = root;
+        this.dataFile = root.resolve(DATA_FILE);
+        this.journalFile = root.resolve(JOURNAL_FILE);
+        this.sealedFile = root.resolve(SEALED_JOURNAL_FILE);
+    }
+
+    /** 数据文件或待迁移的旧 JSON 目录是否存在(切换到其他后端时据此判断是否需要导入; 打开时会先迁移旧目录)。 */
+    static boolean exists(Path root) {
+        return Files.exists(root.resolve(DATA_FILE)) || Files.isDirectory(root.resolve(LEGACY_DIR));
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    /** 打开存储(首次运行时从旧 JSON 目录一次性迁移)。 */
+    @Override
+    public synchronized void open() throws IOException {
+        close();
+        Map<UUID, PlayerSummary> scanned = new LinkedHashMap<>();
+        locations.clear();
+        pending.clear();
+        if (!Files.exists(dataFile)) {
+            migrateLegacy();
+        }
+        if (!Files.exists(dataFile)) {
+            writeDataFile(Map.of());
+        }
+        data = FileChannel.open(dataFile, StandardOpenOption.READ);
+        scan(data, false, scanned);
+        if (Files.exists(sealedFile)) {
+            sealed = FileChannel.open(sealedFile, StandardOpenOption.READ);
+            scan(sealed, true, scanned);
+        }
+        journal = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long valid = scan(journal, true, scanned);
+        if (valid < journal.size()) {
+            ServerLog.info("Player data journal has a torn tail, truncating %d bytes", journal.size() - valid);
+            journal.truncate(valid);
+        }
+        journal.position(journal.size());
+        lastCompactAt = System.currentTimeMillis();
+        clearIndexes();
+        for (PlayerSummary summary : scanned.values()) {
+            indexSummary(summary, Map.of());
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        closeQuietly(data);
+        closeQuietly(sealed);
+        closeQuietly(journal);
+        data = null;
+        sealed = null;
+        journal = null;
+        epoch++;
+    }
+
+    @Override
+    public synchronized void write(PlayerData playerData) {
+        pending.put(playerData.getUUID(), encode(playerData));
+    }
+
+    @Override
+    public synchronized void delete(UUID uuid) {
+        if (locations.containsKey(uuid) || pending.containsKey(uuid)) {
+            pending.put(uuid, null);
+        }
+        PlayerSummary removed = summaries.remove(uuid);
+        if (removed != null) {
+            honorHistogram.update(removed.getHonorCounts(), Map.of());
+        }
+        leaderboard.remove(uuid);
+    }
+
+    @Override
+    public PlayerSummary readSummary(UUID uuid) {
+        return summaries.get(uuid);
+    }
+
+    /** 索引均自带同步, 不持存储锁(每次击杀都会查询, 不与 flush/合并争锁)。 */
+    @Override
+    public void indexSummary(PlayerSummary summary, Map<String, Integer> honorsBefore) {
+        summaries.put(summary);
+        if (honorsBefore != null) {
+            honorHistogram.update(honorsBefore, summary.getHonorCounts());
+        }
+        leaderboard.update(summary.getUUID(), summary);
+    }
+
+    @Override
+    public int size() {
+        return summaries.size();
+    }
+
+    @Override
+    public boolean isTop(StatLeaderboard.Stat stat, UUID uuid, double value) {
+        return leaderboard.isTop(stat, uuid);
+    }
+
+    @Override
+    public int rank(StatLeaderboard.Stat stat, UUID uuid, double value) {
+        return leaderboard.rankOf(stat, uuid);
+    }
+
+    @Override
+    public List<UUID> page(StatLeaderboard.Stat stat, int offset, int limit) {
+        return leaderboard.page(stat, offset, limit);
+    }
+
+    @Override
+    public void forEachRanked(StatLeaderboard.Stat stat, Consumer<PlayerSummary> action) {
+        leaderboard.forEachRanked(stat, uuid -> {
+            PlayerSummary summary = summaries.get(uuid);
+            if (summary != null) {
+                action.accept(summary);
+            }
+        });
+    }
+
+    @Override
+    public void forEachSummary(Consumer<PlayerSummary> action) {
+        summaries.values().forEach(action);
+    }
+
+    @Override
+    public int honorCount(UUID uuid, String honorId) {
+        PlayerSummary summary = summaries.get(uuid);
+        return summary != null ? summary.getHonorCount(honorId) : 0;
+    }
+
+    @Override
+    public int globalBest(String honorId) {
+        return honorHistogram.max(honorId);
+    }
+
+    @Override
+    public Map<String, Integer> globalBests() {
+        return honorHistogram.maxima();
+    }
+
+    private void clearIndexes() {
+        summaries.clear();
+        leaderboard.clear();
+        honorHistogram.clear();
+    }
+
+    @Override
+    public synchronized PlayerData read(UUID uuid) {
+        if (pending.containsKey(uuid)) {
+            byte[] record = pending.get(uuid);
+            return record != null ? decode(record) : null;
+        }
+        Location location = locations.get(uuid);
+        if (location == null) {
+            return null;
+        }
+        try {
+            byte[] record = readFrame(location.channel(), location.offset());
+            return record != null ? decode(record) : null;
+        } catch (IOException e) {
+            ServerLog.error("Failed to read player data for %s: %s", uuid.toString(), e.getMessage());
+            return null;
+        }
+    }
+
+    /** 把待写记录批量追加到日志, 一次 fsync。 */
+    @Override
+    public void flush() throws IOException {
+        FileChannel channel;
+        synchronized (this) {
+            if (pending.isEmpty() || journal == null) {
+                return;
+            }
+            channel = journal;
+            for (Map.Entry<UUID, byte[]> entry : pending.entrySet()) {
+                long offset = channel.position();
+                if (entry.getValue() == null) {
+                    writeFrame(channel, OP_DELETE, uuidBytes(entry.getKey()));
+                    locations.remove(entry.getKey());
+                } else {
+                    writeFrame(channel, OP_UPSERT, entry.getValue());
+                    locations.put(entry.getKey(), new Location(channel, offset));
+                }
+            }
+            pending.clear();
+        }
+        // fsync 不持锁, 避免阻塞主线程的按需读取
+        try {
+            channel.force(false);
+        } catch (ClosedChannelException ignored) {
+            // 该日志已被合并封存并关闭; 合并在关闭前已 fsync 封存日志
+        }
+    }
+
+    @Override
+    public void maintain(boolean force) throws IOException {
+        long journalSize;
+        synchronized (this) {
+            journalSize = journal != null ? journal.size() : 0L;
+        }
+        if (journalSize >= COMPACT_THRESHOLD_BYTES
+            || (journalSize > 0 && (force || System.currentTimeMillis() - lastCompactAt >= COMPACT_INTERVAL_MS))) {
+            compact();
+        }
+    }
+
+    /**
+     * 把全部最新记录合并进新数据文件(临时文件 + 原子替换)。
+     * 持锁只做封存日志与交换结果; 读取记录、写出并 fsync 临时文件不持锁, 不阻塞主线程的写入与按需读取。
+     */
+    private void compact() throws IOException {
+        flush();
+        Map<UUID, Location> snapshot;
+        FileChannel sealedJournal;
+        int startEpoch;
+        synchronized (this) {
+            if (data == null || journal == null || compacting) {
+                return;
+            }
+            // 上次合并失败时封存日志仍在, 直接合并它; 否则封存当前日志, 之后的 flush 写入新日志
+            if (sealed == null) {
+                Files.move(journalFile, sealedFile, StandardCopyOption.REPLACE_EXISTING);
+                sealed = journal;
+                journal = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            }
+            compacting = true;
+            snapshot = new HashMap<>(locations);
+            sealedJournal = sealed;
+            startEpoch = epoch;
+        }
+        Path temp = dataFile.resolveSibling(DATA_FILE + ".compact");
+        try {
+            sealedJournal.force(false);
+            Map<UUID, byte[]> records = new LinkedHashMap<>();
+            for (Map.Entry<UUID, Location> entry : snapshot.entrySet()) {
+                byte[] record = readFrame(entry.getValue().channel(), entry.getValue().offset());
+                if (record != null) {
+                    records.put(entry.getKey(), record);
+                }
+            }
+            Map<UUID, Long> offsets = writeRecords(temp, records);
+            synchronized (this) {
+                if (epoch != startEpoch) {
+                    Files.deleteIfExists(temp);
+                    return;
+                }
+                replaceAtomically(temp, dataFile);
+                FileChannel oldData = data;
+                data = FileChannel.open(dataFile, StandardOpenOption.READ);
+                // 合并期间写入新日志的记录保持原位置, 其余改指向新数据文件
+                Iterator<Map.Entry<UUID, Location>> iterator = locations.entrySet().iterator();
+                while (iterator.hasNext()) {
+                    Map.Entry<UUID, Location> entry = iterator.next();
+                    if (entry.getValue().channel() == journal) {
+                        continue;
+                    }
+                    Long offset = offsets.get(entry.getKey());
+                    if (offset != null) {
+                        entry.setValue(new Location(data, offset));
+                    } else {
+                        iterator.remove();
+                    }
+                }
+                closeQuietly(oldData);
+                closeQuietly(sealed);
+                sealed = null;
+                // 替换完成后才删除; 删除前崩溃时封存日志重放结果与数据文件一致
+                Files.deleteIfExists(sealedFile);
+                lastCompactAt = System.currentTimeMillis();
+            }
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+            }
+            throw e;
+        } finally {
+            synchronized (this) {
+                compacting = false;
+            }
+        }
+    }
+
+    @Override
+    public synchronized void clear() throws IOException {
+        pending.clear();
+        locations.clear();
+        clearIndexes();
+        epoch++;
+        closeQuietly(data);
+        closeQuietly(sealed);
+        data = null;
+        sealed = null;
+        Files.deleteIfExists(sealedFile);
+        writeDataFile(Map.of());
+        data = FileChannel.open(dataFile, StandardOpenOption.READ);
+        if (journal != null) {
+            journal.truncate(0L);
+            journal.position(0L);
+            journal.force(true);
+        }
+    }
+
+    // ==================== 文件格式 ====================
+
+    /** @return 有效数据的结尾位置(日志中第一条残缺/损坏记录的起点)。 */
+    private long scan(FileChannel channel, boolean isJournal, Map<UUID, PlayerSummary> summaries) throws IOException {
+        long position = 0L;
+        if (!isJournal) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            readFully(channel, header, 0L);
+            header.flip();
+            if (header.getInt() != MAGIC || header.getInt() != FORMAT_VERSION) {
+                throw new IOException("Unsupported player data file format");
+            }
+            position = HEADER_BYTES;
+        }
+        long size = channel.size();
+        ByteBuffer frameHeader = ByteBuffer.allocate(FRAME_HEADER_BYTES);
+        while (position + FRAME_HEADER_BYTES <= size) {
+            frameHeader.clear();
+            readFully(channel, frameHeader, position);
+            frameHeader.flip();
+            int length = frameHeader.getInt();
+            int crc = frameHeader.getInt();
+            byte op = frameHeader.get();
+            if (length < 0 || length > MAX_RECORD_BYTES || position + FRAME_HEADER_BYTES + length > size) {
+                break;
+            }
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(channel, payload, position + FRAME_HEADER_BYTES);
+            byte[] bytes = payload.array();
+            if (checksum(op, bytes) != crc) {
+                break;
+            }
+            if (op == OP_UPSERT) {
+                PlayerSummary summary = decodeSummary(bytes);
+                summaries.put(summary.getUUID(), summary);
+                locations.put(summary.getUUID(), new Location(channel, position));
+            } else if (op == OP_DELETE) {
+                UUID uuid = readUuid(bytes);
+                summaries.remove(uuid);
+                locations.remove(uuid);
+            }
+            position += FRAME_HEADER_BYTES + length;
+        }
+        if (!isJournal && position != size) {
+            throw new IOException("Player data file is truncated or corrupt at " + position);
+        }
+        return position;
+    }
+
+    private static byte[] readFrame(FileChannel channel, long offset) throws IOException {
+        if (channel == null) {
+            return null;
+        }
+        ByteBuffer frameHeader = ByteBuffer.allocate(FRAME_HEADER_BYTES);
+        readFully(channel, frameHeader, offset);
+        frameHeader.flip();
+        int length = frameHeader.getInt();
+        int crc = frameHeader.getInt();
+        byte op = frameHeader.get();
+        if (op != OP_UPSERT || length < 0 || length > MAX_RECORD_BYTES) {
+            return null;
+        }
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        readFully(channel, payload, offset + FRAME_HEADER_BYTES);
+        byte[] bytes = payload.array();
+        return checksum(op, bytes) == crc ? bytes : null;
+    }
+
+    private static void writeFrame(FileChannel channel, byte op, byte[] payload) throws IOException {
+        ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER_BYTES + payload.length);
+        frame.putInt(payload.length);
+        frame.putInt(checksum(op, payload));
+        frame.put(op);
+        frame.put(payload);
+        frame.flip();
+        while (frame.hasRemaining()) {
+            channel.write(frame);
+        }
+    }
+
+    /** 写入新数据文件并原子替换, 返回各记录帧起点。 */
+    private Map<UUID, Long> writeDataFile(Map<UUID, byte[]> records) throws IOException {
+        Path temp = dataFile.resolveSibling(DATA_FILE + ".tmp");
+        Map<UUID, Long> offsets = writeRecords(temp, records);
+        replaceAtomically(temp, dataFile);
+        return offsets;
+    }
+
+    /** 把记录写成完整数据文件格式并 fsync, 返回各记录帧起点。 */
+    private Map<UUID, Long> writeRecords(Path temp, Map<UUID, byte[]> records) throws IOException {
+        Files.createDirectories(root);
+        Map<UUID, Long> offsets = new HashMap<>();
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putInt(FORMAT_VERSION).flip();
+            while (header.hasRemaining()) {
+                out.write(header);
+            }
+            for (Map.Entry<UUID, byte[]> entry : records.entrySet()) {
+                offsets.put(entry.getKey(), out.position());
+                writeFrame(out, OP_UPSERT, entry.getValue());
+            }
+            out.force(true);
+        }
+        return offsets;
+    }
+
+    /** 临时文件原子替换目标文件(文件系统不支持原子移动时退化为普通替换)。 */
+    static void replaceAtomically(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /** 旧版每玩家一个 JSON 文件: 全部解析写入数据文件, 成功后把目录改名保留为备份。 */
+    private void migrateLegacy() throws IOException {
+        Path legacyDir = root.resolve(LEGACY_DIR);
+        if (!Files.isDirectory(legacyDir)) {
+            return;
+        }
+        Map<UUID, byte[]> records = new LinkedHashMap<>();
+        try (Stream<Path> paths = Files.list(legacyDir)) {
+            for (Path file : (Iterable<Path>) paths::iterator) {
+                String fileName = file.getFileName().toString();
+                if (!fileName.endsWith(".json") || !Files.isRegularFile(file)) {
+                    continue;
+                }
+                try {
+                    UUID uuid = UUID.fromString(fileName.substring(0, fileName.length() - 5));
+                    PlayerData playerData = PlayerData.fromJson(Files.readString(file, StandardCharsets.UTF_8), uuid);
+                    records.put(uuid, encode(playerData));
+                } catch (Exception e) {
+                    ServerLog.error("Failed to migrate player data file %s: %s", fileName, e.getMessage());
+                }
+            }
+        }
+        writeDataFile(records);
+        try {
+            Files.move(legacyDir, root.resolve(LEGACY_BACKUP_DIR), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            ServerLog.error("Migrated player data, but failed to rename legacy directory: %s", e.getMessage());
+        }
+        ServerLog.info("Migrated %d player data files to %s", records.size(), DATA_FILE);
+    }
+
+    // ==================== 记录编解码 ====================
+
+    static byte[] encode(PlayerData playerData) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            DataOutputStream out = new DataOutputStream(bytes);
+            UUID uuid = playerData.getUUID();
+            out.writeLong(uuid.getMostSignificantBits());
+            out.writeLong(uuid.getLeastSignificantBits());
+            out.writeFloat(playerData.getScore());
+            out.writeInt(playerData.getKill());
+            out.writeInt(playerData.getDeath());
+            out.writeInt(playerData.getAssist());
+            out.writeInt(playerData.getRevive());
+            String name = playerData.getLastLoginName();
+            out.writeUTF(name != null ? name : "");
+            Map<String, Integer> honors = playerData.getAllHonorCounts();
+            out.writeInt(honors.size());
+            for (Map.Entry<String, Integer> entry : honors.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeInt(entry.getValue());
+            }
+            out.writeLong(playerData.getLastModified());
+            Map<String, Object> metadata = playerData.getAllMetadata();
+            byte[] metadataBytes = metadata.isEmpty() ? new byte[0] : GSON.toJson(metadata).getBytes(StandardCharsets.UTF_8);
+            out.writeInt(metadataBytes.length);
+            out.write(metadataBytes);
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** 只解码摘要字段(打开时扫描用, 不解析 metadata)。 */
+    static PlayerSummary decodeSummary(byte[] record) throws IOException {
+        DataInputStream in = new DataInputStream(new java.io.ByteArrayInputStream(record));
+        PlayerSummary summary = new PlayerSummary(new UUID(in.readLong(), in.readLong()));
+        float score = in.readFloat();
+        int kill = in.readInt();
+        int death = in.readInt();
+        int assist = in.readInt();
+        int revive = in.readInt();
+        String name = in.readUTF();
+        summary.set(score, kill, death, assist, revive, name, readHonors(in));
+        return summary;
+    }
+
+    static PlayerData decode(byte[] record) {
+        try {
+            DataInputStream in = new DataInputStream(new java.io.ByteArrayInputStream(record));
+            PlayerData playerData = new PlayerData(new UUID(in.readLong(), in.readLong()));
+            playerData.setScore(in.readFloat());
+            playerData.setKill(in.readInt());
+            playerData.setDeath(in.readInt());
+            playerData.setAssist(in.readInt());
+            playerData.setRevive(in.readInt());
+            playerData.setLastLoginName(in.readUTF());
+            for (Map.Entry<String, Integer> entry : readHonors(in).entrySet()) {
+                playerData.setHonorCount(entry.getKey(), entry.getValue());
+            }
+            long lastModified = in.readLong();
+            byte[] metadataBytes = new byte[in.readInt()];
+            in.readFully(metadataBytes);
+            if (metadataBytes.length > 0) {
+                Map<?, ?> metadata = GSON.fromJson(new String(metadataBytes, StandardCharsets.UTF_8), Map.class);
+                if (metadata != null) {
+                    metadata.forEach((key, value) -> playerData.setMetadata(String.valueOf(key), value));
+                }
+            }
+            playerData.setLastModified(lastModified);
+            return playerData;
+        } catch (Exception e) {
+            ServerLog.error("Failed to decode player data record: %s", e.getMessage());
+            return null;
+        }
+    }
+
+    private static Map<String, Integer> readHonors(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        Map<String, Integer> honors = new HashMap<>(Math.max(4, count * 2));
+        for (int i = 0; i < count; i++) {
+            honors.put(in.readUTF(), in.readInt());
+        }
+        return honors;
+    }
+
+    private static byte[] uuidBytes(UUID uuid) {
+        return ByteBuffer.allocate(16).putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits()).array();
+    }
+
+    private static UUID readUuid(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    private static int checksum(byte op, byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(op);
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new EOFException();
+            }
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package org.mods.gd656killicon.server.data;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 每个 honor 的累计次数直方图(次数 → 拥有该次数的玩家数), 全服最高即最大键。
+ *
+ * <p>随玩家摘要变更增量维护, 指令减少某玩家计数后重算最高为 O(log n), 不再遍历全体玩家。</p>
+ */
+final class HonorHistogram {
+    private final Map<String, TreeMap<Integer, Integer>> byHonor = new HashMap<>();
+
+    /** 某玩家 honor 计数从 before 变为 after(两者均为只含正值的快照)。 */
+    synchronized void update(Map<String, Integer> before, Map<String, Integer> after) {
+        if (before.equals(after)) {
+            return;
+        }
+        for (Map.Entry<String, Integer> entry : before.entrySet()) {
+            Integer next = after.get(entry.getKey());
+            if (!entry.getValue().equals(next)) {
+                remove(entry.getKey(), entry.getValue());
+            }
+        }
+        for (Map.Entry<String, Integer> entry : after.entrySet()) {
+            Integer previous = before.get(entry.getKey());
+            if (!entry.getValue().equals(previous)) {
+                add(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /** 该 honor 全体玩家中的最高次数(无人获得返回 0)。 */
+    synchronized int max(String honorId) {
+        TreeMap<Integer, Integer> counts = byHonor.get(honorId);
+        return counts == null || counts.isEmpty() ? 0 : counts.lastKey();
+    }
+
+    /** 全部 honor 的最高次数。 */
+    synchronized Map<String, Integer> maxima() {
+        Map<String, Integer> maxima = new HashMap<>(byHonor.size() * 2);
+        byHonor.forEach((honorId, counts) -> maxima.put(honorId, counts.lastKey()));
+        return maxima;
+    }
+
+    synchronized void clear() {
+        byHonor.clear();
+    }
+
+    private void add(String honorId, int count) {
+        if (count <= 0) {
+            return;
+        }
+        byHonor.computeIfAbsent(honorId, k -> new TreeMap<>()).merge(count, 1, Integer::sum);
+    }
+
+    private void remove(String honorId, int count) {
+        TreeMap<Integer, Integer> counts = byHonor.get(honorId);
+        if (counts == null || count <= 0) {
+            return;
+        }
+        counts.computeIfPresent(count, (k, players) -> players > 1 ? players - 1 : null);
+        if (counts.isEmpty()) {
+            byHonor.remove(honorId);
+        }
+    }
+}
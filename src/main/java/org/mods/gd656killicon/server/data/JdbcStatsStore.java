@@ -0,0 +1,544 @@
+package org.mods.gd656killicon.server.data;
+
+import com.google.gson.Gson;
+import org.mods.gd656killicon.server.util.ServerLog;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * 嵌入式数据库存储后端(storage_backend = "sqlite" / "h2"), 通过 JDBC 访问。
+ *
+ * <p>本模组不打包数据库驱动: 驱动由服务端类路径提供(其他模组或服务端库), 找不到驱动时打开失败,
+ * 由 {@link PlayerDataManager} 退回二进制存储。统计列与 (honor, 次数) 均建索引: 是否第一/名次/分页/全服最高
+ * 都是索引查询, 打开时不载入任何玩家; 单个玩家的摘要与完整数据按主键读取。
+ * 缓冲的写入在一个事务内批量提交, 失败时回滚并保留待下次重试。
+ * 事务走独立的写连接且不持存储锁, 提交期间主线程的按需读取不被阻塞。</p>
+ *
+ * <p>排名类查询只看已提交的行(未提交的写入最多滞后一个自动保存周期); 单个玩家读取先看待写/提交中的批次。</p>
+ */
+final class JdbcStatsStore implements StatsStore {
+    static final String SQLITE = "sqlite";
+    static final String H2 = "h2";
+    private static final Gson GSON = new Gson();
+
+    private static final String[] SCHEMA = {
+        "CREATE TABLE IF NOT EXISTS gd_players ("
+            + "uuid CHAR(36) PRIMARY KEY, score REAL NOT NULL, kills INT NOT NULL, deaths INT NOT NULL,"
+            + " assists INT NOT NULL, revives INT NOT NULL, last_login_name VARCHAR(64) NOT NULL,"
+            + " last_modified BIGINT NOT NULL, metadata VARCHAR(65535))",
+        "CREATE INDEX IF NOT EXISTS gd_players_score ON gd_players (score)",
+        "CREATE INDEX IF NOT EXISTS gd_players_kills ON gd_players (kills)",
+        "CREATE INDEX IF NOT EXISTS gd_players_deaths ON gd_players (deaths)",
+        "CREATE INDEX IF NOT EXISTS gd_players_assists ON gd_players (assists)",
+        "CREATE INDEX IF NOT EXISTS gd_players_revives ON gd_players (revives)",
+        "CREATE TABLE IF NOT EXISTS gd_honors ("
+            + "uuid CHAR(36) NOT NULL, honor_id VARCHAR(128) NOT NULL, count INT NOT NULL,"
+            + " PRIMARY KEY (uuid, honor_id))",
+        "CREATE INDEX IF NOT EXISTS gd_honors_best ON gd_honors (honor_id, count)"
+    };
+    private static final String SUMMARY_COLUMNS = "uuid, score, kills, deaths, assists, revives, last_login_name";
+    private static final String SELECT_PLAYERS_BY_UUID = "SELECT " + SUMMARY_COLUMNS + " FROM gd_players ORDER BY uuid";
+    private static final String SELECT_HONORS_BY_UUID = "SELECT uuid, honor_id, count FROM gd_honors ORDER BY uuid";
+    private static final String SELECT_SUMMARY = "SELECT " + SUMMARY_COLUMNS + " FROM gd_players WHERE uuid = ?";
+    private static final String SELECT_HONOR_COUNT = "SELECT count FROM gd_honors WHERE uuid = ? AND honor_id = ?";
+    private static final String SELECT_GLOBAL_BEST = "SELECT MAX(count) FROM gd_honors WHERE honor_id = ?";
+    private static final String SELECT_GLOBAL_BESTS = "SELECT honor_id, MAX(count) FROM gd_honors GROUP BY honor_id";
+    private static final String COUNT_PLAYERS = "SELECT COUNT(*) FROM gd_players";
+    private static final String SELECT_PLAYER =
+        "SELECT score, kills, deaths, assists, revives, last_login_name, last_modified, metadata FROM gd_players WHERE uuid = ?";
+    private static final String SELECT_PLAYER_HONORS = "SELECT honor_id, count FROM gd_honors WHERE uuid = ?";
+    private static final String DELETE_PLAYER = "DELETE FROM gd_players WHERE uuid = ?";
+    private static final String DELETE_HONORS = "DELETE FROM gd_honors WHERE uuid = ?";
+    private static final String INSERT_PLAYER =
+        "INSERT INTO gd_players (uuid, score, kills, deaths, assists, revives, last_login_name, last_modified, metadata)"
+            + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_HONOR = "INSERT INTO gd_honors (uuid, honor_id, count) VALUES (?, ?, ?)";
+
+    private final String backend;
+    private final String url;
+    /** 尚未提交的写入(编码后的快照, null 表示删除)。 */
+    private final Map<UUID, byte[]> pending = new LinkedHashMap<>();
+    /** 正在提交的一批写入(提交完成前按需读取以此为准)。 */
+    private Map<UUID, byte[]> inFlight = Map.of();
+    /** 串行化事务提交与 open/close/clear; 加锁顺序固定为 flushLock → this。 */
+    private final Object flushLock = new Object();
+    /** 按需读取用连接(持 this)。 */
+    private Connection connection;
+    /** 批量提交用连接(持 flushLock)。 */
+    private Connection writeConnection;
+
+    JdbcStatsStore(Path root, String backend) {
+        this.backend = backend;
+        this.url = H2.equals(backend)
+            ? "jdbc:h2:file:" + root.resolve("players").toAbsolutePath()
+            : "jdbc:sqlite:" + root.resolve("players.db").toAbsolutePath();
+    }
+
+    @Override
+    public String name() {
+        return backend;
+    }
+
+    @Override
+    public void open() throws IOException {
+        synchronized (flushLock) {
+            synchronized (this) {
+                openLocked();
+            }
+        }
+    }
+
+    private void openLocked() throws IOException {
+        closeLocked();
+        pending.clear();
+        try {
+            connection = DriverManager.getConnection(url);
+            writeConnection = DriverManager.getConnection(url);
+            try (Statement statement = connection.createStatement()) {
+                for (String sql : SCHEMA) {
+                    statement.execute(sql);
+                }
+            }
+        } catch (SQLException e) {
+            closeLocked();
+            throw new IOException(backend + " store unavailable: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public synchronized PlayerData read(UUID uuid) {
+        if (isBuffered(uuid)) {
+            byte[] record = bufferedRecord(uuid);
+            return record != null ? BinaryStatsStore.decode(record) : null;
+        }
+        if (connection == null) {
+            return null;
+        }
+        try (PreparedStatement select = connection.prepareStatement(SELECT_PLAYER)) {
+            select.setString(1, uuid.toString());
+            PlayerData playerData;
+            long lastModified;
+            try (ResultSet rs = select.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                playerData = new PlayerData(uuid);
+                playerData.setScore(rs.getFloat(1));
+                playerData.setKill(rs.getInt(2));
+                playerData.setDeath(rs.getInt(3));
+                playerData.setAssist(rs.getInt(4));
+                playerData.setRevive(rs.getInt(5));
+                playerData.setLastLoginName(rs.getString(6));
+                lastModified = rs.getLong(7);
+                String metadata = rs.getString(8);
+                if (metadata != null && !metadata.isEmpty()) {
+                    Map<?, ?> values = GSON.fromJson(metadata, Map.class);
+                    if (values != null) {
+                        values.forEach((key, value) -> playerData.setMetadata(String.valueOf(key), value));
+                    }
+                }
+            }
+            try (PreparedStatement honors = connection.prepareStatement(SELECT_PLAYER_HONORS)) {
+                honors.setString(1, uuid.toString());
+                try (ResultSet rs = honors.executeQuery()) {
+                    while (rs.next()) {
+                        playerData.setHonorCount(rs.getString(1), rs.getInt(2));
+                    }
+                }
+            }
+            playerData.setLastModified(lastModified);
+            return playerData;
+        } catch (Exception e) {
+            ServerLog.error("Failed to read player data for %s: %s", uuid.toString(), e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public synchronized PlayerSummary readSummary(UUID uuid) {
+        if (isBuffered(uuid)) {
+            return decodeSummary(bufferedRecord(uuid));
+        }
+        if (connection == null) {
+            return null;
+        }
+        try (PreparedStatement select = connection.prepareStatement(SELECT_SUMMARY)) {
+            select.setString(1, uuid.toString());
+            Map<String, Integer> honors = new HashMap<>();
+            try (PreparedStatement honorSelect = connection.prepareStatement(SELECT_PLAYER_HONORS)) {
+                honorSelect.setString(1, uuid.toString());
+                try (ResultSet rs = honorSelect.executeQuery()) {
+                    while (rs.next()) {
+                        honors.put(rs.getString(1), rs.getInt(2));
+                    }
+                }
+            }
+            try (ResultSet rs = select.executeQuery()) {
+                return rs.next() ? toSummary(rs, honors) : null;
+            }
+        } catch (SQLException | IllegalArgumentException e) {
+            ServerLog.error("Failed to read player summary for %s: %s", uuid.toString(), e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public synchronized void write(PlayerData playerData) {
+        pending.put(playerData.getUUID(), BinaryStatsStore.encode(playerData));
+    }
+
+    @Override
+    public synchronized void delete(UUID uuid) {
+        pending.put(uuid, null);
+    }
+
+    /** 表上的索引随事务提交更新, 无需逐次同步。 */
+    @Override
+    public void indexSummary(PlayerSummary summary, Map<String, Integer> honorsBefore) {
+    }
+
+    @Override
+    public synchronized int size() {
+        return queryInt(COUNT_PLAYERS, 0);
+    }
+
+    @Override
+    public synchronized boolean isTop(StatLeaderboard.Stat stat, UUID uuid, double value) {
+        if (value <= 0) {
+            return false;
+        }
+        return queryInt("SELECT COUNT(*) FROM (SELECT 1 FROM gd_players WHERE " + column(stat) + " > ? AND uuid <> ? LIMIT 1) t",
+            1, value, uuid.toString()) == 0;
+    }
+
+    @Override
+    public synchronized int rank(StatLeaderboard.Stat stat, UUID uuid, double value) {
+        String column = column(stat);
+        int before = queryInt("SELECT COUNT(*) FROM gd_players WHERE uuid <> ? AND (" + column + " > ? OR ("
+            + column + " = ? AND uuid < ?))", -2, uuid.toString(), value, value, uuid.toString());
+        return before >= 0 ? before + 1 : -1;
+    }
+
+    @Override
+    public synchronized List<UUID> page(StatLeaderboard.Stat stat, int offset, int limit) {
+        List<UUID> out = new ArrayList<>();
+        if (connection == null || limit <= 0) {
+            return out;
+        }
+        try (PreparedStatement select = connection.prepareStatement(
+            "SELECT uuid FROM gd_players ORDER BY " + column(stat) + " DESC, uuid LIMIT ? OFFSET ?")) {
+            select.setInt(1, limit);
+            select.setInt(2, Math.max(0, offset));
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    out.add(UUID.fromString(rs.getString(1)));
+                }
+            }
+        } catch (SQLException | IllegalArgumentException e) {
+            ServerLog.error("Failed to query player ranking: %s", e.getMessage());
+        }
+        return out;
+    }
+
+    /** 按统计列索引顺序流式遍历(摘要不含 honor 计数); 待删除的玩家跳过。 */
+    @Override
+    public synchronized void forEachRanked(StatLeaderboard.Stat stat, Consumer<PlayerSummary> action) {
+        if (connection == null) {
+            return;
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                 "SELECT " + SUMMARY_COLUMNS + " FROM gd_players ORDER BY " + column(stat) + " DESC, uuid")) {
+            while (rs.next()) {
+                UUID uuid = UUID.fromString(rs.getString(1));
+                if (isBuffered(uuid) && bufferedRecord(uuid) == null) {
+                    continue;
+                }
+                action.accept(toSummary(rs, null));
+            }
+        } catch (SQLException | IllegalArgumentException e) {
+            ServerLog.error("Failed to query player ranking: %s", e.getMessage());
+        }
+    }
+
+    /** 先输出待写/提交中的玩家, 再按 uuid 顺序归并两张表流式输出其余玩家。 */
+    @Override
+    public synchronized void forEachSummary(Consumer<PlayerSummary> action) {
+        Map<UUID, byte[]> buffered = new HashMap<>(inFlight);
+        buffered.putAll(pending);
+        for (byte[] record : buffered.values()) {
+            PlayerSummary summary = decodeSummary(record);
+            if (summary != null) {
+                action.accept(summary);
+            }
+        }
+        if (connection == null) {
+            return;
+        }
+        try (Statement playerStatement = connection.createStatement();
+             Statement honorStatement = connection.createStatement();
+             ResultSet players = playerStatement.executeQuery(SELECT_PLAYERS_BY_UUID);
+             ResultSet honors = honorStatement.executeQuery(SELECT_HONORS_BY_UUID)) {
+            boolean hasHonor = honors.next();
+            while (players.next()) {
+                String uuid = players.getString(1);
+                Map<String, Integer> counts = new HashMap<>();
+                while (hasHonor && honors.getString(1).compareTo(uuid) <= 0) {
+                    if (honors.getString(1).equals(uuid)) {
+                        counts.put(honors.getString(2), honors.getInt(3));
+                    }
+                    hasHonor = honors.next();
+                }
+                if (!buffered.containsKey(UUID.fromString(uuid))) {
+                    action.accept(toSummary(players, counts));
+                }
+            }
+        } catch (SQLException | IllegalArgumentException e) {
+            ServerLog.error("Failed to scan player data: %s", e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized int honorCount(UUID uuid, String honorId) {
+        if (isBuffered(uuid)) {
+            PlayerSummary summary = decodeSummary(bufferedRecord(uuid));
+            return summary != null ? summary.getHonorCount(honorId) : 0;
+        }
+        return queryInt(SELECT_HONOR_COUNT, 0, uuid.toString(), honorId);
+    }
+
+    @Override
+    public synchronized int globalBest(String honorId) {
+        return queryInt(SELECT_GLOBAL_BEST, 0, honorId);
+    }
+
+    @Override
+    public synchronized Map<String, Integer> globalBests() {
+        Map<String, Integer> bests = new HashMap<>();
+        if (connection == null) {
+            return bests;
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(SELECT_GLOBAL_BESTS)) {
+            while (rs.next()) {
+                if (rs.getInt(2) > 0) {
+                    bests.put(rs.getString(1), rs.getInt(2));
+                }
+            }
+        } catch (SQLException e) {
+            ServerLog.error("Failed to query honor global best: %s", e.getMessage());
+        }
+        return bests;
+    }
+
+    /** 该玩家是否有待写或提交中的记录(含删除标记)。 */
+    private boolean isBuffered(UUID uuid) {
+        return pending.containsKey(uuid) || inFlight.containsKey(uuid);
+    }
+
+    /** 待写记录优先于提交中的记录; null 表示删除。 */
+    private byte[] bufferedRecord(UUID uuid) {
+        return pending.containsKey(uuid) ? pending.get(uuid) : inFlight.get(uuid);
+    }
+
+    private static PlayerSummary decodeSummary(byte[] record) {
+        if (record == null) {
+            return null;
+        }
+        try {
+            return BinaryStatsStore.decodeSummary(record);
+        } catch (IOException e) {
+            ServerLog.error("Failed to decode buffered player data: %s", e.getMessage());
+            return null;
+        }
+    }
+
+    /** 当前行按 {@link #SUMMARY_COLUMNS} 的列顺序构造摘要。 */
+    private static PlayerSummary toSummary(ResultSet rs, Map<String, Integer> honors) throws SQLException {
+        PlayerSummary summary = new PlayerSummary(UUID.fromString(rs.getString(1)));
+        summary.set(rs.getFloat(2), rs.getInt(3), rs.getInt(4), rs.getInt(5), rs.getInt(6), rs.getString(7), honors);
+        return summary;
+    }
+
+    /** 单值整数查询; 无结果/NULL 返回 fallback, 出错记录日志并返回 fallback。 */
+    private int queryInt(String sql, int fallback, Object... args) {
+        if (connection == null) {
+            return fallback;
+        }
+        try (PreparedStatement select = connection.prepareStatement(sql)) {
+            for (int i = 0; i < args.length; i++) {
+                select.setObject(i + 1, args[i]);
+            }
+            try (ResultSet rs = select.executeQuery()) {
+                if (!rs.next()) {
+                    return fallback;
+                }
+                int value = rs.getInt(1);
+                return rs.wasNull() ? fallback : value;
+            }
+        } catch (SQLException e) {
+            ServerLog.error("Failed to query player stats: %s", e.getMessage());
+            return fallback;
+        }
+    }
+
+    private static String column(StatLeaderboard.Stat stat) {
+        return switch (stat) {
+            case SCORE -> "score";
+            case KILL -> "kills";
+            case DEATH -> "deaths";
+            case ASSIST -> "assists";
+            case REVIVE -> "revives";
+        };
+    }
+
+    /** 全部缓冲写入在一个事务内批量提交(先删后插, 与方言无关); 持锁只交换待写表, 事务不持存储锁。 */
+    @Override
+    public void flush() throws IOException {
+        synchronized (flushLock) {
+            Map<UUID, byte[]> batch;
+            Connection batchConnection;
+            synchronized (this) {
+                if (pending.isEmpty() || writeConnection == null) {
+                    return;
+                }
+                batch = new LinkedHashMap<>(pending);
+                pending.clear();
+                inFlight = batch;
+                batchConnection = writeConnection;
+            }
+            boolean committed = false;
+            try {
+                commit(batchConnection, batch);
+                committed = true;
+            } finally {
+                synchronized (this) {
+                    inFlight = Map.of();
+                    if (!committed) {
+                        // 失败时放回待写表; 提交期间又有新写入的玩家以新写入为准
+                        // (null 是删除标记, 不能用 putIfAbsent: 它会把值为 null 的键当作缺失而覆盖)
+                        for (Map.Entry<UUID, byte[]> entry : batch.entrySet()) {
+                            if (!pending.containsKey(entry.getKey())) {
+                                pending.put(entry.getKey(), entry.getValue());
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static void commit(Connection connection, Map<UUID, byte[]> batch) throws IOException {
+        try {
+            connection.setAutoCommit(false);
+            try (PreparedStatement deletePlayer = connection.prepareStatement(DELETE_PLAYER);
+                 PreparedStatement deleteHonors = connection.prepareStatement(DELETE_HONORS);
+                 PreparedStatement insertPlayer = connection.prepareStatement(INSERT_PLAYER);
+                 PreparedStatement insertHonor = connection.prepareStatement(INSERT_HONOR)) {
+                for (Map.Entry<UUID, byte[]> entry : batch.entrySet()) {
+                    String uuid = entry.getKey().toString();
+                    deletePlayer.setString(1, uuid);
+                    deletePlayer.addBatch();
+                    deleteHonors.setString(1, uuid);
+                    deleteHonors.addBatch();
+                    PlayerData playerData = entry.getValue() != null ? BinaryStatsStore.decode(entry.getValue()) : null;
+                    if (playerData == null) {
+                        continue;
+                    }
+                    insertPlayer.setString(1, uuid);
+                    insertPlayer.setFloat(2, playerData.getScore());
+                    insertPlayer.setInt(3, playerData.getKill());
+                    insertPlayer.setInt(4, playerData.getDeath());
+                    insertPlayer.setInt(5, playerData.getAssist());
+                    insertPlayer.setInt(6, playerData.getRevive());
+                    String name = playerData.getLastLoginName();
+                    insertPlayer.setString(7, name != null ? name : "");
+                    insertPlayer.setLong(8, playerData.getLastModified());
+                    Map<String, Object> metadata = playerData.getAllMetadata();
+                    insertPlayer.setString(9, metadata.isEmpty() ? null : GSON.toJson(metadata));
+                    insertPlayer.addBatch();
+                    for (Map.Entry<String, Integer> honor : playerData.getAllHonorCounts().entrySet()) {
+                        insertHonor.setString(1, uuid);
+                        insertHonor.setString(2, honor.getKey());
+                        insertHonor.setInt(3, honor.getValue());
+                        insertHonor.addBatch();
+                    }
+                }
+                deletePlayer.executeBatch();
+                deleteHonors.executeBatch();
+                insertPlayer.executeBatch();
+                insertHonor.executeBatch();
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new IOException("Failed to commit player data batch: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void maintain(boolean force) {
+    }
+
+    @Override
+    public void clear() throws IOException {
+        synchronized (flushLock) {
+            synchronized (this) {
+                pending.clear();
+                if (connection == null) {
+                    return;
+                }
+                try (Statement statement = connection.createStatement()) {
+                    statement.executeUpdate("DELETE FROM gd_honors");
+                    statement.executeUpdate("DELETE FROM gd_players");
+                } catch (SQLException e) {
+                    throw new IOException(e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (flushLock) {
+            synchronized (this) {
+                closeLocked();
+            }
+        }
+    }
+
+    private void closeLocked() {
+        closeQuietly(connection);
+        closeQuietly(writeConnection);
+        connection = null;
+        writeConnection = null;
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+        }
+    }
+}
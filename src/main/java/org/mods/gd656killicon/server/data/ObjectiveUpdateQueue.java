@@ -0,0 +1,70 @@
+package org.mods.gd656killicon.server.data;
+
+import net.minecraft.world.scores.Objective;
+import net.minecraft.world.scores.Score;
+import net.minecraft.world.scores.Scoreboard;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 原版计分板更新合并队列: 统计变更只记录 (计分项, 持有者) → 最终值, 按节拍统一写入。
+ *
+ * <p>原版每次 setScore 都会向全部客户端广播一个设置分数包; 连续命中/加分在同一 tick 内
+ * 只保留最后的值, 写入时值未变化的条目直接跳过, 不产生广播。</p>
+ */
+final class ObjectiveUpdateQueue {
+    private record Key(String objective, String holder) {}
+
+    private final Map<Key, Integer> dirty = new LinkedHashMap<>();
+
+    synchronized void mark(String objective, String holder, int value) {
+        if (objective == null || holder == null || holder.isEmpty()) {
+            return;
+        }
+        dirty.put(new Key(objective, holder), value);
+    }
+
+    synchronized boolean isEmpty() {
+        return dirty.isEmpty();
+    }
+
+    synchronized void clear() {
+        dirty.clear();
+    }
+
+    /** 写入全部挂起值; 计分项不存在的条目丢弃(与原先同步写入时的判空一致)。 */
+    void flush(Scoreboard scoreboard) {
+        if (scoreboard == null) {
+            return;
+        }
+        Map<Key, Integer> batch;
+        synchronized (this) {
+            if (dirty.isEmpty()) {
+                return;
+            }
+            batch = new LinkedHashMap<>(dirty);
+            dirty.clear();
+        }
+        String lastName = null;
+        Objective objective = null;
+        for (Map.Entry<Key, Integer> entry : batch.entrySet()) {
+            String name = entry.getKey().objective();
+            if (!name.equals(lastName)) {
+                lastName = name;
+                objective = scoreboard.getObjective(name);
+            }
+            if (objective == null) {
+                continue;
+            }
+            int value = entry.getValue();
+            String holder = entry.getKey().holder();
+            // 新建的分数须显式写入一次才会广播(即使值为 0)
+            boolean existed = scoreboard.hasPlayerScore(holder, objective);
+            Score score = scoreboard.getOrCreatePlayerScore(holder, objective);
+            if (!existed || score.getScore() != value) {
+                score.setScore(value);
+            }
+        }
+    }
+}
@@ -9,10 +9,10 @@ import org.mods.gd656killicon.server.logic.conquest.ConquestScoreboardAdapter;
 import org.mods.gd656killicon.server.util.ServerLog;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -22,22 +22,44 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
-import java.util.stream.Stream;
 
 public class PlayerDataManager {
     private static final PlayerDataManager INSTANCE = new PlayerDataManager();
 
-    private static final String PLAYERDATA_DIR = "playerdata";
-    private static final long AUTO_SAVE_INTERVAL_MINUTES = 5;
+    /** 脏数据交给存储后端并持久化的间隔(崩溃最多丢失这么久的统计)。 */
+    private static final long JOURNAL_SYNC_INTERVAL_SECONDS = 2;
+    /** 常驻内存的离线玩家完整数据上限(超出按最近访问淘汰, 在线/待保存的不淘汰)。 */
+    private static final int RESIDENT_OFFLINE_MAX = 256;
+    private static final long RESIDENCY_SWEEP_INTERVAL_TICKS = 200L;
     private static final int SCOREBOARD_PAGE_LIMIT_MAX = 100;
     private static final String[] DEFAULT_PANEL_TEAMS = new String[]{"", "", "", ""};
+    /** 统计有变化时, 共享排行榜快照最多每这么多 tick 重建一次。 */
+    private static final long SCOREBOARD_SNAPSHOT_MIN_TICKS = 20L;
+    /** 统计无变化时, 快照最长复用 tick 数(刷新延迟/在线状态/队伍等不计版本的字段)。 */
+    private static final long SCOREBOARD_SNAPSHOT_MAX_AGE_TICKS = 100L;
+    /** 同一玩家两次应答之间的最少 tick 数(期间的请求合并等待, 不丢弃)。 */
+    private static final long SCOREBOARD_REQUEST_INTERVAL_TICKS = 4L;
+    /** 单个玩家最多挂起的分页请求数(同 offset 以最新为准, 超出丢弃最早的)。 */
+    private static final int SCOREBOARD_PENDING_PER_PLAYER_MAX = 4;
+    /** 按需加载的完整玩家数据(在线/最近访问/待保存的玩家); 其统计摘要见 {@link #index}。 */
     private final Map<UUID, PlayerData> playerDataCache;
-    /** 每 honor 全服最高累计次数(内存缓存, 不落盘; 启动时从所有玩家 playerdata 构建, recordHonor 时更新)。 */
+    /** 本次会话用到的玩家统计摘要(随完整数据常驻/淘汰); 其余玩家的摘要与排名由存储后端查询。 */
+    private final PlayerIndex index = new PlayerIndex();
+    /** 常驻数据最近访问序号(近似 LRU)。 */
+    private final Map<UUID, Long> lastAccess = new ConcurrentHashMap<>();
+    private final AtomicLong accessClock = new AtomicLong();
+    /** 每 honor 全服最高累计次数(内存缓存, 不落盘; 启动时由存储查询构建, recordHonor 时更新)。 */
     private final Map<String, Integer> globalBestByHonor = new ConcurrentHashMap<>();
+    /** 统计版本号: 影响排行榜的玩家数据每次变化 +1, 快照据此判断是否需要重建。 */
+    private final AtomicLong statsVersion = new AtomicLong();
+    private final Map<UUID, Map<Integer, ScoreboardRequest>> pendingScoreboardRequests = new ConcurrentHashMap<>();
+    private final Map<UUID, Long> lastScoreboardReplyTick = new ConcurrentHashMap<>();
+    private volatile ScoreboardSnapshot scoreboardSnapshot;
     private final Set<UUID> dirtyPlayers;
     private final Set<UUID> pendingRemovalPlayers;
-    private Path playerdataDir;
+    private StatsStore store;
     private ScheduledExecutorService autoSaveExecutor;
     private boolean initialized = false;
 
@@ -63,14 +85,7 @@ public class PlayerDataManager {
             ServerLog.error("Failed to create player data root directory: %s", e.getMessage());
         }
 
-        this.playerdataDir = root.resolve(PLAYERDATA_DIR);
-        try {
-            Files.createDirectories(playerdataDir);
-        } catch (IOException e) {
-            ServerLog.error("Failed to create player data directory: %s", e.getMessage());
-        }
-
-        loadAllPlayerData();
+        openStore(root);
         rebuildGlobalBestByHonor();
         startAutoSaveTask();
         initialized = true;
@@ -89,9 +104,17 @@ public class PlayerDataManager {
             }
         }
         saveAllPlayerData();
+        if (store != null) {
+            store.close();
+        }
         playerDataCache.clear();
+        index.clear();
+        lastAccess.clear();
         dirtyPlayers.clear();
         pendingRemovalPlayers.clear();
+        pendingScoreboardRequests.clear();
+        lastScoreboardReplyTick.clear();
+        scoreboardSnapshot = null;
         initialized = false;
     }
 
@@ -113,38 +136,63 @@ public class PlayerDataManager {
                     ServerLog.error("Failed to flush dirty player data: %s", e.getMessage());
                 }
             },
-            AUTO_SAVE_INTERVAL_MINUTES,
-            AUTO_SAVE_INTERVAL_MINUTES,
-            TimeUnit.MINUTES
+            JOURNAL_SYNC_INTERVAL_SECONDS,
+            JOURNAL_SYNC_INTERVAL_SECONDS,
+            TimeUnit.SECONDS
         );
     }
 
-    private void loadAllPlayerData() {
-        if (!Files.exists(playerdataDir)) {
-            return;
-        }
-
-        try (Stream<Path> paths = Files.walk(playerdataDir, 1)) {
-            paths.filter(Files::isRegularFile)
-                    .filter(path -> path.toString().endsWith(".json"))
-                    .forEach(this::loadPlayerDataFromFile);
+    /**
+     * 按配置 storage_backend 打开存储后端。
+     * 数据库后端不可用(如缺少驱动)时退回二进制存储; 打开失败的存储保持关闭, 不会用空数据覆盖文件。
+     */
+    private void openStore(Path root) {
+        String backend = ServerData.get().getStorageBackend();
+        StatsStore selected = JdbcStatsStore.SQLITE.equals(backend) || JdbcStatsStore.H2.equals(backend)
+            ? new JdbcStatsStore(root, backend)
+            : new BinaryStatsStore(root);
+        if (!tryOpen(selected) && !(selected instanceof BinaryStatsStore)) {
+            ServerLog.error("Storage backend %s unavailable, falling back to %s", backend, BinaryStatsStore.NAME);
+            selected = new BinaryStatsStore(root);
+            tryOpen(selected);
+        } else if (!(selected instanceof BinaryStatsStore) && selected.size() == 0 && BinaryStatsStore.exists(root)) {
+            importFromBinary(root, selected);
+        }
+        this.store = selected;
+        statsVersion.incrementAndGet();
+        ServerLog.info("Loaded player data store (%s): %d players", selected.name(), selected.size());
+    }
+
+    private boolean tryOpen(StatsStore candidate) {
+        index.clear();
+        try {
+            candidate.open();
+            return true;
         } catch (IOException e) {
-            ServerLog.error("Failed to load player data: %s", e.getMessage());
+            candidate.close();
+            ServerLog.error("Failed to open player data store %s: %s", candidate.name(), e.getMessage());
+            return false;
         }
     }
 
-    private void loadPlayerDataFromFile(Path file) {
+    /**
+     * 首次切换到数据库后端且库为空时, 一次性导入二进制存储的全部玩家(二进制文件保留不动)。
+     * 只有旧 JSON 目录(从未用过二进制存储)时, 打开二进制存储会先把它迁移为数据文件, 再一并导入。
+     */
+    private void importFromBinary(Path root, StatsStore target) {
+        BinaryStatsStore source = new BinaryStatsStore(root);
         try {
-            String fileName = file.getFileName().toString();
-            String uuidStr = fileName.substring(0, fileName.length() - 5);
-
-            UUID uuid = UUID.fromString(uuidStr);
-            String json = Files.readString(file, StandardCharsets.UTF_8);
-            PlayerData playerData = PlayerData.fromJson(json, uuid);
-
-            playerDataCache.put(uuid, playerData);
-        } catch (Exception e) {
-            ServerLog.error("Failed to load player data file %s: %s", file.getFileName().toString(), e.getMessage());
+            source.open();
+            source.forEachSummary(summary -> {
+                PlayerData playerData = source.read(summary.getUUID());
+                target.write(playerData != null ? playerData : summary.toPlayerData());
+            });
+            target.flush();
+            ServerLog.info("Imported %d players into %s store", source.size(), target.name());
+        } catch (IOException e) {
+            ServerLog.error("Failed to import player data into %s store: %s", target.name(), e.getMessage());
+        } finally {
+            source.close();
         }
     }
 
@@ -156,10 +204,21 @@ public class PlayerDataManager {
                 removePlayerData(uuid);
             }
         });
+        for (UUID uuid : new HashSet<>(pendingRemovalPlayers)) {
+            removePlayerData(uuid);
+        }
+        // 未常驻的玩家按摘要判断, 与原先遍历全体玩家一致
+        for (PlayerSummary summary : collectSummaries()) {
+            if (!playerDataCache.containsKey(summary.getUUID()) && !summary.hasTrackedStats()) {
+                removePlayerData(summary.getUUID());
+            }
+        }
+        syncStore(true);
     }
 
     private void flushDirtyPlayerData() {
         if (dirtyPlayers.isEmpty() && pendingRemovalPlayers.isEmpty()) {
+            syncStore(false);
             return;
         }
 
@@ -172,6 +231,20 @@ public class PlayerDataManager {
         for (UUID uuid : removalSnapshot) {
             removePlayerData(uuid);
         }
+        syncStore(false);
+    }
+
+    /** 缓冲写入成批持久化, 随后做后台维护(force 时忽略维护阈值, 关服/全量保存用)。 */
+    private void syncStore(boolean force) {
+        if (store == null) {
+            return;
+        }
+        try {
+            store.flush();
+            store.maintain(force);
+        } catch (IOException e) {
+            ServerLog.error("Failed to sync player data store: %s", e.getMessage());
+        }
     }
 
     private void savePlayerData(UUID uuid) {
@@ -182,24 +255,117 @@ public class PlayerDataManager {
             return;
         }
 
-        Path file = getPlayerDataFile(uuid);
-        try {
-            Files.createDirectories(file.getParent());
-            String json = playerData.toJson();
-            Files.writeString(file, json, StandardCharsets.UTF_8);
-            dirtyPlayers.remove(uuid);
-            pendingRemovalPlayers.remove(uuid);
-        } catch (IOException e) {
-            ServerLog.error("Failed to save player data for %s", uuid.toString());
+        // 只在调用线程取快照交给存储, 由自动保存线程成批持久化
+        dirtyPlayers.remove(uuid);
+        pendingRemovalPlayers.remove(uuid);
+        if (store != null) {
+            store.write(playerData);
         }
     }
 
-    private Path getPlayerDataFile(UUID uuid) {
-        return playerdataDir.resolve(uuid.toString() + ".json");
+    /**
+     * 完整玩家数据: 已常驻直接返回; 有存档则按需加载并常驻; 否则新建。
+     * 只读统计请用 {@link #getScore} 等(由摘要提供, 不触发加载)。
+     */
+    public PlayerData getPlayerData(UUID uuid) {
+        PlayerData resident = playerDataCache.get(uuid);
+        if (resident == null) {
+            resident = playerDataCache.computeIfAbsent(uuid, this::loadOrCreatePlayerData);
+        }
+        lastAccess.put(uuid, accessClock.incrementAndGet());
+        return resident;
     }
 
-    public PlayerData getPlayerData(UUID uuid) {
-        return playerDataCache.computeIfAbsent(uuid, k -> new PlayerData(k));
+    private PlayerData loadOrCreatePlayerData(UUID uuid) {
+        PlayerSummary summary = index.get(uuid);
+        if (summary == null && store != null) {
+            PlayerSummary stored = store.readSummary(uuid);
+            summary = stored != null ? index.putIfAbsent(stored) : null;
+        }
+        if (summary != null) {
+            PlayerData loaded = store != null ? store.read(uuid) : null;
+            // 记录缺失/损坏时按摘要恢复统计, 不回退为零
+            return loaded != null ? loaded : summary.toPlayerData();
+        }
+        PlayerData created = new PlayerData(uuid);
+        syncSummary(uuid, created);
+        return created;
+    }
+
+    /** 完整数据统计变更后同步摘要与排名索引(honor 未变, 不复制 honor 表)。 */
+    private void syncSummary(UUID uuid, PlayerData playerData) {
+        syncSummary(uuid, playerData, false);
+    }
+
+    /** @param honorsChanged honor 计数是否可能变化(是则一并同步 honor 表与次数分布) */
+    private void syncSummary(UUID uuid, PlayerData playerData, boolean honorsChanged) {
+        PlayerSummary summary = residentSummary(uuid);
+        Map<String, Integer> honorsBefore = null;
+        if (honorsChanged) {
+            honorsBefore = summary.getHonorCounts();
+            summary.copyFrom(playerData);
+        } else {
+            summary.copyStatsFrom(playerData);
+        }
+        if (store != null) {
+            store.indexSummary(summary, honorsBefore);
+        }
+        statsVersion.incrementAndGet();
+    }
+
+    /** 常驻摘要: 未常驻时从存储读入, 存储中也没有则新建。 */
+    private PlayerSummary residentSummary(UUID uuid) {
+        PlayerSummary summary = index.get(uuid);
+        if (summary != null) {
+            return summary;
+        }
+        PlayerSummary stored = store != null ? store.readSummary(uuid) : null;
+        return index.putIfAbsent(stored != null ? stored : new PlayerSummary(uuid));
+    }
+
+    /**
+     * 淘汰超出上限的离线常驻数据(按最近访问, 只淘汰已保存的), 由 ServerCombatEngine.onTick 调用。
+     */
+    public void tickResidency(MinecraftServer server, long tick) {
+        if (server == null || tick % RESIDENCY_SWEEP_INTERVAL_TICKS != 0) {
+            return;
+        }
+        List<UUID> candidates = new ArrayList<>();
+        for (UUID uuid : playerDataCache.keySet()) {
+            if (server.getPlayerList().getPlayer(uuid) == null
+                && !dirtyPlayers.contains(uuid)
+                && !pendingRemovalPlayers.contains(uuid)) {
+                candidates.add(uuid);
+            }
+        }
+        int excess = candidates.size() - RESIDENT_OFFLINE_MAX;
+        if (excess <= 0) {
+            return;
+        }
+        candidates.sort((a, b) -> Long.compare(lastAccess.getOrDefault(a, 0L), lastAccess.getOrDefault(b, 0L)));
+        for (int i = 0; i < excess; i++) {
+            UUID uuid = candidates.get(i);
+            playerDataCache.remove(uuid);
+            lastAccess.remove(uuid);
+            index.remove(uuid);
+        }
+    }
+
+    /** 该玩家此项为正且无人严格高于他(并列第一也算); 由存储后端的排名索引回答。 */
+    public boolean isTop(StatLeaderboard.Stat stat, UUID uuid) {
+        PlayerSummary summary = getSummary(uuid);
+        return summary != null && store != null && store.isTop(stat, uuid, stat.valueOf(summary));
+    }
+
+    /** 1 起的名次; 未记录返回 -1。 */
+    public int getRank(StatLeaderboard.Stat stat, UUID uuid) {
+        PlayerSummary summary = getSummary(uuid);
+        return summary != null && store != null ? store.rank(stat, uuid, stat.valueOf(summary)) : -1;
+    }
+
+    /** 排名第 offset 起的至多 limit 名玩家(按排名顺序)。 */
+    public List<UUID> getRankPage(StatLeaderboard.Stat stat, int offset, int limit) {
+        return store != null ? store.page(stat, offset, limit) : List.of();
     }
 
     /**
@@ -211,14 +377,14 @@ public class PlayerDataManager {
             return 0;
         }
         final int[] newCount = {0};
-        mutateTrackedStats(playerId, pd -> newCount[0] = pd.addHonor(honorId));
+        mutateTrackedStats(playerId, pd -> newCount[0] = pd.addHonor(honorId), true);
         if (newCount[0] > 0) {
             globalBestByHonor.merge(honorId, newCount[0], Math::max);
         }
         return newCount[0];
     }
 
-    /** 某 honor 全服最高累计次数(内存缓存, 启动时从所有玩家 playerdata 构建; 未记录过返回 0)。 */
+    /** 某 honor 全服最高累计次数(内存缓存, 启动时从摘要索引构建; 未记录过返回 0)。 */
     public int getGlobalBest(String honorId) {
         if (honorId == null) {
             return 0;
@@ -255,12 +421,16 @@ public class PlayerDataManager {
         }
     }
 
-    /** 某玩家某 honor 获取数量。 */
+    /** 某玩家某 honor 获取数量(常驻摘要或存储查询, 不加载完整数据)。 */
     public int getHonorCount(UUID playerId, String honorId) {
         if (playerId == null || honorId == null || honorId.isBlank()) {
             return 0;
         }
-        return getPlayerData(playerId).getHonorCount(honorId);
+        PlayerSummary summary = index.get(playerId);
+        if (summary != null) {
+            return summary.getHonorCount(honorId);
+        }
+        return store != null ? store.honorCount(playerId, honorId) : 0;
     }
 
     /** 设置某玩家某 honor 获取数量(<=0 清零), 并刷新该 honor 的全服最高缓存。 */
@@ -268,7 +438,8 @@ public class PlayerDataManager {
         if (playerId == null || honorId == null || honorId.isBlank()) {
             return;
         }
-        mutateTrackedStats(playerId, pd -> pd.setHonorCount(honorId, value));
+        mutateTrackedStats(playerId, pd -> pd.setHonorCount(honorId, value), true);
+        persistNow(playerId);
         refreshGlobalBest(honorId);
     }
 
@@ -277,21 +448,35 @@ public class PlayerDataManager {
         if (playerId == null || honorId == null || honorId.isBlank() || amount == 0) {
             return;
         }
-        mutateTrackedStats(playerId, pd -> pd.addHonorCount(honorId, amount));
+        mutateTrackedStats(playerId, pd -> pd.addHonorCount(honorId, amount), true);
+        persistNow(playerId);
         refreshGlobalBest(honorId);
     }
 
-    /** 重算某 honor 全服最高缓存(遍历所有玩家取 max), 玩家计数被指令修改后调用。 */
-    private void refreshGlobalBest(String honorId) {
-        if (honorId == null) {
-            return;
+    /**
+     * 指令修改后立即把该玩家交给存储并持久化(低频), 使数据库后端随后的全服最高查询看到新值。
+     */
+    private void persistNow(UUID uuid) {
+        if (pendingRemovalPlayers.contains(uuid)) {
+            removePlayerData(uuid);
+        } else {
+            savePlayerData(uuid);
         }
-        int best = 0;
-        for (PlayerData playerData : playerDataCache.values()) {
-            if (playerData != null) {
-                best = Math.max(best, playerData.getHonorCount(honorId));
+        if (store != null) {
+            try {
+                store.flush();
+            } catch (IOException e) {
+                ServerLog.error("Failed to sync player data store: %s", e.getMessage());
             }
         }
+    }
+
+    /** 由存储后端的索引重算某 honor 全服最高缓存, 玩家计数被指令修改后调用。 */
+    private void refreshGlobalBest(String honorId) {
+        if (honorId == null || store == null) {
+            return;
+        }
+        int best = store.globalBest(honorId);
         if (best <= 0) {
             globalBestByHonor.remove(honorId);
         } else {
@@ -299,18 +484,11 @@ public class PlayerDataManager {
         }
     }
 
-    /** 从内存 playerDataCache 重建全服最高缓存(服务器启动时调用, 不落盘)。 */
+    /** 由存储后端查询重建全服最高缓存(服务器启动时调用)。 */
     private void rebuildGlobalBestByHonor() {
         globalBestByHonor.clear();
-        for (PlayerData playerData : playerDataCache.values()) {
-            if (playerData == null) {
-                continue;
-            }
-            for (Map.Entry<String, Integer> entry : playerData.getAllHonorCounts().entrySet()) {
-                if (entry.getValue() != null && entry.getValue() > 0) {
-                    globalBestByHonor.merge(entry.getKey(), entry.getValue(), Math::max);
-                }
-            }
+        if (store != null) {
+            globalBestByHonor.putAll(store.globalBests());
         }
     }
 
@@ -318,9 +496,21 @@ public class PlayerDataManager {
         return getPlayerData(uuid);
     }
 
+    /** 统计摘要(未记录过的玩家返回 null; 未常驻时由存储读取, 不加载完整数据)。 */
+    public PlayerSummary getSummary(UUID uuid) {
+        if (uuid == null) {
+            return null;
+        }
+        PlayerSummary summary = index.get(uuid);
+        if (summary == null && store != null) {
+            summary = store.readSummary(uuid);
+        }
+        return summary;
+    }
+
     public float getScore(UUID uuid) {
-        PlayerData playerData = getPlayerData(uuid);
-        return playerData.getScore();
+        PlayerSummary summary = getSummary(uuid);
+        return summary != null ? summary.getScore() : 0.0F;
     }
 
     public void setScore(UUID uuid, float score) {
@@ -336,18 +526,18 @@ public class PlayerDataManager {
     }
 
     public int getKill(UUID uuid) {
-        PlayerData playerData = getPlayerData(uuid);
-        return playerData.getKill();
+        PlayerSummary summary = getSummary(uuid);
+        return summary != null ? summary.getKill() : 0;
     }
 
     public Map<UUID, Integer> getAllKills() {
         Map<UUID, Integer> kills = new java.util.concurrent.ConcurrentHashMap<>();
-        playerDataCache.forEach((uuid, data) -> {
-            int kill = data.getKill();
+        for (PlayerSummary summary : collectSummaries()) {
+            int kill = summary.getKill();
             if (kill > 0) {
-                kills.put(uuid, kill);
+                kills.put(summary.getUUID(), kill);
             }
-        });
+        }
         return kills;
     }
 
@@ -364,18 +554,18 @@ public class PlayerDataManager {
     }
 
     public int getDeath(UUID uuid) {
-        PlayerData playerData = getPlayerData(uuid);
-        return playerData.getDeath();
+        PlayerSummary summary = getSummary(uuid);
+        return summary != null ? summary.getDeath() : 0;
     }
 
     public Map<UUID, Integer> getAllDeaths() {
         Map<UUID, Integer> deaths = new java.util.concurrent.ConcurrentHashMap<>();
-        playerDataCache.forEach((uuid, data) -> {
-            int death = data.getDeath();
+        for (PlayerSummary summary : collectSummaries()) {
+            int death = summary.getDeath();
             if (death > 0) {
-                deaths.put(uuid, death);
+                deaths.put(summary.getUUID(), death);
             }
-        });
+        }
         return deaths;
     }
 
@@ -392,18 +582,18 @@ public class PlayerDataManager {
     }
 
     public int getAssist(UUID uuid) {
-        PlayerData playerData = getPlayerData(uuid);
-        return playerData.getAssist();
+        PlayerSummary summary = getSummary(uuid);
+        return summary != null ? summary.getAssist() : 0;
     }
 
     public Map<UUID, Integer> getAllAssists() {
         Map<UUID, Integer> assists = new java.util.concurrent.ConcurrentHashMap<>();
-        playerDataCache.forEach((uuid, data) -> {
-            int assist = data.getAssist();
+        for (PlayerSummary summary : collectSummaries()) {
+            int assist = summary.getAssist();
             if (assist > 0) {
-                assists.put(uuid, assist);
+                assists.put(summary.getUUID(), assist);
             }
-        });
+        }
         return assists;
     }
 
@@ -420,18 +610,18 @@ public class PlayerDataManager {
     }
 
     public int getRevive(UUID uuid) {
-        PlayerData playerData = getPlayerData(uuid);
-        return playerData.getRevive();
+        PlayerSummary summary = getSummary(uuid);
+        return summary != null ? summary.getRevive() : 0;
     }
 
     public Map<UUID, Integer> getAllRevives() {
         Map<UUID, Integer> revives = new java.util.concurrent.ConcurrentHashMap<>();
-        playerDataCache.forEach((uuid, data) -> {
-            int revive = data.getRevive();
+        for (PlayerSummary summary : collectSummaries()) {
+            int revive = summary.getRevive();
             if (revive > 0) {
-                revives.put(uuid, revive);
+                revives.put(summary.getUUID(), revive);
             }
-        });
+        }
         return revives;
     }
 
@@ -450,54 +640,81 @@ public class PlayerDataManager {
     public void updateLastLoginName(UUID uuid, String name) {
         PlayerData playerData = getPlayerData(uuid);
         playerData.setLastLoginName(name);
+        syncSummary(uuid, playerData);
         savePlayerData(uuid);
     }
 
+    /**
+     * 全体玩家完整数据(未常驻的逐个从磁盘读取, 不加入常驻缓存)。
+     * 开销与玩家总数成正比, 仅供指令等低频场景; 统计查询请用摘要。
+     */
     public Map<UUID, PlayerData> getAllPlayerData() {
-        return Map.copyOf(playerDataCache);
+        List<PlayerSummary> summaries = collectSummaries();
+        Map<UUID, PlayerData> all = new HashMap<>(summaries.size() * 2);
+        for (PlayerSummary summary : summaries) {
+            UUID uuid = summary.getUUID();
+            PlayerData resident = playerDataCache.get(uuid);
+            if (resident == null && store != null) {
+                resident = store.read(uuid);
+            }
+            all.put(uuid, resident != null ? resident : summary.toPlayerData());
+        }
+        return all;
+    }
+
+    /** 全体玩家统计摘要(快照; 开销与玩家总数成正比, 仅供指令/对账等低频场景)。 */
+    public java.util.Collection<PlayerSummary> getAllSummaries() {
+        return java.util.Collections.unmodifiableCollection(collectSummaries());
+    }
+
+    /** 存储中的全体摘要, 常驻的以常驻摘要为准(含尚未交给存储的新玩家)。 */
+    private List<PlayerSummary> collectSummaries() {
+        Map<UUID, PlayerSummary> all = new java.util.LinkedHashMap<>();
+        if (store != null) {
+            store.forEachSummary(summary -> all.put(summary.getUUID(), summary));
+        }
+        for (PlayerSummary summary : index.values()) {
+            all.put(summary.getUUID(), summary);
+        }
+        return new ArrayList<>(all.values());
     }
 
     public Map<UUID, Float> getAllScores() {
         Map<UUID, Float> scores = new ConcurrentHashMap<>();
-        playerDataCache.forEach((uuid, data) -> {
-            if (data.getScore() > 0) {
-                scores.put(uuid, data.getScore());
+        for (PlayerSummary summary : collectSummaries()) {
+            if (summary.getScore() > 0) {
+                scores.put(summary.getUUID(), summary.getScore());
             }
-        });
+        }
         return scores;
     }
 
     public boolean hasPlayerData(UUID uuid) {
-        return playerDataCache.containsKey(uuid);
+        return getSummary(uuid) != null;
     }
 
     public void removePlayerData(UUID uuid) {
         dirtyPlayers.remove(uuid);
         pendingRemovalPlayers.remove(uuid);
         playerDataCache.remove(uuid);
-        Path file = getPlayerDataFile(uuid);
-        try {
-            Files.deleteIfExists(file);
-        } catch (IOException e) {
-            ServerLog.error("Failed to delete player data file for %s", uuid.toString());
+        lastAccess.remove(uuid);
+        index.remove(uuid);
+        statsVersion.incrementAndGet();
+        if (store != null) {
+            store.delete(uuid);
         }
     }
 
     public void clearAllPlayerData() {
         playerDataCache.clear();
+        lastAccess.clear();
+        index.clear();
+        statsVersion.incrementAndGet();
         dirtyPlayers.clear();
         pendingRemovalPlayers.clear();
-        if (Files.exists(playerdataDir)) {
-            try (Stream<Path> paths = Files.walk(playerdataDir, 1)) {
-                paths.filter(Files::isRegularFile)
-                        .filter(path -> path.toString().endsWith(".json"))
-                        .forEach(path -> {
-                            try {
-                                Files.delete(path);
-                            } catch (IOException e) {
-                                ServerLog.error("Failed to delete player data file %s", path.getFileName().toString());
-                            }
-                        });
+        if (store != null) {
+            try {
+                store.clear();
             } catch (IOException e) {
                 ServerLog.error("Failed to clear player data: %s", e.getMessage());
             }
@@ -505,7 +722,7 @@ public class PlayerDataManager {
     }
 
     public int getPlayerCount() {
-        return playerDataCache.size();
+        return store != null ? store.size() : 0;
     }
 
     public boolean isInitialized() {
@@ -517,12 +734,22 @@ public class PlayerDataManager {
     }
 
     public void forceSave(UUID uuid) {
+        // 调用方可能直接改过 PlayerData(如调试指令), 保存前同步摘要与排名索引
+        PlayerData playerData = playerDataCache.get(uuid);
+        if (playerData != null) {
+            syncSummary(uuid, playerData, true);
+        }
         savePlayerData(uuid);
     }
 
     private void mutateTrackedStats(UUID uuid, Consumer<PlayerData> mutation) {
+        mutateTrackedStats(uuid, mutation, false);
+    }
+
+    private void mutateTrackedStats(UUID uuid, Consumer<PlayerData> mutation, boolean honorsChanged) {
         PlayerData playerData = getPlayerData(uuid);
         mutation.accept(playerData);
+        syncSummary(uuid, playerData, honorsChanged);
         if (hasTrackedStats(playerData)) {
             dirtyPlayers.add(uuid);
             pendingRemovalPlayers.remove(uuid);
@@ -534,95 +761,125 @@ public class PlayerDataManager {
 
     /**
      * 处理客户端发来的排行榜请求
-     * 使用快照缓存优化高频请求
+     * 仅登记为挂起请求(同玩家同 offset 以最新为准), 由 {@link #tickScoreboardRequests} 每 tick 合并应答
      */
     public void handleScoreboardRequest(ServerPlayer player, int offset, int limit, long requestId) {
         if (player == null || player.server == null) {
             return;
         }
-        ResolvedScoreboardData resolved = resolveScoreboardData(player);
-        ScoreboardPage page = buildScoreboardPage(resolved.entries(), offset, limit);
-        NetworkHandler.sendToPlayer(new ScoreboardSyncPacket(
-            page.entries(),
-            page.offset(),
-            resolved.entries().size(),
-            requestId,
-            resolved.columns(),
-            resolved.panelTeams()
-        ), player);
-    }
-
-    private ResolvedScoreboardData resolveScoreboardData(ServerPlayer requester) {
-        ConquestScoreboardAdapter.Result conquestResult = ConquestScoreboardAdapter.resolve(requester);
-        if (conquestResult != null) {
-            return new ResolvedScoreboardData(
-                buildPrioritizedEntries(requester, new ArrayList<>(conquestResult.entries())),
-                conquestResult.columns(),
-                conquestResult.panelTeams()
-            );
-        }
-        return new ResolvedScoreboardData(
-            buildPrioritizedEntries(requester, buildScoreboardEntries(requester.server)),
-            1,
-            DEFAULT_PANEL_TEAMS
-        );
-    }
-
-    private ScoreboardPage buildScoreboardPage(List<ScoreboardSyncPacket.Entry> allEntries, int offset, int limit) {
-        int safeOffset = Math.max(0, offset);
-        int safeLimit = Math.max(1, Math.min(SCOREBOARD_PAGE_LIMIT_MAX, limit));
-        int fromIndex = Math.min(safeOffset, allEntries.size());
-        int toIndex = Math.min(fromIndex + safeLimit, allEntries.size());
-        return new ScoreboardPage(new ArrayList<>(allEntries.subList(fromIndex, toIndex)), safeOffset);
-    }
-
-    private List<ScoreboardSyncPacket.Entry> buildPrioritizedEntries(ServerPlayer requester, List<ScoreboardSyncPacket.Entry> allEntries) {
-        if (requester == null || allEntries.isEmpty()) {
-            return allEntries;
-        }
-        List<ScoreboardSyncPacket.Entry> prioritized = new ArrayList<>(allEntries.size());
-        java.util.Set<UUID> added = new java.util.HashSet<>();
-        ScoreboardSyncPacket.Entry self = null;
-        for (ScoreboardSyncPacket.Entry entry : allEntries) {
-            if (entry.uuid.equals(requester.getUUID())) {
-                self = entry;
-                break;
+        Map<Integer, ScoreboardRequest> pending = pendingScoreboardRequests.computeIfAbsent(player.getUUID(), k -> new java.util.LinkedHashMap<>());
+        synchronized (pending) {
+            int safeOffset = Math.max(0, offset);
+            pending.remove(safeOffset);
+            pending.put(safeOffset, new ScoreboardRequest(safeOffset, limit, requestId));
+            while (pending.size() > SCOREBOARD_PENDING_PER_PLAYER_MAX) {
+                pending.remove(pending.keySet().iterator().next());
             }
         }
-        if (self != null) {
-            prioritized.add(self);
-            added.add(self.uuid);
+    }
+
+    /**
+     * 每 tick 应答挂起的排行榜请求: 同一窗口内的请求共享同一份快照,
+     * 每个玩家至少间隔 {@link #SCOREBOARD_REQUEST_INTERVAL_TICKS} tick 才应答一次(期间请求继续挂起合并)。
+     */
+    public void tickScoreboardRequests(MinecraftServer server, long tick) {
+        if (server == null || pendingScoreboardRequests.isEmpty()) {
+            return;
         }
-        String requesterTeam = requester.getTeam() == null ? "" : requester.getTeam().getName();
-        if (!requesterTeam.isEmpty()) {
-            for (ScoreboardSyncPacket.Entry entry : allEntries) {
-                if (!added.contains(entry.uuid) && requesterTeam.equals(entry.teamName)) {
-                    prioritized.add(entry);
-                    added.add(entry.uuid);
-                }
+        var iterator = pendingScoreboardRequests.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<UUID, Map<Integer, ScoreboardRequest>> pendingEntry = iterator.next();
+            UUID playerId = pendingEntry.getKey();
+            ServerPlayer player = server.getPlayerList().getPlayer(playerId);
+            if (player == null) {
+                iterator.remove();
+                lastScoreboardReplyTick.remove(playerId);
+                continue;
             }
-        }
-        for (ScoreboardSyncPacket.Entry entry : allEntries) {
-            if (!added.contains(entry.uuid) && entry.online) {
-                prioritized.add(entry);
-                added.add(entry.uuid);
+            Long lastReply = lastScoreboardReplyTick.get(playerId);
+            if (lastReply != null && tick - lastReply < SCOREBOARD_REQUEST_INTERVAL_TICKS) {
+                continue;
+            }
+            List<ScoreboardRequest> requests;
+            Map<Integer, ScoreboardRequest> pending = pendingEntry.getValue();
+            synchronized (pending) {
+                requests = new ArrayList<>(pending.values());
+                pending.clear();
+            }
+            iterator.remove();
+            if (requests.isEmpty()) {
+                continue;
+            }
+            lastScoreboardReplyTick.put(playerId, tick);
+            ScoreboardSnapshot snapshot = resolveScoreboardSnapshot(player, tick);
+            String requesterTeam = player.getTeam() == null ? "" : player.getTeam().getName();
+            for (ScoreboardRequest request : requests) {
+                ScoreboardPage page = buildScoreboardPage(snapshot, player.getUUID(), requesterTeam, request.offset(), request.limit());
+                NetworkHandler.sendToPlayer(new ScoreboardSyncPacket(
+                    page.entries(),
+                    page.offset(),
+                    snapshot.size(),
+                    request.requestId(),
+                    snapshot.columns(),
+                    snapshot.panelTeams()
+                ), player);
             }
         }
-        for (ScoreboardSyncPacket.Entry entry : allEntries) {
-            if (!added.contains(entry.uuid)) {
-                prioritized.add(entry);
+    }
+
+    /** 玩家下线时清理其挂起请求与限流状态。 */
+    public void clearScoreboardRequests(UUID playerId) {
+        if (playerId == null) {
+            return;
+        }
+        pendingScoreboardRequests.remove(playerId);
+        lastScoreboardReplyTick.remove(playerId);
+    }
+
+    /**
+     * Conquest 房间排行榜按请求者解析(房间视角各异, 不共享);
+     * 否则复用全服共享快照: 统计版本变化且距上次构建满 {@link #SCOREBOARD_SNAPSHOT_MIN_TICKS},
+     * 或快照超过 {@link #SCOREBOARD_SNAPSHOT_MAX_AGE_TICKS} 时才重建。
+     */
+    private ScoreboardSnapshot resolveScoreboardSnapshot(ServerPlayer requester, long tick) {
+        ConquestScoreboardAdapter.Result conquestResult = ConquestScoreboardAdapter.resolve(requester);
+        if (conquestResult != null) {
+            return new ScoreboardSnapshot(-1L, tick, conquestResult.entries(), conquestResult.columns(), conquestResult.panelTeams());
+        }
+        long version = statsVersion.get();
+        ScoreboardSnapshot snapshot = scoreboardSnapshot;
+        if (snapshot != null) {
+            long age = tick - snapshot.builtAtTick();
+            boolean stale = snapshot.version() != version && age >= SCOREBOARD_SNAPSHOT_MIN_TICKS;
+            if (!stale && age >= 0 && age < SCOREBOARD_SNAPSHOT_MAX_AGE_TICKS) {
+                return snapshot;
             }
         }
-        return prioritized;
+        snapshot = new ScoreboardSnapshot(version, tick, buildScoreboardEntries(requester.server), 1, DEFAULT_PANEL_TEAMS);
+        scoreboardSnapshot = snapshot;
+        return snapshot;
+    }
+
+    private ScoreboardPage buildScoreboardPage(ScoreboardSnapshot snapshot, UUID requesterId, String requesterTeam, int offset, int limit) {
+        int safeOffset = Math.max(0, offset);
+        int safeLimit = Math.max(1, Math.min(SCOREBOARD_PAGE_LIMIT_MAX, limit));
+        return new ScoreboardPage(snapshot.page(requesterId, requesterTeam, safeOffset, safeLimit), safeOffset);
     }
 
     /**
      * 更新排行榜快照
-     * 遍历缓存中的所有玩家数据，构建同步条目
+     * 按存储后端的分数排名索引顺序遍历玩家摘要，构建同步条目(无需再排序, 不加载完整数据);
+     * 常驻玩家的统计以常驻摘要为准
      */
     private List<ScoreboardSyncPacket.Entry> buildScoreboardEntries(MinecraftServer server) {
         List<ScoreboardSyncPacket.Entry> entries = new ArrayList<>();
-        playerDataCache.forEach((uuid, data) -> {
+        if (store == null) {
+            return entries;
+        }
+        store.forEachRanked(StatLeaderboard.Stat.SCORE, ranked -> {
+            UUID uuid = ranked.getUUID();
+            PlayerSummary resident = index.get(uuid);
+            PlayerSummary data = resident != null ? resident : ranked;
             String lastLoginName = data.getLastLoginName();
             ServerPlayer onlinePlayer = server.getPlayerList().getPlayer(uuid);
             
@@ -645,13 +902,6 @@ public class PlayerDataManager {
                     isOnline && onlinePlayer.isSpectator()                 ));
             }
         });
-        entries.sort((a, b) -> {
-            int scoreCompare = Integer.compare(b.score, a.score);
-            if (scoreCompare != 0) {
-                return scoreCompare;
-            }
-            return a.uuid.compareTo(b.uuid);
-        });
         return entries;
     }
 
@@ -677,11 +927,7 @@ public class PlayerDataManager {
             || playerData.hasAnyHonor();
     }
 
-    private record ResolvedScoreboardData(List<ScoreboardSyncPacket.Entry> entries, int columns, String[] panelTeams) {
-        private ResolvedScoreboardData {
-            entries = entries == null ? List.of() : entries;
-            panelTeams = panelTeams == null ? DEFAULT_PANEL_TEAMS : panelTeams;
-        }
+    private record ScoreboardRequest(int offset, int limit, long requestId) {
     }
 
     private record ScoreboardPage(List<ScoreboardSyncPacket.Entry> entries, int offset) {
@@ -0,0 +1,50 @@
+package org.mods.gd656killicon.server.data;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 玩家摘要索引(uuid → {@link PlayerSummary}), 常驻内存。
+ *
+ * <p>二进制存储用它持有全体玩家摘要; {@link PlayerDataManager} 用它持有本次会话用到的玩家摘要。
+ * 持久化由存储负责, 索引本身不落盘。</p>
+ */
+final class PlayerIndex {
+    private final Map<UUID, PlayerSummary> summaries = new ConcurrentHashMap<>();
+
+    PlayerSummary get(UUID uuid) {
+        return summaries.get(uuid);
+    }
+
+    boolean contains(UUID uuid) {
+        return summaries.containsKey(uuid);
+    }
+
+    /** @return 已在索引中的摘要, 否则放入并返回 summary。 */
+    PlayerSummary putIfAbsent(PlayerSummary summary) {
+        PlayerSummary existing = summaries.putIfAbsent(summary.getUUID(), summary);
+        return existing != null ? existing : summary;
+    }
+
+    void put(PlayerSummary summary) {
+        summaries.put(summary.getUUID(), summary);
+    }
+
+    PlayerSummary remove(UUID uuid) {
+        return summaries.remove(uuid);
+    }
+
+    void clear() {
+        summaries.clear();
+    }
+
+    Collection<PlayerSummary> values() {
+        return summaries.values();
+    }
+
+    int size() {
+        return summaries.size();
+    }
+}
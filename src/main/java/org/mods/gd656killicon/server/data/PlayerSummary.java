@@ -0,0 +1,115 @@
+package org.mods.gd656killicon.server.data;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 玩家统计摘要: 排行榜/全服最高/计分板所需的全部字段(五项统计、上次登录名、各 honor 累计次数)。
+ *
+ * <p>二进制存储常驻全体玩家的摘要, 数据库存储按需查询({@link StatsStore}); 完整 {@link PlayerData}(含 metadata)仅在需要时按需加载。
+ * 摘要随 PlayerData 变更由 {@link PlayerDataManager} 同步。</p>
+ */
+public final class PlayerSummary {
+    private final UUID uuid;
+    private float score;
+    private int kill;
+    private int death;
+    private int assist;
+    private int revive;
+    private String lastLoginName = "";
+    private Map<String, Integer> honorCounts = Map.of();
+
+    PlayerSummary(UUID uuid) {
+        this.uuid = uuid;
+    }
+
+    /** 从完整数据同步全部字段。 */
+    synchronized void copyFrom(PlayerData data) {
+        copyStatsFrom(data);
+        copyHonorsFrom(data);
+    }
+
+    /** 只同步五项统计与上次登录名(统计变更的热路径, 不复制 honor 表)。 */
+    synchronized void copyStatsFrom(PlayerData data) {
+        this.score = data.getScore();
+        this.kill = data.getKill();
+        this.death = data.getDeath();
+        this.assist = data.getAssist();
+        this.revive = data.getRevive();
+        this.lastLoginName = data.getLastLoginName();
+    }
+
+    /** 只同步 honor 累计次数(honor 变更时调用)。 */
+    synchronized void copyHonorsFrom(PlayerData data) {
+        this.honorCounts = data.hasAnyHonor() ? Map.copyOf(data.getAllHonorCounts()) : Map.of();
+    }
+
+    synchronized void set(float score, int kill, int death, int assist, int revive, String lastLoginName, Map<String, Integer> honorCounts) {
+        this.score = score;
+        this.kill = kill;
+        this.death = death;
+        this.assist = assist;
+        this.revive = revive;
+        this.lastLoginName = lastLoginName != null ? lastLoginName : "";
+        this.honorCounts = honorCounts == null || honorCounts.isEmpty() ? Map.of() : Map.copyOf(honorCounts);
+    }
+
+    public UUID getUUID() {
+        return uuid;
+    }
+
+    public synchronized float getScore() {
+        return score;
+    }
+
+    public synchronized int getKill() {
+        return kill;
+    }
+
+    public synchronized int getDeath() {
+        return death;
+    }
+
+    public synchronized int getAssist() {
+        return assist;
+    }
+
+    public synchronized int getRevive() {
+        return revive;
+    }
+
+    public synchronized String getLastLoginName() {
+        return lastLoginName;
+    }
+
+    public synchronized int getHonorCount(String honorId) {
+        Integer count = honorId != null ? honorCounts.get(honorId) : null;
+        return count != null ? count : 0;
+    }
+
+    /** 各 honor 累计次数(不可变视图)。 */
+    public synchronized Map<String, Integer> getHonorCounts() {
+        return honorCounts;
+    }
+
+    /** 与 PlayerDataManager.hasTrackedStats 同义: 有任何统计或 honor 记录。 */
+    public synchronized boolean hasTrackedStats() {
+        return score > 0 || kill > 0 || death > 0 || assist > 0 || revive > 0 || !honorCounts.isEmpty();
+    }
+
+    /** 完整数据未加载时按摘要构造(字段一致, metadata 为空)。 */
+    synchronized PlayerData toPlayerData() {
+        PlayerData data = new PlayerData(uuid);
+        data.setScore(score);
+        data.setKill(kill);
+        data.setDeath(death);
+        data.setAssist(assist);
+        data.setRevive(revive);
+        data.setLastLoginName(lastLoginName);
+        for (Map.Entry<String, Integer> entry : new HashMap<>(honorCounts).entrySet()) {
+            data.setHonorCount(entry.getKey(), entry.getValue());
+        }
+        return data;
+    }
+}
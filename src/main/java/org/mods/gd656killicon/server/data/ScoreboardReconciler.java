@@ -0,0 +1,222 @@
+package org.mods.gd656killicon.server.data;
+
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.scores.Objective;
+import net.minecraft.world.scores.Score;
+import net.minecraft.world.scores.Scoreboard;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 原版计分项增量对账器: 取代"清空全部分数再逐个重建"的定时刷新。
+ *
+ * <p>一轮对账分两段: 先逐玩家比对期望值与计分项当前值, 只写入不一致的持有者;
+ * 再移除计分项中不再对应任何正值统计的持有者。定时刷新按每 tick 时间预算分摊到多个 tick;
+ * 指令触发的刷新一次跑完。持有者名称按 UUID 缓存, 离线玩家只查一次 profile 缓存。</p>
+ */
+final class ScoreboardReconciler {
+    /** 每 tick 对账时间预算。 */
+    private static final long TICK_BUDGET_NANOS = 1_000_000L;
+    /** 每处理这么多步检查一次预算(避免逐步调用 nanoTime)。 */
+    private static final int BUDGET_CHECK_STRIDE = 32;
+
+    private static final String[] OBJECTIVES = {
+        ServerData.SCOREBOARD_OBJECTIVE,
+        ServerData.KILLBOARD_OBJECTIVE,
+        ServerData.DEATHBOARD_OBJECTIVE,
+        ServerData.ASSISTBOARD_OBJECTIVE,
+        ServerData.REVIVEBOARD_OBJECTIVE
+    };
+
+    private final Map<UUID, String> holderNames = new ConcurrentHashMap<>();
+    private Pass pass;
+    private boolean scheduled;
+
+    /** 一轮对账的进度(玩家快照 + 各计分项已确认的持有者)。 */
+    private static final class Pass {
+        final List<PlayerSummary> players;
+        final Objective[] objectives = new Objective[OBJECTIVES.length];
+        final List<Set<String>> expected = new ArrayList<>(OBJECTIVES.length);
+        List<Score> stale;
+        int playerCursor;
+        int staleCursor;
+
+        Pass(java.util.Collection<PlayerSummary> players) {
+            this.players = new ArrayList<>(players);
+            for (int i = 0; i < OBJECTIVES.length; i++) {
+                expected.add(new HashSet<>());
+            }
+        }
+    }
+
+    /** 请求一轮分摊对账(已有进行中的轮次时不重复开始)。 */
+    void schedule() {
+        scheduled = true;
+    }
+
+    /** 按时间预算推进对账(每 tick 调用)。 */
+    void tick(MinecraftServer server) {
+        if (server == null) {
+            return;
+        }
+        if (pass == null) {
+            if (!scheduled) {
+                return;
+            }
+            scheduled = false;
+            pass = new Pass(PlayerDataManager.get().getAllSummaries());
+        }
+        if (advance(server, pass, System.nanoTime() + TICK_BUDGET_NANOS)) {
+            pass = null;
+        }
+    }
+
+    /** 立即完成一轮完整对账(放弃进行中的轮次)。 */
+    void runFully(MinecraftServer server) {
+        if (server == null) {
+            return;
+        }
+        scheduled = false;
+        pass = null;
+        advance(server, new Pass(PlayerDataManager.get().getAllSummaries()), Long.MAX_VALUE);
+    }
+
+    void reset() {
+        pass = null;
+        scheduled = false;
+        holderNames.clear();
+    }
+
+    /** 在线玩家取当前名称并刷新缓存; 离线玩家优先用缓存, 未命中才查 profile 缓存。 */
+    String resolveHolderName(MinecraftServer server, UUID uuid) {
+        ServerPlayer player = server.getPlayerList().getPlayer(uuid);
+        if (player != null) {
+            String name = player.getScoreboardName();
+            holderNames.put(uuid, name);
+            return name;
+        }
+        String cached = holderNames.get(uuid);
+        if (cached != null) {
+            return cached;
+        }
+        var profile = server.getProfileCache().get(uuid);
+        String name = profile.isPresent() ? profile.get().getName() : uuid.toString();
+        holderNames.put(uuid, name);
+        return name;
+    }
+
+    /** @return 本轮是否已完成。 */
+    private boolean advance(MinecraftServer server, Pass pass, long deadline) {
+        Scoreboard scoreboard = server.getScoreboard();
+        // 每个分片重新解析计分项, 轮次进行中计分项被删除/重建时不写入失效对象
+        for (int i = 0; i < OBJECTIVES.length; i++) {
+            pass.objectives[i] = scoreboard.getObjective(OBJECTIVES[i]);
+        }
+        int steps = 0;
+        while (pass.playerCursor < pass.players.size()) {
+            PlayerSummary summary = pass.players.get(pass.playerCursor++);
+            reconcilePlayer(server, scoreboard, pass, summary.getUUID(), summary);
+            if (++steps % BUDGET_CHECK_STRIDE == 0 && System.nanoTime() >= deadline) {
+                return false;
+            }
+        }
+        if (pass.stale == null) {
+            pass.stale = collectStale(scoreboard, pass);
+        }
+        while (pass.staleCursor < pass.stale.size()) {
+            Score score = pass.stale.get(pass.staleCursor++);
+            removeIfStale(server, scoreboard, score);
+            if (++steps % BUDGET_CHECK_STRIDE == 0 && System.nanoTime() >= deadline) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void reconcilePlayer(MinecraftServer server, Scoreboard scoreboard, Pass pass, UUID uuid, PlayerSummary data) {
+        String holder = null;
+        Map<Objective, Score> current = null;
+        for (int i = 0; i < OBJECTIVES.length; i++) {
+            Objective objective = pass.objectives[i];
+            if (objective == null || !isTracked(i, data)) {
+                continue;
+            }
+            int value = statValue(i, data);
+            if (holder == null) {
+                holder = resolveHolderName(server, uuid);
+                current = scoreboard.getPlayerScores(holder);
+            }
+            pass.expected.get(i).add(holder);
+            Score score = current.get(objective);
+            if (score == null || score.getScore() != value) {
+                scoreboard.getOrCreatePlayerScore(holder, objective).setScore(value);
+            }
+        }
+    }
+
+    /** 计分项中不在期望集合里的持有者(即统计已归零/玩家数据已删除/外部写入的分数)。 */
+    private List<Score> collectStale(Scoreboard scoreboard, Pass pass) {
+        List<Score> stale = new ArrayList<>();
+        for (int i = 0; i < OBJECTIVES.length; i++) {
+            Objective objective = pass.objectives[i];
+            if (objective == null) {
+                continue;
+            }
+            Set<String> expected = pass.expected.get(i);
+            for (Score score : scoreboard.getPlayerScores(objective)) {
+                if (!expected.contains(score.getOwner())) {
+                    stale.add(score);
+                }
+            }
+        }
+        return stale;
+    }
+
+    /** 移除前复核: 轮次进行中新获得统计的在线玩家不移除。 */
+    private void removeIfStale(MinecraftServer server, Scoreboard scoreboard, Score score) {
+        Objective objective = score.getObjective();
+        if (objective == null || scoreboard.getObjective(objective.getName()) != objective) {
+            return;
+        }
+        ServerPlayer online = server.getPlayerList().getPlayerByName(score.getOwner());
+        if (online != null) {
+            int index = objectiveIndex(objective.getName());
+            PlayerSummary data = PlayerDataManager.get().getSummary(online.getUUID());
+            if (index >= 0 && data != null && isTracked(index, data)) {
+                return;
+            }
+        }
+        scoreboard.resetPlayerScore(score.getOwner(), objective);
+    }
+
+    private static int objectiveIndex(String name) {
+        for (int i = 0; i < OBJECTIVES.length; i++) {
+            if (OBJECTIVES[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** 与原全量刷新一致: 统计为正才写入计分项(分数按原始浮点值判断)。 */
+    private static boolean isTracked(int objectiveIndex, PlayerSummary data) {
+        return objectiveIndex == 0 ? data.getScore() > 0 : statValue(objectiveIndex, data) > 0;
+    }
+
+    private static int statValue(int objectiveIndex, PlayerSummary data) {
+        return switch (objectiveIndex) {
+            case 0 -> Math.round(data.getScore());
+            case 1 -> data.getKill();
+            case 2 -> data.getDeath();
+            case 3 -> data.getAssist();
+            default -> data.getRevive();
+        };
+    }
+}
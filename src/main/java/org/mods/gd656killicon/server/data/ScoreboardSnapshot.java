@@ -0,0 +1,126 @@
+package org.mods.gd656killicon.server.data;
+
+import org.mods.gd656killicon.network.packet.ScoreboardSyncPacket;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 排行榜快照: 按排名排好的同步条目 + 预分组索引(按 UUID / 队伍 / 在线), 构建一次后供所有请求者共享。
+ *
+ * <p>请求者的优先排序(自己 → 同队 → 在线 → 其余)不再逐请求复制整张表,
+ * 而是按分段游标只输出请求的那一页。快照不可变, 过期后整体替换。</p>
+ */
+final class ScoreboardSnapshot {
+    private final long version;
+    private final long builtAtTick;
+    private final int columns;
+    private final String[] panelTeams;
+    private final List<ScoreboardSyncPacket.Entry> entries;
+    private final Map<UUID, ScoreboardSyncPacket.Entry> byUuid;
+    private final Map<String, List<ScoreboardSyncPacket.Entry>> byTeam;
+    private final List<ScoreboardSyncPacket.Entry> online;
+    private final List<ScoreboardSyncPacket.Entry> offline;
+
+    ScoreboardSnapshot(long version, long builtAtTick, List<ScoreboardSyncPacket.Entry> entries, int columns, String[] panelTeams) {
+        this.version = version;
+        this.builtAtTick = builtAtTick;
+        this.columns = columns;
+        this.panelTeams = panelTeams;
+        this.entries = entries == null ? List.of() : List.copyOf(entries);
+        this.byUuid = new HashMap<>(this.entries.size() * 2);
+        this.byTeam = new HashMap<>();
+        this.online = new ArrayList<>();
+        this.offline = new ArrayList<>();
+        for (ScoreboardSyncPacket.Entry entry : this.entries) {
+            byUuid.putIfAbsent(entry.uuid, entry);
+            if (!entry.teamName.isEmpty()) {
+                byTeam.computeIfAbsent(entry.teamName, k -> new ArrayList<>()).add(entry);
+            }
+            (entry.online ? online : offline).add(entry);
+        }
+    }
+
+    long version() {
+        return version;
+    }
+
+    long builtAtTick() {
+        return builtAtTick;
+    }
+
+    int columns() {
+        return columns;
+    }
+
+    String[] panelTeams() {
+        return panelTeams;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * 请求者视角下优先排序后的第 [offset, offset + limit) 条。
+     * 排序与原逐请求构建一致: 自己 → 同队(排名序) → 其余在线 → 其余离线。
+     */
+    List<ScoreboardSyncPacket.Entry> page(UUID requesterId, String requesterTeam, int offset, int limit) {
+        PageCursor cursor = new PageCursor(offset, limit);
+        ScoreboardSyncPacket.Entry self = requesterId != null ? byUuid.get(requesterId) : null;
+        if (self != null && cursor.offer(self)) {
+            return cursor.out;
+        }
+        String team = requesterTeam == null ? "" : requesterTeam;
+        if (!team.isEmpty()) {
+            for (ScoreboardSyncPacket.Entry entry : byTeam.getOrDefault(team, List.of())) {
+                if (entry != self && cursor.offer(entry)) {
+                    return cursor.out;
+                }
+            }
+        }
+        if (offerRest(online, self, team, cursor)) {
+            return cursor.out;
+        }
+        offerRest(offline, self, team, cursor);
+        return cursor.out;
+    }
+
+    private static boolean offerRest(List<ScoreboardSyncPacket.Entry> segment, ScoreboardSyncPacket.Entry self, String team, PageCursor cursor) {
+        for (ScoreboardSyncPacket.Entry entry : segment) {
+            if (entry == self || (!team.isEmpty() && team.equals(entry.teamName))) {
+                continue;
+            }
+            if (cursor.offer(entry)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** 分页游标: 先跳过 offset 条, 再收集至多 limit 条。 */
+    private static final class PageCursor {
+        private int skip;
+        private final int limit;
+        private final List<ScoreboardSyncPacket.Entry> out;
+
+        PageCursor(int offset, int limit) {
+            this.skip = Math.max(0, offset);
+            this.limit = Math.max(0, limit);
+            this.out = new ArrayList<>(this.limit);
+        }
+
+        /** @return 本页是否已满。 */
+        boolean offer(ScoreboardSyncPacket.Entry entry) {
+            if (skip > 0) {
+                skip--;
+                return false;
+            }
+            out.add(entry);
+            return out.size() >= limit;
+        }
+    }
+}
@@ -18,6 +18,7 @@ import org.mods.gd656killicon.common.bonus.BonusRegistry;
 import org.mods.gd656killicon.common.BonusType;
 import org.mods.gd656killicon.server.bridge.ServerBridge;
 import org.mods.gd656killicon.server.logic.conquest.ConquestRuntimeStatsAdapter;
+import org.mods.gd656killicon.server.logic.core.BonusExpression;
 import org.mods.gd656killicon.server.util.ServerLog;
 
 import java.io.IOException;
@@ -45,6 +46,9 @@ public class ServerData {
     private static final String DEFAULT_DEATHBOARD_DISPLAY_NAME = "Player Deaths";
     private static final String DEFAULT_ASSISTBOARD_DISPLAY_NAME = "Player Assists";
     private static final String DEFAULT_REVIVEBOARD_DISPLAY_NAME = "Player Revives";
+    private static final int DEFAULT_SCOREBOARD_FLUSH_INTERVAL_TICKS = 1;
+    private static final int MAX_SCOREBOARD_FLUSH_INTERVAL_TICKS = 200;
+    private static final String DEFAULT_STORAGE_BACKEND = "binary";
 
     private double comboWindowSeconds = DEFAULT_COMBO_WINDOW_SECONDS;
     private int assistTimeoutSeconds = DEFAULT_ASSIST_TIMEOUT_SECONDS;
@@ -55,8 +59,18 @@ public class ServerData {
     private String assistboardDisplayName = DEFAULT_ASSISTBOARD_DISPLAY_NAME;
     private String reviveboardDisplayName = DEFAULT_REVIVEBOARD_DISPLAY_NAME;
     private boolean neutralVehicleSkip = true;
+    /** 原版计分板合并写入节拍(tick), 1 为每 tick 写入一次。 */
+    private int scoreboardFlushIntervalTicks = DEFAULT_SCOREBOARD_FLUSH_INTERVAL_TICKS;
+    /** 玩家数据存储后端(binary / sqlite / h2), 只在服务器启动时读取。 */
+    private String storageBackend = DEFAULT_STORAGE_BACKEND;
+    private final ObjectiveUpdateQueue objectiveUpdates = new ObjectiveUpdateQueue();
+    private final ScoreboardReconciler scoreboardReconciler = new ScoreboardReconciler();
     private final Set<Integer> disabledBonusTypes = ConcurrentHashMap.newKeySet();
     private final Map<Integer, String> bonusExpressions = new ConcurrentHashMap<>();
+    /** 按 type 索引的已编译表达式; 表达式变更时置空, 下次取用时整体重建。 */
+    private volatile BonusExpression[] compiledExpressions;
+    /** 未绑定变量时的默认求值上下文(只读)。 */
+    private static final BonusExpression.Variables DEFAULT_VARIABLES = new BonusExpression.Variables();
 
     private Path configPath;
     private boolean loaded = false;
@@ -92,6 +106,8 @@ public class ServerData {
 
     public void shutdown() {
         if (!loaded) return;
+        objectiveUpdates.clear();
+        scoreboardReconciler.reset();
         loaded = false;
         configPath = null;
         applyDefaults();
@@ -182,6 +198,15 @@ public class ServerData {
 
     public void setNeutralVehicleSkip(boolean val) { this.neutralVehicleSkip = val; saveConfig(); }
 
+    public int getScoreboardFlushIntervalTicks() { return scoreboardFlushIntervalTicks; }
+    public void setScoreboardFlushIntervalTicks(int val) { this.scoreboardFlushIntervalTicks = clampFlushInterval(val); saveConfig(); }
+
+    public String getStorageBackend() { return storageBackend; }
+
+    private static int clampFlushInterval(int val) {
+        return Math.max(1, Math.min(MAX_SCOREBOARD_FLUSH_INTERVAL_TICKS, val));
+    }
+
     public String getReviveboardDisplayName() { return reviveboardDisplayName; }
 
     public void setReviveboardDisplayName(String name) {
@@ -221,16 +246,51 @@ public class ServerData {
 
     public void setBonusExpression(int type, String expression) {
         bonusExpressions.put(type, expression);
+        compiledExpressions = null;
         saveConfig();
     }
 
+    /** 加分项倍率(变量取默认值)。 */
     public double getBonusMultiplier(int type) {
-        String expr = getBonusExpression(type);
-        try {
-            return Double.parseDouble(expr);
-        } catch (NumberFormatException e) {
+        return getBonusMultiplier(type, DEFAULT_VARIABLES);
+    }
+
+    /** 加分项倍率: 以给定变量绑定求值已编译表达式(引用 scale 的表达式折算为倍率); 非法表达式为 0。 */
+    public double getBonusMultiplier(int type, BonusExpression.Variables variables) {
+        BonusExpression[] compiled = compiledExpressions;
+        if (compiled == null) {
+            compiled = compileBonusExpressions();
+        }
+        if (type < 0 || type >= compiled.length || compiled[type] == null) {
             return 0.0;
         }
+        return compiled[type].multiplier(variables);
+    }
+
+    private synchronized BonusExpression[] compileBonusExpressions() {
+        BonusExpression[] compiled = compiledExpressions;
+        if (compiled != null) {
+            return compiled;
+        }
+        int maxType = -1;
+        for (BonusDefinition def : BonusRegistry.getAll()) {
+            maxType = Math.max(maxType, def.type());
+        }
+        compiled = new BonusExpression[maxType + 1];
+        for (BonusDefinition def : BonusRegistry.getAll()) {
+            if (def.type() < 0) {
+                continue;
+            }
+            String expr = getBonusExpression(def.type());
+            try {
+                compiled[def.type()] = BonusExpression.compile(expr);
+            } catch (BonusExpression.CompileException e) {
+                ServerLog.error("Invalid bonus expression for %s: '%s' (%s)", def.id(), expr, e.getMessage());
+                compiled[def.type()] = BonusExpression.ZERO;
+            }
+        }
+        compiledExpressions = compiled;
+        return compiled;
     }
 
     public void resetConfig() {
@@ -243,9 +303,11 @@ public class ServerData {
         assistboardDisplayName = "鐜╁鍔╂敾";
         reviveboardDisplayName = "玩家救援";
         neutralVehicleSkip = true;
+        scoreboardFlushIntervalTicks = DEFAULT_SCOREBOARD_FLUSH_INTERVAL_TICKS;
         disabledBonusTypes.clear();
         resetDisabledBonusTypes();
         bonusExpressions.clear();
+        compiledExpressions = null;
         saveConfig();
     }
     
@@ -253,6 +315,7 @@ public class ServerData {
         disabledBonusTypes.clear();
         resetDisabledBonusTypes();
         bonusExpressions.clear();
+        compiledExpressions = null;
         saveConfig();
     }
 
@@ -266,9 +329,12 @@ public class ServerData {
         assistboardDisplayName = DEFAULT_ASSISTBOARD_DISPLAY_NAME;
         reviveboardDisplayName = DEFAULT_REVIVEBOARD_DISPLAY_NAME;
         neutralVehicleSkip = true;
+        scoreboardFlushIntervalTicks = DEFAULT_SCOREBOARD_FLUSH_INTERVAL_TICKS;
+        storageBackend = DEFAULT_STORAGE_BACKEND;
         disabledBonusTypes.clear();
         resetDisabledBonusTypes();
         bonusExpressions.clear();
+        compiledExpressions = null;
     }
 
     /** 默认禁用集合由 BonusRegistry 驱动（disabledByDefault），唯一数据源。 */
@@ -297,15 +363,7 @@ public class ServerData {
     }
 
     public boolean isTopScorer(UUID uuid) {
-        Map<UUID, Float> allScores = getAllScores();
-        if (allScores.isEmpty()) return false;
-        float score = getScore(uuid);
-        if (score <= 0) return false;
-
-        for (float s : allScores.values()) {
-            if (s > score) return false;
-        }
-        return true;
+        return PlayerDataManager.get().isTop(StatLeaderboard.Stat.SCORE, uuid);
     }
 
     public void addScore(ServerPlayer player, float amount) {
@@ -342,15 +400,7 @@ public class ServerData {
     }
 
     public boolean isTopKiller(UUID uuid) {
-        Map<UUID, Integer> allKills = getAllKills();
-        if (allKills.isEmpty()) return false;
-        int kill = getKill(uuid);
-        if (kill <= 0) return false;
-
-        for (int k : allKills.values()) {
-            if (k > kill) return false;
-        }
-        return true;
+        return PlayerDataManager.get().isTop(StatLeaderboard.Stat.KILL, uuid);
     }
 
     public void addKill(ServerPlayer player, int amount) {
@@ -374,15 +424,7 @@ public class ServerData {
     }
 
     public boolean isTopDead(UUID uuid) {
-        Map<UUID, Integer> allDeaths = getAllDeaths();
-        if (allDeaths.isEmpty()) return false;
-        int death = getDeath(uuid);
-        if (death <= 0) return false;
-
-        for (int d : allDeaths.values()) {
-            if (d > death) return false;
-        }
-        return true;
+        return PlayerDataManager.get().isTop(StatLeaderboard.Stat.DEATH, uuid);
     }
 
     public void addDeath(ServerPlayer player, int amount) {
@@ -437,64 +479,18 @@ public class ServerData {
         setAllIntentionallyTrackedStats(server, PlayerDataManager.get().getAllAssists(), (uuid, value) -> PlayerDataManager.get().setAssist(uuid, value), Math.max(0, amount));
     }
 
+    /**
+     * 立即对账全部计分项(指令修改统计后调用): 只写入值有变化的持有者, 移除已归零的持有者。
+     */
     public void refreshScoreboard(MinecraftServer server) {
-        Scoreboard scoreboard = server.getScoreboard();
-        
-        Objective scoreObjective = scoreboard.getObjective(SCOREBOARD_OBJECTIVE);
-        if (scoreObjective != null) {
-            clearScoreboardScores(scoreboard, scoreObjective);
-            
-            PlayerDataManager.get().getAllScores().forEach((uuid, score) -> {
-                String scoreHolderName = getScoreHolderName(server, uuid);
-                scoreboard.getOrCreatePlayerScore(scoreHolderName, scoreObjective).setScore(Math.round(score));
-            });
-        }
-        
-        Objective killObjective = scoreboard.getObjective(KILLBOARD_OBJECTIVE);
-        if (killObjective != null) {
-            clearScoreboardScores(scoreboard, killObjective);
-            
-            PlayerDataManager.get().getAllKills().forEach((uuid, kill) -> {
-                String scoreHolderName = getScoreHolderName(server, uuid);
-                scoreboard.getOrCreatePlayerScore(scoreHolderName, killObjective).setScore(kill);
-            });
-        }
-        
-        Objective deathObjective = scoreboard.getObjective(DEATHBOARD_OBJECTIVE);
-        if (deathObjective != null) {
-            clearScoreboardScores(scoreboard, deathObjective);
-            
-            PlayerDataManager.get().getAllDeaths().forEach((uuid, death) -> {
-                String scoreHolderName = getScoreHolderName(server, uuid);
-                scoreboard.getOrCreatePlayerScore(scoreHolderName, deathObjective).setScore(death);
-            });
-        }
-        
-        Objective assistObjective = scoreboard.getObjective(ASSISTBOARD_OBJECTIVE);
-        if (assistObjective != null) {
-            clearScoreboardScores(scoreboard, assistObjective);
-            
-            PlayerDataManager.get().getAllAssists().forEach((uuid, assist) -> {
-                String scoreHolderName = getScoreHolderName(server, uuid);
-                scoreboard.getOrCreatePlayerScore(scoreHolderName, assistObjective).setScore(assist);
-            });
-        }
-
-        Objective reviveObjective = scoreboard.getObjective(REVIVEBOARD_OBJECTIVE);
-        if (reviveObjective != null) {
-            clearScoreboardScores(scoreboard, reviveObjective);
-
-            PlayerDataManager.get().getAllRevives().forEach((uuid, revive) -> {
-                String scoreHolderName = getScoreHolderName(server, uuid);
-                scoreboard.getOrCreatePlayerScore(scoreHolderName, reviveObjective).setScore(revive);
-            });
-        }
+        // 对账读取的是最新统计, 挂起的合并更新作废(避免旧值在下次写入时覆盖)
+        objectiveUpdates.clear();
+        scoreboardReconciler.runFully(server);
     }
 
-    private void clearScoreboardScores(Scoreboard scoreboard, Objective objective) {
-        scoreboard.getPlayerScores(objective).forEach(score -> {
-            scoreboard.resetPlayerScore(score.getOwner(), objective);
-        });
+    /** 定时刷新: 请求一轮按 tick 时间预算分摊的增量对账。 */
+    public void scheduleScoreboardReconcile() {
+        scoreboardReconciler.schedule();
     }
 
     public static final String SCOREBOARD_OBJECTIVE = "gd656killicon.score";
@@ -574,14 +570,30 @@ public class ServerData {
         }
     }
 
+    /** 计分板持有者名称(在线取当前名称, 离线按 UUID 缓存 profile 查询结果)。 */
     public String getScoreHolderName(MinecraftServer server, UUID uuid) {
-        ServerPlayer player = server.getPlayerList().getPlayer(uuid);
-        if (player != null) return player.getScoreboardName();
+        return scoreboardReconciler.resolveHolderName(server, uuid);
+    }
 
-        var profile = server.getProfileCache().get(uuid);
-        if (profile.isPresent()) return profile.get().getName();
+    /**
+     * 按节拍写入合并后的原版计分板更新(由 ServerCombatEngine.onTick 每 tick 调用)。
+     * 同一持有者在节拍内的多次变更只写最终值。
+     */
+    public void tickScoreboardUpdates(MinecraftServer server, long tick) {
+        if (server == null) {
+            return;
+        }
+        if (!objectiveUpdates.isEmpty() && tick % scoreboardFlushIntervalTicks == 0) {
+            objectiveUpdates.flush(server.getScoreboard());
+        }
+        scoreboardReconciler.tick(server);
+    }
 
-        return uuid.toString();
+    /** 立即写入全部挂起的计分板更新(服务端停止前调用)。 */
+    public void flushScoreboardUpdates(MinecraftServer server) {
+        if (server != null) {
+            objectiveUpdates.flush(server.getScoreboard());
+        }
     }
 
     public void syncScoreToPlayer(ServerPlayer player) {
@@ -648,43 +660,23 @@ public class ServerData {
     }
 
     private void updateScoreboard(ServerPlayer player, float score) {
-        Scoreboard scoreboard = player.getScoreboard();
-        Objective objective = scoreboard.getObjective(SCOREBOARD_OBJECTIVE);
-        if (objective != null) {
-            scoreboard.getOrCreatePlayerScore(player.getScoreboardName(), objective).setScore(Math.round(score));
-        }
+        objectiveUpdates.mark(SCOREBOARD_OBJECTIVE, player.getScoreboardName(), Math.round(score));
     }
 
     private void updateKillboard(ServerPlayer player, int kill) {
-        Scoreboard scoreboard = player.getScoreboard();
-        Objective objective = scoreboard.getObjective(KILLBOARD_OBJECTIVE);
-        if (objective != null) {
-            scoreboard.getOrCreatePlayerScore(player.getScoreboardName(), objective).setScore(kill);
-        }
+        objectiveUpdates.mark(KILLBOARD_OBJECTIVE, player.getScoreboardName(), kill);
     }
 
     private void updateDeathboard(ServerPlayer player, int death) {
-        Scoreboard scoreboard = player.getScoreboard();
-        Objective objective = scoreboard.getObjective(DEATHBOARD_OBJECTIVE);
-        if (objective != null) {
-            scoreboard.getOrCreatePlayerScore(player.getScoreboardName(), objective).setScore(death);
-        }
+        objectiveUpdates.mark(DEATHBOARD_OBJECTIVE, player.getScoreboardName(), death);
     }
 
     private void updateAssistboard(ServerPlayer player, int assist) {
-        Scoreboard scoreboard = player.getScoreboard();
-        Objective objective = scoreboard.getObjective(ASSISTBOARD_OBJECTIVE);
-        if (objective != null) {
-            scoreboard.getOrCreatePlayerScore(player.getScoreboardName(), objective).setScore(assist);
-        }
+        objectiveUpdates.mark(ASSISTBOARD_OBJECTIVE, player.getScoreboardName(), assist);
     }
 
     private void updateReviveboard(ServerPlayer player, int revive) {
-        Scoreboard scoreboard = player.getScoreboard();
-        Objective objective = scoreboard.getObjective(REVIVEBOARD_OBJECTIVE);
-        if (objective != null) {
-            scoreboard.getOrCreatePlayerScore(player.getScoreboardName(), objective).setScore(revive);
-        }
+        objectiveUpdates.mark(REVIVEBOARD_OBJECTIVE, player.getScoreboardName(), revive);
     }
 
     private void load() {
@@ -700,6 +692,8 @@ public class ServerData {
             if (json.has("assistboard_display_name")) assistboardDisplayName = json.get("assistboard_display_name").getAsString();
             if (json.has("reviveboard_display_name")) reviveboardDisplayName = json.get("reviveboard_display_name").getAsString();
                 if (json.has("neutral_vehicle_skip")) neutralVehicleSkip = json.get("neutral_vehicle_skip").getAsBoolean();
+                if (json.has("scoreboard_flush_interval_ticks")) scoreboardFlushIntervalTicks = clampFlushInterval(json.get("scoreboard_flush_interval_ticks").getAsInt());
+                if (json.has("storage_backend")) storageBackend = json.get("storage_backend").getAsString().trim().toLowerCase(java.util.Locale.ROOT);
                 if (json.has("disabled_bonuses")) {
                     JsonArray array = json.getAsJsonArray("disabled_bonuses");
                     disabledBonusTypes.clear();
@@ -715,6 +709,7 @@ public class ServerData {
                             bonusExpressions.put(Integer.parseInt(entry.getKey()), entry.getValue().getAsString());
                         } catch (Exception ignored) {}
                     }
+                    compiledExpressions = null;
                 }
             }
         } catch (Exception e) {
@@ -734,6 +729,8 @@ public class ServerData {
         json.addProperty("assistboard_display_name", assistboardDisplayName);
         json.addProperty("reviveboard_display_name", reviveboardDisplayName);
         json.addProperty("neutral_vehicle_skip", neutralVehicleSkip);
+        json.addProperty("scoreboard_flush_interval_ticks", scoreboardFlushIntervalTicks);
+        json.addProperty("storage_backend", storageBackend);
 
             JsonArray disabledArray = new JsonArray();
             disabledBonusTypes.forEach(disabledArray::add);
@@ -0,0 +1,301 @@
+package org.mods.gd656killicon.server.data;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * 各统计项(分数/击杀/死亡/助攻/救援)的增量排名索引, 取代逐玩家全量扫描与每次请求的全量排序。
+ *
+ * <p>每个统计项一棵带子树大小的顺序统计树(treap), 排序键为 (值降序, UUID 升序), 与排行榜原排序一致。
+ * 由二进制存储({@link BinaryStatsStore})随玩家摘要载入/变更/删除同步更新; "是否第一" "某玩家名次" "第 N 页"
+ * 均为 O(log n)(分页另加 O(k) 输出)。</p>
+ */
+public final class StatLeaderboard {
+    public enum Stat {
+        SCORE,
+        KILL,
+        DEATH,
+        ASSIST,
+        REVIVE;
+
+        double valueOf(PlayerSummary data) {
+            return switch (this) {
+                case SCORE -> data.getScore();
+                case KILL -> data.getKill();
+                case DEATH -> data.getDeath();
+                case ASSIST -> data.getAssist();
+                case REVIVE -> data.getRevive();
+            };
+        }
+    }
+
+    private final Map<Stat, RankIndex> indexes = new EnumMap<>(Stat.class);
+
+    public StatLeaderboard() {
+        for (Stat stat : Stat.values()) {
+            indexes.put(stat, new RankIndex());
+        }
+    }
+
+    /** 按玩家数据当前值更新全部统计项索引(值未变的统计项不动)。 */
+    public void update(UUID uuid, PlayerSummary data) {
+        if (uuid == null || data == null) {
+            return;
+        }
+        for (Stat stat : Stat.values()) {
+            indexes.get(stat).put(uuid, stat.valueOf(data));
+        }
+    }
+
+    public void remove(UUID uuid) {
+        if (uuid == null) {
+            return;
+        }
+        for (RankIndex index : indexes.values()) {
+            index.remove(uuid);
+        }
+    }
+
+    public void clear() {
+        for (RankIndex index : indexes.values()) {
+            index.clear();
+        }
+    }
+
+    /** 该玩家此项为正且无人严格高于他(并列第一也算), 与旧版全量扫描语义一致。 */
+    public boolean isTop(Stat stat, UUID uuid) {
+        return indexes.get(stat).isTop(uuid);
+    }
+
+    /** 1 起的名次; 未索引返回 -1。 */
+    public int rankOf(Stat stat, UUID uuid) {
+        return indexes.get(stat).rankOf(uuid);
+    }
+
+    /** 排名第 offset 起的至多 limit 名玩家(按排名顺序)。 */
+    public List<UUID> page(Stat stat, int offset, int limit) {
+        return indexes.get(stat).page(offset, limit);
+    }
+
+    /** 按排名顺序遍历全部已索引玩家。 */
+    public void forEachRanked(Stat stat, Consumer<UUID> action) {
+        for (UUID uuid : indexes.get(stat).page(0, Integer.MAX_VALUE)) {
+            action.accept(uuid);
+        }
+    }
+
+    public int size(Stat stat) {
+        return indexes.get(stat).size();
+    }
+
+    // ==================== 顺序统计树 ====================
+
+    private static final class Node {
+        final double value;
+        final UUID uuid;
+        final int priority;
+        int size = 1;
+        Node left;
+        Node right;
+
+        Node(double value, UUID uuid, int priority) {
+            this.value = value;
+            this.uuid = uuid;
+            this.priority = priority;
+        }
+    }
+
+    /** 单个统计项的索引; 读写均加锁(服务端线程写, 自动保存/网络线程可能读)。 */
+    private static final class RankIndex {
+        private final Map<UUID, Double> values = new HashMap<>();
+        private Node root;
+        private int seed = 0x2545F491;
+
+        synchronized void put(UUID uuid, double value) {
+            Double current = values.get(uuid);
+            if (current != null) {
+                if (current == value) {
+                    return;
+                }
+                root = delete(root, current, uuid);
+            }
+            values.put(uuid, value);
+            root = insert(root, new Node(value, uuid, nextPriority()));
+        }
+
+        synchronized void remove(UUID uuid) {
+            Double current = values.remove(uuid);
+            if (current != null) {
+                root = delete(root, current, uuid);
+            }
+        }
+
+        synchronized void clear() {
+            values.clear();
+            root = null;
+        }
+
+        synchronized int size() {
+            return size(root);
+        }
+
+        synchronized boolean isTop(UUID uuid) {
+            Double value = values.get(uuid);
+            if (value == null || value <= 0 || root == null) {
+                return false;
+            }
+            Node first = root;
+            while (first.left != null) {
+                first = first.left;
+            }
+            return first.value <= value;
+        }
+
+        synchronized int rankOf(UUID uuid) {
+            Double value = values.get(uuid);
+            if (value == null) {
+                return -1;
+            }
+            int before = 0;
+            Node node = root;
+            while (node != null) {
+                int cmp = compare(value, uuid, node);
+                if (cmp == 0) {
+                    return before + size(node.left) + 1;
+                }
+                if (cmp < 0) {
+                    node = node.left;
+                } else {
+                    before += size(node.left) + 1;
+                    node = node.right;
+                }
+            }
+            return -1;
+        }
+
+        synchronized List<UUID> page(int offset, int limit) {
+            int from = Math.max(0, offset);
+            int count = Math.max(0, Math.min(limit, size(root) - from));
+            List<UUID> out = new ArrayList<>(count);
+            if (count > 0) {
+                collect(root, from, count, out);
+            }
+            return out;
+        }
+
+        /** 中序输出第 skip 名起的 count 名, 借子树大小跳过整棵左子树。 */
+        private static void collect(Node node, int skip, int count, List<UUID> out) {
+            if (node == null || count <= 0) {
+                return;
+            }
+            int leftSize = size(node.left);
+            if (skip < leftSize) {
+                collect(node.left, skip, count, out);
+            }
+            if (out.size() >= count) {
+                return;
+            }
+            if (skip <= leftSize) {
+                out.add(node.uuid);
+            }
+            if (out.size() < count) {
+                collect(node.right, Math.max(0, skip - leftSize - 1), count, out);
+            }
+        }
+
+        private static Node insert(Node node, Node inserted) {
+            if (node == null) {
+                return inserted;
+            }
+            if (inserted.priority > node.priority) {
+                Node[] parts = split(node, inserted.value, inserted.uuid);
+                inserted.left = parts[0];
+                inserted.right = parts[1];
+                return recount(inserted);
+            }
+            if (compare(inserted.value, inserted.uuid, node) < 0) {
+                node.left = insert(node.left, inserted);
+            } else {
+                node.right = insert(node.right, inserted);
+            }
+            return recount(node);
+        }
+
+        private static Node delete(Node node, double value, UUID uuid) {
+            if (node == null) {
+                return null;
+            }
+            int cmp = compare(value, uuid, node);
+            if (cmp == 0) {
+                return merge(node.left, node.right);
+            }
+            if (cmp < 0) {
+                node.left = delete(node.left, value, uuid);
+            } else {
+                node.right = delete(node.right, value, uuid);
+            }
+            return recount(node);
+        }
+
+        /** 按键拆分为 [< 键, > 键] 两棵树(键本身不在树中)。 */
+        private static Node[] split(Node node, double value, UUID uuid) {
+            if (node == null) {
+                return new Node[]{null, null};
+            }
+            if (compare(value, uuid, node) < 0) {
+                Node[] parts = split(node.left, value, uuid);
+                node.left = parts[1];
+                parts[1] = recount(node);
+                return parts;
+            }
+            Node[] parts = split(node.right, value, uuid);
+            node.right = parts[0];
+            parts[0] = recount(node);
+            return parts;
+        }
+
+        private static Node merge(Node left, Node right) {
+            if (left == null) {
+                return right;
+            }
+            if (right == null) {
+                return left;
+            }
+            if (left.priority > right.priority) {
+                left.right = merge(left.right, right);
+                return recount(left);
+            }
+            right.left = merge(left, right.left);
+            return recount(right);
+        }
+
+        /** 排序键比较: 值降序, 同值按 UUID 升序。 */
+        private static int compare(double value, UUID uuid, Node node) {
+            int cmp = Double.compare(node.value, value);
+            return cmp != 0 ? cmp : uuid.compareTo(node.uuid);
+        }
+
+        private static Node recount(Node node) {
+            node.size = 1 + size(node.left) + size(node.right);
+            return node;
+        }
+
+        private static int size(Node node) {
+            return node == null ? 0 : node.size;
+        }
+
+        private int nextPriority() {
+            int x = seed;
+            x ^= x << 13;
+            x ^= x >>> 17;
+            x ^= x << 5;
+            seed = x;
+            return x;
+        }
+    }
+}
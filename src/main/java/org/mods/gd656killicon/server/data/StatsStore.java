@@ -0,0 +1,80 @@
+package org.mods.gd656killicon.server.data;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * 玩家统计存储后端 SPI(由配置 storage_backend 选择, 见 {@link PlayerDataManager})。
+ *
+ * <p>写入先缓冲在后端内部(同一玩家只保留最新状态), 由自动保存线程调用 {@link #flush()} 成批持久化。
+ * 排名/分页/honor 计数/全服最高也由后端回答: 二进制后端用常驻摘要上的内存索引, 数据库后端用表上的索引查询,
+ * 不把全体玩家载入内存。{@link PlayerDataManager} 只常驻本次会话用到的玩家摘要。</p>
+ *
+ * <p>排名类查询以调用方传入的值代表被查询玩家的当前值; 数据库后端中其他玩家的值以已提交的数据为准
+ * (最多滞后一个自动保存周期)。单个玩家的读取({@link #read}/{@link #readSummary}/{@link #honorCount})含尚未 flush 的写入。</p>
+ */
+interface StatsStore {
+    /** 配置中使用的后端名。 */
+    String name();
+
+    /** 打开存储(不要求把玩家数据载入内存)。 */
+    void open() throws IOException;
+
+    /** 读取完整数据(含尚未 flush 的写入); 不存在返回 null。 */
+    PlayerData read(UUID uuid);
+
+    /** 读取摘要(含尚未 flush 的写入); 不存在返回 null。 */
+    PlayerSummary readSummary(UUID uuid);
+
+    /** 登记玩家最新完整状态(调用线程上立即取快照, 下次 flush 持久化)。 */
+    void write(PlayerData playerData);
+
+    void delete(UUID uuid);
+
+    /**
+     * 常驻摘要变更后通知后端(二进制后端据此同步内存索引; 数据库后端的索引随 flush 更新)。
+     * @param honorsBefore 变更前的 honor 计数; honor 未变时为 null
+     */
+    void indexSummary(PlayerSummary summary, Map<String, Integer> honorsBefore);
+
+    /** 玩家总数。 */
+    int size();
+
+    /** 该统计项为正且无人严格高于 value(并列第一也算)。 */
+    boolean isTop(StatLeaderboard.Stat stat, UUID uuid, double value);
+
+    /** 1 起的名次(值降序, 同值按 UUID 升序); 未记录返回 -1。 */
+    int rank(StatLeaderboard.Stat stat, UUID uuid, double value);
+
+    /** 排名第 offset 起的至多 limit 名玩家(按排名顺序)。 */
+    List<UUID> page(StatLeaderboard.Stat stat, int offset, int limit);
+
+    /** 按排名顺序遍历全体玩家摘要(至少含五项统计与上次登录名), 共享排行榜快照用。 */
+    void forEachRanked(StatLeaderboard.Stat stat, Consumer<PlayerSummary> action);
+
+    /** 遍历全体玩家摘要(含尚未 flush 的写入), 仅供指令/对账等低频全量场景。 */
+    void forEachSummary(Consumer<PlayerSummary> action);
+
+    /** 某玩家某 honor 累计次数(含尚未 flush 的写入)。 */
+    int honorCount(UUID uuid, String honorId);
+
+    /** 某 honor 全体玩家中的最高次数(无人获得返回 0)。 */
+    int globalBest(String honorId);
+
+    /** 全部 honor 的最高次数。 */
+    Map<String, Integer> globalBests();
+
+    /** 把缓冲的写入/删除作为一批持久化。 */
+    void flush() throws IOException;
+
+    /** 后台维护(如日志合并); force 为 true 时忽略触发阈值。 */
+    void maintain(boolean force) throws IOException;
+
+    /** 删除全部玩家数据。 */
+    void clear() throws IOException;
+
+    void close();
+}
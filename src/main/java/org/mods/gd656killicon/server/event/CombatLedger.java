@@ -0,0 +1,309 @@
+package org.mods.gd656killicon.server.event;
+
+import net.minecraft.world.phys.Vec3;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 单个实体的战斗账本: 汇总原先分散在 ServerCombatEngine 各静态表中的逐实体状态。
+ *
+ * <p>每次伤害/死亡事件只查一次账本; 计数器为平铺字段, 伤害历史为 {@link DamageHistory} 环形缓冲, 击杀时间戳为原始类型小数组。
+ * 死亡走 {@link #resetLife(boolean)}、登出走 {@link #resetSession()}。</p>
+ *
+ * <p>带 TTL 的状态写入时向共享过期调度器登记账本最早截止时间(每个账本同一时刻至多一个有效条目),
+ * 到期由 {@link CombatLedgers} 回调 {@link #expire(long)} 清理并登记下一个截止时间, 空闲账本随即回收。</p>
+ *
+ * <p>仅在服务端主线程访问; 伤害历史可能被跨实体读取(救星判定), 相关方法对账本加锁。</p>
+ */
+final class CombatLedger {
+    static final long COMBAT_TTL_MS = 30000L;
+    static final long TEAM_KILL_TTL_MS = 60000L;
+    static final long ITEM_SWITCH_TTL_MS = 10000L;
+    static final long DAMAGE_HISTORY_TTL_MS = 120000L;
+    static final long FIRE_ATTRIBUTION_TIMEOUT_MS = 15000L;
+    static final long STREAK_WINDOW_MS = 360000L;
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    final UUID id;
+    private final CombatLedgers owner;
+    /** 当前有效的过期登记截止时间; 0 = 未登记。 */
+    long scheduledExpiry;
+
+    // ---- 作为受害者 ----
+    float lastDamage;
+    private final DamageHistory damageHistory = new DamageHistory();
+    private UUID fireAttacker;
+    private long fireTime;
+    /** 击杀过本玩家的攻击者 → 时间(复仇判定; 仅玩家受害者记录)。 */
+    final Map<UUID, Long> killers = new HashMap<>();
+
+    // ---- 作为参战方/击杀者 ----
+    /** 交战对象 → 交战状态(无伤/锁定目标/坚守阵地判定); 增删经由 {@link CombatLedgers} 维护反向索引。 */
+    final Map<UUID, CombatState> combats = new HashMap<>();
+    /** 本实体击杀的玩家所属队伍 → 击杀记录(交给我判定)。 */
+    final Map<String, TeamKillRecord> teamKills = new HashMap<>();
+    private long[] killTimes = new long[INITIAL_CAPACITY];
+    private int killTimeCount;
+    int consecutiveDeaths;
+    int lifeKills;
+    int consecutiveAssists;
+    private int explosionKills;
+    private long explosionKillEpoch = -1L;
+    private long lastItemSwitchTime;
+    int lastSelectedSlot = -1;
+    Vec3 lastSprintPosition;
+    double sprintDistance;
+
+    CombatLedger(UUID id, CombatLedgers owner) {
+        this.id = id;
+        this.owner = owner;
+    }
+
+    /** 登记截止时间: 仅当早于当前登记时才需要新条目, 其余由到期时重新计算。 */
+    private void arm(long deadline) {
+        if (scheduledExpiry == 0L || deadline < scheduledExpiry) {
+            scheduledExpiry = deadline;
+            owner.schedule(this, deadline);
+        }
+    }
+
+    /** 交战记录: 不存在则以当前位置新建, 存在则刷新交互时间。 */
+    CombatState engage(UUID otherId, long now, Vec3 position) {
+        CombatState cs = combats.get(otherId);
+        if (cs == null) {
+            cs = new CombatState(now, position);
+            combats.put(otherId, cs);
+            owner.link(otherId, id);
+        } else {
+            cs.lastInteractionTime = now;
+        }
+        arm(now + COMBAT_TTL_MS);
+        return cs;
+    }
+
+    /** 移除与指定对象的交战记录。 */
+    void disengage(UUID otherId) {
+        if (combats.remove(otherId) != null) {
+            owner.unlink(otherId, id);
+        }
+    }
+
+    void recordTeamKill(String teamName, UUID victimId, long now) {
+        teamKills.put(teamName, new TeamKillRecord(victimId, now));
+        arm(now + TEAM_KILL_TTL_MS);
+    }
+
+    void markItemSwitch(long now) {
+        lastItemSwitchTime = now;
+        arm(now + ITEM_SWITCH_TTL_MS);
+    }
+
+    long lastItemSwitchTime() {
+        return lastItemSwitchTime;
+    }
+
+    void clearItemSwitch() {
+        lastItemSwitchTime = 0L;
+    }
+
+    synchronized int lastDamageType(UUID attackerId, int fallback) {
+        return damageHistory.lastType(attackerId, fallback);
+    }
+
+    void recordDamageType(UUID attackerId, int type, long now) {
+        synchronized (this) {
+            damageHistory.recordType(attackerId, type);
+        }
+        // 伤害类型随伤害历史一同失效
+        arm(now + DAMAGE_HISTORY_TTL_MS);
+    }
+
+    void recordDamage(UUID attackerId, int amount, long now) {
+        synchronized (this) {
+            damageHistory.record(attackerId, amount, now);
+        }
+        arm(now + DAMAGE_HISTORY_TTL_MS);
+    }
+
+    /**
+     * 助攻结算准备: 淘汰窗口外的命中, 返回攻击者槽位数; 最近一次命中也已超出窗口时返回 0。
+     * 之后用 {@link #assistAttacker(int)} / {@link #assistDamage(int)} 读取各槽位累计(死亡时调用, 随后账本重置)。
+     */
+    synchronized int prepareAssists(long now, long windowMs) {
+        if (damageHistory.isEmpty() || now - damageHistory.newestTime() > windowMs) {
+            return 0;
+        }
+        damageHistory.expireBefore(now - windowMs);
+        return damageHistory.attackerCount();
+    }
+
+    synchronized UUID assistAttacker(int slot) {
+        return damageHistory.attackerAt(slot);
+    }
+
+    synchronized int assistDamage(int slot) {
+        return damageHistory.totalAt(slot);
+    }
+
+    /** 指定攻击者在窗口内是否对本实体造成过伤害(救星判定)。 */
+    synchronized boolean wasDamagedBy(UUID attackerId, long now, long windowMs) {
+        return damageHistory.hitWithin(attackerId, now, windowMs);
+    }
+
+    void recordFire(UUID attackerId, long now) {
+        fireAttacker = attackerId;
+        fireTime = now;
+        arm(now + FIRE_ATTRIBUTION_TIMEOUT_MS);
+    }
+
+    /** 点燃归属: 超时返回 null 并清除记录。 */
+    UUID fireAttacker(long now) {
+        if (fireAttacker == null) {
+            return null;
+        }
+        if (now - fireTime > FIRE_ATTRIBUTION_TIMEOUT_MS) {
+            fireAttacker = null;
+            return null;
+        }
+        return fireAttacker;
+    }
+
+    void recordKillTime(long now) {
+        if (killTimeCount == killTimes.length) {
+            trimKillTimes(now);
+            if (killTimeCount == killTimes.length) {
+                killTimes = Arrays.copyOf(killTimes, killTimeCount * 2);
+            }
+        }
+        killTimes[killTimeCount++] = now;
+        arm(now + STREAK_WINDOW_MS);
+    }
+
+    /** 连杀窗口内的击杀数(终结连杀判定)。 */
+    long streakCount(long now) {
+        long count = 0;
+        for (int i = 0; i < killTimeCount; i++) {
+            if (now - killTimes[i] <= STREAK_WINDOW_MS) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    void clearKillTimes() {
+        killTimeCount = 0;
+    }
+
+    /** 同一轮次(tick)内的爆炸击杀计数, 轮次变化时自动归零。 */
+    int incrementExplosionKills(long epoch) {
+        if (explosionKillEpoch != epoch) {
+            explosionKillEpoch = epoch;
+            explosionKills = 0;
+        }
+        return ++explosionKills;
+    }
+
+    /** 死亡: 清除单次存活内的状态; 连续死亡与交战/队伍击杀记录保留。 */
+    synchronized void resetLife(boolean keepKillers) {
+        lastDamage = 0.0f;
+        damageHistory.clear();
+        fireAttacker = null;
+        killTimeCount = 0;
+        lifeKills = 0;
+        consecutiveAssists = 0;
+        if (!keepKillers) {
+            killers.clear();
+        }
+    }
+
+    /** 登出: 清除仅在线期间有意义的状态。 */
+    void resetSession() {
+        lastItemSwitchTime = 0L;
+        lastSelectedSlot = -1;
+        lastSprintPosition = null;
+        sprintDistance = 0.0;
+    }
+
+    /**
+     * 过期清理, 返回剩余 TTL 状态中最早的截止时间(0 = 无)。
+     */
+    long expire(long now) {
+        Iterator<Map.Entry<UUID, CombatState>> iterator = combats.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<UUID, CombatState> entry = iterator.next();
+            if (now - entry.getValue().lastInteractionTime > COMBAT_TTL_MS) {
+                iterator.remove();
+                owner.unlink(entry.getKey(), id);
+            }
+        }
+        teamKills.values().removeIf(record -> now - record.timestamp() > TEAM_KILL_TTL_MS);
+        if (lastItemSwitchTime != 0L && now - lastItemSwitchTime > ITEM_SWITCH_TTL_MS) {
+            lastItemSwitchTime = 0L;
+        }
+        synchronized (this) {
+            damageHistory.expireBefore(now - DAMAGE_HISTORY_TTL_MS);
+            // 伤害历史全部过期 = 长时间未受伤, 逐攻击者伤害类型一并失效
+            if (damageHistory.isEmpty()) {
+                damageHistory.clear();
+            }
+        }
+        fireAttacker(now);
+        trimKillTimes(now);
+        return nextDeadline();
+    }
+
+    private long nextDeadline() {
+        long next = Long.MAX_VALUE;
+        for (CombatState cs : combats.values()) {
+            next = Math.min(next, cs.lastInteractionTime + COMBAT_TTL_MS);
+        }
+        for (TeamKillRecord record : teamKills.values()) {
+            next = Math.min(next, record.timestamp() + TEAM_KILL_TTL_MS);
+        }
+        if (lastItemSwitchTime != 0L) {
+            next = Math.min(next, lastItemSwitchTime + ITEM_SWITCH_TTL_MS);
+        }
+        synchronized (this) {
+            if (!damageHistory.isEmpty()) {
+                next = Math.min(next, damageHistory.oldestTime() + DAMAGE_HISTORY_TTL_MS);
+            }
+        }
+        if (fireAttacker != null) {
+            next = Math.min(next, fireTime + FIRE_ATTRIBUTION_TIMEOUT_MS);
+        }
+        for (int i = 0; i < killTimeCount; i++) {
+            next = Math.min(next, killTimes[i] + STREAK_WINDOW_MS);
+        }
+        return next == Long.MAX_VALUE ? 0L : next;
+    }
+
+    private void trimKillTimes(long now) {
+        int kept = 0;
+        for (int i = 0; i < killTimeCount; i++) {
+            if (now - killTimes[i] <= STREAK_WINDOW_MS) {
+                killTimes[kept++] = killTimes[i];
+            }
+        }
+        killTimeCount = kept;
+    }
+
+    synchronized boolean isIdle() {
+        return !damageHistory.hasAttackers()
+                && fireAttacker == null
+                && killers.isEmpty()
+                && combats.isEmpty()
+                && teamKills.isEmpty()
+                && killTimeCount == 0
+                && consecutiveDeaths == 0
+                && lifeKills == 0
+                && consecutiveAssists == 0
+                && lastItemSwitchTime == 0L
+                && lastSelectedSlot < 0
+                && lastSprintPosition == null;
+    }
+}
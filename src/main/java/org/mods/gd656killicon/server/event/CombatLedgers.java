@@ -0,0 +1,85 @@
+package org.mods.gd656killicon.server.event;
+
+import org.mods.gd656killicon.server.ServerCore;
+import org.mods.gd656killicon.server.logic.core.ExpiryScheduler;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 战斗账本注册表: 持有全部 {@link CombatLedger}, 负责按需创建、过期回调与空闲回收。
+ * 另维护交战记录的反向索引(交战对象 → 持有该记录的账本), 实体死亡时只清理相关账本。
+ */
+final class CombatLedgers {
+    private final Map<UUID, CombatLedger> ledgers = new ConcurrentHashMap<>();
+    /** 交战对象 id → 在 combats 中记录了它的账本 id(仅服务端主线程访问)。 */
+    private final Map<UUID, Set<UUID>> engagedBy = new HashMap<>();
+    private final ExpiryScheduler.Handler<CombatLedger> expiryHandler = this::onExpire;
+
+    CombatLedger get(UUID id) {
+        return ledgers.computeIfAbsent(id, key -> new CombatLedger(key, this));
+    }
+
+    CombatLedger peek(UUID id) {
+        return ledgers.get(id);
+    }
+
+    /** 账本已无任何状态时立即回收(死亡/登出/无效伤害事件后调用)。 */
+    void releaseIfIdle(CombatLedger ledger) {
+        if (ledger != null && ledger.isIdle()) {
+            ledgers.remove(ledger.id, ledger);
+        }
+    }
+
+    void clear() {
+        ledgers.clear();
+        engagedBy.clear();
+    }
+
+    void link(UUID targetId, UUID ledgerId) {
+        engagedBy.computeIfAbsent(targetId, k -> new HashSet<>()).add(ledgerId);
+    }
+
+    void unlink(UUID targetId, UUID ledgerId) {
+        Set<UUID> holders = engagedBy.get(targetId);
+        if (holders != null && holders.remove(ledgerId) && holders.isEmpty()) {
+            engagedBy.remove(targetId);
+        }
+    }
+
+    /** 移除其他账本对指定实体的全部交战记录(死亡清理), 开销与相关账本数成正比。 */
+    void disengageAll(UUID targetId) {
+        Set<UUID> holders = engagedBy.remove(targetId);
+        if (holders == null) {
+            return;
+        }
+        for (UUID holderId : holders) {
+            CombatLedger holder = ledgers.get(holderId);
+            if (holder != null) {
+                holder.combats.remove(targetId);
+            }
+        }
+    }
+
+    void schedule(CombatLedger ledger, long deadline) {
+        ServerCore.EXPIRY.schedule(expiryHandler, ledger, deadline);
+    }
+
+    private void onExpire(CombatLedger ledger, long deadline, long now) {
+        // 已被更早的登记取代, 或账本已回收
+        if (ledger.scheduledExpiry != deadline || ledgers.get(ledger.id) != ledger) {
+            return;
+        }
+        long next = ledger.expire(now);
+        ledger.scheduledExpiry = next;
+        if (next != 0L) {
+            schedule(ledger, next);
+        } else {
+            releaseIfIdle(ledger);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package org.mods.gd656killicon.server.event;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * 受害者伤害历史: 定长环形缓冲 + 逐攻击者累计。
+ *
+ * <p>每次命中以 (攻击者槽位, 伤害, 时间) 写入三组并行原始数组, 同时累加该攻击者的伤害总量;
+ * 过期或容量溢出淘汰最旧命中时同步扣减。死亡时的助攻结算只需遍历攻击者槽位(O(攻击者)),
+ * 与命中次数无关(机枪/霰弹单个受害者可产生数百条命中)。</p>
+ *
+ * <p>攻击者槽位同时保存最近一次伤害类型与最近命中时间。本类不做同步, 由 {@link CombatLedger} 加锁访问。</p>
+ */
+final class DamageHistory {
+    private static final int INITIAL_HITS = 16;
+    /** 命中记录上限; 超出后覆盖最旧记录(其伤害同步从累计中扣除)。 */
+    private static final int MAX_HITS = 512;
+    private static final int INITIAL_ATTACKERS = 4;
+
+    private UUID[] attackers = new UUID[INITIAL_ATTACKERS];
+    private int[] lastTypes = new int[INITIAL_ATTACKERS];
+    private int[] totals = new int[INITIAL_ATTACKERS];
+    private long[] lastHitTimes = new long[INITIAL_ATTACKERS];
+    private int attackerCount;
+
+    private int[] hitSlots = new int[INITIAL_HITS];
+    private int[] hitAmounts = new int[INITIAL_HITS];
+    private long[] hitTimes = new long[INITIAL_HITS];
+    /** 最旧命中的下标。 */
+    private int head;
+    private int size;
+
+    int lastType(UUID attackerId, int fallback) {
+        int slot = slotOf(attackerId);
+        return slot >= 0 ? lastTypes[slot] : fallback;
+    }
+
+    void recordType(UUID attackerId, int type) {
+        lastTypes[slotFor(attackerId)] = type;
+    }
+
+    void record(UUID attackerId, int amount, long now) {
+        int slot = slotFor(attackerId);
+        if (size == hitSlots.length) {
+            if (size < MAX_HITS) {
+                grow();
+            } else {
+                evictOldest();
+            }
+        }
+        int index = (head + size) % hitSlots.length;
+        hitSlots[index] = slot;
+        hitAmounts[index] = amount;
+        hitTimes[index] = now;
+        size++;
+        totals[slot] += amount;
+        lastHitTimes[slot] = now;
+    }
+
+    /** 淘汰早于 {@code cutoff} 的命中(命中按时间追加, 从最旧端弹出即可)。 */
+    void expireBefore(long cutoff) {
+        while (size > 0 && hitTimes[head] < cutoff) {
+            evictOldest();
+        }
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    boolean hasAttackers() {
+        return attackerCount > 0;
+    }
+
+    /** 最旧命中时间; 无记录返回 0。 */
+    long oldestTime() {
+        return size == 0 ? 0L : hitTimes[head];
+    }
+
+    /** 最近命中时间; 无记录返回 0。 */
+    long newestTime() {
+        return size == 0 ? 0L : hitTimes[(head + size - 1) % hitTimes.length];
+    }
+
+    /** 指定攻击者最近一次命中是否在窗口内。 */
+    boolean hitWithin(UUID attackerId, long now, long windowMs) {
+        int slot = slotOf(attackerId);
+        return slot >= 0 && totals[slot] > 0 && now - lastHitTimes[slot] <= windowMs;
+    }
+
+    int attackerCount() {
+        return attackerCount;
+    }
+
+    UUID attackerAt(int slot) {
+        return attackers[slot];
+    }
+
+    /** 槽位内仍在缓冲中的伤害累计。 */
+    int totalAt(int slot) {
+        return totals[slot];
+    }
+
+    void clear() {
+        Arrays.fill(attackers, 0, attackerCount, null);
+        Arrays.fill(totals, 0, attackerCount, 0);
+        attackerCount = 0;
+        head = 0;
+        size = 0;
+    }
+
+    private void evictOldest() {
+        totals[hitSlots[head]] -= hitAmounts[head];
+        head = (head + 1) % hitSlots.length;
+        size--;
+    }
+
+    private void grow() {
+        int capacity = Math.min(hitSlots.length * 2, MAX_HITS);
+        int[] slots = new int[capacity];
+        int[] amounts = new int[capacity];
+        long[] times = new long[capacity];
+        for (int i = 0; i < size; i++) {
+            int index = (head + i) % hitSlots.length;
+            slots[i] = hitSlots[index];
+            amounts[i] = hitAmounts[index];
+            times[i] = hitTimes[index];
+        }
+        hitSlots = slots;
+        hitAmounts = amounts;
+        hitTimes = times;
+        head = 0;
+    }
+
+    private int slotOf(UUID attackerId) {
+        for (int i = 0; i < attackerCount; i++) {
+            if (attackers[i].equals(attackerId)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int slotFor(UUID attackerId) {
+        int slot = slotOf(attackerId);
+        if (slot >= 0) {
+            return slot;
+        }
+        if (attackerCount == attackers.length) {
+            int capacity = attackerCount * 2;
+            attackers = Arrays.copyOf(attackers, capacity);
+            lastTypes = Arrays.copyOf(lastTypes, capacity);
+            totals = Arrays.copyOf(totals, capacity);
+            lastHitTimes = Arrays.copyOf(lastHitTimes, capacity);
+        }
+        slot = attackerCount++;
+        attackers[slot] = attackerId;
+        lastTypes[slot] = 0;
+        totals[slot] = 0;
+        lastHitTimes[slot] = 0L;
+        return slot;
+    }
+}
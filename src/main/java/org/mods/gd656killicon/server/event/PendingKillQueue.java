@@ -0,0 +1,149 @@
+package org.mods.gd656killicon.server.event;
+
+import java.util.Arrays;
+
+/**
+ * 待结算击杀队列: 数组存储 + 对象池, 分组缓冲复用, 稳态下不分配。
+ *
+ * <p>一颗子弹/一次爆炸的多杀按 (击杀者实体 id, 伤害源实体 id) 打包为 long 分组键,
+ * 再以 tick 精确区分; 就绪击杀按 (键, tick) 稳定排序后, 相同键与 tick 的连续段即一组,
+ * 组内保持入队顺序。</p>
+ *
+ * <p>入队在伤害/死亡事件中发生, 出队在服务端 tick 中发生, 两者对队列加锁。</p>
+ */
+final class PendingKillQueue {
+    private static final int INITIAL_CAPACITY = 16;
+    /** 对象池上限; 超出的对象直接丢弃交给 GC。 */
+    private static final int MAX_POOLED = 256;
+
+    private PendingKill[] queue = new PendingKill[INITIAL_CAPACITY];
+    private int queueSize;
+
+    private PendingKill[] ready = new PendingKill[INITIAL_CAPACITY];
+    private long[] readyKeys = new long[INITIAL_CAPACITY];
+    private int readySize;
+
+    private final PendingKill[] pool = new PendingKill[MAX_POOLED];
+    private int poolSize;
+
+    /** 取一个待填充的击杀对象(优先复用)。 */
+    synchronized PendingKill acquire() {
+        if (poolSize > 0) {
+            PendingKill pk = pool[--poolSize];
+            pool[poolSize] = null;
+            return pk;
+        }
+        return new PendingKill();
+    }
+
+    synchronized void enqueue(PendingKill pk) {
+        if (queueSize == queue.length) {
+            queue = Arrays.copyOf(queue, queueSize * 2);
+        }
+        queue[queueSize++] = pk;
+    }
+
+    synchronized boolean isEmpty() {
+        return queueSize == 0;
+    }
+
+    /**
+     * 递减延迟, 将就绪击杀移入分组缓冲并按分组排序, 返回就绪数量。
+     * 击杀者已移除的击杀直接回收。
+     */
+    synchronized int drainReady() {
+        readySize = 0;
+        int kept = 0;
+        for (int i = 0; i < queueSize; i++) {
+            PendingKill pk = queue[i];
+            if (pk.delay-- <= 0) {
+                if (pk.player == null || pk.player.isRemoved()) {
+                    release(pk);
+                } else {
+                    addReady(pk);
+                }
+            } else {
+                queue[kept++] = pk;
+            }
+        }
+        Arrays.fill(queue, kept, queueSize, null);
+        queueSize = kept;
+        sortReady();
+        return readySize;
+    }
+
+    PendingKill readyAt(int index) {
+        return ready[index];
+    }
+
+    /** 从 {@code start} 开始的同组(同键同 tick)连续段的结束下标(不含)。 */
+    int groupEnd(int start) {
+        long key = readyKeys[start];
+        long tick = ready[start].tick;
+        int end = start + 1;
+        while (end < readySize && readyKeys[end] == key && ready[end].tick == tick) {
+            end++;
+        }
+        return end;
+    }
+
+    /** 本轮就绪击杀处理完毕后统一回收。 */
+    synchronized void recycleReady() {
+        for (int i = 0; i < readySize; i++) {
+            release(ready[i]);
+            ready[i] = null;
+        }
+        readySize = 0;
+    }
+
+    synchronized void clear() {
+        for (int i = 0; i < queueSize; i++) {
+            queue[i].clear();
+            queue[i] = null;
+        }
+        queueSize = 0;
+        recycleReady();
+    }
+
+    static long groupKey(int playerEntityId, int sourceEntityId) {
+        return ((long) playerEntityId << 32) | (sourceEntityId & 0xFFFFFFFFL);
+    }
+
+    private void addReady(PendingKill pk) {
+        if (readySize == ready.length) {
+            ready = Arrays.copyOf(ready, readySize * 2);
+            readyKeys = Arrays.copyOf(readyKeys, readySize * 2);
+        }
+        ready[readySize] = pk;
+        readyKeys[readySize] = groupKey(pk.player.getId(), pk.sourceEntityId);
+        readySize++;
+    }
+
+    /** 插入排序(稳定): 就绪数量通常很小, 且入队顺序已大致按组聚集。 */
+    private void sortReady() {
+        for (int i = 1; i < readySize; i++) {
+            PendingKill pk = ready[i];
+            long key = readyKeys[i];
+            int j = i - 1;
+            while (j >= 0 && compare(readyKeys[j], ready[j].tick, key, pk.tick) > 0) {
+                ready[j + 1] = ready[j];
+                readyKeys[j + 1] = readyKeys[j];
+                j--;
+            }
+            ready[j + 1] = pk;
+            readyKeys[j + 1] = key;
+        }
+    }
+
+    private static int compare(long keyA, long tickA, long keyB, long tickB) {
+        int byKey = Long.compare(keyA, keyB);
+        return byKey != 0 ? byKey : Long.compare(tickA, tickB);
+    }
+
+    private void release(PendingKill pk) {
+        pk.clear();
+        if (poolSize < MAX_POOLED) {
+            pool[poolSize++] = pk;
+        }
+    }
+}
@@ -9,21 +9,21 @@ import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.projectile.Projectile;
 import net.minecraft.world.phys.AABB;
+import org.mods.gd656killicon.server.ServerCore;
 import org.mods.gd656killicon.server.bridge.ServerBridge;
+import org.mods.gd656killicon.server.logic.integration.IntegrationAccessors;
 
-import java.lang.reflect.Method;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 
 final class ServerCombatAttribution {
     private ServerCombatAttribution() {}
 
-    static LivingEntity resolveLivingAttacker(DamageSource src, LivingEntity victim, Map<UUID, FireAttribution> fireAttribution, long fireAttributionTimeoutMs) {
+    static LivingEntity resolveLivingAttacker(DamageSource src, LivingEntity victim, CombatLedgers ledgers) {
         Entity source = src.getEntity();
         if (source instanceof LivingEntity living) {
             if (living instanceof ServerPlayer player && src.is(DamageTypeTags.IS_FIRE)) {
-                recordFireAttribution(fireAttribution, victim.getUUID(), player.getUUID());
+                recordFireAttribution(ledgers, victim.getUUID(), player.getUUID());
             }
             return living;
         }
@@ -32,45 +32,42 @@ final class ServerCombatAttribution {
             Entity owner = projectile.getOwner();
             if (owner instanceof LivingEntity living) {
                 if (living instanceof ServerPlayer player && src.is(DamageTypeTags.IS_FIRE)) {
-                    recordFireAttribution(fireAttribution, victim.getUUID(), player.getUUID());
+                    recordFireAttribution(ledgers, victim.getUUID(), player.getUUID());
                 }
                 return living;
             }
         }
-        ServerPlayer firePlayer = resolveFireAttacker(victim, src, fireAttribution, fireAttributionTimeoutMs);
+        ServerPlayer firePlayer = resolveFireAttacker(victim, src, ledgers);
         if (firePlayer != null) {
             return firePlayer;
         }
         return null;
     }
 
-    static ServerPlayer resolvePlayerAttacker(DamageSource src, LivingEntity victim, Map<UUID, FireAttribution> fireAttribution, long fireAttributionTimeoutMs) {
-        LivingEntity attacker = resolveLivingAttacker(src, victim, fireAttribution, fireAttributionTimeoutMs);
+    static ServerPlayer resolvePlayerAttacker(DamageSource src, LivingEntity victim, CombatLedgers ledgers) {
+        LivingEntity attacker = resolveLivingAttacker(src, victim, ledgers);
         return attacker instanceof ServerPlayer player ? player : null;
     }
 
-    static void recordFireAttribution(Map<UUID, FireAttribution> fireAttribution, UUID victimId, UUID attackerId) {
-        fireAttribution.put(victimId, new FireAttribution(attackerId, System.currentTimeMillis()));
+    static void recordFireAttribution(CombatLedgers ledgers, UUID victimId, UUID attackerId) {
+        ledgers.get(victimId).recordFire(attackerId, ServerCore.CLOCK.now());
     }
 
-    private static ServerPlayer resolveFireAttacker(LivingEntity victim, DamageSource src, Map<UUID, FireAttribution> fireAttribution, long fireAttributionTimeoutMs) {
+    private static ServerPlayer resolveFireAttacker(LivingEntity victim, DamageSource src, CombatLedgers ledgers) {
         if (!src.is(DamageTypeTags.IS_FIRE)) return null;
         if (src.is(DamageTypes.LAVA)) return null;
-        long now = System.currentTimeMillis();
-        FireAttribution record = fireAttribution.get(victim.getUUID());
-        if (record != null) {
-            if (now - record.timestamp() <= fireAttributionTimeoutMs) {
-                var server = ServerBridge.loader().getCurrentServer();
-                if (server == null) return null;
-                ServerPlayer player = server.getPlayerList().getPlayer(record.attackerId());
-                if (player != null) return player;
-            } else {
-                fireAttribution.remove(victim.getUUID());
-            }
+        long now = ServerCore.CLOCK.now();
+        CombatLedger ledger = ledgers.peek(victim.getUUID());
+        UUID fireAttackerId = ledger != null ? ledger.fireAttacker(now) : null;
+        if (fireAttackerId != null) {
+            var server = ServerBridge.loader().getCurrentServer();
+            if (server == null) return null;
+            ServerPlayer player = server.getPlayerList().getPlayer(fireAttackerId);
+            if (player != null) return player;
         }
         ServerPlayer molotovOwner = resolveMolotovOwner(victim);
         if (molotovOwner != null) {
-            recordFireAttribution(fireAttribution, victim.getUUID(), molotovOwner.getUUID());
+            recordFireAttribution(ledgers, victim.getUUID(), molotovOwner.getUUID());
             return molotovOwner;
         }
         return null;
@@ -101,12 +98,8 @@ final class ServerCombatAttribution {
     }
 
     private static boolean isIgniteCloud(Entity entity) {
-        try {
-            Method method = entity.getClass().getMethod("isIgnite");
-            Object result = method.invoke(entity);
-            return result instanceof Boolean b && b;
-        } catch (Exception ignored) {
-            return true;
-        }
+        Object result = IntegrationAccessors.LRTACTICAL_IS_IGNITE.call(entity);
+        // 方法缺失或调用失败时按点燃云处理
+        return result == null || result instanceof Boolean b && b;
     }
 }
@@ -19,7 +19,10 @@ import net.minecraft.world.phys.Vec3;
 import org.mods.gd656killicon.common.BonusType;
 import org.mods.gd656killicon.common.KillType;
 import org.mods.gd656killicon.server.bridge.ServerBridge;
+import org.mods.gd656killicon.server.logic.core.CombatClock;
+import org.mods.gd656killicon.server.logic.core.EntityClassifier;
 import org.mods.gd656killicon.server.logic.core.ServerBonusSwitches;
+import org.mods.gd656killicon.server.logic.integration.IntegrationAccessors;
 import org.mods.gd656killicon.server.ServerCore;
 import org.mods.gd656killicon.server.data.PlayerDataManager;
 import org.mods.gd656killicon.server.data.ServerData;
@@ -30,29 +33,12 @@ import java.util.*;
 import java.util.concurrent.*;
 
 public final class ServerCombatEngine {
-    private static final String CONQUEST_SQUAD_BEACON_CLASS = "org.mods.gd656conquest.common.entity.SquadDeployBeaconEntity";
-    private static final String CONQUEST_GROUND_SENSOR_CLASS = "org.mods.gd656conquest.common.entity.GroundSensorEntity";
-    private static final String CONQUEST_MEDICAL_BOX_CLASS = "org.mods.gd656conquest.common.entity.MedicalBoxEntity";
-    private static final String CONQUEST_AMMO_BOX_CLASS = "org.mods.gd656conquest.common.entity.AmmoBoxEntity";
-    private static final Map<UUID, Float> lastDamage = new ConcurrentHashMap<>();
-    private static final Map<UUID, Map<UUID, Integer>> lastDamageType = new ConcurrentHashMap<>();
-    private static final Map<UUID, List<DamageRecord>> damageHistory = new ConcurrentHashMap<>();
-    private static final Map<UUID, Map<UUID, Long>> killHistory = new ConcurrentHashMap<>();
-    private static final Map<UUID, Map<UUID, CombatState>> activeCombats = new ConcurrentHashMap<>();
-    private static final Map<UUID, Integer> explosionKillCounter = new ConcurrentHashMap<>();
-    private static final Map<UUID, Integer> consecutiveDeaths = new ConcurrentHashMap<>();
-    private static final Map<UUID, List<Long>> playerKillTimestamps = new ConcurrentHashMap<>();
-    private static final Map<UUID, List<Long>> entityKillTimestamps = new ConcurrentHashMap<>();
-    private static final Map<UUID, Map<String, TeamKillRecord>> teamKillHistory = new ConcurrentHashMap<>();
-    private static final Map<UUID, Integer> lifeKillCount = new ConcurrentHashMap<>();
-    private static final Map<UUID, Long> lastItemSwitchTime = new ConcurrentHashMap<>();
-    private static final Map<UUID, Integer> lastSelectedSlot = new ConcurrentHashMap<>();
-    private static final Map<UUID, Integer> consecutiveAssists = new ConcurrentHashMap<>();
-    private static final Map<UUID, Vec3> lastSprintPositions = new HashMap<>();
-    private static final Map<UUID, Double> sprintDistances = new HashMap<>();
-    private static final Map<UUID, FireAttribution> fireAttribution = new ConcurrentHashMap<>();
-
-    private static final List<PendingKill> pendingKills = new ArrayList<>();
+    /** 逐实体战斗账本(受害者/击杀者/参战方状态统一存放, 每次事件只查一次)。 */
+    private static final CombatLedgers ledgers = new CombatLedgers();
+
+    private static final PendingKillQueue pendingKills = new PendingKillQueue();
+    /** 战斗时间窗口统一按 tick 时钟判定; 仅计分板定时刷新使用墙钟。 */
+    private static final CombatClock clock = ServerCore.CLOCK;
 
     private static final int TYPE_NORMAL = 0;
     private static final int TYPE_EXPLOSION = 1;
@@ -60,13 +46,22 @@ public final class ServerCombatEngine {
     private static final int TYPE_CRIT = 3;
     private static final long LOCKED_TARGET_WINDOW_MS = 10000;
     private static final double HOLD_POSITION_MAX_DISTANCE = 1.0;
-    private static final long FIRE_ATTRIBUTION_TIMEOUT_MS = 15000;
     private static final long SCOREBOARD_REFRESH_INTERVAL_MS = 60000L;
 
     private static long nextScoreboardRefreshAt = 0L;
+    /** 爆炸击杀计数轮次(每 tick 递增, 替代逐 tick 清空计数表)。 */
+    private static long explosionKillEpoch = 0L;
 
     private ServerCombatEngine() {}
 
+    private static CombatLedger ledger(UUID id) {
+        return ledgers.get(id);
+    }
+
+    private static CombatLedger peekLedger(UUID id) {
+        return ledgers.peek(id);
+    }
+
     private static void addBonus(ServerPlayer player, int bonusType, float scale, String extra) {
         if (ServerBonusSwitches.isEnabled(bonusType)) {
             ServerCore.BONUS.add(player, bonusType, scale, extra);
@@ -96,6 +91,7 @@ public final class ServerCombatEngine {
         ServerLog.info("Initializing server data...");
         ServerData.get().init(server);
         PlayerDataManager.get().init(server);
+        IntegrationAccessors.init();
         ServerCore.TACZ.init();
         ServerCore.YWZJ_VEHICLE.init();
         ServerCore.SUPERB_WARFARE.init();
@@ -105,19 +101,30 @@ public final class ServerCombatEngine {
         ServerCore.CUSTOM_NPCS.init();
         ServerCore.CONQUEST_BATTLEFIELD.init();
         ServerCore.CONQUEST_SPOTTING.init();
-        nextScoreboardRefreshAt = System.currentTimeMillis() + SCOREBOARD_REFRESH_INTERVAL_MS;
+        nextScoreboardRefreshAt = clock.wallMillis() + SCOREBOARD_REFRESH_INTERVAL_MS;
     }
 
     public static void onStopping(MinecraftServer server) {
         ServerLog.info("Saving server data...");
+        ServerData.get().flushScoreboardUpdates(server);
         ServerData.get().saveAll();
         ServerData.get().shutdown();
         PlayerDataManager.get().shutdown();
+        ledgers.clear();
+        pendingKills.clear();
+        ServerCore.EXPIRY.clear();
+        ServerPacketDispatcher.clearHits();
+        clock.stop();
+        IntegrationAccessors.reset();
+        EntityClassifier.reset();
         nextScoreboardRefreshAt = 0L;
     }
 
     public static void onTick() {
         MinecraftServer server = ServerBridge.loader().getCurrentServer();
+        clock.advance();
+        // TTL 条目统一由过期调度器回收(战斗账本/TACZ 标记/索敌记录), 只处理本 tick 到期的条目
+        ServerCore.EXPIRY.advance(clock.now());
         ServerCore.BONUS.tick(server);
 
         ServerCore.TACZ.tick();
@@ -128,34 +135,24 @@ public final class ServerCombatEngine {
         ServerCore.PING_WHEEL.tick();
         ServerCore.CONQUEST_BATTLEFIELD.tick();
 
-        explosionKillCounter.clear();
-
-        long now = System.currentTimeMillis();
-        tickScoreboardRefresh(server, now);
-        activeCombats.values().forEach(map -> map.values().removeIf(cs -> now - cs.lastInteractionTime > 30000));
-        activeCombats.values().removeIf(Map::isEmpty);
+        explosionKillEpoch++;
 
-        teamKillHistory.values().forEach(map -> map.values().removeIf(record -> now - record.timestamp() > 60000));
-        teamKillHistory.values().removeIf(Map::isEmpty);
-
-        lastItemSwitchTime.values().removeIf(timestamp -> now - timestamp > 10000);
-
-        damageHistory.values().forEach(records -> {
-            synchronized (records) {
-                records.removeIf(r -> now - r.timestamp() > 120000);
-            }
-        });
-        damageHistory.values().removeIf(List::isEmpty);
-        fireAttribution.values().removeIf(record -> now - record.timestamp() > FIRE_ATTRIBUTION_TIMEOUT_MS);
+        tickScoreboardRefresh(server, clock.wallMillis());
+        ServerData.get().tickScoreboardUpdates(server, clock.tick());
+        PlayerDataManager.get().tickScoreboardRequests(server, clock.tick());
+        PlayerDataManager.get().tickResidency(server, clock.tick());
 
         processPendingKills();
+        // 本 tick 合并后的命中信息(每个玩家一个包)
+        ServerPacketDispatcher.flushHits();
     }
 
     private static void tickScoreboardRefresh(MinecraftServer server, long now) {
         if (server == null || nextScoreboardRefreshAt == 0L || now < nextScoreboardRefreshAt) {
             return;
         }
-        ServerData.get().refreshScoreboard(server);
+        // 增量对账按 tick 预算分摊, 由 ServerData.tickScoreboardUpdates 推进
+        ServerData.get().scheduleScoreboardReconcile();
         nextScoreboardRefreshAt = now + SCOREBOARD_REFRESH_INTERVAL_MS;
     }
 
@@ -163,33 +160,39 @@ public final class ServerCombatEngine {
         if (player == null) return;
         PlayerDataManager.get().updateLastLoginName(player.getUUID(), player.getScoreboardName());
         ServerData.get().syncScoreToPlayer(player);
-        lastSelectedSlot.put(player.getUUID(), player.getInventory().selected);
-        lastSprintPositions.put(player.getUUID(), player.position());
+        CombatLedger ledger = ledger(player.getUUID());
+        ledger.lastSelectedSlot = player.getInventory().selected;
+        ledger.lastSprintPosition = player.position();
     }
 
     public static void onPlayerLogout(ServerPlayer player) {
         if (player == null) return;
         UUID playerId = player.getUUID();
         PlayerDataManager.get().forceSave(playerId);
-        lastSprintPositions.remove(playerId);
-        sprintDistances.remove(playerId);
+        PlayerDataManager.get().clearScoreboardRequests(playerId);
+        ServerPacketDispatcher.clearHits(playerId);
+        CombatLedger ledger = peekLedger(playerId);
+        if (ledger != null) {
+            ledger.resetSession();
+            ledgers.releaseIfIdle(ledger);
+        }
     }
 
     public static void onPlayerTick(ServerPlayer player) {
         if (player == null || player.level().isClientSide) return;
 
+        CombatLedger ledger = ledger(player.getUUID());
         if (player.getAbilities().flying || player.isSpectator()) {
-            lastSprintPositions.put(player.getUUID(), player.position());
+            ledger.lastSprintPosition = player.position();
             return;
         }
 
-        UUID playerId = player.getUUID();
         Vec3 currentPos = player.position();
 
-        Vec3 lastPos = lastSprintPositions.get(playerId);
+        Vec3 lastPos = ledger.lastSprintPosition;
 
         if (lastPos == null || !currentPos.equals(lastPos)) {
-            lastSprintPositions.put(playerId, currentPos);
+            ledger.lastSprintPosition = currentPos;
         }
 
         if (lastPos == null) return;
@@ -202,31 +205,32 @@ public final class ServerCombatEngine {
         if (distSqr < 0.0001 || distSqr > 100.0) return;
 
         double distance = Math.sqrt(distSqr);
-        double total = sprintDistances.getOrDefault(playerId, 0.0) + distance;
+        double total = ledger.sprintDistance + distance;
 
         while (total >= 200.0) {
             addBonus(player, BonusType.CHARGE_ASSAULT, 1.0f, "");
             total -= 200.0;
         }
-        sprintDistances.put(playerId, total);
+        ledger.sprintDistance = total;
     }
 
     public static void onItemSwitch(ServerPlayer player, net.minecraft.world.entity.EquipmentSlot slot, ItemStack from, ItemStack to) {
         if (player == null || player.level().isClientSide) return;
         if (slot != null && slot.getType() == net.minecraft.world.entity.EquipmentSlot.Type.HAND) {
             int currentSlot = player.getInventory().selected;
-            Integer lastSlot = lastSelectedSlot.get(player.getUUID());
-            lastSelectedSlot.put(player.getUUID(), currentSlot);
+            CombatLedger ledger = ledger(player.getUUID());
+            int lastSlot = ledger.lastSelectedSlot;
+            ledger.lastSelectedSlot = currentSlot;
 
-            if (lastSlot == null) {
+            if (lastSlot < 0) {
                 return;
             }
 
             if (lastSlot != currentSlot) {
-                lastItemSwitchTime.put(player.getUUID(), System.currentTimeMillis());
+                ledger.markItemSwitch(clock.now());
             } else {
                 if (!ItemStack.isSameItem(from, to)) {
-                    lastItemSwitchTime.put(player.getUUID(), System.currentTimeMillis());
+                    ledger.markItemSwitch(clock.now());
                 }
             }
         }
@@ -236,7 +240,7 @@ public final class ServerCombatEngine {
         if (levelIsClientSide) return;
         if (player == null || victim == null || itemStack == null) return;
         if (!itemStack.is(Items.FLINT_AND_STEEL) && !itemStack.is(Items.FIRE_CHARGE)) return;
-        ServerCombatAttribution.recordFireAttribution(fireAttribution, victim.getUUID(), player.getUUID());
+        ServerCombatAttribution.recordFireAttribution(ledgers, victim.getUUID(), player.getUUID());
     }
 
     public static void onDamage(LivingEntity victim, DamageSource src, float amt) {
@@ -250,25 +254,30 @@ public final class ServerCombatEngine {
             return;
         }
 
-        updateCombatTracking(src, victim, victimId, amt);
+        CombatLedger victimLedger = ledger(victimId);
+        updateCombatTracking(victim, victimLedger, resolvedAttacker);
 
         if (resolvedAttacker != null) {
             LivingEntity attacker = resolvedAttacker;
             float effectiveAmt = Math.min(amt, victim.getHealth());
             int roundedAmt = Math.round(effectiveAmt);
             if (roundedAmt > 0) {
-                recordDamage(victimId, attacker.getUUID(), roundedAmt);
+                victimLedger.recordDamage(attacker.getUUID(), roundedAmt, clock.now());
             }
         }
+        if (resolvedAttacker == null) {
+            ledgers.releaseIfIdle(victimLedger);
+            return;
+        }
 
         if (!(resolvedAttacker instanceof ServerPlayer player)) return;
 
-        lastDamage.put(victimId, amt);
+        victimLedger.lastDamage = amt;
         boolean isMeleeCrit = src.is(DamageTypes.PLAYER_ATTACK) && ServerCore.CRIT.isMeleeCrit(player);
         ServerCore.CRIT.updateCrit(player, victimId, isMeleeCrit);
 
         int type = determineDamageType(player, victimId, src);
-        lastDamageType.computeIfAbsent(victimId, k -> new ConcurrentHashMap<>()).put(player.getUUID(), type);
+        victimLedger.recordDamageType(player.getUUID(), type, clock.now());
 
         float effectiveAmt = Math.min(amt, victim.getHealth());
         int roundedAmt = Math.round(effectiveAmt);
@@ -280,7 +289,7 @@ public final class ServerCombatEngine {
         }
 
         if (amt < victim.getHealth()) {
-            ServerPacketDispatcher.sendDamageSound(player, type == TYPE_HEADSHOT);
+            ServerPacketDispatcher.sendDamageSound(player, victim.getId(), type == TYPE_HEADSHOT);
         }
     }
 
@@ -289,10 +298,10 @@ public final class ServerCombatEngine {
         if (isConquestTacticalGadget(victim)) return;
 
         UUID victimId = victim.getUUID();
+        CombatLedger victimLedger = ledger(victimId);
 
         if (victim instanceof ServerPlayer player) {
-            UUID playerId = player.getUUID();
-            consecutiveDeaths.merge(playerId, 1, Integer::sum);
+            victimLedger.consecutiveDeaths++;
 
             ServerData.get().addDeath(player, 1);
 
@@ -309,17 +318,18 @@ public final class ServerCombatEngine {
             ServerCore.SPOTTING.onLivingDeath(victim, attacker);
         }
         if (attacker != null) {
-            killHistory.computeIfAbsent(victimId, k -> new ConcurrentHashMap<>())
-                .put(attacker.getUUID(), System.currentTimeMillis());
+            long now = clock.now();
+            // 复仇只查询击杀者玩家的账本, 非玩家受害者无需记录
+            if (victim instanceof ServerPlayer) {
+                victimLedger.killers.put(attacker.getUUID(), now);
+            }
 
             if (victim instanceof ServerPlayer victimPlayer && victimPlayer.getTeam() != null) {
-                teamKillHistory.computeIfAbsent(attacker.getUUID(), k -> new ConcurrentHashMap<>())
-                    .put(victimPlayer.getTeam().getName(), new TeamKillRecord(victimPlayer.getUUID(), System.currentTimeMillis()));
+                ledger(attacker.getUUID()).recordTeamKill(victimPlayer.getTeam().getName(), victimPlayer.getUUID(), now);
             }
 
             if (attacker instanceof Mob mob && !(attacker instanceof ServerPlayer)) {
-                long now = System.currentTimeMillis();
-                entityKillTimestamps.computeIfAbsent(mob.getUUID(), k -> Collections.synchronizedList(new ArrayList<>())).add(now);
+                ledger(mob.getUUID()).recordKillTime(now);
             }
         }
 
@@ -353,55 +363,38 @@ public final class ServerCombatEngine {
             processAssist(victimId, victim.getId(), hasHelmet, victimName, isVictimPlayer, null);
         }
 
-        playerKillTimestamps.remove(victimId);
-        entityKillTimestamps.remove(victimId);
-        lifeKillCount.remove(victimId);
-        consecutiveAssists.remove(victimId);
-
-        cleanupVictimData(victimId);
+        cleanupVictimData(victimLedger, victim instanceof ServerPlayer);
     }
 
     private static void processPendingKills() {
         if (pendingKills.isEmpty()) return;
 
-        List<PendingKill> readyKills = new ArrayList<>();
-        synchronized (pendingKills) {
-            Iterator<PendingKill> it = pendingKills.iterator();
-            while (it.hasNext()) {
-                PendingKill pk = it.next();
-                if (pk.delay-- <= 0) {
-                    readyKills.add(pk);
-                    it.remove();
+        int readyCount = pendingKills.drainReady();
+        try {
+            int start = 0;
+            while (start < readyCount) {
+                int end = pendingKills.groupEnd(start);
+                boolean hasExplosion = false;
+                for (int i = start; i < end; i++) {
+                    PendingKill pk = pendingKills.readyAt(i);
+                    hasExplosion |= pk.damageType == TYPE_EXPLOSION;
+                    processKill(pk);
                 }
-            }
-        }
-
-        if (readyKills.isEmpty()) return;
-
-        Map<String, List<PendingKill>> groups = new HashMap<>();
-        for (PendingKill pk : readyKills) {
-            if (pk.player == null || pk.player.isRemoved()) continue;
-
-            String key = pk.player.getUUID().toString() + "_" + pk.sourceEntityId + "_" + pk.tick;
-            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(pk);
-        }
-
-        for (List<PendingKill> group : groups.values()) {
-            for (PendingKill pk : group) {
-                processKill(pk);
-            }
-
-            if (group.size() >= 2) {
-                PendingKill first = group.get(0);
 
-                boolean hasExplosion = group.stream().anyMatch(pk -> pk.damageType == TYPE_EXPLOSION);
-                boolean isProjectile = first.sourceEntityId != -1 && first.sourceEntityId != first.player.getId();
+                int groupSize = end - start;
+                if (groupSize >= 2) {
+                    PendingKill first = pendingKills.readyAt(start);
+                    boolean isProjectile = first.sourceEntityId != -1 && first.sourceEntityId != first.player.getId();
 
-                if (!hasExplosion && (isProjectile || first.isGun)) {
-                    int count = Math.min(group.size(), 8);
-                    addBonus(first.player, BonusType.ONE_BULLET_MULTI_KILL, (float) count, String.valueOf(count));
+                    if (!hasExplosion && (isProjectile || first.isGun)) {
+                        int count = Math.min(groupSize, 8);
+                        addBonus(first.player, BonusType.ONE_BULLET_MULTI_KILL, (float) count, String.valueOf(count));
+                    }
                 }
+                start = end;
             }
+        } finally {
+            pendingKills.recycleReady();
         }
     }
 
@@ -413,11 +406,6 @@ public final class ServerCombatEngine {
         return TYPE_NORMAL;
     }
 
-    private static void recordDamage(UUID victimId, UUID attackerId, int amount) {
-        damageHistory.computeIfAbsent(victimId, k -> Collections.synchronizedList(new ArrayList<>()))
-            .add(new DamageRecord(attackerId, amount, System.currentTimeMillis()));
-    }
-
     private static void addDamageBonus(ServerPlayer player, int type, int amount) {
         int bonusType = switch (type) {
             case TYPE_HEADSHOT -> BonusType.HEADSHOT;
@@ -433,7 +421,9 @@ public final class ServerCombatEngine {
         if (player.getUUID().equals(victimId)) {
             return;
         }
-        int type = getLastDamageType(victimId, player.getUUID());
+        CombatLedger victimLedger = peekLedger(victimId);
+        CombatLedger killerLedger = ledger(player.getUUID());
+        int type = victimLedger != null ? victimLedger.lastDamageType(player.getUUID(), TYPE_NORMAL) : TYPE_NORMAL;
 
         ServerData.get().addKill(player, 1);
 
@@ -449,23 +439,20 @@ public final class ServerCombatEngine {
         boolean isBackstab = checkBackstab(player, victim);
         boolean isJusticeFromAbove = checkJusticeFromAbove(player, victim, isGliding);
         boolean isVictimBlinded = checkBlinded(victim);
-        boolean isLockedTarget = checkLockedTarget(player, victim);
+        CombatState cs = killerLedger.combats.get(victimId);
+        boolean isLockedTarget = cs != null && clock.now() - cs.firstInteractionTime >= LOCKED_TARGET_WINDOW_MS;
         boolean hasHelmet = !victim.getItemBySlot(net.minecraft.world.entity.EquipmentSlot.HEAD).isEmpty();
         boolean isVictimPlayer = victim instanceof net.minecraft.world.entity.player.Player;
-        long streakCount = calculateStreakCount(victimId);
+        long streakCount = victimLedger != null ? victimLedger.streakCount(clock.now()) : 0L;
 
-        consecutiveAssists.put(player.getUUID(), 0);
+        killerLedger.consecutiveAssists = 0;
 
         boolean isFlawless = false;
         boolean isHoldPosition = false;
-        Map<UUID, CombatState> combats = activeCombats.get(player.getUUID());
-        if (combats != null) {
-            CombatState cs = combats.get(victimId);
-            if (cs != null) {
-                isFlawless = cs.flawless;
-                if (cs.initialPosition != null) {
-                    isHoldPosition = cs.initialPosition.distanceTo(player.position()) <= HOLD_POSITION_MAX_DISTANCE;
-                }
+        if (cs != null) {
+            isFlawless = cs.flawless;
+            if (cs.initialPosition != null) {
+                isHoldPosition = cs.initialPosition.distanceTo(player.position()) <= HOLD_POSITION_MAX_DISTANCE;
             }
         }
 
@@ -473,7 +460,7 @@ public final class ServerCombatEngine {
         float distanceFloat = (float) distanceDouble;
         // 飞行调度员: 死亡瞬间受害者正搭乘**存活**的空中载具(载具未被摧毁, 否则乘客会脱离载具)
         boolean victimRidingAir = isAliveAirVehicle(victim.getVehicle());
-        pendingKills.add(new PendingKill(
+        pendingKills.enqueue(pendingKills.acquire().set(
             player,
             victim.getUUID(),
             victim.getId(),
@@ -504,91 +491,99 @@ public final class ServerCombatEngine {
         ServerPacketDispatcher.sendKillDistance(player, distanceDouble);
     }
 
-    private static void cleanupVictimData(UUID victimId) {
-        lastDamage.remove(victimId);
-        lastDamageType.remove(victimId);
-        damageHistory.remove(victimId);
-        activeCombats.values().forEach(map -> map.remove(victimId));
-        fireAttribution.remove(victimId);
+    /** 死亡统一清理: 受害者账本的单次存活状态 + 其他实体对受害者的交战记录。 */
+    private static void cleanupVictimData(CombatLedger victimLedger, boolean isVictimPlayer) {
+        victimLedger.resetLife(isVictimPlayer);
+        ledgers.disengageAll(victimLedger.id);
+        ledgers.releaseIfIdle(victimLedger);
     }
 
     private static void processAssist(UUID victimId, int victimIdInt, boolean hasHelmet, String victimName, boolean isVictimPlayer, UUID excludedPlayerId) {
-        List<DamageRecord> records = damageHistory.get(victimId);
-        if (records == null || records.isEmpty()) return;
+        CombatLedger victimLedger = peekLedger(victimId);
+        if (victimLedger == null) return;
 
         final String finalVictimName = victimName;
 
-        long now = System.currentTimeMillis();
-        Map<UUID, Integer> playerDamages = new HashMap<>();
+        long now = clock.now();
+        long timeout = ServerData.get().getAssistTimeoutMs();
+        // 逐攻击者累计由伤害历史在写入/淘汰时增量维护, 结算只需遍历攻击者槽位
+        int attackerCount = victimLedger.prepareAssists(now, timeout);
 
-        synchronized (records) {
-            long lastTime = records.stream().mapToLong(r -> r.timestamp()).max().orElse(0);
-            long timeout = ServerData.get().getAssistTimeoutMs();
-            if (now - lastTime > timeout) return;
-            for (DamageRecord r : records) {
-                if (now - r.timestamp() <= timeout) {
-                    playerDamages.merge(r.attackerId(), r.amount(), Integer::sum);
-                }
-            }
-        }
-
-        playerDamages.forEach((playerId, totalDamage) -> {
+        for (int slot = 0; slot < attackerCount; slot++) {
+            UUID playerId = victimLedger.assistAttacker(slot);
+            int totalDamage = victimLedger.assistDamage(slot);
             if (excludedPlayerId != null && excludedPlayerId.equals(playerId)) {
-                return;
+                continue;
             }
             if (totalDamage > 0) {
                 ServerPlayer player = ServerBridge.loader().getCurrentServer().getPlayerList().getPlayer(playerId);
                 if (player != null) {
                     addBonus(player, BonusType.ASSIST, (float) totalDamage, "", victimIdInt, finalVictimName);
                     sendKillEffects(player, KillType.ASSIST, 0, victimIdInt, hasHelmet, finalVictimName, isVictimPlayer, 0.0f,
-                            (float) ServerData.get().getBonusMultiplier(BonusType.ASSIST), (float) totalDamage);
+                            (float) ServerCore.BONUS.multiplier(BonusType.ASSIST, (float) totalDamage), (float) totalDamage);
 
                     ServerData.get().addAssist(player, 1);
 
-                    int count = consecutiveAssists.merge(playerId, 1, Integer::sum);
+                    CombatLedger assistLedger = ledger(playerId);
+                    int count = ++assistLedger.consecutiveAssists;
                     if (count >= 3) {
                         addBonus(player, BonusType.POTATO_AIM, 1.0f, "");
-                        consecutiveAssists.put(playerId, 0);
+                        assistLedger.consecutiveAssists = 0;
                     }
                 }
             }
-        });
+        }
     }
 
     private static void processKill(PendingKill pk) {
         if (pk.player.getUUID().equals(pk.victimId)) return;
 
+        // 本次击杀的加分项表达式变量(距离/连杀/受害者连杀/受害者最大生命)
+        ServerCore.BONUS.beginKillContext(pk.distance, pk.combo, pk.streakCount, pk.maxHealth);
+        try {
+            processKillBonuses(pk);
+        } finally {
+            ServerCore.BONUS.endKillContext();
+        }
+    }
+
+    private static void processKillBonuses(PendingKill pk) {
+
         String finalVictimName = pk.victimName;
 
         int killType = determineKillType(pk);
         int bonusType = mapKillTypeToBonus(killType, pk.damageType);
 
         // 复仇判定(awardStreakKills 会移除 history, 需在加分项判定前计算, 荣誉与加分项共用)
-        Map<UUID, Long> avengeHistory = killHistory.get(pk.player.getUUID());
-        boolean isAvenge = avengeHistory != null && avengeHistory.containsKey(pk.victimId);
+        CombatLedger killerLedger = ledger(pk.player.getUUID());
+        boolean isAvenge = killerLedger.killers.containsKey(pk.victimId);
 
         addBonus(pk.player, bonusType, pk.maxHealth, "", pk.victimIdInt, finalVictimName);
-        awardSpecialKills(pk);
+        awardSpecialKills(pk, killerLedger);
         awardPositionalKills(pk);
         awardHoldPosition(pk);
         awardStatusKills(pk);
         awardLockedTarget(pk);
-        awardStreakKills(pk);
+        awardStreakKills(pk, killerLedger);
 
-        updatePostKillStates(pk);
+        updatePostKillStates(pk, killerLedger);
 
         // 荣誉判定(击杀证据; 受害者实体可能已移除, 布尔属性仍参与判定)
         net.minecraft.world.entity.LivingEntity victimEntity =
                 pk.player.level().getEntity(pk.victimIdInt) instanceof net.minecraft.world.entity.LivingEntity le ? le : null;
         // 爆头判定 = killType == HEADSHOT(TACZ/SBW 枪械爆头或原版爆头伤害类型, 对生物同样有效);
         // 注意不能用 pk.hasHelmet(那是"受害者戴头盔", 语义不同)
+        // 以下证据在荣誉判定器首次读取时才计算(KillEvidence 缓存), 多数击杀不需要
         // 击杀物品名称(军械库等荣誉用; 按物品显示名判定, 改名/不同名即使 id 相同也算不同武器; 空手不算)
-        net.minecraft.world.item.ItemStack handItem = pk.player.getMainHandItem();
-        String weaponId = handItem.isEmpty() ? "" : handItem.getHoverName().getString();
+        java.util.function.Supplier<String> weaponId = () -> {
+            net.minecraft.world.item.ItemStack handItem = pk.player.getMainHandItem();
+            return handItem.isEmpty() ? "" : handItem.getHoverName().getString();
+        };
         // 最高得分者判定(与加分项 SLAY_THE_LEADER 同条件)
-        boolean victimTopScorer = ServerData.get().isTopScorer(pk.victimId);
+        java.util.function.BooleanSupplier victimTopScorer = () -> ServerData.get().isTopScorer(pk.victimId);
         // 刽子手: 背刺(与加分项同判定) && 距离 < 2 米(近战背刺) && 手持原版近战武器或 LR 战术工坊武器
-        boolean isExecutionerKill = pk.isBackstab && pk.distance < 2.0f && isMeleeWeapon(pk.player.getMainHandItem());
+        java.util.function.BooleanSupplier isExecutionerKill =
+                () -> pk.isBackstab && pk.distance < 2.0f && isMeleeWeapon(pk.player.getMainHandItem());
         // 侧袭: 击杀身上带 LR 致盲效果的生物(可一命多次)
         if (victimEntity != null && isLrBlinded(victimEntity)) {
             ServerCore.HONOR.onFlankKill(pk.player);
@@ -603,7 +598,7 @@ public final class ServerCombatEngine {
             ServerCore.HONOR.onFirstKill(pk.player, firstKillKey);
         }
         // 战士: 行走或疾跑 = 水平移动中(非静止; 速度或移动输入, 防止击杀瞬间速度归零)
-        boolean isMoving = isPlayerWalkingOrSprinting(pk.player);
+        java.util.function.BooleanSupplier isMoving = () -> isPlayerWalkingOrSprinting(pk.player);
         ServerCore.HONOR.onKill(pk.player, victimEntity, killType == org.mods.gd656killicon.common.KillType.HEADSHOT,
                 killType == org.mods.gd656killicon.common.KillType.DESTROY_VEHICLE,
                 false, // TODO: 受害者空中载具判定(接入集成层后填充)
@@ -613,7 +608,7 @@ public final class ServerCombatEngine {
 
         // <score> = 附加数据(伤害) × 加分项表达式(倍率)
         sendKillEffects(pk.player, killType, pk.combo, pk.victimIdInt, pk.hasHelmet, finalVictimName, pk.isVictimPlayer, pk.distance,
-                (float) ServerData.get().getBonusMultiplier(bonusType), pk.maxHealth);
+                (float) ServerCore.BONUS.multiplier(bonusType, pk.maxHealth), pk.maxHealth);
     }
 
     private static int determineKillType(PendingKill pk) {
@@ -624,11 +619,6 @@ public final class ServerCombatEngine {
         return KillType.NORMAL;
     }
 
-    private static int getLastDamageType(UUID victimId, UUID attackerId) {
-        Map<UUID, Integer> victimMap = lastDamageType.get(victimId);
-        return victimMap != null ? victimMap.getOrDefault(attackerId, TYPE_NORMAL) : TYPE_NORMAL;
-    }
-
     private static int mapKillTypeToBonus(int killType, int damageType) {
         return switch (killType) {
             case KillType.HEADSHOT -> BonusType.KILL_HEADSHOT;
@@ -638,9 +628,9 @@ public final class ServerCombatEngine {
         };
     }
 
-    private static void awardSpecialKills(PendingKill pk) {
+    private static void awardSpecialKills(PendingKill pk, CombatLedger killerLedger) {
         if (pk.damageType == TYPE_EXPLOSION) {
-            int count = explosionKillCounter.merge(pk.player.getUUID(), 1, Integer::sum);
+            int count = killerLedger.incrementExplosionKills(explosionKillEpoch);
             if (count == 5) addBonus(pk.player, BonusType.SHOCKWAVE, 1.0f, "");
         }
         if (ServerCore.TACZ.isLastBulletKill(pk.victimId)) {
@@ -650,10 +640,10 @@ public final class ServerCombatEngine {
             addBonus(pk.player, BonusType.EFFORTLESS_KILL, 1.0f, "");
         }
 
-        Long switchTime = lastItemSwitchTime.get(pk.player.getUUID());
-        if (switchTime != null && System.currentTimeMillis() - switchTime <= 3000) {
+        long switchTime = killerLedger.lastItemSwitchTime();
+        if (switchTime != 0L && clock.now() - switchTime <= 3000) {
             addBonus(pk.player, BonusType.QUICK_SWITCH, 1.0f, "");
-            lastItemSwitchTime.remove(pk.player.getUUID());
+            killerLedger.clearItemSwitch();
         }
     }
 
@@ -702,7 +692,7 @@ public final class ServerCombatEngine {
         }
     }
 
-    private static void awardStreakKills(PendingKill pk) {
+    private static void awardStreakKills(PendingKill pk, CombatLedger killerLedger) {
         if (pk.combo > 1) {
             addBonus(pk.player, BonusType.KILL_COMBO, (float) Math.min(pk.combo, 4), String.valueOf(pk.combo));
             // 4 连杀(4 连续击败加分项触发)后开始计算掠夺者 8 秒窗口
@@ -711,51 +701,40 @@ public final class ServerCombatEngine {
             }
         }
 
-        int deathCount = consecutiveDeaths.getOrDefault(pk.player.getUUID(), 0);
+        int deathCount = killerLedger.consecutiveDeaths;
         if (deathCount >= 3) addBonus(pk.player, BonusType.BRAVE_RETURN, 1.0f, "");
-        consecutiveDeaths.put(pk.player.getUUID(), 0);
+        killerLedger.consecutiveDeaths = 0;
 
-        int lifeKills = lifeKillCount.merge(pk.player.getUUID(), 1, Integer::sum);
+        int lifeKills = ++killerLedger.lifeKills;
         awardLifeKillMilestone(pk.player, lifeKills);
 
-        Map<UUID, Long> history = killHistory.get(pk.player.getUUID());
-        if (history != null && history.containsKey(pk.victimId)) {
+        if (killerLedger.killers.remove(pk.victimId) != null) {
             addBonus(pk.player, BonusType.AVENGE, 1.0f, "");
-            history.remove(pk.victimId);
         }
 
         if (pk.streakCount >= 5) {
             addBonus(pk.player, BonusType.INTERRUPTED_STREAK, (float) pk.streakCount, String.valueOf(pk.streakCount));
         }
 
-        if (pk.player.getTeam() != null) {
-            Map<String, TeamKillRecord> teamHistory = teamKillHistory.get(pk.victimId);
-            if (teamHistory != null) {
-                TeamKillRecord record = teamHistory.get(pk.player.getTeam().getName());
-                if (record != null && System.currentTimeMillis() - record.timestamp() <= 60000 && !record.victimId().equals(pk.player.getUUID())) {
-                    addBonus(pk.player, BonusType.LEAVE_IT_TO_ME, 1.0f, "");
-                }
-                teamKillHistory.remove(pk.victimId);
+        CombatLedger victimLedger = peekLedger(pk.victimId);
+        if (pk.player.getTeam() != null && victimLedger != null && !victimLedger.teamKills.isEmpty()) {
+            TeamKillRecord record = victimLedger.teamKills.get(pk.player.getTeam().getName());
+            if (record != null && clock.now() - record.timestamp() <= 60000 && !record.victimId().equals(pk.player.getUUID())) {
+                addBonus(pk.player, BonusType.LEAVE_IT_TO_ME, 1.0f, "");
             }
+            victimLedger.teamKills.clear();
         }
 
         if (pk.player.getTeam() != null) {
-            long now = System.currentTimeMillis();
+            long now = clock.now();
             Collection<String> teamMembers = pk.player.getTeam().getPlayers();
             for (String memberName : teamMembers) {
                 ServerPlayer member = pk.player.getServer().getPlayerList().getPlayerByName(memberName);
                 if (member != null && !member.getUUID().equals(pk.player.getUUID()) && member.isAlive()) {
-                    List<DamageRecord> records = damageHistory.get(member.getUUID());
-                    if (records != null) {
-                        synchronized (records) {
-                            boolean saved = records.stream().anyMatch(r ->
-                                r.attackerId().equals(pk.victimId) &&
-                                    now - r.timestamp() <= 5000);
-                            if (saved) {
-                                addBonus(pk.player, BonusType.SAVIOR, 1.0f, "");
-                                break;
-                            }
-                        }
+                    CombatLedger memberLedger = peekLedger(member.getUUID());
+                    if (memberLedger != null && memberLedger.wasDamagedBy(pk.victimId, now, 5000)) {
+                        addBonus(pk.player, BonusType.SAVIOR, 1.0f, "");
+                        break;
                     }
                 }
             }
@@ -805,69 +784,38 @@ public final class ServerCombatEngine {
         return false;
     }
 
-    private static void updatePostKillStates(PendingKill pk) {
-        playerKillTimestamps.remove(pk.victimId);
-        entityKillTimestamps.remove(pk.victimId);
-
-        long now = System.currentTimeMillis();
-        playerKillTimestamps.computeIfAbsent(pk.player.getUUID(), k -> Collections.synchronizedList(new ArrayList<>())).add(now);
-        Map<UUID, CombatState> combats = activeCombats.get(pk.player.getUUID());
-        if (combats != null) {
-            combats.remove(pk.victimId);
+    private static void updatePostKillStates(PendingKill pk, CombatLedger killerLedger) {
+        CombatLedger victimLedger = peekLedger(pk.victimId);
+        if (victimLedger != null) {
+            victimLedger.clearKillTimes();
         }
+
+        killerLedger.recordKillTime(clock.now());
+        killerLedger.disengage(pk.victimId);
     }
 
-    private static void updateCombatTracking(DamageSource src, LivingEntity victim, UUID victimId, float amount) {
-        long now = System.currentTimeMillis();
+    private static void updateCombatTracking(LivingEntity victim, CombatLedger victimLedger, LivingEntity attacker) {
+        long now = clock.now();
 
         if (victim instanceof ServerPlayer playerVictim) {
-            Map<UUID, CombatState> playerCombats = activeCombats.get(playerVictim.getUUID());
-            if (playerCombats != null) {
-                playerCombats.values().forEach(cs -> cs.flawless = false);
-            }
+            victimLedger.combats.values().forEach(cs -> cs.flawless = false);
 
-            LivingEntity attacker = resolveLivingAttacker(src, victim);
             if (attacker != null) {
-                activeCombats.computeIfAbsent(playerVictim.getUUID(), k -> new ConcurrentHashMap<>())
-                    .compute(attacker.getUUID(), (k, v) -> {
-                        if (v == null) {
-                            CombatState cs = new CombatState(now, playerVictim.position());
-                            cs.flawless = false;
-                            return cs;
-                        }
-                        v.lastInteractionTime = now;
-                        v.flawless = false;
-                        return v;
-                    });
+                victimLedger.engage(attacker.getUUID(), now, playerVictim.position()).flawless = false;
             }
         }
 
-        ServerPlayer player = resolvePlayerAttacker(src, victim);
-        if (player != null) {
-            activeCombats.computeIfAbsent(player.getUUID(), k -> new ConcurrentHashMap<>())
-                .compute(victimId, (k, v) -> {
-                    if (v == null) return new CombatState(now, player.position());
-                    v.lastInteractionTime = now;
-                    return v;
-                });
+        if (attacker instanceof ServerPlayer player) {
+            ledger(player.getUUID()).engage(victimLedger.id, now, player.position());
         }
     }
 
-    private static boolean checkLockedTarget(ServerPlayer player, LivingEntity victim) {
-        Map<UUID, CombatState> playerCombats = activeCombats.get(player.getUUID());
-        if (playerCombats == null) return false;
-        CombatState state = playerCombats.get(victim.getUUID());
-        if (state == null) return false;
-        long now = System.currentTimeMillis();
-        return now - state.firstInteractionTime >= LOCKED_TARGET_WINDOW_MS;
-    }
-
     private static LivingEntity resolveLivingAttacker(DamageSource src, LivingEntity victim) {
-        return ServerCombatAttribution.resolveLivingAttacker(src, victim, fireAttribution, FIRE_ATTRIBUTION_TIMEOUT_MS);
+        return ServerCombatAttribution.resolveLivingAttacker(src, victim, ledgers);
     }
 
     private static ServerPlayer resolvePlayerAttacker(DamageSource src, LivingEntity victim) {
-        return ServerCombatAttribution.resolvePlayerAttacker(src, victim, fireAttribution, FIRE_ATTRIBUTION_TIMEOUT_MS);
+        return ServerCombatAttribution.resolvePlayerAttacker(src, victim, ledgers);
     }
 
     private static void sendKillEffects(ServerPlayer player, int killType, int combo, int victimId, boolean hasHelmet, String victimName, boolean isVictimPlayer, float distance, float bonusMultiplier, float bonusScale) {
@@ -888,15 +836,6 @@ public final class ServerCombatEngine {
         return blockHit.getType() != HitResult.Type.MISS;
     }
 
-    private static long calculateStreakCount(UUID victimId) {
-        List<Long> victimKills = playerKillTimestamps.get(victimId);
-        if (victimKills == null) victimKills = entityKillTimestamps.get(victimId);
-        if (victimKills == null) return 0;
-
-        long now = System.currentTimeMillis();
-        return victimKills.stream().filter(time -> now - time <= 360000).count();
-    }
-
     private static boolean checkVictimThreat(ServerPlayer player, LivingEntity victim) {
         if (victim instanceof Monster || victim instanceof ServerPlayer) return true;
         if (victim instanceof NeutralMob && victim instanceof Mob mob) return mob.getTarget() == player;
@@ -949,28 +888,15 @@ public final class ServerCombatEngine {
             return false;
         }
         try {
-            if (garrisonMgrOfMethod == null) {
-                Class<?> mgrClass = Class.forName("org.mods.gd656conquest.server.room.entry.RoomCoreRuntimeManager");
-                garrisonMgrOfMethod = mgrClass.getMethod("of", net.minecraft.server.MinecraftServer.class);
-                garrisonCoreServiceMethod = mgrClass.getMethod("coreService");
-                Class<?> coreServiceClass = Class.forName("org.mods.gd656conquest.server.room.core.RoomCoreService");
-                garrisonFindRoomMethod = coreServiceClass.getMethod("findPlayerRoomId", java.util.UUID.class);
-                garrisonSnapshotMethod = coreServiceClass.getMethod("buildKilliconConquestSnapshot", String.class);
-                garrisonReady = true;
-            }
-            if (!garrisonReady) {
-                return false;
-            }
-            Object mgr = garrisonMgrOfMethod.invoke(null, killer.server);
-            if (mgr == null) {
+            Object coreService = resolveConquestCoreService(killer);
+            if (coreService == null) {
                 return false;
             }
-            Object coreService = garrisonCoreServiceMethod.invoke(mgr);
-            Object roomOpt = garrisonFindRoomMethod.invoke(coreService, killer.getUUID());
+            Object roomOpt = IntegrationAccessors.CONQUEST_FIND_PLAYER_ROOM.call(coreService, killer.getUUID());
             if (!(roomOpt instanceof java.util.Optional<?> optional) || optional.isEmpty()) {
                 return false;
             }
-            Object snapshot = garrisonSnapshotMethod.invoke(coreService, optional.get());
+            Object snapshot = IntegrationAccessors.CONQUEST_KILLICON_SNAPSHOT.call(coreService, optional.get());
             if (!(snapshot instanceof java.util.Map<?, ?> snapshotMap)) {
                 return false;
             }
@@ -1011,12 +937,14 @@ public final class ServerCombatEngine {
         }
     }
 
-    private static boolean garrisonReady = false;
-    private static java.lang.reflect.Method garrisonMgrOfMethod;
-    private static java.lang.reflect.Method garrisonCoreServiceMethod;
-    private static java.lang.reflect.Method garrisonFindRoomMethod;
-    private static java.lang.reflect.Method garrisonSnapshotMethod;
-    private static java.lang.reflect.Method garrisonFindRunningMethod;
+    /** Conquest RoomCoreRuntimeManager.of(server).coreService(); 未安装或未就绪返回 null。 */
+    private static Object resolveConquestCoreService(ServerPlayer player) {
+        if (!IntegrationAccessors.CONQUEST_ROOM_MANAGER_OF.isPresent()) {
+            return null;
+        }
+        Object mgr = IntegrationAccessors.CONQUEST_ROOM_MANAGER_OF.call(player.server);
+        return mgr != null ? IntegrationAccessors.CONQUEST_CORE_SERVICE.call(mgr) : null;
+    }
 
     /**
      * 急先锋判定: 玩家在 Conquest RUNNING 对局中的**小队**(阵营内 squad, 非整个阵营), 返回 roomId:squadLabel;
@@ -1027,38 +955,27 @@ public final class ServerCombatEngine {
             return null;
         }
         try {
-            if (garrisonMgrOfMethod == null) {
-                Class<?> mgrClass = Class.forName("org.mods.gd656conquest.server.room.entry.RoomCoreRuntimeManager");
-                garrisonMgrOfMethod = mgrClass.getMethod("of", net.minecraft.server.MinecraftServer.class);
-                garrisonCoreServiceMethod = mgrClass.getMethod("coreService");
-                Class<?> coreServiceClass = Class.forName("org.mods.gd656conquest.server.room.core.RoomCoreService");
-                garrisonFindRoomMethod = coreServiceClass.getMethod("findPlayerRoomId", java.util.UUID.class);
-                garrisonSnapshotMethod = coreServiceClass.getMethod("buildKilliconConquestSnapshot", String.class);
-                garrisonFindRunningMethod = coreServiceClass.getMethod("findRunningState", String.class);
-                garrisonReady = true;
-            }
-            if (!garrisonReady) {
+            Object coreService = resolveConquestCoreService(killer);
+            if (coreService == null) {
                 return null;
             }
-            Object mgr = garrisonMgrOfMethod.invoke(null, killer.server);
-            Object coreService = garrisonCoreServiceMethod.invoke(mgr);
-            Object roomOpt = garrisonFindRoomMethod.invoke(coreService, killer.getUUID());
+            Object roomOpt = IntegrationAccessors.CONQUEST_FIND_PLAYER_ROOM.call(coreService, killer.getUUID());
             if (!(roomOpt instanceof java.util.Optional<?> optional) || optional.isEmpty()) {
                 return null;
             }
             String roomId = (String) optional.get();
             // 对局未开始(RUNNING 之外)时快照为空
-            Object snapshot = garrisonSnapshotMethod.invoke(coreService, roomId);
+            Object snapshot = IntegrationAccessors.CONQUEST_KILLICON_SNAPSHOT.call(coreService, roomId);
             if (!(snapshot instanceof java.util.Map<?, ?> snapshotMap) || snapshotMap.isEmpty()) {
                 return null;
             }
             // 玩家小队: findRunningState(roomId).getSquadLabelsByPlayer()
-            Object runningOpt = garrisonFindRunningMethod.invoke(coreService, roomId);
+            Object runningOpt = IntegrationAccessors.CONQUEST_FIND_RUNNING_STATE.call(coreService, roomId);
             if (!(runningOpt instanceof java.util.Optional<?> runningOptional) || runningOptional.isEmpty()) {
                 return null;
             }
             Object runningState = runningOptional.get();
-            Object squadMap = runningState.getClass().getMethod("getSquadLabelsByPlayer").invoke(runningState);
+            Object squadMap = IntegrationAccessors.CONQUEST_SQUAD_LABELS.call(runningState);
             if (squadMap instanceof java.util.Map<?, ?> squadLabels) {
                 Object label = squadLabels.get(killer.getUUID());
                 if (label instanceof String squadLabel && !squadLabel.isBlank()) {
@@ -1085,54 +1002,25 @@ public final class ServerCombatEngine {
             return false;
         }
         // SBW: getSeatIndex(player) != 0
-        try {
-            if (sbwSeatIndexMethod == null) {
-                Class<?> sbwVehicleClass = Class.forName("com.atsuishio.superbwarfare.entity.vehicle.base.VehicleEntity");
-                sbwSeatIndexMethod = sbwVehicleClass.getMethod("getSeatIndex", net.minecraft.world.entity.Entity.class);
-            }
-            if (sbwSeatIndexMethod != null && sbwSeatIndexMethod.getDeclaringClass().isInstance(vehicle)) {
-                Object idx = sbwSeatIndexMethod.invoke(vehicle, player);
-                if (idx instanceof Integer seatIndex) {
-                    return seatIndex != 0;
-                }
+        if (IntegrationAccessors.SBW_GET_SEAT_INDEX.accepts(vehicle)) {
+            Object idx = IntegrationAccessors.SBW_GET_SEAT_INDEX.call(vehicle, player);
+            if (idx instanceof Integer seatIndex) {
+                return seatIndex != 0;
             }
-        } catch (Exception ignored) {
         }
         // YWZJ: 玩家 != getDriver()(主驾驶)
-        try {
-            if (ywzjVehicleClass == null) {
-                ywzjVehicleClass = Class.forName("org.ywzj.vehicle.entity.vehicle.AbstractVehicle");
-                ywzjGetDriverMethod = ywzjVehicleClass.getMethod("getDriver");
-            }
-            if (ywzjVehicleClass != null && ywzjVehicleClass.isInstance(vehicle)) {
-                Object driver = ywzjGetDriverMethod.invoke(vehicle);
-                return driver != player;
-            }
-        } catch (Exception ignored) {
+        if (IntegrationAccessors.YWZJ_GET_DRIVER.accepts(vehicle)) {
+            Object driver = IntegrationAccessors.YWZJ_GET_DRIVER.call(vehicle);
+            return driver != player;
         }
         return false;
     }
 
-    private static java.lang.reflect.Method sbwSeatIndexMethod;
-    private static java.lang.reflect.Method ywzjGetDriverMethod;
-
     /**
-     * 载具判定(路霸): SBW VehicleEntity 或 YWZJ AbstractVehicle 子类(反射 instanceof, 可选模组)。
+     * 载具判定(路霸): SBW VehicleEntity 或 YWZJ AbstractVehicle 子类(按实体类缓存, 可选模组)。
      */
     private static boolean isVehicleEntity(net.minecraft.world.entity.Entity entity) {
-        if (entity == null) {
-            return false;
-        }
-        try {
-            if (sbwVehicleClass == null) {
-                sbwVehicleClass = Class.forName("com.atsuishio.superbwarfare.entity.vehicle.base.VehicleEntity");
-                ywzjVehicleClass = Class.forName("org.ywzj.vehicle.entity.vehicle.AbstractVehicle");
-            }
-            return (sbwVehicleClass != null && sbwVehicleClass.isInstance(entity))
-                    || (ywzjVehicleClass != null && ywzjVehicleClass.isInstance(entity));
-        } catch (Exception e) {
-            return false;
-        }
+        return EntityClassifier.isVehicle(entity);
     }
 
     /** 载具驾驶员(路霸): 优先控制者, 否则遍历乘客找 ServerPlayer。 */
@@ -1159,62 +1047,30 @@ public final class ServerCombatEngine {
      * 死亡瞬间乘客尚未脱离载具, 仅靠 getVehicle() 会误判, 需排除已摧毁载具。
      */
     private static boolean isAliveAirVehicle(net.minecraft.world.entity.Entity vehicle) {
-        if (vehicle == null
-                || !org.mods.gd656killicon.server.logic.core.BonusEngine.isAircraftEntity(vehicle)) {
+        int traits = EntityClassifier.traits(vehicle);
+        if ((traits & EntityClassifier.AIRCRAFT) == 0) {
             return false;
         }
-        return !isDestroyedVehicle(vehicle);
+        return !isDestroyedVehicle(vehicle, traits);
     }
 
     /** 载具是否已摧毁: SBW health≤0 或 isWreck() 为 true; YWZJ isDestroyed() 为 true。 */
-    private static boolean isDestroyedVehicle(net.minecraft.world.entity.Entity vehicle) {
-        try {
-            if (sbwVehicleClass == null) {
-                sbwVehicleClass = Class.forName("com.atsuishio.superbwarfare.entity.vehicle.base.VehicleEntity");
+    private static boolean isDestroyedVehicle(net.minecraft.world.entity.Entity vehicle, int traits) {
+        if ((traits & EntityClassifier.SBW_VEHICLE) != 0) {
+            // SBW: getHealth() ≤ 0
+            Object health = IntegrationAccessors.SBW_GET_HEALTH.call(vehicle);
+            if (health instanceof Number n && n.floatValue() <= 0.0f) {
+                return true;
             }
-            if (sbwVehicleClass != null && sbwVehicleClass.isInstance(vehicle)) {
-                // SBW: getHealth() ≤ 0
-                try {
-                    java.lang.reflect.Method healthMethod = vehicle.getClass().getMethod("getHealth");
-                    Object health = healthMethod.invoke(vehicle);
-                    if (health instanceof Number n && n.floatValue() <= 0.0f) {
-                        return true;
-                    }
-                } catch (Exception ignored) {
-                }
-                // SBW: isWreck()/getIsWreck() 为 true(残骸; Kotlin 属性 getter 名可能不同)
-                for (String wreckMethodName : new String[]{"isWreck", "getIsWreck"}) {
-                    try {
-                        java.lang.reflect.Method wreckMethod = vehicle.getClass().getMethod(wreckMethodName);
-                        Object wreck = wreckMethod.invoke(vehicle);
-                        if (wreck instanceof Boolean b && b) {
-                            return true;
-                        }
-                    } catch (Exception ignored) {
-                    }
-                }
-            }
-        } catch (Exception ignored) {
+            // SBW: isWreck()/getIsWreck() 为 true(残骸; Kotlin 属性 getter 名可能不同)
+            return IntegrationAccessors.SBW_IS_WRECK.call(vehicle) instanceof Boolean b && b;
         }
-        try {
-            if (ywzjVehicleClass == null) {
-                ywzjVehicleClass = Class.forName("org.ywzj.vehicle.entity.vehicle.AbstractVehicle");
-            }
-            if (ywzjVehicleClass != null && ywzjVehicleClass.isInstance(vehicle)) {
-                java.lang.reflect.Method destroyedMethod = vehicle.getClass().getMethod("isDestroyed");
-                Object destroyed = destroyedMethod.invoke(vehicle);
-                if (destroyed instanceof Boolean b && b) {
-                    return true;
-                }
-            }
-        } catch (Exception ignored) {
+        if ((traits & EntityClassifier.YWZJ_VEHICLE) != 0) {
+            return IntegrationAccessors.YWZJ_IS_DESTROYED.call(vehicle) instanceof Boolean b && b;
         }
         return false;
     }
 
-    private static Class<?> sbwVehicleClass;
-    private static Class<?> ywzjVehicleClass;
-
     /**
      * 受害者是否带有 LR 战术工坊的致盲效果(lrtactical:blinded, 闪光弹致盲)。
      * LR 为可选模组, 用 MobEffect 注册名判断, 避免编译期依赖。
@@ -1254,11 +1110,6 @@ public final class ServerCombatEngine {
     }
 
     private static boolean isConquestTacticalGadget(LivingEntity entity) {
-        if (entity == null) return false;
-        String className = entity.getClass().getName();
-        return CONQUEST_SQUAD_BEACON_CLASS.equals(className)
-                || CONQUEST_GROUND_SENSOR_CLASS.equals(className)
-                || CONQUEST_MEDICAL_BOX_CLASS.equals(className)
-                || CONQUEST_AMMO_BOX_CLASS.equals(className);
+        return EntityClassifier.isConquestGadget(entity);
     }
 }
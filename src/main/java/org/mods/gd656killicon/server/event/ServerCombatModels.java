@@ -5,12 +5,8 @@ import net.minecraft.world.phys.Vec3;
 
 import java.util.UUID;
 
-record DamageRecord(UUID attackerId, int amount, long timestamp) {}
-
 record TeamKillRecord(UUID victimId, long timestamp) {}
 
-record FireAttribution(UUID attackerId, long timestamp) {}
-
 final class CombatState {
     boolean flawless = true;
     long firstInteractionTime;
@@ -24,6 +20,7 @@ final class CombatState {
     }
 }
 
+/** 待结算击杀; 由 {@link PendingKillQueue} 池化复用, 通过 {@link #set} 填充。 */
 final class PendingKill {
     ServerPlayer player;
     UUID victimId;
@@ -52,7 +49,7 @@ final class PendingKill {
     /** 飞行调度员: 死亡瞬间受害者正搭乘空中载具(载具未摧毁, 否则乘客会脱离)。 */
     boolean victimRidingAir;
 
-    PendingKill(ServerPlayer player, UUID victimId, int victimIdInt, Vec3 victimPos, String victimName, int combo, int damageType, float maxHealth, float distance, int delay, int sourceEntityId, long tick, boolean isGun, boolean isVictimThreat, boolean isBackstab, boolean isGliding, boolean isJusticeFromAbove, boolean isFlawless, boolean isVictimBlinded, boolean hasHelmet, boolean isVictimPlayer, boolean isLockedTarget, boolean isHoldPosition, long streakCount, boolean victimRidingAir) {
+    PendingKill set(ServerPlayer player, UUID victimId, int victimIdInt, Vec3 victimPos, String victimName, int combo, int damageType, float maxHealth, float distance, int delay, int sourceEntityId, long tick, boolean isGun, boolean isVictimThreat, boolean isBackstab, boolean isGliding, boolean isJusticeFromAbove, boolean isFlawless, boolean isVictimBlinded, boolean hasHelmet, boolean isVictimPlayer, boolean isLockedTarget, boolean isHoldPosition, long streakCount, boolean victimRidingAir) {
         this.player = player;
         this.victimId = victimId;
         this.victimIdInt = victimIdInt;
@@ -78,5 +75,14 @@ final class PendingKill {
         this.isHoldPosition = isHoldPosition;
         this.streakCount = streakCount;
         this.victimRidingAir = victimRidingAir;
+        return this;
+    }
+
+    /** 归还对象池前释放引用, 避免池中对象持有已移除的玩家/实体数据。 */
+    void clear() {
+        this.player = null;
+        this.victimId = null;
+        this.victimPos = null;
+        this.victimName = null;
     }
 }
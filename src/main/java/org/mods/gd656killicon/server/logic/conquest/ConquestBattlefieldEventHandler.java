@@ -75,7 +75,7 @@ public class ConquestBattlefieldEventHandler implements IConquestBattlefieldHand
                 return;
             }
 
-            long now = System.currentTimeMillis();
+            long now = ServerCore.CLOCK.now();
             for (Object roomDefinition : rooms) {
                 String roomId = resolveRoomId(roomDefinition);
                 if (roomId == null || roomId.isBlank()) {
@@ -8,11 +8,10 @@ import net.minecraftforge.event.entity.living.LivingDeathEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import org.mods.gd656killicon.server.bridge.ServerBridge;
 import org.mods.gd656killicon.server.logic.core.SpottingRewardTracker;
+import org.mods.gd656killicon.server.logic.integration.IntegrationAccessors;
 import org.mods.gd656killicon.server.logic.spotting.ISpottingHandler;
 import org.mods.gd656killicon.server.util.ServerLog;
 
-import java.lang.reflect.Method;
-
 /**
  * GD656Conquest 索敌标记接入: 监听 ConquestMarkerSpotPlacedEvent(手动索敌 DIRECT_ENEMY 放置成功),
  * 记录标记者与目标 → 30s 内目标被同队队友击杀时触发标示助攻(SPOT_ASSIST)。
@@ -34,7 +33,7 @@ public class ConquestSpottingEventHandler implements ISpottingHandler {
 
     @Override
     public void tick() {
-        rewardTracker.tick();
+        // 索敌记录的过期由 ServerCore.EXPIRY 回收
     }
 
     @SubscribeEvent
@@ -53,21 +52,15 @@ public class ConquestSpottingEventHandler implements ISpottingHandler {
     }
 
     private ServerPlayer getSpotter(Object event) {
-        return invokePlayerGetter(event, "getSpotter");
+        return asPlayer(IntegrationAccessors.CONQUEST_SPOT_SPOTTER.call(event));
     }
 
     private ServerPlayer getTargetPlayer(Object event) {
-        return invokePlayerGetter(event, "getTargetPlayer");
+        return asPlayer(IntegrationAccessors.CONQUEST_SPOT_TARGET.call(event));
     }
 
-    private ServerPlayer invokePlayerGetter(Object event, String methodName) {
-        try {
-            Method method = event.getClass().getMethod(methodName);
-            Object result = method.invoke(event);
-            return result instanceof ServerPlayer player ? player : null;
-        } catch (Exception e) {
-            return null;
-        }
+    private static ServerPlayer asPlayer(Object result) {
+        return result instanceof ServerPlayer player ? player : null;
     }
 
     private ServerPlayer resolveKiller(LivingDeathEvent event) {
@@ -0,0 +1,203 @@
+package org.mods.gd656killicon.server.logic.core;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * 单个玩家的待结算加分累加器, 取代逐条 Entry 列表 + 字符串键合并。
+ *
+ * <p>无附加数据(extra 为空)的加分按 type 直接累加进稠密数组(分数/倍率/首个受害者);
+ * 带 extra 的加分进入小型副表(按 type + extra 分组, 槽位跨批次复用);
+ * 合并行为为 BY_COMBO 的加分全部并入单个连杀槽。结算只遍历本批次触达的槽位,
+ * 并保持原有语义: 按首次出现顺序输出, 优先击杀类加分排在最后, 受害者取首个有效值, extra 取最后一次。</p>
+ *
+ * <p>本类不做同步, 由 {@link BonusEngine} 对实例加锁访问。</p>
+ */
+final class BonusAccumulator {
+    /** 结算输出。 */
+    @FunctionalInterface
+    interface Sink {
+        void accept(int type, float score, String extra, int victimId, String victimName, float scale);
+    }
+
+    private static final int INITIAL_TYPES = 64;
+    /** 顺序表中的连杀槽标记; 副表槽位 k 编码为 {@code EXTRA_BASE - k}。 */
+    private static final int COMBO_SLOT = -1;
+    private static final int EXTRA_BASE = -2;
+
+    // 按 type 索引的稠密累加(仅 extra 为空的加分)
+    private float[] scores = new float[INITIAL_TYPES];
+    private float[] scales = new float[INITIAL_TYPES];
+    private int[] victimIds = new int[INITIAL_TYPES];
+    private String[] victimNames = new String[INITIAL_TYPES];
+    private long[] touched = new long[(INITIAL_TYPES + 63) >>> 6];
+
+    // 带 extra 的副表
+    private Slot[] extras = new Slot[4];
+    private int extraCount;
+
+    // BY_COMBO 合并槽
+    private final Slot combo = new Slot();
+    private boolean comboActive;
+
+    /** 本批次槽位的首次出现顺序。 */
+    private int[] order = new int[16];
+    private int orderSize;
+
+    private static final class Slot {
+        int type;
+        String extra;
+        float score;
+        float scale;
+        int victimId;
+        String victimName;
+
+        void set(int type, float score, String extra, int victimId, String victimName, float scale) {
+            this.type = type;
+            this.score = score;
+            this.extra = extra;
+            this.victimId = victimId;
+            this.victimName = victimName;
+            this.scale = scale;
+        }
+
+        void merge(float score, String extra, int victimId, String victimName, float scale) {
+            this.score += score;
+            this.scale += scale;
+            this.extra = extra;
+            if (this.victimId == -1) {
+                this.victimId = victimId;
+            }
+            if (this.victimName == null) {
+                this.victimName = victimName;
+            }
+        }
+
+        void clear() {
+            extra = null;
+            victimName = null;
+        }
+    }
+
+    boolean isEmpty() {
+        return orderSize == 0;
+    }
+
+    void add(int type, float score, String extra, int victimId, String victimName, float scale, boolean byCombo) {
+        if (byCombo) {
+            if (comboActive) {
+                combo.merge(score, extra, victimId, victimName, scale);
+            } else {
+                combo.set(type, score, extra, victimId, victimName, scale);
+                comboActive = true;
+                appendOrder(COMBO_SLOT);
+            }
+            return;
+        }
+        if (extra.isEmpty() && type >= 0) {
+            addDense(type, score, victimId, victimName, scale);
+            return;
+        }
+        for (int i = 0; i < extraCount; i++) {
+            Slot slot = extras[i];
+            if (slot.type == type && slot.extra.equals(extra)) {
+                slot.merge(score, extra, victimId, victimName, scale);
+                return;
+            }
+        }
+        if (extraCount == extras.length) {
+            extras = Arrays.copyOf(extras, extraCount * 2);
+        }
+        Slot slot = extras[extraCount];
+        if (slot == null) {
+            slot = new Slot();
+            extras[extraCount] = slot;
+        }
+        slot.set(type, score, extra, victimId, victimName, scale);
+        appendOrder(EXTRA_BASE - extraCount);
+        extraCount++;
+    }
+
+    /**
+     * 按首次出现顺序输出本批次合并结果: 先输出非优先项, 再输出优先项(等价于稳定排序), 然后清空。
+     */
+    void flush(IntPredicate priority, Sink sink) {
+        emit(priority, false, sink);
+        emit(priority, true, sink);
+        clear();
+    }
+
+    private void emit(IntPredicate priority, boolean priorityPass, Sink sink) {
+        for (int i = 0; i < orderSize; i++) {
+            int slotId = order[i];
+            if (slotId >= 0) {
+                if (priority.test(slotId) == priorityPass) {
+                    sink.accept(slotId, scores[slotId], "", victimIds[slotId], victimNames[slotId], scales[slotId]);
+                }
+            } else {
+                Slot slot = slotId == COMBO_SLOT ? combo : extras[EXTRA_BASE - slotId];
+                if (priority.test(slot.type) == priorityPass) {
+                    sink.accept(slot.type, slot.score, slot.extra, slot.victimId, slot.victimName, slot.scale);
+                }
+            }
+        }
+    }
+
+    private void clear() {
+        for (int i = 0; i < orderSize; i++) {
+            int slotId = order[i];
+            if (slotId >= 0) {
+                touched[slotId >>> 6] &= ~(1L << slotId);
+                victimNames[slotId] = null;
+            }
+        }
+        for (int i = 0; i < extraCount; i++) {
+            extras[i].clear();
+        }
+        extraCount = 0;
+        combo.clear();
+        comboActive = false;
+        orderSize = 0;
+    }
+
+    private void addDense(int type, float score, int victimId, String victimName, float scale) {
+        if (type >= scores.length) {
+            grow(type + 1);
+        }
+        long bit = 1L << type;
+        int word = type >>> 6;
+        if ((touched[word] & bit) == 0) {
+            touched[word] |= bit;
+            scores[type] = score;
+            scales[type] = scale;
+            victimIds[type] = victimId;
+            victimNames[type] = victimName;
+            appendOrder(type);
+            return;
+        }
+        scores[type] += score;
+        scales[type] += scale;
+        if (victimIds[type] == -1) {
+            victimIds[type] = victimId;
+        }
+        if (victimNames[type] == null) {
+            victimNames[type] = victimName;
+        }
+    }
+
+    private void grow(int minTypes) {
+        int capacity = Math.max(scores.length * 2, minTypes);
+        scores = Arrays.copyOf(scores, capacity);
+        scales = Arrays.copyOf(scales, capacity);
+        victimIds = Arrays.copyOf(victimIds, capacity);
+        victimNames = Arrays.copyOf(victimNames, capacity);
+        touched = Arrays.copyOf(touched, (capacity + 63) >>> 6);
+    }
+
+    private void appendOrder(int slotId) {
+        if (orderSize == order.length) {
+            order = Arrays.copyOf(order, orderSize * 2);
+        }
+        order[orderSize++] = slotId;
+    }
+}
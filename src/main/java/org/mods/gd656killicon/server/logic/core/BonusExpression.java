@@ -0,0 +1,436 @@
+package org.mods.gd656killicon.server.logic.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 加分项表达式: 编辑/加载时编译一次为求值树, 结算时无解析、无分配。
+ *
+ * <p>不含 {@code scale} 的表达式, 其值即该加分项的倍率(分数 = 附加数据 scale × 倍率), 纯数字与旧配置完全一致;
+ * 引用了 {@code scale} 的表达式, 其值即分数本身(如 {@code scale * 2} 为两倍附加数据), 不再乘 scale。
+ * 语法: 数字、变量 {@code scale distance combo streak victim_max_hp}、
+ * {@code + - * / % ^}、括号与函数 {@code min max clamp abs floor ceil round sqrt pow}。
+ * 未绑定的变量取 {@link Variables} 默认值(scale 为 1, 其余为 0); 结果非有限数时视为 0。
+ * 击杀结算绑定全部变量; 载具摧毁(DESTROY_VEHICLE)只绑定 distance 与 victim_max_hp(载具最大生命), combo/streak 为 0。</p>
+ */
+public final class BonusExpression {
+    /** 表达式变量(下标即 {@link Variables} 中的槽位)。 */
+    public enum Variable {
+        SCALE("scale", 1.0),
+        DISTANCE("distance", 0.0),
+        COMBO("combo", 0.0),
+        STREAK("streak", 0.0),
+        VICTIM_MAX_HP("victim_max_hp", 0.0);
+
+        private static final Variable[] VALUES = values();
+
+        private final String key;
+        private final double defaultValue;
+
+        Variable(String key, double defaultValue) {
+            this.key = key;
+            this.defaultValue = defaultValue;
+        }
+
+        static Variable byKey(String key) {
+            for (Variable variable : VALUES) {
+                if (variable.key.equals(key)) {
+                    return variable;
+                }
+            }
+            return null;
+        }
+    }
+
+    /** 可复用的变量绑定(每线程一份, 求值不分配)。 */
+    public static final class Variables {
+        private final double[] values = new double[Variable.VALUES.length];
+
+        public Variables() {
+            reset();
+        }
+
+        public Variables set(Variable variable, double value) {
+            values[variable.ordinal()] = value;
+            return this;
+        }
+
+        public double get(Variable variable) {
+            return values[variable.ordinal()];
+        }
+
+        public Variables reset() {
+            for (Variable variable : Variable.VALUES) {
+                values[variable.ordinal()] = variable.defaultValue;
+            }
+            return this;
+        }
+    }
+
+    /** 表达式非法(编辑命令据此报错)。 */
+    public static final class CompileException extends Exception {
+        public CompileException(String message) {
+            super(message);
+        }
+    }
+
+    public static final BonusExpression ZERO = new BonusExpression(new Constant(0.0), false);
+
+    private final Node root;
+    /** 表达式引用了 scale: 值即分数。 */
+    private final boolean valueIsScore;
+
+    private BonusExpression(Node root, boolean valueIsScore) {
+        this.root = root;
+        this.valueIsScore = valueIsScore;
+    }
+
+    public static BonusExpression compile(String source) throws CompileException {
+        if (source == null || source.isBlank()) {
+            throw new CompileException("empty expression");
+        }
+        Parser parser = new Parser(source);
+        Node root = parser.parseExpression();
+        parser.expectEnd();
+        return new BonusExpression(root, parser.usesScale);
+    }
+
+    public double evaluate(Variables variables) {
+        double value = root.eval(variables.values);
+        return Double.isFinite(value) ? value : 0.0;
+    }
+
+    /** 倍率(分数 = scale × 倍率): 引用了 scale 的表达式以 值 / scale 折算, 使分数恰为表达式的值; scale 为 0 时为 0。 */
+    public double multiplier(Variables variables) {
+        double value = evaluate(variables);
+        if (!valueIsScore) {
+            return value;
+        }
+        double scale = variables.get(Variable.SCALE);
+        return scale != 0.0 ? value / scale : 0.0;
+    }
+
+    // ==================== 求值树 ====================
+
+    private abstract static class Node {
+        abstract double eval(double[] vars);
+    }
+
+    private static final class Constant extends Node {
+        private final double value;
+
+        Constant(double value) {
+            this.value = value;
+        }
+
+        @Override
+        double eval(double[] vars) {
+            return value;
+        }
+    }
+
+    private static final class VariableRef extends Node {
+        private final int slot;
+
+        VariableRef(int slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        double eval(double[] vars) {
+            return vars[slot];
+        }
+    }
+
+    private static final class Negate extends Node {
+        private final Node operand;
+
+        Negate(Node operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        double eval(double[] vars) {
+            return -operand.eval(vars);
+        }
+    }
+
+    private static final class Binary extends Node {
+        private final char op;
+        private final Node left;
+        private final Node right;
+
+        Binary(char op, Node left, Node right) {
+            this.op = op;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        double eval(double[] vars) {
+            double a = left.eval(vars);
+            double b = right.eval(vars);
+            return switch (op) {
+                case '+' -> a + b;
+                case '-' -> a - b;
+                case '*' -> a * b;
+                case '/' -> a / b;
+                case '%' -> a % b;
+                default -> Math.pow(a, b);
+            };
+        }
+    }
+
+    private static final class Call extends Node {
+        private final Function function;
+        private final Node[] args;
+
+        Call(Function function, Node[] args) {
+            this.function = function;
+            this.args = args;
+        }
+
+        @Override
+        double eval(double[] vars) {
+            switch (function) {
+                case MIN, MAX -> {
+                    double result = args[0].eval(vars);
+                    for (int i = 1; i < args.length; i++) {
+                        double v = args[i].eval(vars);
+                        result = function == Function.MIN ? Math.min(result, v) : Math.max(result, v);
+                    }
+                    return result;
+                }
+                case CLAMP -> {
+                    double v = args[0].eval(vars);
+                    return Math.max(args[1].eval(vars), Math.min(args[2].eval(vars), v));
+                }
+                case ABS -> {
+                    return Math.abs(args[0].eval(vars));
+                }
+                case FLOOR -> {
+                    return Math.floor(args[0].eval(vars));
+                }
+                case CEIL -> {
+                    return Math.ceil(args[0].eval(vars));
+                }
+                case ROUND -> {
+                    return Math.rint(args[0].eval(vars));
+                }
+                case SQRT -> {
+                    return Math.sqrt(args[0].eval(vars));
+                }
+                default -> {
+                    return Math.pow(args[0].eval(vars), args[1].eval(vars));
+                }
+            }
+        }
+    }
+
+    private enum Function {
+        MIN(2, Integer.MAX_VALUE),
+        MAX(2, Integer.MAX_VALUE),
+        CLAMP(3, 3),
+        ABS(1, 1),
+        FLOOR(1, 1),
+        CEIL(1, 1),
+        ROUND(1, 1),
+        SQRT(1, 1),
+        POW(2, 2);
+
+        private final int minArgs;
+        private final int maxArgs;
+
+        Function(int minArgs, int maxArgs) {
+            this.minArgs = minArgs;
+            this.maxArgs = maxArgs;
+        }
+    }
+
+    // ==================== 解析(递归下降, 常量子树在编译期折叠) ====================
+
+    private static final class Parser {
+        private static final double[] NO_VARS = new double[0];
+
+        private final String text;
+        private int pos;
+        private boolean usesScale;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        Node parseExpression() throws CompileException {
+            Node node = parseTerm();
+            while (true) {
+                char c = peek();
+                if (c == '+' || c == '-') {
+                    pos++;
+                    node = fold(new Binary(c, node, parseTerm()));
+                } else {
+                    return node;
+                }
+            }
+        }
+
+        private Node parseTerm() throws CompileException {
+            Node node = parseUnary();
+            while (true) {
+                char c = peek();
+                if (c == '*' || c == '/' || c == '%') {
+                    pos++;
+                    node = fold(new Binary(c, node, parseUnary()));
+                } else {
+                    return node;
+                }
+            }
+        }
+
+        private Node parseUnary() throws CompileException {
+            char c = peek();
+            if (c == '-') {
+                pos++;
+                return fold(new Negate(parseUnary()));
+            }
+            if (c == '+') {
+                pos++;
+                return parseUnary();
+            }
+            return parsePower();
+        }
+
+        /** 乘方右结合, 优先级高于一元负号的操作数: -2^2 = -4。 */
+        private Node parsePower() throws CompileException {
+            Node base = parsePrimary();
+            if (peek() == '^') {
+                pos++;
+                return fold(new Binary('^', base, parseUnary()));
+            }
+            return base;
+        }
+
+        private Node parsePrimary() throws CompileException {
+            char c = peek();
+            if (c == '(') {
+                pos++;
+                Node inner = parseExpression();
+                expect(')');
+                return inner;
+            }
+            if (Character.isDigit(c) || c == '.') {
+                return parseNumber();
+            }
+            if (Character.isLetter(c) || c == '_') {
+                return parseIdentifier();
+            }
+            throw error(c == 0 ? "unexpected end" : "unexpected '" + c + "'");
+        }
+
+        private Node parseNumber() throws CompileException {
+            int start = pos;
+            while (pos < text.length() && (Character.isDigit(text.charAt(pos)) || text.charAt(pos) == '.')) {
+                pos++;
+            }
+            if (pos < text.length() && (text.charAt(pos) == 'e' || text.charAt(pos) == 'E')) {
+                pos++;
+                if (pos < text.length() && (text.charAt(pos) == '+' || text.charAt(pos) == '-')) {
+                    pos++;
+                }
+                while (pos < text.length() && Character.isDigit(text.charAt(pos))) {
+                    pos++;
+                }
+            }
+            try {
+                return new Constant(Double.parseDouble(text.substring(start, pos)));
+            } catch (NumberFormatException e) {
+                throw error("invalid number '" + text.substring(start, pos) + "'");
+            }
+        }
+
+        private Node parseIdentifier() throws CompileException {
+            int start = pos;
+            while (pos < text.length() && (Character.isLetterOrDigit(text.charAt(pos)) || text.charAt(pos) == '_')) {
+                pos++;
+            }
+            String name = text.substring(start, pos).toLowerCase(Locale.ROOT);
+            if (peek() == '(') {
+                pos++;
+                return parseCall(name);
+            }
+            Variable variable = Variable.byKey(name);
+            if (variable == null) {
+                throw error("unknown variable '" + name + "'");
+            }
+            if (variable == Variable.SCALE) {
+                usesScale = true;
+            }
+            return new VariableRef(variable.ordinal());
+        }
+
+        private Node parseCall(String name) throws CompileException {
+            Function function;
+            try {
+                function = Function.valueOf(name.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw error("unknown function '" + name + "'");
+            }
+            List<Node> args = new ArrayList<>();
+            if (peek() != ')') {
+                args.add(parseExpression());
+                while (peek() == ',') {
+                    pos++;
+                    args.add(parseExpression());
+                }
+            }
+            expect(')');
+            if (args.size() < function.minArgs || args.size() > function.maxArgs) {
+                throw error("wrong argument count for '" + name + "'");
+            }
+            return fold(new Call(function, args.toArray(new Node[0])));
+        }
+
+        void expectEnd() throws CompileException {
+            if (peek() != 0) {
+                throw error("unexpected '" + peek() + "'");
+            }
+        }
+
+        private void expect(char c) throws CompileException {
+            if (peek() != c) {
+                throw error("expected '" + c + "'");
+            }
+            pos++;
+        }
+
+        /** 跳过空白后的当前字符; 结束返回 0。 */
+        private char peek() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+            return pos < text.length() ? text.charAt(pos) : 0;
+        }
+
+        private CompileException error(String message) {
+            return new CompileException(message + " at " + pos);
+        }
+
+        /** 子节点全为常量时折叠为常量。 */
+        private static Node fold(Node node) {
+            boolean constant;
+            if (node instanceof Binary binary) {
+                constant = binary.left instanceof Constant && binary.right instanceof Constant;
+            } else if (node instanceof Negate negate) {
+                constant = negate.operand instanceof Constant;
+            } else if (node instanceof Call call) {
+                constant = true;
+                for (Node arg : call.args) {
+                    constant &= arg instanceof Constant;
+                }
+            } else {
+                constant = false;
+            }
+            return constant ? new Constant(node.eval(NO_VARS)) : node;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package org.mods.gd656killicon.server.logic.core;
+
+import net.minecraft.server.level.ServerPlayer;
+import org.mods.gd656killicon.common.bonus.BonusDefinition;
+import org.mods.gd656killicon.common.bonus.BonusRegistry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 加分项挂钩分发表: 各子系统按加分项 id 声明式注册挂钩, 首次分发时按 type 编译为稠密数组。
+ *
+ * <p>分发只需一次数组下标读取, 无字符串/装箱哈希查找; 未注册挂钩的 type(如每次命中的 DAMAGE)为空数组。
+ * 两个阶段: {@link AddHook} 在加分项入队时触发(不受加分项开关影响),
+ * {@link DeliverHook} 在批量结算、分数确定后触发。表中同时缓存按 type 索引的加分项定义。</p>
+ */
+public final class BonusHooks {
+    /** 加分项入队挂钩。 */
+    @FunctionalInterface
+    public interface AddHook {
+        void onAdd(ServerPlayer player, int type, int victimId);
+    }
+
+    /** 加分项结算挂钩(score 已应用上限)。 */
+    @FunctionalInterface
+    public interface DeliverHook {
+        void onDeliver(ServerPlayer player, int type, float score, int victimId, String victimName, float scale);
+    }
+
+    private static final AddHook[] NO_ADD_HOOKS = new AddHook[0];
+    private static final DeliverHook[] NO_DELIVER_HOOKS = new DeliverHook[0];
+
+    private record Binding<H>(String bonusId, H hook) {}
+
+    private record Table(BonusDefinition[] definitions, AddHook[][] addHooks, DeliverHook[][] deliverHooks) {}
+
+    private final List<Binding<AddHook>> addBindings = new ArrayList<>();
+    private final List<Binding<DeliverHook>> deliverBindings = new ArrayList<>();
+    private volatile Table table;
+
+    public synchronized BonusHooks onAdd(String bonusId, AddHook hook) {
+        addBindings.add(new Binding<>(bonusId, hook));
+        table = null;
+        return this;
+    }
+
+    public synchronized BonusHooks onDeliver(String bonusId, DeliverHook hook) {
+        deliverBindings.add(new Binding<>(bonusId, hook));
+        table = null;
+        return this;
+    }
+
+    public void dispatchAdd(ServerPlayer player, int type, int victimId) {
+        AddHook[][] hooks = table().addHooks;
+        if (type < 0 || type >= hooks.length) {
+            return;
+        }
+        for (AddHook hook : hooks[type]) {
+            hook.onAdd(player, type, victimId);
+        }
+    }
+
+    public void dispatchDeliver(ServerPlayer player, int type, float score, int victimId, String victimName, float scale) {
+        DeliverHook[][] hooks = table().deliverHooks;
+        if (type < 0 || type >= hooks.length) {
+            return;
+        }
+        for (DeliverHook hook : hooks[type]) {
+            hook.onDeliver(player, type, score, victimId, victimName, scale);
+        }
+    }
+
+    /** 按 type 取加分项定义(数组下标, 无装箱); 未注册返回 null。 */
+    public BonusDefinition definition(int type) {
+        BonusDefinition[] definitions = table().definitions;
+        return type >= 0 && type < definitions.length ? definitions[type] : null;
+    }
+
+    private Table table() {
+        Table current = table;
+        if (current == null) {
+            current = build();
+        }
+        return current;
+    }
+
+    private synchronized Table build() {
+        if (table != null) {
+            return table;
+        }
+        int maxType = -1;
+        for (BonusDefinition def : BonusRegistry.getAll()) {
+            maxType = Math.max(maxType, def.type());
+        }
+        BonusDefinition[] definitions = new BonusDefinition[maxType + 1];
+        for (BonusDefinition def : BonusRegistry.getAll()) {
+            if (def.type() >= 0) {
+                definitions[def.type()] = def;
+            }
+        }
+        AddHook[][] addHooks = new AddHook[maxType + 1][];
+        Arrays.fill(addHooks, NO_ADD_HOOKS);
+        for (Binding<AddHook> binding : addBindings) {
+            int type = resolveType(binding.bonusId);
+            if (type >= 0) {
+                addHooks[type] = append(addHooks[type], binding.hook);
+            }
+        }
+        DeliverHook[][] deliverHooks = new DeliverHook[maxType + 1][];
+        Arrays.fill(deliverHooks, NO_DELIVER_HOOKS);
+        for (Binding<DeliverHook> binding : deliverBindings) {
+            int type = resolveType(binding.bonusId);
+            if (type >= 0) {
+                deliverHooks[type] = append(deliverHooks[type], binding.hook);
+            }
+        }
+        Table built = new Table(definitions, addHooks, deliverHooks);
+        table = built;
+        return built;
+    }
+
+    /** 未注册的加分项 id 视为无挂钩(与 BonusRegistry 查询不到即忽略一致)。 */
+    private static int resolveType(String bonusId) {
+        BonusDefinition def = BonusRegistry.get(bonusId);
+        return def != null ? def.type() : -1;
+    }
+
+    private static <T> T[] append(T[] hooks, T hook) {
+        T[] grown = Arrays.copyOf(hooks, hooks.length + 1);
+        grown[hooks.length] = hook;
+        return grown;
+    }
+}
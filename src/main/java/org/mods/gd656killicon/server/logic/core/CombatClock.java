@@ -0,0 +1,64 @@
+package org.mods.gd656killicon.server.logic.core;
+
+/**
+ * 战斗时钟: 以服务端 tick 计数为准的单调毫秒时间, 供各追踪器的时间窗口判定统一使用。
+ *
+ * <p>服务端运行时, {@link #now()} = 起始基准 + 已推进 tick 数 × {@link #MS_PER_TICK}:
+ * 同一 tick 内恒定(无系统调用), 且服务端卡顿时窗口按游戏时间计算, 不随墙钟漂移。
+ * 服务端未推进(启动前/停止后)时回退为 {@link System#nanoTime()} 单调时间, 并保证不回退。
+ * 起点取创建时的墙钟, 数值量级与墙钟一致, 但随卡顿逐渐落后于墙钟。</p>
+ *
+ * <p>{@link #wallMillis()} 为每 tick 缓存一次的墙钟时间, 仅用于需要真实时间的场景(定时刷新等)。
+ * 本时钟的 {@link #now()} 与墙钟不是同一时间域, 不可混用比较。</p>
+ */
+public final class CombatClock {
+    public static final long MS_PER_TICK = 50L;
+
+    private final long nanoOrigin = System.nanoTime();
+    /** 以创建时的墙钟为起点, 使时间值与原墙钟量级一致(0 等哨兵值判定保持有效)。 */
+    private final long wallOrigin = System.currentTimeMillis();
+    private volatile boolean running;
+    private volatile long currentMs;
+    private volatile long wallMs = System.currentTimeMillis();
+    private long baseMs;
+    private long tick;
+
+    /** 推进一个服务端 tick(由 ServerCombatEngine.onTick 每 tick 调用一次)。 */
+    public void advance() {
+        wallMs = System.currentTimeMillis();
+        if (!running) {
+            baseMs = fallbackMs();
+            tick = 0L;
+            running = true;
+        } else {
+            tick++;
+        }
+        currentMs = baseMs + tick * MS_PER_TICK;
+    }
+
+    /** 服务端停止: 回退到 nanoTime 时间(从当前值继续单调递增)。 */
+    public void stop() {
+        running = false;
+    }
+
+    /** 当前战斗时间(ms)。 */
+    public long now() {
+        return running ? currentMs : fallbackMs();
+    }
+
+    /** 自运行起推进的 tick 数。 */
+    public long tick() {
+        return tick;
+    }
+
+    /** 每 tick 缓存的墙钟时间(ms)。 */
+    public long wallMillis() {
+        return running ? wallMs : System.currentTimeMillis();
+    }
+
+    private long fallbackMs() {
+        long ms = wallOrigin + (System.nanoTime() - nanoOrigin) / 1_000_000L;
+        // 停止后回退时不早于最后一次 tick 时间
+        return Math.max(ms, currentMs);
+    }
+}
@@ -19,11 +19,17 @@ public class ComboTracker {
 
     private record State(int count, long time) {}
 
+    private final CombatClock clock;
+
+    public ComboTracker(CombatClock clock) {
+        this.clock = clock;
+    }
+
     /**
      * Records a kill for a player and returns the updated combo count.
      */
     public int recordKill(ServerPlayer player) {
-        long now = System.currentTimeMillis();
+        long now = clock.now();
         long window = ServerData.get().getComboWindowMs();
         UUID id = player.getUUID();
         
@@ -18,12 +18,18 @@ public class CritTracker {
 
     private record Record(UUID attacker, long time) {}
 
+    private final CombatClock clock;
+
+    public CritTracker(CombatClock clock) {
+        this.clock = clock;
+    }
+
     /**
      * Records a potential critical hit if it matches vanilla criteria.
      */
     public void updateCrit(ServerPlayer attacker, UUID victim, boolean isCrit) {
         if (isCrit) {
-            records.put(victim, new Record(attacker.getUUID(), System.currentTimeMillis()));
+            records.put(victim, new Record(attacker.getUUID(), clock.now()));
             trim();
         } else {
             Record r = records.get(victim);
@@ -55,11 +61,11 @@ public class CritTracker {
     private boolean check(UUID attacker, UUID victim) {
         Record r = records.get(victim);
         if (r == null || !r.attacker.equals(attacker)) return false;
-        return System.currentTimeMillis() - r.time <= WINDOW;
+        return clock.now() - r.time <= WINDOW;
     }
 
     private void trim() {
-        long now = System.currentTimeMillis();
+        long now = clock.now();
         records.entrySet().removeIf(e -> now - e.getValue().time > WINDOW);
         
         if (records.size() > MAX_ENTRIES) {
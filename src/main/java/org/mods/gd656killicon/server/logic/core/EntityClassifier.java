@@ -0,0 +1,118 @@
+package org.mods.gd656killicon.server.logic.core;
+
+import net.minecraft.world.entity.Entity;
+import org.mods.gd656killicon.server.logic.integration.IntegrationAccessors;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 实体分类缓存: 按实体类计算一次特征位集(载具/空中载具/坦克/战术装置等), 服务端生命周期内复用, O(1) 判定。
+ *
+ * <p>特征只取决于实体类(SBW 的 getVehicleType() 由具体载具类固定返回), 首次遇到某类实体时
+ * 用该实例计算并缓存; 残骸/摧毁等随实例变化的状态不在此缓存。服务端停止时 {@link #reset()}。</p>
+ */
+public final class EntityClassifier {
+    public static final int SBW_VEHICLE = 1;
+    public static final int SBW_AIRCRAFT = 1 << 1;
+    public static final int SBW_TANK = 1 << 2;
+    public static final int YWZJ_VEHICLE = 1 << 3;
+    /** YWZJ RotaryWingVehicle(旋翼/直升机/无人机)或 FixedWingVehicle(固定翼)。 */
+    public static final int YWZJ_AIRCRAFT = 1 << 4;
+    /** YWZJ TrackedVehicle(履带坦克基类)。 */
+    public static final int YWZJ_TRACKED = 1 << 5;
+    public static final int IMMERSIVE_AIRCRAFT = 1 << 6;
+    /** Conquest 战术装置(小队信标/地面传感器/医疗箱/弹药箱), 按类名精确匹配。 */
+    public static final int CONQUEST_GADGET = 1 << 7;
+
+    public static final int VEHICLE = SBW_VEHICLE | YWZJ_VEHICLE;
+    public static final int AIRCRAFT = SBW_AIRCRAFT | YWZJ_AIRCRAFT;
+    public static final int TANK = SBW_TANK | YWZJ_TRACKED;
+
+    private static final String CONQUEST_SQUAD_BEACON_CLASS = "org.mods.gd656conquest.common.entity.SquadDeployBeaconEntity";
+    private static final String CONQUEST_GROUND_SENSOR_CLASS = "org.mods.gd656conquest.common.entity.GroundSensorEntity";
+    private static final String CONQUEST_MEDICAL_BOX_CLASS = "org.mods.gd656conquest.common.entity.MedicalBoxEntity";
+    private static final String CONQUEST_AMMO_BOX_CLASS = "org.mods.gd656conquest.common.entity.AmmoBoxEntity";
+
+    private static final Map<Class<?>, Integer> TRAITS = new ConcurrentHashMap<>();
+
+    private EntityClassifier() {
+    }
+
+    /** 实体特征位集; null 返回 0。 */
+    public static int traits(Entity entity) {
+        if (entity == null) {
+            return 0;
+        }
+        Integer cached = TRAITS.get(entity.getClass());
+        if (cached != null) {
+            return cached;
+        }
+        int traits = classify(entity);
+        TRAITS.putIfAbsent(entity.getClass(), traits);
+        return traits;
+    }
+
+    public static boolean has(Entity entity, int mask) {
+        return (traits(entity) & mask) != 0;
+    }
+
+    public static boolean isVehicle(Entity entity) {
+        return has(entity, VEHICLE);
+    }
+
+    /** 空中载具: SBW VehicleType ∈ {AIRPLANE, HELICOPTER, AIRSHIP} 或 YWZJ 旋翼/固定翼。 */
+    public static boolean isAircraft(Entity entity) {
+        return has(entity, AIRCRAFT);
+    }
+
+    /** 坦克: SBW VehicleType.TANK 或 YWZJ TrackedVehicle。 */
+    public static boolean isTank(Entity entity) {
+        return has(entity, TANK);
+    }
+
+    public static boolean isConquestGadget(Entity entity) {
+        return has(entity, CONQUEST_GADGET);
+    }
+
+    public static void reset() {
+        TRAITS.clear();
+    }
+
+    private static int classify(Entity entity) {
+        int traits = 0;
+        if (IntegrationAccessors.SBW_VEHICLE.isInstance(entity)) {
+            traits |= SBW_VEHICLE;
+            Object type = IntegrationAccessors.SBW_GET_VEHICLE_TYPE.call(entity);
+            String typeName = type != null ? type.toString() : "";
+            if ("AIRPLANE".equalsIgnoreCase(typeName)
+                    || "HELICOPTER".equalsIgnoreCase(typeName)
+                    || "AIRSHIP".equalsIgnoreCase(typeName)) {
+                traits |= SBW_AIRCRAFT;
+            } else if ("TANK".equalsIgnoreCase(typeName)) {
+                traits |= SBW_TANK;
+            }
+        }
+        if (IntegrationAccessors.YWZJ_VEHICLE.isInstance(entity)) {
+            traits |= YWZJ_VEHICLE;
+        }
+        if (IntegrationAccessors.YWZJ_ROTARY_WING.isInstance(entity)
+                || IntegrationAccessors.YWZJ_FIXED_WING.isInstance(entity)) {
+            traits |= YWZJ_AIRCRAFT;
+        }
+        if (IntegrationAccessors.YWZJ_TRACKED.isInstance(entity)) {
+            traits |= YWZJ_TRACKED;
+        }
+        if (IntegrationAccessors.IMMERSIVE_VEHICLE.isInstance(entity)) {
+            traits |= IMMERSIVE_AIRCRAFT;
+        }
+        String className = entity.getClass().getName();
+        if (CONQUEST_SQUAD_BEACON_CLASS.equals(className)
+                || CONQUEST_GROUND_SENSOR_CLASS.equals(className)
+                || CONQUEST_MEDICAL_BOX_CLASS.equals(className)
+                || CONQUEST_AMMO_BOX_CLASS.equals(className)) {
+            traits |= CONQUEST_GADGET;
+        }
+        return traits;
+    }
+}
@@ -0,0 +1,130 @@
+package org.mods.gd656killicon.server.logic.core;
+
+import org.mods.gd656killicon.server.util.ServerLog;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 共享过期调度器: 哈希时间轮, 各追踪器登记带截止时间的 TTL 条目, 到期时回调。
+ *
+ * <p>每个槽位覆盖 {@link #RESOLUTION_MS} 毫秒, 一圈 {@link #SLOT_COUNT} 个槽位;
+ * 超出一圈的条目留在槽位中, 到对应圈次再触发。每次推进只遍历经过的槽位,
+ * 开销与到期条目数成正比, 不随存活条目总数增长。</p>
+ *
+ * <p>条目不支持取消: 续期/提前清理的条目到期时由回调方自行校验(如比对截止时间)后忽略。
+ * 回调在 {@link #advance(long)} 内同步执行, 回调中可再次登记。</p>
+ */
+public final class ExpiryScheduler {
+    /** 槽位精度(= 1 tick)。 */
+    public static final long RESOLUTION_MS = 50L;
+    private static final int SLOT_COUNT = 1024;
+    private static final int SLOT_MASK = SLOT_COUNT - 1;
+
+    @FunctionalInterface
+    public interface Handler<K> {
+        /**
+         * 条目到期回调。
+         *
+         * @param key      登记时的键
+         * @param deadline 登记时的截止时间(ms)
+         * @param now      当前推进时间(ms)
+         */
+        void onExpire(K key, long deadline, long now);
+    }
+
+    private record Entry(Handler<Object> handler, Object key, long deadline, long slotTick) {}
+
+    @SuppressWarnings("unchecked")
+    private final List<Entry>[] slots = new List[SLOT_COUNT];
+    private List<Entry> scratch = new ArrayList<>();
+    /** 已处理到的槽位 tick(含)。-1 = 尚未推进过。 */
+    private long processedTick = -1L;
+    private int size;
+
+    public ExpiryScheduler() {
+        for (int i = 0; i < SLOT_COUNT; i++) {
+            slots[i] = new ArrayList<>();
+        }
+    }
+
+    /**
+     * 登记一个在 {@code deadline} 时刻到期的条目。已过期的截止时间在下一次推进时触发。
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <K> void schedule(Handler<? super K> handler, K key, long deadline) {
+        if (handler == null) {
+            return;
+        }
+        // 向上取整到槽位, 保证回调时 now >= deadline
+        long slotTick = Math.floorDiv(deadline + RESOLUTION_MS - 1, RESOLUTION_MS);
+        if (processedTick >= 0 && slotTick <= processedTick) {
+            slotTick = processedTick + 1;
+        }
+        slots[(int) (slotTick & SLOT_MASK)].add(new Entry((Handler<Object>) handler, key, deadline, slotTick));
+        size++;
+    }
+
+    /**
+     * 推进到 {@code now}, 触发期间到期的全部条目。由服务端 tick 统一调用。
+     */
+    public synchronized void advance(long now) {
+        long targetTick = Math.floorDiv(now, RESOLUTION_MS);
+        if (processedTick < 0) {
+            processedTick = targetTick - 1;
+        }
+        if (targetTick <= processedTick) {
+            return;
+        }
+        // 长时间卡顿: 经过的槽位超过一圈时, 每个槽位只需扫描一次
+        long span = Math.min(targetTick - processedTick, SLOT_COUNT);
+        long startTick = targetTick - span + 1;
+        processedTick = targetTick;
+        if (size == 0) {
+            return;
+        }
+        for (long tick = startTick; tick <= targetTick; tick++) {
+            drainSlot((int) (tick & SLOT_MASK), targetTick, now);
+        }
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized void clear() {
+        for (List<Entry> slot : slots) {
+            slot.clear();
+        }
+        size = 0;
+        processedTick = -1L;
+    }
+
+    private void drainSlot(int index, long targetTick, long now) {
+        List<Entry> slot = slots[index];
+        if (slot.isEmpty()) {
+            return;
+        }
+        // 与暂存列表互换后遍历, 回调中登记的新条目进入新列表, 不影响本轮遍历
+        List<Entry> draining = slot;
+        slots[index] = scratch;
+        scratch = draining;
+        try {
+            for (Entry entry : draining) {
+                if (entry.slotTick() > targetTick) {
+                    slots[index].add(entry);
+                    continue;
+                }
+                size--;
+                try {
+                    entry.handler().onExpire(entry.key(), entry.deadline(), now);
+                } catch (RuntimeException e) {
+                    // 单个回调失败不影响本槽其余条目
+                    ServerLog.error("Expiry handler failed for %s: %s", String.valueOf(entry.key()), e);
+                }
+            }
+        } finally {
+            draining.clear();
+        }
+    }
+}
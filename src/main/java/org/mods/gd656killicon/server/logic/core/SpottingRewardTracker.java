@@ -21,13 +21,19 @@ public final class SpottingRewardTracker {
     /** true = 同时发放 SPOTTING/SPOTTING_KILL/SPOTTING_TEAM_ASSIST 加分(索敌模组/pingwheel);
      *  false = 仅记录并触发标示助攻, 不加分(conquest 自己已发放加分) */
     private final boolean bonusMode;
+    private final CombatClock clock;
 
     public SpottingRewardTracker() {
         this(true);
     }
 
     public SpottingRewardTracker(boolean bonusMode) {
+        this(bonusMode, ServerCore.CLOCK);
+    }
+
+    public SpottingRewardTracker(boolean bonusMode, CombatClock clock) {
         this.bonusMode = bonusMode;
+        this.clock = clock;
     }
 
     private final Map<UUID, Map<UUID, Long>> spottedTargets = new ConcurrentHashMap<>();
@@ -35,27 +41,24 @@ public final class SpottingRewardTracker {
     /** 标示助攻独立 30s 记录(victim -> (spotter -> 过期时间戳)), 不影响 7s 索敌锁定窗口 */
     private final Map<UUID, Map<UUID, Long>> spotAssistTargets = new ConcurrentHashMap<>();
 
-    public void tick() {
-        long now = System.currentTimeMillis();
-        spottedTargets.entrySet().removeIf(entry -> {
-            Map<UUID, Long> spotters = entry.getValue();
-            spotters.entrySet().removeIf(item -> item.getValue() <= now);
-            return spotters.isEmpty();
-        });
-        spotAssistTargets.entrySet().removeIf(entry -> {
-            Map<UUID, Long> spotters = entry.getValue();
-            spotters.entrySet().removeIf(item -> item.getValue() <= now);
-            return spotters.isEmpty();
-        });
-        spottingBonusTimes.entrySet().removeIf(entry -> {
-            Deque<Long> times = entry.getValue();
+    /** 过期回调(ServerCore.EXPIRY): 只清理到期目标/玩家自己的记录, 不再逐 tick 全表扫描 */
+    private final ExpiryScheduler.Handler<UUID> spottedExpiry = (victimId, deadline, now) -> expireSpotters(spottedTargets, victimId, now);
+    private final ExpiryScheduler.Handler<UUID> spotAssistExpiry = (victimId, deadline, now) -> expireSpotters(spotAssistTargets, victimId, now);
+    private final ExpiryScheduler.Handler<UUID> bonusTimesExpiry = (playerId, deadline, now) ->
+        spottingBonusTimes.computeIfPresent(playerId, (key, times) -> {
             synchronized (times) {
                 while (!times.isEmpty() && now - times.peekFirst() > SPOTTING_BONUS_WINDOW_MS) {
                     times.pollFirst();
                 }
-                return times.isEmpty();
+                return times.isEmpty() ? null : times;
             }
         });
+
+    private static void expireSpotters(Map<UUID, Map<UUID, Long>> targets, UUID victimId, long now) {
+        targets.computeIfPresent(victimId, (key, spotters) -> {
+            spotters.entrySet().removeIf(item -> item.getValue() <= now);
+            return spotters.isEmpty() ? null : spotters;
+        });
     }
 
     public void recordSpot(ServerPlayer spotter, LivingEntity target) {
@@ -63,14 +66,16 @@ public final class SpottingRewardTracker {
             return;
         }
 
-        long now = System.currentTimeMillis();
+        long now = clock.now();
         spottedTargets
             .computeIfAbsent(target.getUUID(), key -> new ConcurrentHashMap<>())
             .put(spotter.getUUID(), now + SPOTTING_LOCK_WINDOW_MS);
+        ServerCore.EXPIRY.schedule(spottedExpiry, target.getUUID(), now + SPOTTING_LOCK_WINDOW_MS);
         // 标示助攻独立 30s 记录(与 7s 索敌锁定窗口分离)
         spotAssistTargets
             .computeIfAbsent(target.getUUID(), key -> new ConcurrentHashMap<>())
             .put(spotter.getUUID(), now + SPOT_ASSIST_WINDOW_MS);
+        ServerCore.EXPIRY.schedule(spotAssistExpiry, target.getUUID(), now + SPOT_ASSIST_WINDOW_MS);
 
         // 斥候荣誉: 标记事件统一入口(每次标记 +1, 无索敌加分项 CD; 各标记来源都汇聚于此)
         org.mods.gd656killicon.server.ServerCore.HONOR.onScoutMark(spotter);
@@ -91,7 +96,7 @@ public final class SpottingRewardTracker {
             return;
         }
 
-        long now = System.currentTimeMillis();
+        long now = clock.now();
         spotters.entrySet().removeIf(entry -> entry.getValue() <= now);
         if (spotters.isEmpty()) {
             spottedTargets.remove(victimId);
@@ -145,6 +150,8 @@ public final class SpottingRewardTracker {
                 return false;
             }
             times.addLast(now);
+            // 窗口判定为严格大于, 多留 1ms 保证到期时已可弹出
+            ServerCore.EXPIRY.schedule(bonusTimesExpiry, playerId, now + SPOTTING_BONUS_WINDOW_MS + 1);
             return true;
         }
     }
@@ -19,7 +19,7 @@ public final class VehicleRewardHelper {
         if (!attackerWasPlayer || attackerUuid == null) {
             return null;
         }
-        if (System.currentTimeMillis() - lastAttackTime >= ServerData.get().getAssistTimeoutMs()) {
+        if (ServerCore.CLOCK.now() - lastAttackTime >= ServerData.get().getAssistTimeoutMs()) {
             return null;
         }
         if (ServerCore.getServer() == null) {
@@ -78,7 +78,7 @@ public final class VehicleRewardHelper {
             return;
         }
 
-        long now = System.currentTimeMillis();
+        long now = ServerCore.CLOCK.now();
         damageByAttacker.forEach((attackerUuid, damage) -> {
             if (attackerUuid == null || attackerUuid.equals(killerUuid) || damage == null || damage <= minimumDamage) {
                 return;
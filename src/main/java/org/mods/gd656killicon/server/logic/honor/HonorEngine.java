@@ -3,9 +3,12 @@ package org.mods.gd656killicon.server.logic.honor;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.entity.LivingEntity;
 import org.mods.gd656killicon.common.honor.HonorDefinition;
-import org.mods.gd656killicon.common.honor.HonorRegistry;
 import org.mods.gd656killicon.network.NetworkHandler;
 import org.mods.gd656killicon.network.packet.HonorPacket;
+import org.mods.gd656killicon.server.logic.core.BonusHooks;
+import org.mods.gd656killicon.server.logic.core.CombatClock;
+import org.mods.gd656killicon.server.logic.core.EntityClassifier;
+import org.mods.gd656killicon.server.logic.integration.IntegrationAccessors;
 
 import java.util.UUID;
 
@@ -15,7 +18,7 @@ import java.util.UUID;
  * 职责:
  * <ol>
  *   <li>维护每玩家会话状态({@link PlayerHonorState.Store})</li>
- *   <li>接收事件链路归一后的证据(当前为击杀证据), 遍历注册荣誉分派判定</li>
+ *   <li>接收事件链路归一后的证据(当前为击杀证据), 按证据位预筛已编译的荣誉并判定</li>
  *   <li>达成时下发 {@link HonorPacket} 给客户端显示</li>
  *   <li>死亡/登入/登出时维护状态(存活段重置、清理)</li>
  * </ol>
@@ -26,34 +29,90 @@ import java.util.UUID;
 public final class HonorEngine {
 
     private final PlayerHonorState.Store states = new PlayerHonorState.Store();
-    /** 对局级(Conquest 单次对局)状态: 跨玩家登出保留, 对局结束(onRoundEnd)清空。 */
-    private final java.util.Map<java.util.UUID, Integer> roundDestroyCounts = new java.util.concurrent.ConcurrentHashMap<>();
-    private final java.util.Set<java.util.UUID> roundAchieved = java.util.concurrent.ConcurrentHashMap.newKeySet();
-    /** 医护兵: 对局级累计救援次数与已达成标记(对局结束清空)。 */
-    private final java.util.Map<java.util.UUID, Integer> roundReviveCounts = new java.util.concurrent.ConcurrentHashMap<>();
-    private final java.util.Set<java.util.UUID> roundReviveAchieved = java.util.concurrent.ConcurrentHashMap.newKeySet();
-    /** 神射手: 对局级(Conquest)狙击枪击杀累计与已达成标记(对局结束清空)。 */
-    private final java.util.Map<java.util.UUID, Integer> roundSniperKills = new java.util.concurrent.ConcurrentHashMap<>();
-    private final java.util.Set<java.util.UUID> roundSniperAchieved = java.util.concurrent.ConcurrentHashMap.newKeySet();
-    /** 炮兵: 对局级(Conquest)载具伤害加分项分数累计与已达成标记(对局结束清空)。 */
-    private final java.util.Map<java.util.UUID, Integer> roundArtilleryScores = new java.util.concurrent.ConcurrentHashMap<>();
-    private final java.util.Set<java.util.UUID> roundArtilleryAchieved = java.util.concurrent.ConcurrentHashMap.newKeySet();
+    private final CombatClock clock;
+    /**
+     * 对局级(Conquest 单次对局)与阶段级(突破/突袭单阶段)玩家状态: 跨玩家登出保留,
+     * 对局结束(onRoundEnd)/阶段结束(onConquestStageEnd)时按代数整体失效。
+     * 爆破专家/医护兵/神射手/炮兵/步枪手的对局累计与达成标记, 地面控制/突破者的阶段统计均在此。
+     */
+    private final MatchArena arena = new MatchArena();
     /** 急先锋: 对局级已触发阵营(roomId:teamName), 对局结束清空。 */
     private final java.util.Set<String> roundFirstKillTeams = java.util.concurrent.ConcurrentHashMap.newKeySet();
-    /** 步枪手: 对局级(Conquest)突击步枪击杀累计与已达成标记(对局结束清空)。 */
-    private final java.util.Map<java.util.UUID, Integer> roundRifleKills = new java.util.concurrent.ConcurrentHashMap<>();
-    private final java.util.Set<java.util.UUID> roundRifleAchieved = java.util.concurrent.ConcurrentHashMap.newKeySet();
     /** 势不可挡: 机枪连续击杀计数(换弹/换非机枪武器时清零)。 */
     private final java.util.Map<java.util.UUID, Integer> machineGunStreak = new java.util.concurrent.ConcurrentHashMap<>();
-    /** 地面控制/突破者: 阶段级(Conquest 突破/突袭房间单阶段)统计, 阶段结束时结算并清空。 */
-    private final java.util.Map<java.util.UUID, Integer> stageCaptureScores = new java.util.concurrent.ConcurrentHashMap<>();
-    private final java.util.Set<java.util.UUID> stageBombPlanted = java.util.concurrent.ConcurrentHashMap.newKeySet();
-    private final java.util.Set<java.util.UUID> stageBombDefused = java.util.concurrent.ConcurrentHashMap.newKeySet();
 
     private static final String KEY_LR_SMOKE = "lrtactical:smoke_grenade";
     private static final String KEY_SBW_SMOKE = "superbwarfare:m18_smoke_grenade";
     private static final double SMOKE_RADIUS = 5.0;
 
+    public HonorEngine(CombatClock clock) {
+        this.clock = clock;
+    }
+
+    // ==================== 加分项挂钩 ====================
+
+    /** 向加分项分发表声明本引擎关心的加分项(入队/结算两阶段)。 */
+    public void registerBonusHooks(BonusHooks hooks) {
+        // 载具摧毁事件(爆破专家/弹道/王牌飞行员/跳机火箭筒/坦克破坏者)
+        hooks.onAdd("DESTROY_VEHICLE", (player, type, victimId) -> onVehicleDestroyBonus(player, victimId));
+        // 摧毁通讯设施(引爆器)/拆除炸弹(炸弹技术员)
+        hooks.onAdd("RUSH_OBJECTIVE_DESTROYED", (player, type, victimId) -> onDetonator(player));
+        hooks.onAdd("RUSH_BOMB_DEFUSED", (player, type, victimId) -> onBombDefuse(player));
+        // 救星(护卫者)/交给我(复仇者)/凭效诛敌 BUFF_KILL(狂战士, 与加分项 BERSERKER 区分)
+        hooks.onAdd("SAVIOR", (player, type, victimId) -> onGuardian(player));
+        hooks.onAdd("LEAVE_IT_TO_ME", (player, type, victimId) -> onAvenger(player));
+        hooks.onAdd("BUFF_KILL", (player, type, victimId) -> onFrenzy(player));
+        // 小队在你的位置部署(引路者)/火力压制(火力支援)/摧毁战术道具(破坏者)/载具修理(机械师)
+        hooks.onAdd("SQUAD_DEPLOY_ON_YOU", (player, type, victimId) -> onSquadDeploy(player));
+        hooks.onAdd("FIRE_SUPPRESSION", (player, type, victimId) -> onFireSupport(player));
+        hooks.onAdd("TACTICAL_GADGET_DESTROYED", (player, type, victimId) -> onTacticalGadgetDestroyed(player));
+        hooks.onAdd("VEHICLE_REPAIR", (player, type, victimId) -> onRepairVehicle(player));
+        // 军需官: 弹药补给或救援(需 Conquest 或 GD656FrontVoice)
+        hooks.onAdd("AMMO_SUPPLY", (player, type, victimId) -> onQuartermaster(player));
+        hooks.onAdd("REVIVE", (player, type, victimId) -> onQuartermaster(player));
+
+        // 炮兵: 累计载具伤害加分项(HIT_VEHICLE_ARMOR)分数
+        hooks.onDeliver("HIT_VEHICLE_ARMOR", (player, type, score, victimId, victimName, scale) -> {
+            if (score > 0) {
+                onArtilleryHit(player, score);
+            }
+        });
+        // 地面控制/突破者(突袭模式): 累计阶段内占领据点加分项分数
+        for (String captureId : new String[]{"CONQUEST_CAPTURE_PROGRESS", "CONQUEST_CAPTURE_NEUTRALIZE", "CONQUEST_CAPTURE_CONTROL"}) {
+            hooks.onDeliver(captureId, (player, type, score, victimId, victimName, scale) -> {
+                if (score > 0) {
+                    onConquestCaptureScore(player, score);
+                }
+            });
+        }
+        // 地面控制/突破者(突破模式): 记录本阶段安放/拆除炸弹加分项
+        hooks.onDeliver("RUSH_BOMB_PLANTED", (player, type, score, victimId, victimName, scale) -> onRushBombPlanted(player));
+        hooks.onDeliver("RUSH_BOMB_DEFUSED", (player, type, score, victimId, victimName, scale) -> onRushBombDefused(player));
+    }
+
+    /** 载具摧毁加分项: 被摧毁载具只查找、分类一次, 供各载具荣誉判定共用。 */
+    private void onVehicleDestroyBonus(ServerPlayer player, int victimId) {
+        onVehicleDestroy(player);
+        net.minecraft.world.entity.Entity vehicle = victimId >= 0 && player != null ? player.level().getEntity(victimId) : null;
+        int vehicleTraits = EntityClassifier.traits(vehicle);
+        if ((vehicleTraits & EntityClassifier.AIRCRAFT) != 0) {
+            // 弹道: 玩家不在任何载具内摧毁空中载具(可一命多次)
+            if (!player.isPassenger()) {
+                onBallistics(player);
+            }
+            // 王牌飞行员: 玩家正搭乘空中载具时摧毁敌军空中载具(可一命多次, 与弹道条件对称)
+            if (player.isPassenger() && EntityClassifier.isAircraft(player.getVehicle())) {
+                onAcePilot(player);
+            }
+            // 跳机火箭筒: 玩家跳出空中载具后摧毁另一架空中载具(阶段 2)
+            onBailAirVehicleDestroyed(player, victimId);
+        }
+        // 坦克破坏者: 摧毁敌方坦克(可一命多次)
+        if ((vehicleTraits & EntityClassifier.TANK) != 0) {
+            onTankDestroyed(player);
+        }
+    }
+
     // ==================== 事件入口 ====================
 
     /**
@@ -66,15 +125,18 @@ public final class HonorEngine {
      * @param victimAirVehicle 受害者是否为空中载具(集成层未判定时传 false)
      * @param killerRidingAir  击杀者是否搭乘空中载具(集成层未判定时传 false)
      * @param killType         击杀类型(KillType 常量值)
-     * @param executioner      刽子手判定: 背刺 && 距离 < 2 米 && 手持原版近战武器或 LR 战术工坊武器
+     * @param weapon           击杀物品显示名(首次读取时计算)
+     * @param victimTopScorer  受害者是否为当前最高得分者(首次读取时计算)
+     * @param executioner      刽子手判定: 背刺 && 距离 < 2 米 && 手持原版近战武器或 LR 战术工坊武器(首次读取时计算)
      * @param distance         击杀距离(米)
-     * @param moving           击杀时击杀者是否处于移动中(行走或疾跑)
+     * @param moving           击杀时击杀者是否处于移动中(行走或疾跑; 首次读取时计算)
      * @param victimRidingAir  受害者死亡瞬间正搭乘空中载具(载具未被摧毁; 飞行调度员)
      */
     public void onKill(ServerPlayer killer, LivingEntity victim, boolean headshot,
                        boolean victimVehicle, boolean victimAirVehicle, boolean killerRidingAir, int killType,
-                       boolean avenge, String weapon, boolean victimTopScorer, boolean executioner, float distance, boolean moving,
-                       boolean victimRidingAir) {
+                       boolean avenge, java.util.function.Supplier<String> weapon,
+                       java.util.function.BooleanSupplier victimTopScorer, java.util.function.BooleanSupplier executioner,
+                       float distance, java.util.function.BooleanSupplier moving, boolean victimRidingAir) {
         if (killer == null) {
             return;
         }
@@ -82,9 +144,11 @@ public final class HonorEngine {
                 victimVehicle, victimAirVehicle, killerRidingAir, killType, avenge, weapon, victimTopScorer, executioner, distance, moving,
                 victimRidingAir);
         PlayerHonorState state = states.getOrCreate(killer.getUUID());
-        for (HonorDefinition def : HonorRegistry.getAll()) {
-            if (HonorJudges.evaluate(def, evidence, state)) {
-                deliver(killer, def);
+        long now = clock.now();
+        // 只判定本次证据可能满足的荣誉(按证据位预筛, 保持注册顺序)
+        for (HonorJudges.CompiledHonor honor : HonorJudges.forKill(evidence)) {
+            if (honor.judge().evaluate(evidence, state, now)) {
+                deliver(killer, honor.definition());
             }
         }
     }
@@ -98,7 +162,7 @@ public final class HonorEngine {
             return;
         }
         PlayerHonorState state = states.getOrCreate(player.getUUID());
-        if (state.life().markRevive(System.currentTimeMillis())) {
+        if (state.life().markRevive(clock.now())) {
             org.mods.gd656killicon.common.honor.HonorDefinition def =
                     org.mods.gd656killicon.common.honor.HonorRegistry.get("medic");
             if (def != null) {
@@ -118,9 +182,8 @@ public final class HonorEngine {
             }
         }
         // 医护兵: 对局级累计救援 20 人触发一次, 之后不再触发(对局结束重置)
-        int roundRevives = roundReviveCounts.merge(player.getUUID(), 1, Integer::sum);
-        if (roundRevives >= 20 && !roundReviveAchieved.contains(player.getUUID())) {
-            roundReviveAchieved.add(player.getUUID());
+        int roundRevives = arena.add(player.getUUID(), MatchArena.Counter.REVIVE, 1);
+        if (roundRevives >= 20 && arena.mark(player.getUUID(), MatchArena.Flag.COMBAT_MEDIC)) {
             org.mods.gd656killicon.common.honor.HonorDefinition medicDef =
                     org.mods.gd656killicon.common.honor.HonorRegistry.get("combat_medic");
             if (medicDef != null) {
@@ -154,9 +217,8 @@ public final class HonorEngine {
             if (!"recon".equals(getConquestClassType(player))) {
                 return;
             }
-            int count = roundSniperKills.merge(id, 1, Integer::sum);
-            if (count >= 15 && !roundSniperAchieved.contains(id)) {
-                roundSniperAchieved.add(id);
+            int count = arena.add(id, MatchArena.Counter.SNIPER, 1);
+            if (count >= 15 && arena.mark(id, MatchArena.Flag.MARKSMAN)) {
                 org.mods.gd656killicon.common.honor.HonorDefinition def =
                         org.mods.gd656killicon.common.honor.HonorRegistry.get("marksman");
                 if (def != null) {
@@ -194,9 +256,8 @@ public final class HonorEngine {
             if (!"assault".equals(getConquestClassType(player))) {
                 return;
             }
-            int count = roundRifleKills.merge(id, 1, Integer::sum);
-            if (count >= 20 && !roundRifleAchieved.contains(id)) {
-                roundRifleAchieved.add(id);
+            int count = arena.add(id, MatchArena.Counter.RIFLE, 1);
+            if (count >= 20 && arena.mark(id, MatchArena.Flag.RIFLEMAN)) {
                 org.mods.gd656killicon.common.honor.HonorDefinition def =
                         org.mods.gd656killicon.common.honor.HonorRegistry.get("rifleman");
                 if (def != null) {
@@ -357,9 +418,8 @@ public final class HonorEngine {
         java.util.UUID id = player.getUUID();
         boolean conquest = net.minecraftforge.fml.ModList.get().isLoaded("gd656conquest");
         if (conquest) {
-            int count = roundDestroyCounts.merge(id, 1, Integer::sum);
-            if (count >= 7 && !roundAchieved.contains(id)) {
-                roundAchieved.add(id);
+            int count = arena.add(id, MatchArena.Counter.DESTROY, 1);
+            if (count >= 7 && arena.mark(id, MatchArena.Flag.DEMOLITION)) {
                 deliverDemolition(player);
             }
         } else {
@@ -372,18 +432,9 @@ public final class HonorEngine {
     }
 
     /** 对局结束(Conquest 单次对局结束): 清空全部对局级荣誉状态, 由 Conquest 在房间重置时调用。 */
-    public void onRoundEnd() {        roundDestroyCounts.clear();
-        roundAchieved.clear();
-        roundReviveCounts.clear();
-        roundReviveAchieved.clear();
-        roundSniperKills.clear();
-        roundSniperAchieved.clear();
-        roundRifleKills.clear();
-        roundRifleAchieved.clear();
+    public void onRoundEnd() {
+        arena.endRound();
         roundFirstKillTeams.clear();
-        roundArtilleryScores.clear();
-        roundArtilleryAchieved.clear();
-        clearStageState();
     }
 
     private void deliverDemolition(ServerPlayer player) {
@@ -454,7 +505,7 @@ public final class HonorEngine {
         if (player == null) {
             return;
         }
-        states.getOrCreate(player.getUUID()).life().markCombo4(System.currentTimeMillis());
+        states.getOrCreate(player.getUUID()).life().markCombo4(clock.now());
     }
 
     /** Conquest 兵种 → 兵种专家荣誉 id 映射(支援/侦察/突击/工程, 均为 3000 分一命一次)。 */
@@ -554,9 +605,8 @@ public final class HonorEngine {
         java.util.UUID id = player.getUUID();
         boolean conquest = net.minecraftforge.fml.ModList.get().isLoaded("gd656conquest");
         if (conquest) {
-            int total = roundArtilleryScores.merge(id, Math.round(score), Integer::sum);
-            if (total >= 1500 && !roundArtilleryAchieved.contains(id)) {
-                roundArtilleryAchieved.add(id);
+            int total = arena.add(id, MatchArena.Counter.ARTILLERY, Math.round(score));
+            if (total >= 1500 && arena.mark(id, MatchArena.Flag.ARTILLERY)) {
                 deliverArtillery(player);
             }
         } else {
@@ -586,20 +636,20 @@ public final class HonorEngine {
         if (player == null || score <= 0) {
             return;
         }
-        stageCaptureScores.merge(player.getUUID(), Math.round(score), Integer::sum);
+        arena.add(player.getUUID(), MatchArena.Counter.CAPTURE, Math.round(score));
     }
 
     /** 突破模式阶段安放炸弹标记: 由 BonusEngine.processPlayerBonuses 在 RUSH_BOMB_PLANTED 发放时挂钩。 */
     public void onRushBombPlanted(ServerPlayer player) {
         if (player != null) {
-            stageBombPlanted.add(player.getUUID());
+            arena.mark(player.getUUID(), MatchArena.Flag.BOMB_PLANTED);
         }
     }
 
     /** 突破模式阶段拆除炸弹标记: 由 BonusEngine.processPlayerBonuses 在 RUSH_BOMB_DEFUSED 发放时挂钩。 */
     public void onRushBombDefused(ServerPlayer player) {
         if (player != null) {
-            stageBombDefused.add(player.getUUID());
+            arena.mark(player.getUUID(), MatchArena.Flag.BOMB_DEFUSED);
         }
     }
 
@@ -622,7 +672,7 @@ public final class HonorEngine {
         boolean isRush
     ) {
         if (server == null || stageKills == null || teams == null) {
-            clearStageState();
+            arena.endStage();
             return;
         }
         for (java.util.Map.Entry<java.util.UUID, Integer> entry : stageKills.entrySet()) {
@@ -639,8 +689,8 @@ public final class HonorEngine {
             boolean attacker = "CAMP_A".equals(team);
             if (attacker) {
                 boolean objective = isRush
-                        ? stageBombPlanted.contains(playerId)
-                        : stageCaptureScores.getOrDefault(playerId, 0) > 150;
+                        ? arena.has(playerId, MatchArena.Flag.BOMB_PLANTED)
+                        : arena.get(playerId, MatchArena.Counter.CAPTURE) > 150;
                 if (kills > 5 && objective) {
                     org.mods.gd656killicon.common.honor.HonorDefinition def =
                             org.mods.gd656killicon.common.honor.HonorRegistry.get("breaker");
@@ -650,8 +700,8 @@ public final class HonorEngine {
                 }
             } else {
                 boolean objective = isRush
-                        ? stageBombDefused.contains(playerId)
-                        : stageCaptureScores.getOrDefault(playerId, 0) > 50;
+                        ? arena.has(playerId, MatchArena.Flag.BOMB_DEFUSED)
+                        : arena.get(playerId, MatchArena.Counter.CAPTURE) > 50;
                 if (kills > 7 && objective) {
                     org.mods.gd656killicon.common.honor.HonorDefinition def =
                             org.mods.gd656killicon.common.honor.HonorRegistry.get("ground_control");
@@ -661,13 +711,7 @@ public final class HonorEngine {
                 }
             }
         }
-        clearStageState();
-    }
-
-    private void clearStageState() {
-        stageCaptureScores.clear();
-        stageBombPlanted.clear();
-        stageBombDefused.clear();
+        arena.endStage();
     }
 
     /**
@@ -1002,46 +1046,17 @@ public final class HonorEngine {
 
     // ==================== Conquest 兵种判定(反射, 可选模组) ====================
 
-    private static boolean conquestClassReady = false;
-    private static boolean conquestClassChecked = false;
-    private static java.lang.reflect.Method conquestClassOfMethod;
-    private static java.lang.reflect.Method conquestClassPlayerDataMethod;
-    private static java.lang.reflect.Method conquestClassGetPlayerDataMethod;
-    private static java.lang.reflect.Method conquestClassGetClassTypeMethod;
-
     /** 安装了 GD656Conquest 时返回玩家当前兵种 key(如 "support"/"recon"/"assault"/"engineer"), 否则返回 null。 */
-    private static String getConquestClassType(ServerPlayer player) {
-        if (player == null || player.server == null) {
-            return null;
-        }
-        try {
-            if (!conquestClassReady && !conquestClassChecked) {
-                conquestClassChecked = true;
-                if (net.minecraftforge.fml.ModList.get().isLoaded("gd656conquest")) {
-                    try {
-                        Class<?> dataManager = Class.forName("org.mods.gd656conquest.server.data.ConquestDataManager");
-                        conquestClassOfMethod = dataManager.getMethod("of", net.minecraft.server.MinecraftServer.class);
-                        conquestClassPlayerDataMethod = dataManager.getMethod("playerData");
-                        Class<?> store = Class.forName("org.mods.gd656conquest.server.data.playerdata.PlayerDataStore");
-                        conquestClassGetPlayerDataMethod = store.getMethod("getPlayerData", java.util.UUID.class);
-                        Class<?> model = Class.forName("org.mods.gd656conquest.server.data.playerdata.PlayerDataModel");
-                        conquestClassGetClassTypeMethod = model.getMethod("getCurrentClassType");
-                        conquestClassReady = true;
-                    } catch (Exception initFailure) {
-                        // 反射初始化失败: 不永久缓存失败(下次调用重试, 可能 Conquest 尚未就绪)
-                        conquestClassChecked = false;
-                    }
-                }
-            }
-            if (!conquestClassReady) {
-                return null;
-            }
-            Object dataManager = conquestClassOfMethod.invoke(null, player.server);
-            Object store = conquestClassPlayerDataMethod.invoke(dataManager);
-            Object model = conquestClassGetPlayerDataMethod.invoke(store, player.getUUID());
-            return (String) conquestClassGetClassTypeMethod.invoke(model);
-        } catch (Exception e) {
+    static String getConquestClassType(ServerPlayer player) {
+        if (player == null || player.server == null
+                || !IntegrationAccessors.CONQUEST_CURRENT_CLASS_TYPE.isPresent()) {
             return null;
         }
+        // ConquestDataManager.of(server).playerData().getPlayerData(uuid).getCurrentClassType()
+        Object dataManager = IntegrationAccessors.CONQUEST_DATA_OF.call(player.server);
+        Object store = dataManager != null ? IntegrationAccessors.CONQUEST_PLAYER_DATA.call(dataManager) : null;
+        Object model = store != null ? IntegrationAccessors.CONQUEST_GET_PLAYER_DATA.call(store, player.getUUID()) : null;
+        Object classType = model != null ? IntegrationAccessors.CONQUEST_CURRENT_CLASS_TYPE.call(model) : null;
+        return classType instanceof String type ? type : null;
     }
 }
@@ -2,151 +2,288 @@ package org.mods.gd656killicon.server.logic.honor;
 
 import org.mods.gd656killicon.common.honor.ConditionType;
 import org.mods.gd656killicon.common.honor.HonorDefinition;
+import org.mods.gd656killicon.common.honor.HonorRegistry;
 
+import java.util.ArrayList;
 import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 /**
  * 分型判定器注册表(仿 BonusRegistry 的声明式思路)。
  * <p>
- * 每种 {@link ConditionType} 对应一个通用判定器, 荣誉声明只需提供参数,
- * 不需要为每个荣誉编写新判定类。新增条件类型时在此注册新判定器。
+ * 每种 {@link ConditionType} 对应一个编译器: 注册表中的荣誉声明在首次击杀前被编译为绑定了
+ * 预解析参数(谓词、阈值)的 {@link HonorJudge}, 不再在每次击杀时拆分/解析参数字符串。
+ * 新增条件类型时在此注册新编译器。
  * </p>
  * <ul>
  *   <li>KILL_STREAK: 存活段内满足谓词的击杀计数 ≥ 阈值(参数 "&lt;谓词&gt;:&lt;阈值&gt;")</li>
  *   <li>CONDITIONAL: 单事件谓词(参数 "&lt;谓词键&gt;")</li>
- *   <li>ACCUMULATE: 存活段内数值累计 ≥ 阈值(预留, 暂不触发)</li>
+ *   <li>ACCUMULATE: 存活段内数值累计 ≥ 阈值(预留, 暂不触发, 不参与击杀判定)</li>
  * </ul>
+ * <p>
+ * 每个谓词声明其依赖的证据位(爆头/载具/空中/复仇/距离…)。击杀时先算出廉价证据位, 只判定
+ * 依赖位全部满足的荣誉(延迟计算的证据位由谓词自行读取); 带状态的谓词(掠夺者/军械库/快枪手)
+ * 不依赖证据位, 每次击杀都判定。
+ * 参数无法解析或谓词未知(由其他事件链路触发)的荣誉不进入击杀判定。
+ * </p>
  */
 public final class HonorJudges {
 
-    private static final Map<ConditionType, HonorJudge> JUDGES = new EnumMap<>(ConditionType.class);
+    // ==================== 证据位 ====================
+
+    static final int EV_HEADSHOT = 1;
+    static final int EV_MOVING = 1 << 1;
+    static final int EV_VICTIM_VEHICLE = 1 << 2;
+    static final int EV_VICTIM_AIR_VEHICLE = 1 << 3;
+    static final int EV_VICTIM_RIDING_AIR = 1 << 4;
+    static final int EV_AVENGE = 1 << 5;
+    static final int EV_EXECUTIONER = 1 << 6;
+    static final int EV_VICTIM_TOP_SCORER = 1 << 7;
+    /** 距离 50~100 米(远射)。 */
+    static final int EV_RANGE_MID = 1 << 8;
+    /** 距离 ≥ 100 米(神枪手)。 */
+    static final int EV_RANGE_LONG = 1 << 9;
+    private static final int EVIDENCE_BITS = 10;
+    /**
+     * 构造证据时已知的廉价位; 其余位(移动/刽子手/最高得分者)由 KillEvidence 延迟计算,
+     * 不参与预筛, 由谓词判定时按需读取, 避免为预筛而触发全服查询或反射。
+     */
+    private static final int EAGER_EVIDENCE = EV_HEADSHOT | EV_VICTIM_VEHICLE | EV_VICTIM_AIR_VEHICLE
+            | EV_VICTIM_RIDING_AIR | EV_AVENGE | EV_RANGE_MID | EV_RANGE_LONG;
+
+    /** 已编译的击杀荣誉: 定义 + 依赖证据位 + 绑定参数的判定器。 */
+    record CompiledHonor(HonorDefinition definition, int requiredEvidence, HonorJudge judge) {
+    }
+
+    private static final Map<ConditionType, Function<HonorDefinition, CompiledHonor>> COMPILERS = new EnumMap<>(ConditionType.class);
 
     static {
-        JUDGES.put(ConditionType.KILL_STREAK, HonorJudges::killStreak);
-        JUDGES.put(ConditionType.CONDITIONAL, HonorJudges::conditional);
-        JUDGES.put(ConditionType.ACCUMULATE, HonorJudges::accumulate);
+        COMPILERS.put(ConditionType.KILL_STREAK, HonorJudges::compileKillStreak);
+        COMPILERS.put(ConditionType.CONDITIONAL, HonorJudges::compileConditional);
+        COMPILERS.put(ConditionType.ACCUMULATE, def -> null);
     }
 
+    private static KillIndex killIndex;
+
     private HonorJudges() {
     }
 
-    public static HonorJudge get(ConditionType type) {
-        return JUDGES.get(type);
+    /**
+     * 本次击杀可能达成的荣誉(保持注册顺序, 同谓词的存活段计数与原逐条判定一致)。
+     * 注册表版本变化时重新编译。仅服务端主线程调用。
+     */
+    static List<CompiledHonor> forKill(KillEvidence evidence) {
+        KillIndex index = killIndex;
+        int version = HonorRegistry.version();
+        if (index == null || index.registryVersion != version) {
+            index = new KillIndex(HonorRegistry.getAll(), version);
+            killIndex = index;
+        }
+        return index.forMask(evidenceMask(evidence));
     }
 
-    /** 分派入口: 引擎对每条注册荣誉调用。 */
-    public static boolean evaluate(HonorDefinition def, KillEvidence evidence, PlayerHonorState state) {
-        HonorJudge judge = JUDGES.get(def.conditionType());
-        return judge != null && judge.evaluate(def, evidence, state);
+    static int evidenceMask(KillEvidence evidence) {
+        // 只读取廉价位, 延迟位视为可能满足(交给谓词判定)
+        int mask = ~EAGER_EVIDENCE & ((1 << EVIDENCE_BITS) - 1);
+        if (evidence.headshot()) mask |= EV_HEADSHOT;
+        if (evidence.victimVehicle()) mask |= EV_VICTIM_VEHICLE;
+        if (evidence.victimAirVehicle()) mask |= EV_VICTIM_AIR_VEHICLE;
+        if (evidence.victimRidingAir()) mask |= EV_VICTIM_RIDING_AIR;
+        if (evidence.avenge()) mask |= EV_AVENGE;
+        if (evidence.distance() >= 100.0f) {
+            mask |= EV_RANGE_LONG;
+        } else if (evidence.distance() >= 50.0f) {
+            mask |= EV_RANGE_MID;
+        }
+        return mask;
     }
 
-    // ==================== 分型判定器 ====================
+    /** 编译一条荣誉; 不参与击杀判定(参数无效/谓词未知/非击杀类型)时返回 null。 */
+    static CompiledHonor compile(HonorDefinition def) {
+        Function<HonorDefinition, CompiledHonor> compiler = COMPILERS.get(def.conditionType());
+        return compiler != null ? compiler.apply(def) : null;
+    }
 
-    /** KILL_STREAK: "headshot:3" → 存活段内爆头击杀计数 ≥ 3 时达成; 每条命只触发一次, 死亡/重生后重新可触发。 */
-    private static boolean killStreak(HonorDefinition def, KillEvidence evidence, PlayerHonorState state) {
-        // 本条命已达成过 → 不再触发
-        if (state.life().isAchieved(def.id())) {
-            return false;
+    /** 按证据位分桶的击杀荣誉索引; 每种证据组合的候选列表首次出现时生成并缓存。 */
+    private static final class KillIndex {
+        final int registryVersion;
+        final CompiledHonor[] honors;
+        @SuppressWarnings("unchecked")
+        final List<CompiledHonor>[] byMask = new List[1 << EVIDENCE_BITS];
+
+        KillIndex(Iterable<HonorDefinition> definitions, int registryVersion) {
+            List<CompiledHonor> compiled = new ArrayList<>();
+            for (HonorDefinition def : definitions) {
+                PlayerHonorState.LifeSegment.keyOf(def.id());
+                CompiledHonor honor = compile(def);
+                if (honor != null) {
+                    compiled.add(honor);
+                }
+            }
+            this.registryVersion = registryVersion;
+            this.honors = compiled.toArray(new CompiledHonor[0]);
+        }
+
+        List<CompiledHonor> forMask(int mask) {
+            List<CompiledHonor> candidates = byMask[mask];
+            if (candidates == null) {
+                List<CompiledHonor> matched = new ArrayList<>();
+                for (CompiledHonor honor : honors) {
+                    if ((honor.requiredEvidence() & ~mask) == 0) {
+                        matched.add(honor);
+                    }
+                }
+                candidates = List.copyOf(matched);
+                byMask[mask] = candidates;
+            }
+            return candidates;
         }
+    }
+
+    // ==================== 分型编译器 ====================
+
+    /** KILL_STREAK: "headshot:3" → 存活段内爆头击杀计数 ≥ 3 时达成; 每条命只触发一次, 死亡/重生后重新可触发。 */
+    private static CompiledHonor compileKillStreak(HonorDefinition def) {
         String[] parts = splitParams(def.conditionParams(), 2);
         if (parts == null) {
-            return false;
+            return null;
         }
-        String predicate = parts[0];
+        Predicate predicate = Predicate.of(parts[0]);
         int threshold;
         try {
             threshold = Integer.parseInt(parts[1]);
         } catch (NumberFormatException e) {
-            return false;
-        }
-        if (threshold <= 0 || !matchesPredicate(predicate, evidence, state)) {
-            return false;
+            return null;
         }
-        int count = state.life().increment(predicate);
-        if (count < threshold) {
-            return false;
+        if (predicate == null || threshold <= 0) {
+            return null;
         }
-        // 达成: 标记本条命已达成(不再触发), 重置计数供下条命重新累计
-        state.life().markAchieved(def.id());
-        state.life().add(predicate, -threshold);
-        return true;
+        // 荣誉 id 与谓词计数键在编译时驻留为整数, 击杀时不再做字符串哈希
+        int honorKey = PlayerHonorState.LifeSegment.keyOf(def.id());
+        int counter = PlayerHonorState.LifeSegment.keyOf(predicate.key);
+        return new CompiledHonor(def, predicate.requiredEvidence, (evidence, state, now) -> {
+            // 本条命已达成过 → 不再触发
+            if (state.life().isAchieved(honorKey) || !predicate.test(evidence, state, now)) {
+                return false;
+            }
+            int count = state.life().increment(counter);
+            if (count < threshold) {
+                return false;
+            }
+            // 达成: 标记本条命已达成(不再触发), 重置计数供下条命重新累计
+            state.life().markAchieved(honorKey);
+            state.life().add(counter, -threshold);
+            return true;
+        });
     }
 
     /** CONDITIONAL: 单事件谓词; 每次满足条件都触发(可一条命多次触发, 与 KILL_STREAK 的"一条命一次"不同)。 */
-    private static boolean conditional(HonorDefinition def, KillEvidence evidence, PlayerHonorState state) {
-        return matchesPredicate(def.conditionParams(), evidence, state);
-    }
-
-    /** ACCUMULATE: 预留(修复/伤害等非击杀累计), 当前无证据源, 恒不达成。 */
-    private static boolean accumulate(HonorDefinition def, KillEvidence evidence, PlayerHonorState state) {
-        return false;
+    private static CompiledHonor compileConditional(HonorDefinition def) {
+        Predicate predicate = Predicate.of(def.conditionParams());
+        return predicate != null ? new CompiledHonor(def, predicate.requiredEvidence, predicate::test) : null;
     }
 
     // ==================== 基础谓词库 ====================
 
     /**
      * 击杀谓词: 框架内置基础谓词, 实例荣誉与后续扩展在此扩充。
-     * 谓词为单事件判定(某次击杀是否满足条件)。
+     * 谓词为单事件判定(某次击杀是否满足条件); requiredEvidence 为判定为真的必要证据位。
      */
-    private static boolean matchesPredicate(String predicate, KillEvidence evidence, PlayerHonorState state) {
-        if (predicate == null || predicate.isBlank()) {
-            return false;
-        }
-        return switch (predicate) {
-            case "any" -> true;                                      // 任意击杀
-            case "headshot" -> evidence.headshot();                  // 爆头击杀
-            case "moving" -> evidence.moving();                       // 战士: 行走或疾跑(移动中)状态下的击杀
-            case "vehicle_kill" -> evidence.victimVehicle();         // 击毁载具
-            case "air_vehicle_kill" -> evidence.victimAirVehicle();  // 击毁空中载具
-            case "victim_riding_air" -> evidence.victimRidingAir();  // 飞行调度员: 击杀正搭乘空中载具的玩家(载具未摧毁)
-            case "avenge" -> evidence.avenge();                      // 复仇击杀(与加分项 AVENGE 同条件)
-            case "backstab" -> evidence.executioner();                // 刽子手: 背刺(与加分项 BACKSTAB 同判定) && 距离<2 米 && 手持近战武器(原版剑/斧或 LR 战术工坊)
-            case "long_range_headshot" ->                           // 神枪手: 手持 TACZ/SBW 武器 && 距离 ≥ 100 米 && 爆头击杀
-                    isTaczOrSbwWeapon(evidence) && evidence.distance() >= 100.0f && evidence.headshot();
-            case "long_shot_range" ->                               // 远射: 手持 TACZ/SBW 武器 && 距离 50~100 米(100 米归神枪手)
-                    isTaczOrSbwWeapon(evidence) && evidence.distance() >= 50.0f && evidence.distance() < 100.0f;
-            case "victim_top_scorer" -> evidence.victimTopScorer();  // 高层: 击杀最高得分者(与加分项 SLAY_THE_LEADER 同条件)
-            case "kill_within_8s_after_combo4" -> {                   // 掠夺者: 4 连杀后 8 秒内再击杀, 触发后 30 秒冷却
-                long combo4 = state.life().getCombo4Time();
-                if (combo4 <= 0 || System.currentTimeMillis() - combo4 > 8000) {
-                    yield false;
-                }
-                long lastTrigger = state.getRaiderLastTriggerTime();
-                if (lastTrigger != 0 && System.currentTimeMillis() - lastTrigger < 30000) {
-                    yield false;                                       // 30 秒冷却中
-                }
-                state.markRaiderTriggered(System.currentTimeMillis());
-                yield true;
+    enum Predicate {
+        ANY("any", 0),                                                  // 任意击杀
+        HEADSHOT("headshot", EV_HEADSHOT),                              // 爆头击杀
+        MOVING("moving", EV_MOVING),                                    // 战士: 行走或疾跑(移动中)状态下的击杀
+        VEHICLE_KILL("vehicle_kill", EV_VICTIM_VEHICLE),                // 击毁载具
+        AIR_VEHICLE_KILL("air_vehicle_kill", EV_VICTIM_AIR_VEHICLE),    // 击毁空中载具
+        VICTIM_RIDING_AIR("victim_riding_air", EV_VICTIM_RIDING_AIR),   // 飞行调度员: 击杀正搭乘空中载具的玩家(载具未摧毁)
+        AVENGE("avenge", EV_AVENGE),                                    // 复仇击杀(与加分项 AVENGE 同条件)
+        BACKSTAB("backstab", EV_EXECUTIONER),                           // 刽子手: 背刺(与加分项 BACKSTAB 同判定) && 距离<2 米 && 手持近战武器(原版剑/斧或 LR 战术工坊)
+        LONG_RANGE_HEADSHOT("long_range_headshot", EV_HEADSHOT | EV_RANGE_LONG), // 神枪手: 手持 TACZ/SBW 武器 && 距离 ≥ 100 米 && 爆头击杀
+        LONG_SHOT_RANGE("long_shot_range", EV_RANGE_MID),               // 远射: 手持 TACZ/SBW 武器 && 距离 50~100 米(100 米归神枪手)
+        VICTIM_TOP_SCORER("victim_top_scorer", EV_VICTIM_TOP_SCORER),   // 高层: 击杀最高得分者(与加分项 SLAY_THE_LEADER 同条件)
+        RAIDER("kill_within_8s_after_combo4", 0),                       // 掠夺者: 4 连杀后 8 秒内再击杀, 触发后 30 秒冷却
+        ARSENAL("arsenal_in_30s_3_items", 0),                           // 军械库: 30 秒内用 3 种不同物品击杀 3 生物
+        QUICKDRAW("quickdraw", 0);                                      // 快枪手: 4 秒内用不同武器击杀两个生物
+        // TODO: 更多谓词(按需扩展, 如 未搭乘空中载具击杀 等组合谓词)
+
+        private static final Map<String, Predicate> BY_KEY = new HashMap<>();
+
+        static {
+            for (Predicate predicate : values()) {
+                BY_KEY.put(predicate.key, predicate);
             }
-            case "arsenal_in_30s_3_items" -> {                         // 军械库: 30 秒内用 3 种不同物品击杀 3 生物
-                String weapon = evidence.weapon();
-                if (weapon == null || weapon.isEmpty()) {
-                    yield false;                                       // 空手不算物品
+        }
+
+        /** 参数中的谓词键(同时作为存活段计数键)。 */
+        final String key;
+        final int requiredEvidence;
+
+        Predicate(String key, int requiredEvidence) {
+            this.key = key;
+            this.requiredEvidence = requiredEvidence;
+        }
+
+        static Predicate of(String key) {
+            return key == null ? null : BY_KEY.get(key);
+        }
+
+        /** @param now 击杀时刻(HonorEngine 的战斗时钟) */
+        boolean test(KillEvidence evidence, PlayerHonorState state, long now) {
+            return switch (this) {
+                case ANY -> true;
+                case HEADSHOT -> evidence.headshot();
+                case MOVING -> evidence.moving();
+                case VEHICLE_KILL -> evidence.victimVehicle();
+                case AIR_VEHICLE_KILL -> evidence.victimAirVehicle();
+                case VICTIM_RIDING_AIR -> evidence.victimRidingAir();
+                case AVENGE -> evidence.avenge();
+                case BACKSTAB -> evidence.executioner();
+                case LONG_RANGE_HEADSHOT ->
+                        isTaczOrSbwWeapon(evidence) && evidence.distance() >= 100.0f && evidence.headshot();
+                case LONG_SHOT_RANGE ->
+                        isTaczOrSbwWeapon(evidence) && evidence.distance() >= 50.0f && evidence.distance() < 100.0f;
+                case VICTIM_TOP_SCORER -> evidence.victimTopScorer();
+                case RAIDER -> {
+                    long combo4 = state.life().getCombo4Time();
+                    if (combo4 <= 0 || now - combo4 > 8000) {
+                        yield false;
+                    }
+                    long lastTrigger = state.getRaiderLastTriggerTime();
+                    if (lastTrigger != 0 && now - lastTrigger < 30000) {
+                        yield false;                                       // 30 秒冷却中
+                    }
+                    state.markRaiderTriggered(now);
+                    yield true;
                 }
-                int distinct = state.life().markArsenalWeapon(weapon, System.currentTimeMillis());
-                if (distinct < 3) {
-                    yield false;
+                case ARSENAL -> {
+                    String weapon = evidence.weapon();
+                    if (weapon == null || weapon.isEmpty()) {
+                        yield false;                                       // 空手不算物品
+                    }
+                    int distinct = state.life().markArsenalWeapon(weapon, now);
+                    if (distinct < 3) {
+                        yield false;
+                    }
+                    // 安装了 GD656Conquest 时: 仅突击兵可触发
+                    if (isConquestAssaultCheck(evidence)) {
+                        yield false;
+                    }
+                    yield true;
                 }
-                // 安装了 GD656Conquest 时: 仅突击兵可触发
-                if (isConquestAssaultCheck(evidence)) {
-                    yield false;
+                case QUICKDRAW -> {
+                    String weapon = evidence.weapon();
+                    long lastTime = state.life().getLastKillTime();
+                    String lastWeapon = state.life().getLastKillWeapon();
+                    state.life().markKill(weapon, now);
+                    yield lastTime > 0 && now - lastTime <= 4000
+                            && lastWeapon != null && weapon != null
+                            && !lastWeapon.equals(weapon);
                 }
-                yield true;
-            }
-            case "quickdraw" -> {                                       // 快枪手: 4 秒内用不同武器击杀两个生物
-                String weapon = evidence.weapon();
-                long now = System.currentTimeMillis();
-                long lastTime = state.life().getLastKillTime();
-                String lastWeapon = state.life().getLastKillWeapon();
-                state.life().markKill(weapon, now);
-                yield lastTime > 0 && now - lastTime <= 4000
-                        && lastWeapon != null && weapon != null
-                        && !lastWeapon.equals(weapon);
-            }
-            // TODO: 更多谓词(按需扩展, 如 未搭乘空中载具击杀 等组合谓词)
-            default -> false;
-        };
+            };
+        }
     }
 
     // ==================== Conquest 突击兵判定(反射, 可选模组) ====================
@@ -172,40 +309,13 @@ public final class HonorJudges {
         return "tacz".equals(ns) || "superbwarfare".equals(ns);
     }
 
-    private static boolean conquestAssaultReady = false;
-    private static boolean conquestAssaultChecked = false;
-    private static java.lang.reflect.Method conquestOfMethod;
-    private static java.lang.reflect.Method conquestPlayerDataMethod;
-    private static java.lang.reflect.Method conquestGetPlayerDataMethod;
-    private static java.lang.reflect.Method conquestGetClassTypeMethod;
-
-    /** 安装了 GD656Conquest 且玩家不是突击兵 → 返回 true(拦截军械库)。 */
+    /** 安装了 GD656Conquest 且玩家不是突击兵 → 返回 true(拦截军械库); 职业查不到时不拦截。 */
     private static boolean isConquestAssaultCheck(KillEvidence evidence) {
-        try {
-            if (!conquestAssaultChecked) {
-                conquestAssaultChecked = true;
-                if (net.minecraftforge.fml.ModList.get().isLoaded("gd656conquest")) {
-                    Class<?> dataManager = Class.forName("org.mods.gd656conquest.server.data.ConquestDataManager");
-                    conquestOfMethod = dataManager.getMethod("of", net.minecraft.server.MinecraftServer.class);
-                    conquestPlayerDataMethod = dataManager.getMethod("playerData");
-                    Class<?> store = Class.forName("org.mods.gd656conquest.server.data.playerdata.PlayerDataStore");
-                    conquestGetPlayerDataMethod = store.getMethod("getPlayerData", java.util.UUID.class);
-                    Class<?> model = Class.forName("org.mods.gd656conquest.server.data.playerdata.PlayerDataModel");
-                    conquestGetClassTypeMethod = model.getMethod("getCurrentClassType");
-                    conquestAssaultReady = true;
-                }
-            }
-            if (!conquestAssaultReady || evidence.killer() == null) {
-                return false;
-            }
-            Object dataManager = conquestOfMethod.invoke(null, evidence.killer().server);
-            Object store = conquestPlayerDataMethod.invoke(dataManager);
-            Object model = conquestGetPlayerDataMethod.invoke(store, evidence.killer().getUUID());
-            String classKey = (String) conquestGetClassTypeMethod.invoke(model);
-            return !"assault".equals(classKey); // 非突击兵 → 拦截
-        } catch (Exception e) {
+        if (evidence.killer() == null) {
             return false;
         }
+        String classType = HonorEngine.getConquestClassType(evidence.killer());
+        return classType != null && !"assault".equals(classType); // 非突击兵 → 拦截
     }
 
     /** 按分隔符 ":" 拆分参数, 段数不符返回 null。 */
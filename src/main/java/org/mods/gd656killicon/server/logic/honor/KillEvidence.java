@@ -3,42 +3,158 @@ package org.mods.gd656killicon.server.logic.honor;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.entity.LivingEntity;
 
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
 /**
  * 击杀证据: 一次玩家击杀的归一化信息。
  * <p>
  * 由 {@link HonorEngine} 从事件链路上采集, 分型判定器只消费此对象,
  * 不直接接触 Forge 事件, 从而让新增荣誉不依赖新增监听。
  * </p>
- *
- * @param killer          击杀者(玩家)
- * @param victim          受害者实体
- * @param headshot        是否爆头击杀
- * @param victimVehicle   受害者是否为载具
- * @param victimAirVehicle 受害者是否为空中载具(依赖集成层, 未判定时 false)
- * @param killerRidingAir 击杀者是否正搭乘空中载具(依赖集成层, 未判定时 false)
- * @param killType        击杀类型(org.mods.gd656killicon.common.KillType 常量值)
- * @param avenge          是否复仇击杀(此前击杀过你的凶手, 与加分项 AVENGE 同条件)
- * @param weapon          击杀物品显示名(如 "Diamond Sword" / 改名后的自定义名; 即使 id 相同名字不同也算不同武器; 空手为空串)
- * @param victimTopScorer 受害者是否为当前最高得分者(与加分项 SLAY_THE_LEADER 同条件)
- * @param executioner     刽子手判定: 背刺(与加分项 BACKSTAB 同判定) && 距离 < 2 米 && 手持原版近战武器或 LR 战术工坊(lrtactical)武器
- * @param distance        击杀距离(米)
- * @param moving          击杀时击杀者是否处于移动中(行走或疾跑, 非静止)
- * @param victimRidingAir 受害者死亡瞬间正搭乘空中载具(载具未被摧毁, 否则乘客会脱离; 飞行调度员)
+ * <p>
+ * 廉价事实(爆头/载具/复仇/距离等)在构造时给出; 需要字符串构建、全服查询或反射的事实
+ * (武器名、最高得分者、刽子手、移动状态)以 Supplier 传入, 在判定器首次读取时计算并缓存,
+ * 本次击杀内后续读取直接返回缓存值。只在击杀处理的同一调用内使用, 不跨线程/跨 tick 保留。
+ * </p>
  */
-public record KillEvidence(
-        ServerPlayer killer,
-        LivingEntity victim,
-        boolean headshot,
-        boolean victimVehicle,
-        boolean victimAirVehicle,
-        boolean killerRidingAir,
-        int killType,
-        boolean avenge,
-        String weapon,
-        boolean victimTopScorer,
-        boolean executioner,
-        float distance,
-        boolean moving,
-        boolean victimRidingAir
-) {
+public final class KillEvidence {
+    private static final int RESOLVED_WEAPON = 1;
+    private static final int RESOLVED_TOP_SCORER = 1 << 1;
+    private static final int RESOLVED_EXECUTIONER = 1 << 2;
+    private static final int RESOLVED_MOVING = 1 << 3;
+
+    private final ServerPlayer killer;
+    private final LivingEntity victim;
+    private final boolean headshot;
+    private final boolean victimVehicle;
+    private final boolean victimAirVehicle;
+    private final boolean killerRidingAir;
+    private final int killType;
+    private final boolean avenge;
+    private final float distance;
+    private final boolean victimRidingAir;
+
+    private Supplier<String> weaponSource;
+    private BooleanSupplier victimTopScorerSource;
+    private BooleanSupplier executionerSource;
+    private BooleanSupplier movingSource;
+    private int resolved;
+    private String weapon;
+    private boolean victimTopScorer;
+    private boolean executioner;
+    private boolean moving;
+
+    /**
+     * @param killer           击杀者(玩家)
+     * @param victim           受害者实体
+     * @param headshot         是否爆头击杀
+     * @param victimVehicle    受害者是否为载具
+     * @param victimAirVehicle 受害者是否为空中载具(依赖集成层, 未判定时 false)
+     * @param killerRidingAir  击杀者是否正搭乘空中载具(依赖集成层, 未判定时 false)
+     * @param killType         击杀类型(org.mods.gd656killicon.common.KillType 常量值)
+     * @param avenge           是否复仇击杀(此前击杀过你的凶手, 与加分项 AVENGE 同条件)
+     * @param weapon           击杀物品显示名(如 "Diamond Sword" / 改名后的自定义名; 即使 id 相同名字不同也算不同武器; 空手为空串)
+     * @param victimTopScorer  受害者是否为当前最高得分者(与加分项 SLAY_THE_LEADER 同条件)
+     * @param executioner      刽子手判定: 背刺(与加分项 BACKSTAB 同判定) && 距离 < 2 米 && 手持原版近战武器或 LR 战术工坊(lrtactical)武器
+     * @param distance         击杀距离(米)
+     * @param moving           击杀时击杀者是否处于移动中(行走或疾跑, 非静止)
+     * @param victimRidingAir  受害者死亡瞬间正搭乘空中载具(载具未被摧毁, 否则乘客会脱离; 飞行调度员)
+     */
+    public KillEvidence(ServerPlayer killer, LivingEntity victim, boolean headshot,
+                        boolean victimVehicle, boolean victimAirVehicle, boolean killerRidingAir, int killType,
+                        boolean avenge, Supplier<String> weapon, BooleanSupplier victimTopScorer,
+                        BooleanSupplier executioner, float distance, BooleanSupplier moving,
+                        boolean victimRidingAir) {
+        this.killer = killer;
+        this.victim = victim;
+        this.headshot = headshot;
+        this.victimVehicle = victimVehicle;
+        this.victimAirVehicle = victimAirVehicle;
+        this.killerRidingAir = killerRidingAir;
+        this.killType = killType;
+        this.avenge = avenge;
+        this.weaponSource = weapon;
+        this.victimTopScorerSource = victimTopScorer;
+        this.executionerSource = executioner;
+        this.distance = distance;
+        this.movingSource = moving;
+        this.victimRidingAir = victimRidingAir;
+    }
+
+    public ServerPlayer killer() {
+        return killer;
+    }
+
+    public LivingEntity victim() {
+        return victim;
+    }
+
+    public boolean headshot() {
+        return headshot;
+    }
+
+    public boolean victimVehicle() {
+        return victimVehicle;
+    }
+
+    public boolean victimAirVehicle() {
+        return victimAirVehicle;
+    }
+
+    public boolean killerRidingAir() {
+        return killerRidingAir;
+    }
+
+    public int killType() {
+        return killType;
+    }
+
+    public boolean avenge() {
+        return avenge;
+    }
+
+    public float distance() {
+        return distance;
+    }
+
+    public boolean victimRidingAir() {
+        return victimRidingAir;
+    }
+
+    public String weapon() {
+        if ((resolved & RESOLVED_WEAPON) == 0) {
+            resolved |= RESOLVED_WEAPON;
+            weapon = weaponSource != null ? weaponSource.get() : "";
+            weaponSource = null;
+        }
+        return weapon;
+    }
+
+    public boolean victimTopScorer() {
+        if ((resolved & RESOLVED_TOP_SCORER) == 0) {
+            resolved |= RESOLVED_TOP_SCORER;
+            victimTopScorer = victimTopScorerSource != null && victimTopScorerSource.getAsBoolean();
+            victimTopScorerSource = null;
+        }
+        return victimTopScorer;
+    }
+
+    public boolean executioner() {
+        if ((resolved & RESOLVED_EXECUTIONER) == 0) {
+            resolved |= RESOLVED_EXECUTIONER;
+            executioner = executionerSource != null && executionerSource.getAsBoolean();
+            executionerSource = null;
+        }
+        return executioner;
+    }
+
+    public boolean moving() {
+        if ((resolved & RESOLVED_MOVING) == 0) {
+            resolved |= RESOLVED_MOVING;
+            moving = movingSource != null && movingSource.getAsBoolean();
+            movingSource = null;
+        }
+        return moving;
+    }
 }
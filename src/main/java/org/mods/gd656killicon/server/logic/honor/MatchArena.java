@@ -0,0 +1,156 @@
+package org.mods.gd656killicon.server.logic.honor;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 对局/阶段级(Conquest)荣誉状态: 每个玩家一个稠密槽位, 槽位内为原始类型计数与达成标记。
+ * <p>
+ * 对局级与阶段级各有一个代数, 槽位按作用域记录代数戳; 对局/阶段结束只递增代数,
+ * 旧代数的槽位在下次访问时才清零, 不再逐个清空 Map/Set。槽位跨对局与玩家登出保留。
+ * </p>
+ */
+final class MatchArena {
+
+    /** 计数所属作用域。 */
+    private static final int ROUND = 0;
+    private static final int STAGE = 1;
+    private static final int SCOPES = 2;
+
+    /** 计数项。 */
+    enum Counter {
+        DESTROY(ROUND),     // 爆破专家: 摧毁载具
+        REVIVE(ROUND),      // 医护兵: 救援
+        SNIPER(ROUND),      // 神射手: 狙击枪击杀
+        ARTILLERY(ROUND),   // 炮兵: 载具伤害分
+        RIFLE(ROUND),       // 步枪手: 突击步枪击杀
+        CAPTURE(STAGE);     // 地面控制/突破者: 阶段占领分
+
+        private final int scope;
+
+        Counter(int scope) {
+            this.scope = scope;
+        }
+    }
+
+    /** 达成/事件标记。 */
+    enum Flag {
+        DEMOLITION(ROUND),
+        COMBAT_MEDIC(ROUND),
+        MARKSMAN(ROUND),
+        ARTILLERY(ROUND),
+        RIFLEMAN(ROUND),
+        BOMB_PLANTED(STAGE),
+        BOMB_DEFUSED(STAGE);
+
+        private final int scope;
+        private final int bit;
+
+        Flag(int scope) {
+            this.scope = scope;
+            this.bit = 1 << ordinal();
+        }
+    }
+
+    private static final Counter[] COUNTERS = Counter.values();
+    private static final int COUNTER_COUNT = COUNTERS.length;
+
+    private final Map<UUID, Integer> slots = new ConcurrentHashMap<>();
+    private final int[] generations = {1, 1};
+    /** [slot * COUNTER_COUNT + counter] */
+    private int[] counters = new int[64 * COUNTER_COUNT];
+    /** [slot * SCOPES + scope] */
+    private int[] flags = new int[64 * SCOPES];
+    private int[] stamps = new int[64 * SCOPES];
+
+    /** 计数增加 amount, 返回更新后的值。 */
+    synchronized int add(UUID playerId, Counter counter, int amount) {
+        int slot = slotOf(playerId);
+        touch(slot, counter.scope);
+        return counters[slot * COUNTER_COUNT + counter.ordinal()] += amount;
+    }
+
+    synchronized int get(UUID playerId, Counter counter) {
+        Integer slot = slots.get(playerId);
+        if (slot == null || stamps[slot * SCOPES + counter.scope] != generations[counter.scope]) {
+            return 0;
+        }
+        return counters[slot * COUNTER_COUNT + counter.ordinal()];
+    }
+
+    /** 设置标记; 返回 true 表示本对局/阶段内首次设置。 */
+    synchronized boolean mark(UUID playerId, Flag flag) {
+        int slot = slotOf(playerId);
+        touch(slot, flag.scope);
+        int index = slot * SCOPES + flag.scope;
+        if ((flags[index] & flag.bit) != 0) {
+            return false;
+        }
+        flags[index] |= flag.bit;
+        return true;
+    }
+
+    synchronized boolean has(UUID playerId, Flag flag) {
+        Integer slot = slots.get(playerId);
+        if (slot == null) {
+            return false;
+        }
+        int index = slot * SCOPES + flag.scope;
+        return stamps[index] == generations[flag.scope] && (flags[index] & flag.bit) != 0;
+    }
+
+    /** 对局结束: 对局级与阶段级状态整体失效。 */
+    synchronized void endRound() {
+        advance(ROUND);
+        advance(STAGE);
+    }
+
+    /** 阶段结束: 阶段级状态整体失效。 */
+    synchronized void endStage() {
+        advance(STAGE);
+    }
+
+    private void advance(int scope) {
+        if (++generations[scope] == 0) {
+            // 代数回绕: 清空该作用域的代数戳, 避免与残留槽位碰撞
+            for (int i = scope; i < stamps.length; i += SCOPES) {
+                stamps[i] = 0;
+            }
+            generations[scope] = 1;
+        }
+    }
+
+    private int slotOf(UUID playerId) {
+        Integer slot = slots.get(playerId);
+        if (slot != null) {
+            return slot;
+        }
+        int next = slots.size();
+        slots.put(playerId, next);
+        if ((next + 1) * SCOPES > stamps.length) {
+            int capacity = stamps.length / SCOPES * 2;
+            counters = Arrays.copyOf(counters, capacity * COUNTER_COUNT);
+            flags = Arrays.copyOf(flags, capacity * SCOPES);
+            stamps = Arrays.copyOf(stamps, capacity * SCOPES);
+        }
+        return next;
+    }
+
+    /** 槽位在该作用域的代数过期时清零其计数与标记。 */
+    private void touch(int slot, int scope) {
+        int index = slot * SCOPES + scope;
+        if (stamps[index] == generations[scope]) {
+            return;
+        }
+        stamps[index] = generations[scope];
+        flags[index] = 0;
+        int base = slot * COUNTER_COUNT;
+        for (Counter counter : COUNTERS) {
+            if (counter.scope == scope) {
+                counters[base + counter.ordinal()] = 0;
+            }
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package org.mods.gd656killicon.server.logic.honor;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.UUID;
@@ -20,24 +19,76 @@ public final class PlayerHonorState {
      * state.life().increment("headshot");   // 存活内爆头计数 +1
      * state.life().get("headshot");         // 当前存活内爆头计数
      * </pre>
+     * <p>
+     * 荣誉 id 与计数键由 {@link #keyOf(String)} 驻留为全局稠密整数(编译荣誉判定器时完成),
+     * 计数/兵种分数存于按键下标的数组, 达成标记存于位图; 各槽位带存活段代数戳,
+     * 死亡重置只递增代数, 旧代数的槽位视为 0/未达成。String 版本方法先查驻留表再走数组。
+     * </p>
      */
     public static final class LifeSegment {
-        private final Map<String, Integer> counters = new HashMap<>();
-        /** 本条命已达成的荣誉 id(达成后本条命内不再触发, 死亡/重生时清空)。 */
-        private final java.util.Set<String> achieved = new java.util.HashSet<>();
+        private static final Map<String, Integer> KEYS = new ConcurrentHashMap<>();
+
+        /** 将荣誉 id / 计数键驻留为稠密整数(同一字符串始终得到同一值)。 */
+        public static int keyOf(String key) {
+            Integer id = KEYS.get(key);
+            if (id != null) {
+                return id;
+            }
+            synchronized (KEYS) {
+                return KEYS.computeIfAbsent(key, k -> KEYS.size());
+            }
+        }
+
+        /** 当前存活段代数(从 1 开始, 槽位代数戳不等于它即为已重置)。 */
+        private int generation = 1;
+        private int[] counters = new int[16];
+        private float[] classScore = new float[16];
+        /** 计数/兵种分数槽位的代数戳。 */
+        private int[] slotGeneration = new int[16];
+        /** 本条命已达成的荣誉(按键下标的位图, 达成后本条命内不再触发, 死亡/重生时失效)。 */
+        private long[] achieved = new long[1];
+        private int[] achievedGeneration = new int[1];
 
         /** 计数 +1, 返回更新后的值。 */
+        public int increment(int key) {
+            return add(key, 1);
+        }
+
         public int increment(String key) {
-            return counters.merge(key, 1, Integer::sum);
+            return add(keyOf(key), 1);
         }
 
         /** 计数增加任意量, 返回更新后的值(ACCUMULATE 类用)。 */
+        public int add(int key, int amount) {
+            slot(key);
+            return counters[key] += amount;
+        }
+
         public int add(String key, int amount) {
-            return counters.merge(key, amount, Integer::sum);
+            return add(keyOf(key), amount);
+        }
+
+        public int get(int key) {
+            return key < slotGeneration.length && slotGeneration[key] == generation ? counters[key] : 0;
         }
 
         public int get(String key) {
-            return counters.getOrDefault(key, 0);
+            return get(keyOf(key));
+        }
+
+        /** 取得当前代数的槽位(旧代数则清零), 必要时扩容。 */
+        private void slot(int key) {
+            if (key >= slotGeneration.length) {
+                int size = Math.max(key + 1, slotGeneration.length * 2);
+                counters = java.util.Arrays.copyOf(counters, size);
+                classScore = java.util.Arrays.copyOf(classScore, size);
+                slotGeneration = java.util.Arrays.copyOf(slotGeneration, size);
+            }
+            if (slotGeneration[key] != generation) {
+                slotGeneration[key] = generation;
+                counters[key] = 0;
+                classScore[key] = 0F;
+            }
         }
 
         /** 本次存活内达到 4 连杀的时刻(掠夺者窗口起点, 0 = 未达到)。 */
@@ -48,8 +99,6 @@ public final class PlayerHonorState {
         /** 急救窗口: 上次急救时刻与连续急救数(相邻间隔 ≤ 8 秒)。 */
         private long reviveLastTime = 0L;
         private int reviveStreak = 0;
-        /** 兵种专家荣誉(支援/侦察/突击/工程): 按荣誉 id 累计本次存活获得的 gdki 分数(死亡 reset 清 0)。 */
-        private final Map<String, Float> classScore = new HashMap<>();
         /** 烟幕: 本次存活在烟雾内完成的救援次数(死亡 reset 清 0)。 */
         private int smokeReviveCount = 0;
         /** 快枪手: 上次击杀的武器标识与时刻(死亡 reset 清 0)。 */
@@ -59,12 +108,31 @@ public final class PlayerHonorState {
         private int bailVehicleEntityId = 0;
         private boolean bailAirDestroyed = false;
 
+        public boolean isAchieved(int honorKey) {
+            int word = honorKey >>> 6;
+            return word < achieved.length && achievedGeneration[word] == generation
+                    && (achieved[word] & (1L << honorKey)) != 0;
+        }
+
         public boolean isAchieved(String honorId) {
-            return achieved.contains(honorId);
+            return isAchieved(keyOf(honorId));
+        }
+
+        public void markAchieved(int honorKey) {
+            int word = honorKey >>> 6;
+            if (word >= achieved.length) {
+                achieved = java.util.Arrays.copyOf(achieved, word + 1);
+                achievedGeneration = java.util.Arrays.copyOf(achievedGeneration, word + 1);
+            }
+            if (achievedGeneration[word] != generation) {
+                achievedGeneration[word] = generation;
+                achieved[word] = 0L;
+            }
+            achieved[word] |= 1L << honorKey;
         }
 
         public void markAchieved(String honorId) {
-            achieved.add(honorId);
+            markAchieved(keyOf(honorId));
         }
 
         public void markCombo4(long time) {
@@ -85,12 +153,16 @@ public final class PlayerHonorState {
             return arsenalWeapons.size();
         }
 
+        /** 兵种专家荣誉(支援/侦察/突击/工程): 按荣誉 id 累计本次存活获得的 gdki 分数(死亡 reset 清 0)。 */
         public float getClassScore(String honorId) {
-            return classScore.getOrDefault(honorId, 0F);
+            int key = keyOf(honorId);
+            return key < slotGeneration.length && slotGeneration[key] == generation ? classScore[key] : 0F;
         }
 
         public void addClassScore(String honorId, float amount) {
-            classScore.merge(honorId, amount, Float::sum);
+            int key = keyOf(honorId);
+            slot(key);
+            classScore[key] += amount;
         }
 
         public int getSmokeReviveCount() {
@@ -159,16 +231,19 @@ public final class PlayerHonorState {
             return combo4Time;
         }
 
-        /** 清除该存活段全部计数与达成标记(死亡/重生时调用)。 */
+        /** 清除该存活段全部计数与达成标记(死亡/重生时调用; 计数/分数/达成标记通过递增代数整体失效)。 */
         public void reset() {
-            counters.clear();
-            achieved.clear();
+            if (++generation == 0) {
+                // 代数回绕: 清空代数戳, 避免与残留槽位碰撞
+                java.util.Arrays.fill(slotGeneration, 0);
+                java.util.Arrays.fill(achievedGeneration, 0);
+                generation = 1;
+            }
             combo4Time = 0L;
             arsenalWindowStart = 0L;
             arsenalWeapons.clear();
             reviveLastTime = 0L;
             reviveStreak = 0;
-            classScore.clear();
             smokeReviveCount = 0;
             lastKillWeapon = null;
             lastKillTime = 0L;
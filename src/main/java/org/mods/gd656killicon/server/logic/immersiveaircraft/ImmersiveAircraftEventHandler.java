@@ -190,12 +190,19 @@ public class ImmersiveAircraftEventHandler implements IImmersiveAircraftHandler
             if (!VehicleRewardHelper.shouldAwardDestroyVehicleRewards(killer, driverUuid)) {
                 return;
             }
-            double multiplier = ServerData.get().getBonusMultiplier(BonusType.DESTROY_VEHICLE);
-            int score = (int) (DEFAULT_SCORE_BASE * multiplier);
-            
             String vehicleNameKey = vehicle.getType().getDescriptionId();
-            if (score > 0) {
-                ServerCore.BONUS.add(killer, BonusType.DESTROY_VEHICLE, score, null, vehicle.getId(), vehicleNameKey);
+            // 载具摧毁的表达式上下文: 击杀者到载具的距离与载具名义最大生命(IA 生命为 0~1 比例, 按 DEFAULT_SCORE_BASE 计; 不计入连杀, combo/streak 为 0)
+            double multiplier;
+            int score;
+            ServerCore.BONUS.beginKillContext(killer.distanceTo(vehicle), 0, 0L, DEFAULT_SCORE_BASE);
+            try {
+                multiplier = ServerCore.BONUS.multiplier(BonusType.DESTROY_VEHICLE, 1.0f);
+                score = (int) (DEFAULT_SCORE_BASE * multiplier);
+                if (score > 0) {
+                    ServerCore.BONUS.add(killer, BonusType.DESTROY_VEHICLE, score, null, vehicle.getId(), vehicleNameKey);
+                }
+            } finally {
+                ServerCore.BONUS.endKillContext();
             }
 
             VehicleRewardHelper.awardDestroyAssistBonuses(
@@ -211,7 +218,7 @@ public class ImmersiveAircraftEventHandler implements IImmersiveAircraftHandler
             ServerData.get().addKill(killer, 1);
             
             String extraInfo = vehicleNameKey + "|" + DEFAULT_SCORE_BASE;
-            VehicleRewardHelper.sendDestroyVehicleEffects(killer, vehicle.getId(), extraInfo, (float) org.mods.gd656killicon.server.data.ServerData.get().getBonusMultiplier(org.mods.gd656killicon.common.BonusType.DESTROY_VEHICLE), score);
+            VehicleRewardHelper.sendDestroyVehicleEffects(killer, vehicle.getId(), extraInfo, (float) multiplier, score);
         }
     }
 
@@ -264,10 +271,10 @@ public class ImmersiveAircraftEventHandler implements IImmersiveAircraftHandler
                 lastAttackerUuid = attackerUuid;
                 if (amount > 0.0f) {
                     damageByAttacker.merge(attackerUuid, amount, Float::sum);
-                    lastContributionTimeByAttacker.put(attackerUuid, System.currentTimeMillis());
+                    lastContributionTimeByAttacker.put(attackerUuid, ServerCore.CLOCK.now());
                 }
             }
-            lastAttackTime = System.currentTimeMillis();
+            lastAttackTime = ServerCore.CLOCK.now();
             lastAttackerWasPlayer = isPlayer;
         }
     }
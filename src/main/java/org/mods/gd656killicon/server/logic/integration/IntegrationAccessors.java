@@ -0,0 +1,370 @@
+package org.mods.gd656killicon.server.logic.integration;
+
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.entity.Entity;
+import org.mods.gd656killicon.server.bridge.ServerBridge;
+import org.mods.gd656killicon.server.util.ServerLog;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * 可选模组反射访问器注册表。
+ *
+ * <p>服务端启动时({@link #init()})一次性把各可选模组(SBW/YWZJ/Immersive Aircraft/Conquest)的类与成员解析为
+ * {@link MethodHandle}(签名统一泛化为 Object), 每个访问器有明确的 {@link State}:
+ * 模组未加载或成员不存在即 ABSENT, 调用直接返回 null, 不再在每次载具命中/击杀时
+ * 执行 Class.forName/getMethod, 也不再依赖异常回退。</p>
+ *
+ * <p>未经 init 就被访问的访问器在首次使用时惰性解析; {@link #reset()} 在服务端停止时清空状态。</p>
+ */
+public final class IntegrationAccessors {
+    private static final String SBW = "superbwarfare";
+    private static final String YWZJ = "ywzj_vehicle";
+    private static final String CONQUEST = "gd656conquest";
+    private static final String IMMERSIVE_AIRCRAFT = "immersive_aircraft";
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final List<Ref> REFS = new ArrayList<>();
+
+    // ==================== SuperbWarfare ====================
+    public static final ClassRef SBW_VEHICLE = type(SBW, "com.atsuishio.superbwarfare.entity.vehicle.base.VehicleEntity");
+    public static final MethodRef SBW_GET_VEHICLE_TYPE = method(SBW_VEHICLE, "getVehicleType");
+    public static final MethodRef SBW_GET_SEAT_INDEX = method(SBW_VEHICLE, "getSeatIndex", Entity.class);
+    public static final MethodRef SBW_GET_HEALTH = method(SBW_VEHICLE, "getHealth");
+    /** 残骸状态; Kotlin 属性 getter 名因版本而异, 按顺序取第一个存在的。 */
+    public static final MethodRef SBW_IS_WRECK = method(SBW_VEHICLE, new String[]{"isWreck", "getIsWreck"});
+    /** 残骸状态的同步数据键(EntityDataAccessor), 旧版本无 getter 时使用。 */
+    public static final StaticValueRef SBW_IS_WRECK_DATA = staticValue(SBW_VEHICLE, "IS_WRECK");
+    /** 可拥有实体(如 TM-62 地雷)的 owner UUID, 按运行时类解析。 */
+    public static final DynamicMethodRef SBW_GET_OWNER_UUID = new DynamicMethodRef("getOwnerUUID");
+
+    // ==================== YWZJ Vehicle ====================
+    public static final ClassRef YWZJ_VEHICLE = type(YWZJ, "org.ywzj.vehicle.entity.vehicle.AbstractVehicle");
+    public static final ClassRef YWZJ_ROTARY_WING = type(YWZJ, "org.ywzj.vehicle.entity.vehicle.RotaryWingVehicle");
+    public static final ClassRef YWZJ_FIXED_WING = type(YWZJ, "org.ywzj.vehicle.entity.vehicle.FixedWingVehicle");
+    public static final ClassRef YWZJ_TRACKED = type(YWZJ, "org.ywzj.vehicle.entity.vehicle.TrackedVehicle");
+    public static final MethodRef YWZJ_GET_DRIVER = method(YWZJ_VEHICLE, "getDriver");
+    /** isDestroyed 可能由具体载具类声明, 按运行时类解析。 */
+    public static final DynamicMethodRef YWZJ_IS_DESTROYED = new DynamicMethodRef("isDestroyed");
+
+    // ==================== Immersive Aircraft ====================
+    public static final ClassRef IMMERSIVE_VEHICLE = type(IMMERSIVE_AIRCRAFT, "immersive_aircraft.entity.VehicleEntity");
+
+    // ==================== LR Tactical ====================
+    /** 效果云是否为点燃云; 由具体云实体类声明, 按运行时类解析。 */
+    public static final DynamicMethodRef LRTACTICAL_IS_IGNITE = new DynamicMethodRef("isIgnite");
+
+    // ==================== Spotting ====================
+    /** SpottingEvent$Post 的标记者/目标; 事件类由动态监听器提供, 按运行时类解析。 */
+    public static final DynamicMethodRef SPOTTING_GET_SPOTTER = new DynamicMethodRef("getSpotter");
+    public static final DynamicMethodRef SPOTTING_GET_SPOTTEE = new DynamicMethodRef("getSpottee");
+
+    // ==================== Conquest 房间 ====================
+    public static final ClassRef CONQUEST_ROOM_MANAGER = type(CONQUEST, "org.mods.gd656conquest.server.room.entry.RoomCoreRuntimeManager");
+    public static final MethodRef CONQUEST_ROOM_MANAGER_OF = method(CONQUEST_ROOM_MANAGER, "of", MinecraftServer.class);
+    public static final MethodRef CONQUEST_CORE_SERVICE = method(CONQUEST_ROOM_MANAGER, "coreService");
+    public static final ClassRef CONQUEST_ROOM_CORE_SERVICE = type(CONQUEST, "org.mods.gd656conquest.server.room.core.RoomCoreService");
+    public static final MethodRef CONQUEST_FIND_PLAYER_ROOM = method(CONQUEST_ROOM_CORE_SERVICE, "findPlayerRoomId", UUID.class);
+    public static final MethodRef CONQUEST_KILLICON_SNAPSHOT = method(CONQUEST_ROOM_CORE_SERVICE, "buildKilliconConquestSnapshot", String.class);
+    public static final MethodRef CONQUEST_FIND_RUNNING_STATE = method(CONQUEST_ROOM_CORE_SERVICE, "findRunningState", String.class);
+    public static final DynamicMethodRef CONQUEST_SQUAD_LABELS = new DynamicMethodRef("getSquadLabelsByPlayer");
+    /** ConquestMarkerSpotPlacedEvent 的标记者/目标玩家, 按运行时类解析。 */
+    public static final DynamicMethodRef CONQUEST_SPOT_SPOTTER = new DynamicMethodRef("getSpotter");
+    public static final DynamicMethodRef CONQUEST_SPOT_TARGET = new DynamicMethodRef("getTargetPlayer");
+
+    // ==================== Conquest 玩家数据 ====================
+    public static final ClassRef CONQUEST_DATA_MANAGER = type(CONQUEST, "org.mods.gd656conquest.server.data.ConquestDataManager");
+    public static final MethodRef CONQUEST_DATA_OF = method(CONQUEST_DATA_MANAGER, "of", MinecraftServer.class);
+    public static final MethodRef CONQUEST_PLAYER_DATA = method(CONQUEST_DATA_MANAGER, "playerData");
+    public static final ClassRef CONQUEST_PLAYER_DATA_STORE = type(CONQUEST, "org.mods.gd656conquest.server.data.playerdata.PlayerDataStore");
+    public static final MethodRef CONQUEST_GET_PLAYER_DATA = method(CONQUEST_PLAYER_DATA_STORE, "getPlayerData", UUID.class);
+    public static final ClassRef CONQUEST_PLAYER_DATA_MODEL = type(CONQUEST, "org.mods.gd656conquest.server.data.playerdata.PlayerDataModel");
+    public static final MethodRef CONQUEST_CURRENT_CLASS_TYPE = method(CONQUEST_PLAYER_DATA_MODEL, "getCurrentClassType");
+
+    private IntegrationAccessors() {
+    }
+
+    public enum State {
+        UNRESOLVED,
+        PRESENT,
+        ABSENT
+    }
+
+    /** 服务端启动时解析全部访问器。 */
+    public static synchronized void init() {
+        int present = 0;
+        for (Ref ref : REFS) {
+            ref.reset();
+        }
+        for (Ref ref : REFS) {
+            if (ref.ensure() == State.PRESENT) {
+                present++;
+            }
+        }
+        ServerLog.info("Integration accessors resolved: %d/%d present.", present, REFS.size());
+    }
+
+    /** 服务端停止时清空解析状态(下次启动重新解析)。 */
+    public static synchronized void reset() {
+        for (Ref ref : REFS) {
+            ref.reset();
+        }
+    }
+
+    private static ClassRef type(String modId, String className) {
+        return register(new ClassRef(modId, className));
+    }
+
+    private static MethodRef method(ClassRef owner, String name, Class<?>... parameterTypes) {
+        return method(owner, new String[]{name}, parameterTypes);
+    }
+
+    private static MethodRef method(ClassRef owner, String[] names, Class<?>... parameterTypes) {
+        return register(new MethodRef(owner, names, parameterTypes));
+    }
+
+    private static StaticValueRef staticValue(ClassRef owner, String fieldName) {
+        return register(new StaticValueRef(owner, fieldName));
+    }
+
+    private static <T extends Ref> T register(T ref) {
+        REFS.add(ref);
+        return ref;
+    }
+
+    /** 把方法转换为泛化签名 (Object[, Object...])Object 的句柄; 实例方法的接收者作为首个参数。 */
+    private static MethodHandle toGenericHandle(Method method) throws IllegalAccessException {
+        method.trySetAccessible();
+        MethodHandle handle = LOOKUP.unreflect(method);
+        return handle.asType(MethodType.genericMethodType(handle.type().parameterCount()));
+    }
+
+    private abstract static class Ref {
+        private volatile State state = State.UNRESOLVED;
+
+        final State ensure() {
+            State current = state;
+            if (current == State.UNRESOLVED) {
+                synchronized (this) {
+                    current = state;
+                    if (current == State.UNRESOLVED) {
+                        boolean resolved;
+                        try {
+                            resolved = resolve();
+                        } catch (Throwable t) {
+                            resolved = false;
+                        }
+                        current = resolved ? State.PRESENT : State.ABSENT;
+                        state = current;
+                    }
+                }
+            }
+            return current;
+        }
+
+        final synchronized void reset() {
+            clear();
+            state = State.UNRESOLVED;
+        }
+
+        public final State state() {
+            return ensure();
+        }
+
+        public final boolean isPresent() {
+            return ensure() == State.PRESENT;
+        }
+
+        /** 解析成员; 返回 false 或抛出即视为 ABSENT。 */
+        abstract boolean resolve() throws Throwable;
+
+        abstract void clear();
+    }
+
+    /** 可选模组类引用, 用于 instanceof 判定。 */
+    public static final class ClassRef extends Ref {
+        private final String modId;
+        private final String className;
+        private Class<?> type;
+
+        private ClassRef(String modId, String className) {
+            this.modId = modId;
+            this.className = className;
+        }
+
+        @Override
+        boolean resolve() throws ClassNotFoundException {
+            if (!ServerBridge.loader().isModLoaded(modId)) {
+                return false;
+            }
+            type = Class.forName(className);
+            return true;
+        }
+
+        @Override
+        void clear() {
+            type = null;
+        }
+
+        public Class<?> type() {
+            return isPresent() ? type : null;
+        }
+
+        public boolean isInstance(Object value) {
+            return value != null && isPresent() && type.isInstance(value);
+        }
+    }
+
+    /** 声明类固定的方法引用; 静态方法直接传参, 实例方法首参为接收者。调用失败或缺失返回 null。 */
+    public static final class MethodRef extends Ref {
+        private final ClassRef owner;
+        private final String[] names;
+        private final Class<?>[] parameterTypes;
+        private MethodHandle handle;
+
+        private MethodRef(ClassRef owner, String[] names, Class<?>[] parameterTypes) {
+            this.owner = owner;
+            this.names = names;
+            this.parameterTypes = parameterTypes;
+        }
+
+        @Override
+        boolean resolve() throws IllegalAccessException {
+            Class<?> type = owner.type();
+            if (type == null) {
+                return false;
+            }
+            for (String name : names) {
+                Method method;
+                try {
+                    method = type.getMethod(name, parameterTypes);
+                } catch (NoSuchMethodException ignored) {
+                    continue;
+                }
+                handle = toGenericHandle(method);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        void clear() {
+            handle = null;
+        }
+
+        /** 实例方法的接收者是否为声明类实例(避免对无关实体调用)。 */
+        public boolean accepts(Object target) {
+            return isPresent() && owner.isInstance(target);
+        }
+
+        public Object call(Object arg) {
+            if (!isPresent()) {
+                return null;
+            }
+            try {
+                return (Object) handle.invokeExact(arg);
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable t) {
+                return null;
+            }
+        }
+
+        public Object call(Object arg0, Object arg1) {
+            if (!isPresent()) {
+                return null;
+            }
+            try {
+                return (Object) handle.invokeExact(arg0, arg1);
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable t) {
+                return null;
+            }
+        }
+    }
+
+    /** 按接收者运行时类解析的无参实例方法(每个类只解析一次)。 */
+    public static final class DynamicMethodRef {
+        private final String name;
+        private final ClassValue<Optional<MethodHandle>> handles = new ClassValue<>() {
+            @Override
+            protected Optional<MethodHandle> computeValue(Class<?> type) {
+                try {
+                    return Optional.of(toGenericHandle(type.getMethod(name)));
+                } catch (Exception e) {
+                    return Optional.empty();
+                }
+            }
+        };
+
+        private DynamicMethodRef(String name) {
+            this.name = name;
+        }
+
+        public boolean isPresentOn(Object target) {
+            return target != null && handles.get(target.getClass()).isPresent();
+        }
+
+        public Object call(Object target) {
+            if (target == null) {
+                return null;
+            }
+            MethodHandle handle = handles.get(target.getClass()).orElse(null);
+            if (handle == null) {
+                return null;
+            }
+            try {
+                return (Object) handle.invokeExact(target);
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable t) {
+                return null;
+            }
+        }
+    }
+
+    /** 静态常量字段值(解析时读取一次)。 */
+    public static final class StaticValueRef extends Ref {
+        private final ClassRef owner;
+        private final String fieldName;
+        private Object value;
+
+        private StaticValueRef(ClassRef owner, String fieldName) {
+            this.owner = owner;
+            this.fieldName = fieldName;
+        }
+
+        @Override
+        boolean resolve() throws ReflectiveOperationException {
+            Class<?> type = owner.type();
+            if (type == null) {
+                return false;
+            }
+            Field field = type.getField(fieldName);
+            if (!Modifier.isStatic(field.getModifiers())) {
+                return false;
+            }
+            value = field.get(null);
+            return value != null;
+        }
+
+        @Override
+        void clear() {
+            value = null;
+        }
+
+        public Object get() {
+            return isPresent() ? value : null;
+        }
+    }
+}
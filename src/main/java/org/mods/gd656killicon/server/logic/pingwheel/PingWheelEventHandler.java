@@ -33,7 +33,7 @@ public class PingWheelEventHandler implements IPingWheelHandler {
 
     @Override
     public void tick() {
-        rewardTracker.tick();
+        // 索敌记录的过期由 ServerCore.EXPIRY 回收
     }
 
     @SubscribeEvent
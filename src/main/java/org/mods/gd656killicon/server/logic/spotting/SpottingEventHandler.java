@@ -4,10 +4,9 @@ import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.entity.LivingEntity;
 import org.mods.gd656killicon.server.bridge.ServerBridge;
 import org.mods.gd656killicon.server.logic.core.SpottingRewardTracker;
+import org.mods.gd656killicon.server.logic.integration.IntegrationAccessors;
 import org.mods.gd656killicon.server.util.ServerLog;
 
-import java.lang.reflect.Method;
-
 public class SpottingEventHandler implements ISpottingHandler {
     private final SpottingRewardTracker rewardTracker = new SpottingRewardTracker();
 
@@ -20,7 +19,7 @@ public class SpottingEventHandler implements ISpottingHandler {
 
     @Override
     public void tick() {
-        rewardTracker.tick();
+        // 索敌记录的过期由 ServerCore.EXPIRY 回收
     }
 
     @Override
@@ -45,23 +44,13 @@ public class SpottingEventHandler implements ISpottingHandler {
     }
 
     private ServerPlayer getSpotter(Object event) {
-        try {
-            Method method = event.getClass().getMethod("getSpotter");
-            Object result = method.invoke(event);
-            return result instanceof ServerPlayer spotter ? spotter : null;
-        } catch (Exception e) {
-            return null;
-        }
+        Object result = IntegrationAccessors.SPOTTING_GET_SPOTTER.call(event);
+        return result instanceof ServerPlayer spotter ? spotter : null;
     }
 
     private LivingEntity getSpottee(Object event) {
-        try {
-            Method method = event.getClass().getMethod("getSpottee");
-            Object result = method.invoke(event);
-            return result instanceof LivingEntity spottee ? spottee : null;
-        } catch (Exception e) {
-            return null;
-        }
+        Object result = IntegrationAccessors.SPOTTING_GET_SPOTTEE.call(event);
+        return result instanceof LivingEntity spottee ? spottee : null;
     }
 
 }
@@ -24,6 +24,7 @@ import org.mods.gd656killicon.server.ServerCore;
 import org.mods.gd656killicon.server.bridge.ServerBridge;
 import org.mods.gd656killicon.server.data.ServerData;
 import org.mods.gd656killicon.server.logic.core.VehicleRewardHelper;
+import org.mods.gd656killicon.server.logic.integration.IntegrationAccessors;
 import org.mods.gd656killicon.server.util.ServerLog;
 
 import java.util.Collections;
@@ -68,7 +69,7 @@ public class SuperbWarfareEventHandler implements ISuperbWarfareHandler {
 
     @Override
     public void tick() {
-        long now = System.currentTimeMillis();
+        long now = ServerCore.CLOCK.now();
         headshotVictims.entrySet().removeIf(entry -> now - entry.getValue() > 5000L);
         headshotDamageVictims.entrySet().removeIf(entry -> now - entry.getValue() > 5000L);
         gunKillVictims.clear();
@@ -181,7 +182,7 @@ public class SuperbWarfareEventHandler implements ISuperbWarfareHandler {
     private void markRecentPlayerAttack(VehicleEntity vehicle, ServerPlayer attacker) {
         VehicleStateSnapshot snapshot = observeVehicle(vehicle);
         snapshot.pendingAttackerUuid = attacker.getUUID();
-        snapshot.pendingAttackTime = System.currentTimeMillis();
+        snapshot.pendingAttackTime = ServerCore.CLOCK.now();
     }
 
     private ServerPlayer resolveObservedAttacker(VehicleEntity vehicle, VehicleStateSnapshot snapshot, long now) {
@@ -211,7 +212,7 @@ public class SuperbWarfareEventHandler implements ISuperbWarfareHandler {
             float currentHealth = vehicle.getHealth();
             boolean currentWreck = readVehicleWreckState(vehicle);
             float actualDamage = Math.max(0.0f, snapshot.lastHealth - currentHealth);
-            long now = System.currentTimeMillis();
+            long now = ServerCore.CLOCK.now();
 
             if (actualDamage > MIN_EFFECTIVE_DAMAGE && !snapshot.wasWreck) {
                 ServerPlayer observedAttacker = resolveObservedAttacker(vehicle, snapshot, now);
@@ -226,7 +227,7 @@ public class SuperbWarfareEventHandler implements ISuperbWarfareHandler {
                 UUID lastDriverUuid = parseUuid(vehicle.getEntityData().get(LAST_DRIVER_UUID));
                 if (actualLastAttackerUuid != null && !actualLastAttackerUuid.equals(lastDriverUuid)) {
                     tracker.lastAttackerUuid = actualLastAttackerUuid;
-                    tracker.lastAttackTime = System.currentTimeMillis();
+                    tracker.lastAttackTime = ServerCore.CLOCK.now();
                     tracker.lastAttackerWasPlayer = true;
                 }
                 processVehicleDestruction(vehicle, tracker);
@@ -256,7 +257,7 @@ public class SuperbWarfareEventHandler implements ISuperbWarfareHandler {
         if (event.isHeadshot() && event.getOwner() != null) {
             UUID attackerId = event.getOwner().getUUID();
             String key = attackerId.toString() + ":" + living.getUUID().toString();
-            headshotDamageVictims.put(key, System.currentTimeMillis());
+            headshotDamageVictims.put(key, ServerCore.CLOCK.now());
         }
     }
 
@@ -296,7 +297,7 @@ public class SuperbWarfareEventHandler implements ISuperbWarfareHandler {
             if (attackerEntity != null) {
                 UUID attackerId = attackerEntity.getUUID();
                 String key = attackerId.toString() + ":" + victimId.toString();
-                headshotVictims.put(key, System.currentTimeMillis());
+                headshotVictims.put(key, ServerCore.CLOCK.now());
             }
         }
         // 势不可挡: SBW 机枪击杀(非机枪击杀清零)
@@ -425,7 +426,7 @@ public class SuperbWarfareEventHandler implements ISuperbWarfareHandler {
             return;
         }
 
-        long now = System.currentTimeMillis();
+        long now = ServerCore.CLOCK.now();
         long lastBonusTime = lastRepairBonusTimeMap.getOrDefault(player, 0L);
         if (now - lastBonusTime <= 2000L) {
             return;
@@ -450,7 +451,7 @@ public class SuperbWarfareEventHandler implements ISuperbWarfareHandler {
         if (owner == null) {
             return;
         }
-        mineExplosions.add(new MineExplosion(owner, entity.getX(), entity.getY(), entity.getZ(), System.currentTimeMillis()));
+        mineExplosions.add(new MineExplosion(owner, entity.getX(), entity.getY(), entity.getZ(), ServerCore.CLOCK.now()));
     }
 
     /** SBW 反坦克地雷(TM-62)实体判定(实体注册名)。 */
@@ -463,20 +464,15 @@ public class SuperbWarfareEventHandler implements ISuperbWarfareHandler {
         return key != null && "superbwarfare:tm_62".equals(key.toString());
     }
 
-    /** TM-62 地雷 owner UUID(反射 OwnableEntity.getOwnerUUID)。 */
+    /** TM-62 地雷 owner UUID(OwnableEntity.getOwnerUUID, 经缓存的方法句柄)。 */
     private static java.util.UUID readMineOwner(net.minecraft.world.entity.Entity entity) {
-        try {
-            java.lang.reflect.Method m = entity.getClass().getMethod("getOwnerUUID");
-            Object v = m.invoke(entity);
-            return v instanceof java.util.UUID uuid ? uuid : null;
-        } catch (Exception e) {
-            return null;
-        }
+        Object v = IntegrationAccessors.SBW_GET_OWNER_UUID.call(entity);
+        return v instanceof java.util.UUID uuid ? uuid : null;
     }
 
     /** 载具摧毁是否由地雷爆炸造成: killer 是地雷 owner, 且 3 秒内有爆炸且位置在 12 格内。 */
     private boolean hasRecentMineExplosion(ServerPlayer killer, net.minecraft.world.phys.Vec3 vehiclePos) {
-        long now = System.currentTimeMillis();
+        long now = ServerCore.CLOCK.now();
         mineExplosions.removeIf(e -> now - e.time > 3000L);
         for (MineExplosion e : mineExplosions) {
             if (!e.owner().equals(killer.getUUID())) {
@@ -518,7 +514,7 @@ public class SuperbWarfareEventHandler implements ISuperbWarfareHandler {
             UUID actualLastAttackerUuid = parseUuid(vehicle.getEntityData().get(VehicleEntity.LAST_ATTACKER_UUID));
             if (actualLastAttackerUuid != null && !actualLastAttackerUuid.equals(lastDriverUuid)) {
                 tracker.lastAttackerUuid = actualLastAttackerUuid;
-                tracker.lastAttackTime = System.currentTimeMillis();
+                tracker.lastAttackTime = ServerCore.CLOCK.now();
                 tracker.lastAttackerWasPlayer = true;
             }
             processVehicleDestruction(vehicle, tracker);
@@ -587,10 +583,18 @@ public class SuperbWarfareEventHandler implements ISuperbWarfareHandler {
             return;
         }
 
-        double multiplier = ServerData.get().getBonusMultiplier(BonusType.DESTROY_VEHICLE);
-        int score = (int) Math.ceil(maxHealth * multiplier);
-        if (score > 0) {
-            ServerCore.BONUS.add(killer, BonusType.DESTROY_VEHICLE, score, null, vehicle.getId(), vehicleNameKey);
+        // 载具摧毁的表达式上下文: 击杀者到载具的距离与载具最大生命(不计入连杀, combo/streak 为 0)
+        double multiplier;
+        int score;
+        ServerCore.BONUS.beginKillContext(killer.distanceTo(vehicle), 0, 0L, maxHealth);
+        try {
+            multiplier = ServerCore.BONUS.multiplier(BonusType.DESTROY_VEHICLE, 1.0f);
+            score = (int) Math.ceil(maxHealth * multiplier);
+            if (score > 0) {
+                ServerCore.BONUS.add(killer, BonusType.DESTROY_VEHICLE, score, null, vehicle.getId(), vehicleNameKey);
+            }
+        } finally {
+            ServerCore.BONUS.endKillContext();
         }
         // 布雷者: 载具由 SBW 反坦克地雷(TM-62)爆炸摧毁(地雷 owner = 击杀者, 3 秒内且位置在爆炸半径内)
         if (hasRecentMineExplosion(killer, vehicle.position())) {
@@ -610,7 +614,7 @@ public class SuperbWarfareEventHandler implements ISuperbWarfareHandler {
         );
 
         ServerData.get().addKill(killer, 1);
-        VehicleRewardHelper.sendDestroyVehicleEffects(killer, vehicle.getId(), extraInfo, (float) org.mods.gd656killicon.server.data.ServerData.get().getBonusMultiplier(org.mods.gd656killicon.common.BonusType.DESTROY_VEHICLE), score);
+        VehicleRewardHelper.sendDestroyVehicleEffects(killer, vehicle.getId(), extraInfo, (float) multiplier, score);
     }
 
     private static class VehicleCombatTracker {
@@ -626,10 +630,10 @@ public class SuperbWarfareEventHandler implements ISuperbWarfareHandler {
                 lastAttackerUuid = attackerUuid;
                 if (damage > 0.0f) {
                     damageByAttacker.merge(attackerUuid, damage, Float::sum);
-                    lastContributionTimeByAttacker.put(attackerUuid, System.currentTimeMillis());
+                    lastContributionTimeByAttacker.put(attackerUuid, ServerCore.CLOCK.now());
                 }
             }
-            lastAttackTime = System.currentTimeMillis();
+            lastAttackTime = ServerCore.CLOCK.now();
             lastAttackerWasPlayer = isPlayer;
         }
     }
@@ -650,32 +654,20 @@ public class SuperbWarfareEventHandler implements ISuperbWarfareHandler {
         }
     }
 
+    @SuppressWarnings("unchecked")
     private static boolean readVehicleWreckState(VehicleEntity vehicle) {
-        try {
-            Object value = VehicleEntity.class.getMethod("isWreck").invoke(vehicle);
-            if (value instanceof Boolean bool) {
-                return bool;
-            }
-        } catch (Exception ignored) {
-        }
-
-        try {
-            Object value = VehicleEntity.class.getMethod("getIsWreck").invoke(vehicle);
-            if (value instanceof Boolean bool) {
-                return bool;
-            }
-        } catch (Exception ignored) {
-        }
-
-        try {
-            Object accessor = VehicleEntity.class.getField("IS_WRECK").get(null);
-            Object value = vehicle.getEntityData().get((net.minecraft.network.syncher.EntityDataAccessor<Boolean>) accessor);
-            if (value instanceof Boolean bool) {
-                return bool;
+        if (IntegrationAccessors.SBW_IS_WRECK.call(vehicle) instanceof Boolean bool) {
+            return bool;
+        }
+        if (IntegrationAccessors.SBW_IS_WRECK_DATA.get() instanceof net.minecraft.network.syncher.EntityDataAccessor<?> accessor) {
+            try {
+                Object value = vehicle.getEntityData().get((net.minecraft.network.syncher.EntityDataAccessor<Boolean>) accessor);
+                if (value instanceof Boolean bool) {
+                    return bool;
+                }
+            } catch (Exception ignored) {
             }
-        } catch (Exception ignored) {
         }
-
         return vehicle.getHealth() <= 0.0f;
     }
 
@@ -23,6 +23,8 @@ import net.minecraftforge.eventbus.api.SubscribeEvent;
 import org.mods.gd656killicon.common.BonusType;
 import org.mods.gd656killicon.server.ServerCore;
 import org.mods.gd656killicon.server.bridge.ServerBridge;
+import org.mods.gd656killicon.server.logic.core.CombatClock;
+import org.mods.gd656killicon.server.logic.core.ExpiryScheduler;
 import org.mods.gd656killicon.server.logic.tacz.ITaczHandler;
 
 import java.util.Map;
@@ -32,6 +34,7 @@ import java.util.concurrent.ConcurrentHashMap;
 
 public class TaczEventHandler implements ITaczHandler {
     private static final long COMBAT_FLAG_TTL_MS = 5000L;
+    private final CombatClock clock;
     private final Map<String, Long> headshotVictims = new ConcurrentHashMap<>();
     private final Map<String, Long> headshotDamageVictims = new ConcurrentHashMap<>();
     private final Map<UUID, Long> lastBulletVictims = new ConcurrentHashMap<>();
@@ -42,6 +45,18 @@ public class TaczEventHandler implements ITaczHandler {
     private final Set<UUID> countedBullets = ConcurrentHashMap.newKeySet();
     private final Set<UUID> hitBullets = ConcurrentHashMap.newKeySet();
     private final Map<UUID, Integer> suppressionCounts = new ConcurrentHashMap<>();
+    private final ExpiryScheduler.Handler<String> headshotExpiry = (key, deadline, now) -> headshotVictims.remove(key, deadline - COMBAT_FLAG_TTL_MS);
+    private final ExpiryScheduler.Handler<String> headshotDamageExpiry = (key, deadline, now) -> headshotDamageVictims.remove(key, deadline - COMBAT_FLAG_TTL_MS);
+    private final ExpiryScheduler.Handler<UUID> lastBulletExpiry = (key, deadline, now) -> lastBulletVictims.remove(key, deadline - COMBAT_FLAG_TTL_MS);
+    private final ExpiryScheduler.Handler<UUID> gunKillExpiry = (key, deadline, now) -> gunKillVictims.remove(key, deadline - COMBAT_FLAG_TTL_MS);
+
+    public TaczEventHandler() {
+        this(ServerCore.CLOCK);
+    }
+
+    public TaczEventHandler(CombatClock clock) {
+        this.clock = clock;
+    }
 
     @Override
     public void init() {
@@ -50,11 +65,7 @@ public class TaczEventHandler implements ITaczHandler {
 
     @Override
     public void tick() {
-        long now = System.currentTimeMillis();
-        cleanupExpired(headshotVictims, now);
-        cleanupExpired(headshotDamageVictims, now);
-        cleanupExpired(lastBulletVictims, now);
-        cleanupExpired(gunKillVictims, now);
+        // 战斗标记的过期由 ServerCore.EXPIRY 按登记时间回收
         updateFireSuppressionTracking();
     }
 
@@ -84,11 +95,11 @@ public class TaczEventHandler implements ITaczHandler {
         if (victim == null) return;
         UUID victimId = victim.getUUID();
 
-        markCombatFlag(gunKillVictims, victimId);
+        markCombatFlag(gunKillVictims, gunKillExpiry, victimId);
 
         if (event.isHeadShot() && event.getAttacker() != null) {
             UUID attackerId = event.getAttacker().getUUID();
-            markCombatFlag(headshotVictims, attackerId, victimId);
+            markCombatFlag(headshotVictims, headshotExpiry, attackerId, victimId);
         }
 
         checkLastBullet(event);
@@ -200,7 +211,7 @@ public class TaczEventHandler implements ITaczHandler {
 
         if (event.isHeadShot() && event.getAttacker() != null) {
             UUID attackerId = event.getAttacker().getUUID();
-            markCombatFlag(headshotDamageVictims, attackerId, victim.getUUID());
+            markCombatFlag(headshotDamageVictims, headshotDamageExpiry, attackerId, victim.getUUID());
         }
     }
 
@@ -281,32 +292,33 @@ public class TaczEventHandler implements ITaczHandler {
         TimelessAPI.getCommonGunIndex(event.getGunId()).ifPresent(index -> {
             int maxAmmo = index.getGunData().getAmmoAmount();
             if (maxAmmo >= 2 && event.getKilledEntity() != null) {
-                markCombatFlag(lastBulletVictims, event.getKilledEntity().getUUID());
+                markCombatFlag(lastBulletVictims, lastBulletExpiry, event.getKilledEntity().getUUID());
             }
         });
     }
 
-    private void markCombatFlag(Map<UUID, Long> map, UUID victimId) {
-        map.put(victimId, System.currentTimeMillis());
+    private void markCombatFlag(Map<UUID, Long> map, ExpiryScheduler.Handler<UUID> expiry, UUID victimId) {
+        long now = clock.now();
+        map.put(victimId, now);
+        ServerCore.EXPIRY.schedule(expiry, victimId, now + COMBAT_FLAG_TTL_MS);
     }
 
-    private void markCombatFlag(Map<String, Long> map, UUID attackerId, UUID victimId) {
-        map.put(attackerId.toString() + ":" + victimId.toString(), System.currentTimeMillis());
+    private void markCombatFlag(Map<String, Long> map, ExpiryScheduler.Handler<String> expiry, UUID attackerId, UUID victimId) {
+        long now = clock.now();
+        String key = attackerId.toString() + ":" + victimId.toString();
+        map.put(key, now);
+        ServerCore.EXPIRY.schedule(expiry, key, now + COMBAT_FLAG_TTL_MS);
     }
 
     private boolean consumeRecent(Map<UUID, Long> map, UUID victimId) {
         Long ts = map.remove(victimId);
-        return ts != null && System.currentTimeMillis() - ts <= COMBAT_FLAG_TTL_MS;
+        return ts != null && clock.now() - ts <= COMBAT_FLAG_TTL_MS;
     }
 
     private boolean consumeRecent(Map<String, Long> map, UUID attackerId, UUID victimId) {
         String key = attackerId.toString() + ":" + victimId.toString();
         Long ts = map.remove(key);
-        return ts != null && System.currentTimeMillis() - ts <= COMBAT_FLAG_TTL_MS;
-    }
-
-    private void cleanupExpired(Map<?, Long> map, long now) {
-        map.entrySet().removeIf(entry -> now - entry.getValue() > COMBAT_FLAG_TTL_MS);
+        return ts != null && clock.now() - ts <= COMBAT_FLAG_TTL_MS;
     }
 
     private ServerPlayer resolveShooter(EntityKineticBullet bullet, UUID bulletId) {
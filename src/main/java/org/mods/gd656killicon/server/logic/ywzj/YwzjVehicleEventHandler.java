@@ -55,7 +55,7 @@ public class YwzjVehicleEventHandler implements IYwzjVehicleHandler {
         if (player.isUsingItem()) {
             net.minecraft.world.item.ItemStack stack = player.getUseItem();
             if (stack.getItem() == org.ywzj.vehicle.all.AllItems.REPAIR_TOOL.get()) {
-                long now = System.currentTimeMillis();
+                long now = ServerCore.CLOCK.now();
                 Long lastTime = lastRepairBonusTimeMap.getOrDefault(player, 0L);
                 
                 if (now - lastTime >= 2000) {
@@ -164,10 +164,18 @@ public class YwzjVehicleEventHandler implements IYwzjVehicleHandler {
             if (!VehicleRewardHelper.shouldAwardDestroyVehicleRewards(killer, tracker.lastDriverUuid)) {
                 return;
             }
-            double multiplier = ServerData.get().getBonusMultiplier(BonusType.DESTROY_VEHICLE);
-            int score = (int) Math.ceil(maxHealth * multiplier);
-            if (score > 0) {
-                ServerCore.BONUS.add(killer, BonusType.DESTROY_VEHICLE, score, null, vehicle.getId(), vehicleNameKey);
+            // 载具摧毁的表达式上下文: 击杀者到载具的距离与载具最大生命(不计入连杀, combo/streak 为 0)
+            double multiplier;
+            int score;
+            ServerCore.BONUS.beginKillContext(killer.distanceTo(vehicle), 0, 0L, maxHealth);
+            try {
+                multiplier = ServerCore.BONUS.multiplier(BonusType.DESTROY_VEHICLE, 1.0f);
+                score = (int) Math.ceil(maxHealth * multiplier);
+                if (score > 0) {
+                    ServerCore.BONUS.add(killer, BonusType.DESTROY_VEHICLE, score, null, vehicle.getId(), vehicleNameKey);
+                }
+            } finally {
+                ServerCore.BONUS.endKillContext();
             }
             
             if (tracker.accumulatedDamageDealt > 0) {
@@ -187,7 +195,7 @@ public class YwzjVehicleEventHandler implements IYwzjVehicleHandler {
             );
             
             ServerData.get().addKill(killer, 1);
-            VehicleRewardHelper.sendDestroyVehicleEffects(killer, vehicle.getId(), extraInfo, (float) org.mods.gd656killicon.server.data.ServerData.get().getBonusMultiplier(org.mods.gd656killicon.common.BonusType.DESTROY_VEHICLE), score);
+            VehicleRewardHelper.sendDestroyVehicleEffects(killer, vehicle.getId(), extraInfo, (float) multiplier, score);
         }
     }
 
@@ -205,10 +213,10 @@ public class YwzjVehicleEventHandler implements IYwzjVehicleHandler {
                 lastAttackerUuid = attackerUuid;
                 if (amount > 0.0f) {
                     damageByAttacker.merge(attackerUuid, amount, Float::sum);
-                    lastContributionTimeByAttacker.put(attackerUuid, System.currentTimeMillis());
+                    lastContributionTimeByAttacker.put(attackerUuid, ServerCore.CLOCK.now());
                 }
             }
-            lastAttackTime = System.currentTimeMillis();
+            lastAttackTime = ServerCore.CLOCK.now();
             lastAttackerWasPlayer = isPlayer;
         }
     }
@@ -0,0 +1,99 @@
+package org.mods.gd656killicon.server.network;
+
+import net.minecraft.server.level.ServerPlayer;
+import org.mods.gd656killicon.network.NetworkHandler;
+import org.mods.gd656killicon.network.packet.HitBatchPacket;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 命中信息出站缓冲: 每个玩家一个缓冲, tick 内按受害实体合并命中, tick 末每个玩家发送一个 {@link HitBatchPacket}。
+ * 仅服务端主线程访问。
+ */
+final class HitBuffer {
+    private final Map<UUID, PlayerHits> pending = new LinkedHashMap<>();
+
+    void damage(ServerPlayer player, int entityId, float amount) {
+        hits(player).merge(entityId, amount, 0);
+    }
+
+    void kill(ServerPlayer player, int entityId) {
+        hits(player).merge(entityId, 0.0f, HitBatchPacket.KILLED);
+    }
+
+    void sound(ServerPlayer player, int entityId, boolean headshot) {
+        hits(player).merge(entityId, 0.0f, HitBatchPacket.HIT_SOUND | (headshot ? HitBatchPacket.HEADSHOT : 0));
+    }
+
+    /** 发送并清空全部缓冲(由 ServerCombatEngine.onTick 在 tick 末调用)。 */
+    void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        for (PlayerHits hits : pending.values()) {
+            if (!hits.player.hasDisconnected()) {
+                NetworkHandler.sendToPlayer(hits.toPacket(), hits.player);
+            }
+        }
+        pending.clear();
+    }
+
+    /** 丢弃某玩家未发送的命中(玩家登出时)。 */
+    void clear(UUID playerId) {
+        pending.remove(playerId);
+    }
+
+    /** 丢弃全部未发送的命中(服务端停止时)。 */
+    void clear() {
+        pending.clear();
+    }
+
+    private PlayerHits hits(ServerPlayer player) {
+        PlayerHits hits = pending.get(player.getUUID());
+        if (hits == null || hits.player != player) {
+            hits = new PlayerHits(player);
+            pending.put(player.getUUID(), hits);
+        }
+        return hits;
+    }
+
+    /** 单个玩家本 tick 的命中(按首次命中顺序, 实体数通常很少, 线性查找)。 */
+    private static final class PlayerHits {
+        final ServerPlayer player;
+        int size;
+        int[] entityIds = new int[4];
+        float[] amounts = new float[4];
+        byte[] flags = new byte[4];
+
+        PlayerHits(ServerPlayer player) {
+            this.player = player;
+        }
+
+        void merge(int entityId, float amount, int flag) {
+            int index = 0;
+            while (index < size && entityIds[index] != entityId) {
+                index++;
+            }
+            if (index == size) {
+                if (size == entityIds.length) {
+                    entityIds = Arrays.copyOf(entityIds, size * 2);
+                    amounts = Arrays.copyOf(amounts, size * 2);
+                    flags = Arrays.copyOf(flags, size * 2);
+                }
+                entityIds[size] = entityId;
+                amounts[size] = 0.0f;
+                flags[size] = 0;
+                size++;
+            }
+            amounts[index] += amount;
+            flags[index] |= (byte) flag;
+        }
+
+        HitBatchPacket toPacket() {
+            return new HitBatchPacket(Arrays.copyOf(entityIds, size), Arrays.copyOf(amounts, size), Arrays.copyOf(flags, size));
+        }
+    }
+}
@@ -3,14 +3,17 @@ package org.mods.gd656killicon.server.network;
 import net.minecraft.server.level.ServerPlayer;
 import org.mods.gd656killicon.common.KillType;
 import org.mods.gd656killicon.network.NetworkHandler;
-import org.mods.gd656killicon.network.packet.DamageSoundPacket;
 import org.mods.gd656killicon.network.packet.DeathPacket;
 import org.mods.gd656killicon.network.packet.KillDistancePacket;
+import org.mods.gd656killicon.network.packet.KillEventPacket;
 import org.mods.gd656killicon.network.packet.KillIconPacket;
 
 import java.util.function.Supplier;
 
 public final class ServerPacketDispatcher {
+    /** 命中信息/命中音效按 tick 合并, 见 {@link #flushHits()}。 */
+    private static final HitBuffer HITS = new HitBuffer();
+
     private ServerPacketDispatcher() {}
 
     private static void dispatch(ServerPlayer player, ServerPacketType type, Supplier<Object> packetFactory) {
@@ -20,16 +23,39 @@ public final class ServerPacketDispatcher {
         NetworkHandler.sendToPlayer(packetFactory.get(), player);
     }
 
-    public static void sendDamageSound(ServerPlayer player, boolean headshotDamage) {
-        dispatch(player, ServerPacketType.DAMAGE_SOUND, () -> new DamageSoundPacket(headshotDamage));
+    /** 命中音效(未致死命中): 并入本 tick 的合并命中包, 每包至多播放一次(爆头优先)。 */
+    public static void sendDamageSound(ServerPlayer player, int entityId, boolean headshotDamage) {
+        if (player == null) {
+            return;
+        }
+        HITS.sound(player, entityId, headshotDamage);
     }
 
-    /** 命中信息: 玩家对任意生物造成伤害(amount > 0)或击杀(killed = true), entityId = 受害实体 */
+    /** 命中信息: 玩家对任意生物造成伤害(amount > 0)或击杀(killed = true), entityId = 受害实体; 按 tick 合并发送 */
     public static void sendHitInfo(ServerPlayer player, float amount, boolean killed, int entityId) {
         if (player == null) {
             return;
         }
-        NetworkHandler.sendToPlayer(new org.mods.gd656killicon.network.packet.HitInfoPacket(amount, killed, entityId), player);
+        if (killed) {
+            HITS.kill(player, entityId);
+        } else if (amount > 0.0f) {
+            HITS.damage(player, entityId, amount);
+        }
+    }
+
+    /** 发送本 tick 缓冲的命中(每个玩家一个 HitBatchPacket), 由 ServerCombatEngine.onTick 在 tick 末调用。 */
+    public static void flushHits() {
+        HITS.flush();
+    }
+
+    /** 丢弃某玩家本 tick 未发送的命中(玩家登出时)。 */
+    public static void clearHits(java.util.UUID playerId) {
+        HITS.clear(playerId);
+    }
+
+    /** 丢弃全部未发送的命中(服务端停止时)。 */
+    public static void clearHits() {
+        HITS.clear();
     }
 
     public static void sendDeath(ServerPlayer player, String playerName, String deathCause, String killerName) {
@@ -75,23 +101,23 @@ public final class ServerPacketDispatcher {
                 () -> new KillIconPacket("subtitle", "kill_feed", KillType.SPOT_ASSIST, 0, victimId, 0, false, baseName, isVictimPlayer, false, 0, 0.0f, 0.0f));
     }
 
+    /**
+     * 击杀效果: 全部 HUD 元素(滚动/valorant/连杀/卡片/卡片条/bf1/击杀播报/连杀字幕)合并为一个 {@link KillEventPacket},
+     * 共享字段只编码一次, 客户端按元素掩码本地展开。
+     */
     public static void sendKillEffects(ServerPlayer player, int killType, int combo, int victimId, double comboWindowSeconds, boolean hasHelmet, String victimName, boolean isVictimPlayer, float distance, float bonusMultiplier, float bonusScale) {
         boolean recordStats = killType != KillType.ASSIST && killType != KillType.DESTROY_VEHICLE;
 
-        dispatch(player, ServerPacketType.KILL_ICON_SCROLLING, () -> new KillIconPacket("kill_icon", "scrolling", killType, combo, victimId, comboWindowSeconds, hasHelmet, victimName, isVictimPlayer, recordStats, distance));
-        dispatch(player, ServerPacketType.KILL_ICON_VALORANT, () -> new KillIconPacket("kill_icon", "valorant", killType, combo, victimId, comboWindowSeconds, hasHelmet, victimName, isVictimPlayer, false, distance));
-
+        int elements = KillEventPacket.SCROLLING | KillEventPacket.VALORANT | KillEventPacket.CARD
+            | KillEventPacket.CARD_BAR | KillEventPacket.BATTLEFIELD1 | KillEventPacket.KILL_FEED;
         if (combo > 0) {
-            dispatch(player, ServerPacketType.KILL_ICON_COMBO, () -> new KillIconPacket("kill_icon", "combo", killType, combo, victimId, comboWindowSeconds, hasHelmet, victimName, isVictimPlayer, false, distance));
+            elements |= KillEventPacket.COMBO;
         }
-        dispatch(player, ServerPacketType.KILL_ICON_CARD, () -> new KillIconPacket("kill_icon", "card", killType, combo, victimId, comboWindowSeconds, hasHelmet, victimName, isVictimPlayer, false, distance));
-        dispatch(player, ServerPacketType.KILL_ICON_CARD_BAR, () -> new KillIconPacket("kill_icon", "card_bar", killType, combo, victimId, comboWindowSeconds, hasHelmet, victimName, isVictimPlayer, false, distance));
-        dispatch(player, ServerPacketType.KILL_ICON_BATTLEFIELD1, () -> new KillIconPacket("kill_icon", "battlefield1", killType, combo, victimId, comboWindowSeconds, hasHelmet, victimName, isVictimPlayer, false, distance));
-
-        // kill_feed 直带加分项表达式(bonusMultiplier)与附加数据(bonusScale), 客户端显示 <score> = bonusScale * bonusMultiplier
-        dispatch(player, ServerPacketType.SUBTITLE_KILL_FEED, () -> new KillIconPacket("subtitle", "kill_feed", killType, combo, victimId, comboWindowSeconds, hasHelmet, victimName, isVictimPlayer, false, distance, bonusMultiplier, bonusScale));
         if ((combo > 0 || killType == KillType.ASSIST) && killType != KillType.DESTROY_VEHICLE) {
-            dispatch(player, ServerPacketType.SUBTITLE_COMBO, () -> new KillIconPacket("subtitle", "combo", killType, combo, victimId, comboWindowSeconds, hasHelmet, victimName, isVictimPlayer, false, distance));
+            elements |= KillEventPacket.SUBTITLE_COMBO;
         }
+        int mask = elements;
+        // kill_feed 直带加分项表达式(bonusMultiplier)与附加数据(bonusScale), 客户端显示 <score> = bonusScale * bonusMultiplier
+        dispatch(player, ServerPacketType.KILL_EVENT, () -> new KillEventPacket(mask, killType, combo, victimId, comboWindowSeconds, hasHelmet, victimName, isVictimPlayer, recordStats, distance, bonusMultiplier, bonusScale));
     }
 }